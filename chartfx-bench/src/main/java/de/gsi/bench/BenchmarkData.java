@@ -0,0 +1,40 @@
+package de.gsi.bench;
+
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Deterministic test data shared by the benchmark suites (N.B. no random numbers to keep run-to-run variations
+ * limited to the code under test)
+ *
+ * @author rstein
+ */
+public final class BenchmarkData {
+    /** horizontal range of the generated data: [0, X_RANGE] */
+    public static final double X_RANGE = 100.0;
+    /** nominal vertical range of the generated data: [-Y_RANGE, +Y_RANGE] */
+    public static final double Y_RANGE = 1.5;
+
+    private BenchmarkData() {
+        // utility class
+    }
+
+    /**
+     * @param name data set name
+     * @param nSamples number of samples
+     * @return sorted, equidistant data set with a sine plus a small harmonic and constant asymmetric errors
+     */
+    public static DoubleErrorDataSet createSineDataSet(final String name, final int nSamples) {
+        final double[] x = new double[nSamples];
+        final double[] y = new double[nSamples];
+        final double[] eyn = new double[nSamples];
+        final double[] eyp = new double[nSamples];
+        final double step = X_RANGE / Math.max(1, nSamples - 1);
+        for (int i = 0; i < nSamples; i++) {
+            x[i] = i * step;
+            y[i] = Math.sin(0.5 * x[i]) + 0.2 * Math.sin(17.0 * x[i]);
+            eyn[i] = 0.05;
+            eyp[i] = 0.1;
+        }
+        return new DoubleErrorDataSet(name, x, y, eyn, eyp, nSamples, false);
+    }
+}
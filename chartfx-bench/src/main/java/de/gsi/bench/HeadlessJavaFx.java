@@ -0,0 +1,95 @@
+package de.gsi.bench;
+
+import java.util.concurrent.CountDownLatch;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import de.gsi.chart.XYChart;
+import de.gsi.chart.axes.spi.DefaultNumericAxis;
+import de.gsi.chart.utils.FXUtils;
+
+/**
+ * Small helper to initialise a headless (Monocle/software pipeline) JavaFX tool-kit and a fully laid-out
+ * {@link XYChart} fixture for the benchmarks that need real axis transforms or a {@code GraphicsContext}.
+ * <p>
+ * N.B. the system properties need to be set before the tool-kit is initialised, i.e. either via the JMH
+ * {@code @Fork(jvmArgsAppend = ...)} or by calling {@link #startup()} first thing in the benchmark JVM.
+ *
+ * @author rstein
+ */
+public final class HeadlessJavaFx {
+    /** JVM arguments to be appended to the JMH fork for benchmarks requiring the JavaFX tool-kit */
+    public static final String[] JVM_ARGS = { "-Djava.awt.headless=true", "-Dglass.platform=Monocle",
+        "-Dmonocle.platform=Headless", "-Dprism.order=sw", "-Dprism.verbose=false" };
+    private static boolean started;
+
+    private HeadlessJavaFx() {
+        // utility class
+    }
+
+    /**
+     * @param width chart width in pixel
+     * @param height chart height in pixel
+     * @param xMin lower bound of the horizontal axis
+     * @param xMax upper bound of the horizontal axis
+     * @param yMin lower bound of the vertical axis
+     * @param yMax upper bound of the vertical axis
+     * @return a shown and laid-out chart with non-auto-ranging axes
+     * @throws Exception in case the JavaFX tool-kit could not be initialised
+     */
+    public static XYChart createChart(final int width, final int height, final double xMin, final double xMax,
+            final double yMin, final double yMax) throws Exception {
+        startup();
+        final XYChart chart = FXUtils.runAndWait(() -> {
+            final DefaultNumericAxis xAxis = new DefaultNumericAxis("x", xMin, xMax, (xMax - xMin) / 10.0);
+            final DefaultNumericAxis yAxis = new DefaultNumericAxis("y", yMin, yMax, (yMax - yMin) / 10.0);
+            xAxis.setAutoRanging(false);
+            yAxis.setAutoRanging(false);
+            xAxis.setAnimated(false);
+            yAxis.setAnimated(false);
+            final XYChart newChart = new XYChart(xAxis, yAxis);
+            newChart.setAnimated(false);
+            final Stage stage = new Stage();
+            stage.setScene(new Scene(newChart, width, height));
+            stage.show();
+            return newChart;
+        });
+        // wait for a few pulses to have the axes and canvas laid out
+        for (int i = 0; i < 3; i++) {
+            FXUtils.runAndWait(() -> {
+                chart.requestLayout();
+                chart.layout();
+            });
+        }
+        return chart;
+    }
+
+    /**
+     * initialises the JavaFX tool-kit (if not already done) using the headless Monocle glass platform
+     *
+     * @throws InterruptedException if interrupted while waiting for the tool-kit to start up
+     */
+    public static synchronized void startup() throws InterruptedException {
+        if (started) {
+            return;
+        }
+        for (final String arg : JVM_ARGS) {
+            final String[] keyValue = arg.substring(2).split("=", 2);
+            if (System.getProperty(keyValue[0]) == null) {
+                System.setProperty(keyValue[0], keyValue[1]);
+            }
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        } catch (final IllegalStateException e) {
+            // tool-kit has already been initialised elsewhere
+            latch.countDown();
+        }
+        latch.await();
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+}
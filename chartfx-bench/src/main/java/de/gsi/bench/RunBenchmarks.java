@@ -0,0 +1,43 @@
+package de.gsi.bench;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all (or the regexp-selected) JMH benchmark suites and stores the results as JSON file to allow comparisons
+ * across releases (e.g. via https://jmh.morethan.io/). All standard JMH command-line options are supported, e.g.
+ *
+ * <pre>
+ * mvn -pl chartfx-bench exec:java -Dexec.args="CachedDataPoints -p nSamples=100000"
+ * </pre>
+ *
+ * @author rstein
+ */
+public final class RunBenchmarks {
+    private RunBenchmarks() {
+        // main class
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions cmdLineOptions = new CommandLineOptions(args);
+        final String version = RunBenchmarks.class.getPackage().getImplementationVersion();
+        final String timeStamp = new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.UK).format(new Date());
+        final String resultFile = "chartfx-bench-" + (version == null ? "SNAPSHOT" : version) + '-' + timeStamp + ".json";
+
+        final Options options = new OptionsBuilder() //
+                                        .parent(cmdLineOptions)
+                                        .resultFormat(cmdLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+                                        .result(cmdLineOptions.getResult().orElse(resultFile))
+                                        .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,86 @@
+package de.gsi.chart.renderer.datareduction;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link DefaultDataReducer#reducePoints} on screen-coordinate arrays as generated by the
+ * {@code ErrorDataSetRenderer} (N.B. the reduction works in-place, thus the input is restored before each invocation)
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DefaultDataReducerBenchmark {
+    private static final double SCREEN_WIDTH = 1000.0;
+    private static final double SCREEN_HEIGHT = 600.0;
+    @Param({ "10000", "100000", "1000000" })
+    private int nSamples;
+    @Param({ "false", "true" })
+    private boolean withXErrors;
+    private final DefaultDataReducer reducer = new DefaultDataReducer();
+    private double[] xRef;
+    private double[] yRef;
+    private double[] x;
+    private double[] y;
+    private double[] exn;
+    private double[] exp;
+    private double[] eyn;
+    private double[] eyp;
+    private String[] styles;
+    private boolean[] selected;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        xRef = new double[nSamples];
+        yRef = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            xRef[i] = i * SCREEN_WIDTH / nSamples;
+            yRef[i] = 0.5 * SCREEN_HEIGHT * (1.0 + 0.8 * Math.sin(0.001 * i) + 0.1 * Math.sin(0.7 * i));
+        }
+        x = new double[nSamples];
+        y = new double[nSamples];
+        exn = new double[nSamples];
+        exp = new double[nSamples];
+        eyn = new double[nSamples];
+        eyp = new double[nSamples];
+        styles = new String[nSamples];
+        selected = new boolean[nSamples];
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreInput() {
+        System.arraycopy(xRef, 0, x, 0, nSamples);
+        System.arraycopy(yRef, 0, y, 0, nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            exn[i] = x[i] - 0.1;
+            exp[i] = x[i] + 0.1;
+            eyn[i] = y[i] + 5.0;
+            eyp[i] = y[i] - 5.0;
+        }
+    }
+
+    @Benchmark
+    public int reducePoints() {
+        if (withXErrors) {
+            return reducer.reducePoints(x, y, exp, exn, eyp, eyn, styles, selected, 0, nSamples);
+        }
+        return reducer.reducePoints(x, y, null, null, eyp, eyn, styles, selected, 0, nSamples);
+    }
+}
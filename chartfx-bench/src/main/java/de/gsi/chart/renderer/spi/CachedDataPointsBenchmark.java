@@ -0,0 +1,73 @@
+package de.gsi.chart.renderer.spi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.gsi.bench.BenchmarkData;
+import de.gsi.bench.HeadlessJavaFx;
+import de.gsi.chart.XYChart;
+import de.gsi.chart.axes.spi.AxisSnapshot;
+import de.gsi.chart.renderer.ErrorStyle;
+import de.gsi.dataset.DataSet;
+
+/**
+ * Benchmarks the data to screen-coordinate transform of {@link CachedDataPoints} (single- and multi-threaded) that is
+ * the first step of every {@link ErrorDataSetRenderer} frame.
+ *
+ * @author rstein
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Dglass.platform=Monocle",
+                                   "-Dmonocle.platform=Headless", "-Dprism.order=sw" })
+public class CachedDataPointsBenchmark {
+    @Param({ "1000", "100000", "1000000" })
+    private int nSamples;
+    @Param({ "false", "true" })
+    private boolean allowNaNs;
+    private AxisSnapshot xAxis;
+    private AxisSnapshot yAxis;
+    private DataSet dataSet;
+
+    @Setup
+    public void setup() throws Exception {
+        final XYChart chart = HeadlessJavaFx.createChart(800, 600, 0.0, BenchmarkData.X_RANGE, -BenchmarkData.Y_RANGE,
+                BenchmarkData.Y_RANGE);
+        xAxis = AxisSnapshot.of(chart.getXAxis());
+        yAxis = AxisSnapshot.of(chart.getYAxis());
+        dataSet = BenchmarkData.createSineDataSet("sine", nSamples);
+    }
+
+    @Benchmark
+    public void computeScreenCoordinates(final Blackhole blackhole) {
+        final CachedDataPoints points = new CachedDataPoints(0, nSamples, nSamples, true);
+        points.computeScreenCoordinates(xAxis, yAxis, dataSet, 0, 0, nSamples, ErrorStyle.ERRORCOMBO, false,
+                allowNaNs);
+        blackhole.consume(points.yValues);
+        points.release();
+    }
+
+    @Benchmark
+    public void computeScreenCoordinatesInParallel(final Blackhole blackhole) {
+        final CachedDataPoints points = new CachedDataPoints(0, nSamples, nSamples, true);
+        points.computeScreenCoordinatesInParallel(xAxis, yAxis, dataSet, 0, 0, nSamples, ErrorStyle.ERRORCOMBO,
+                false, allowNaNs);
+        blackhole.consume(points.yValues);
+        points.release();
+    }
+}
@@ -0,0 +1,130 @@
+package de.gsi.chart.renderer.spi;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Level;
+
+import de.gsi.bench.BenchmarkData;
+import de.gsi.bench.HeadlessJavaFx;
+import de.gsi.chart.XYChart;
+import de.gsi.chart.renderer.ErrorStyle;
+import de.gsi.dataset.DataSet;
+
+/**
+ * Benchmarks the full {@link ErrorDataSetRenderer#render} path (transform, reduction and GraphicsContext command
+ * generation) against an off-screen canvas of a headless (Monocle) JavaFX tool-kit. N.B. the canvas is cleared for
+ * every invocation, which also discards the previously buffered drawing commands.
+ * <p>
+ * The 'batchedDrawing' parameter compares the batched path submission against the legacy per-primitive drawing. The
+ * size of the canvas' command buffer after each frame is reported as the auxiliary 'commandBytes' counter (read via
+ * reflection from the package-private {@code Canvas#getBuffer()}; -1 if not accessible).
+ *
+ * @author rstein
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Dglass.platform=Monocle",
+                                   "-Dmonocle.platform=Headless", "-Dprism.order=sw" })
+public class ErrorDataSetRendererBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    @Param({ "1000", "100000", "1000000" })
+    private int nSamples;
+    @Param({ "ERRORCOMBO", "ERRORBARS", "ERRORSURFACE", "NONE" })
+    private ErrorStyle errorStyle;
+    @Param({ "true", "false" })
+    private boolean pointReduction;
+    @Param({ "true", "false" })
+    private boolean batchedDrawing;
+    private XYChart chart;
+    private ErrorDataSetRenderer renderer;
+    private Canvas canvas;
+    private GraphicsContext gc;
+    private final ObservableList<DataSet> dataSets = FXCollections.observableArrayList();
+
+    @Setup
+    public void setup() throws Exception {
+        chart = HeadlessJavaFx.createChart(WIDTH, HEIGHT, 0.0, BenchmarkData.X_RANGE, -BenchmarkData.Y_RANGE,
+                BenchmarkData.Y_RANGE);
+        canvas = new Canvas(WIDTH, HEIGHT);
+        gc = canvas.getGraphicsContext2D();
+        renderer = new ErrorDataSetRenderer();
+        renderer.setErrorType(errorStyle);
+        renderer.setPointReduction(pointReduction);
+        renderer.setBatchedDrawing(batchedDrawing);
+        renderer.getAxes().setAll(chart.getXAxis(), chart.getYAxis());
+        dataSets.setAll(BenchmarkData.createSineDataSet("sine", nSamples));
+    }
+
+    @Benchmark
+    public GraphicsContext render(final CommandCounter counter) {
+        gc.clearRect(0, 0, WIDTH, HEIGHT);
+        renderer.render(gc, chart, 0, dataSets);
+        counter.update(canvas);
+        return gc;
+    }
+
+    /**
+     * auxiliary counter reporting the number of bytes written to the canvas' command buffer per frame
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CommandCounter {
+        public long commandBytes;
+        private long nFrames;
+        private long sumBytes;
+        private Method getBuffer;
+        private Method writeValuePosition;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nFrames = 0;
+            sumBytes = 0;
+            commandBytes = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void report() {
+            commandBytes = nFrames == 0 ? -1 : sumBytes / nFrames;
+        }
+
+        protected void update(final Canvas canvas) {
+            try {
+                if (getBuffer == null) {
+                    getBuffer = Canvas.class.getDeclaredMethod("getBuffer");
+                    getBuffer.setAccessible(true); // NOPMD -- benchmark diagnostics only
+                }
+                final Object buffer = getBuffer.invoke(canvas);
+                if (writeValuePosition == null) {
+                    writeValuePosition = buffer.getClass().getMethod("writeValuePosition");
+                }
+                sumBytes += (Integer) writeValuePosition.invoke(buffer);
+                nFrames++;
+            } catch (final ReflectiveOperationException | RuntimeException e) { // NOPMD -- counter not available
+                nFrames = 0;
+            }
+        }
+    }
+}
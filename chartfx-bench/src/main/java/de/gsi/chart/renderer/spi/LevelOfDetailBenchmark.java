@@ -0,0 +1,72 @@
+package de.gsi.chart.renderer.spi;
+
+import java.util.concurrent.TimeUnit;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gsi.bench.BenchmarkData;
+import de.gsi.bench.HeadlessJavaFx;
+import de.gsi.chart.XYChart;
+import de.gsi.chart.renderer.ErrorStyle;
+import de.gsi.dataset.DataSet;
+
+/**
+ * Compares drawing a fully zoomed-out (sorted) data set via the {@link ErrorDataSetRenderer} 'levelOfDetail' mode
+ * (first/min/max/last points of the coarsest min/max pyramid level providing one bucket per pixel column) against
+ * transforming and reducing all data points. The pyramid is built during the warm-up and only re-used afterwards.
+ *
+ * @author rstein
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Djava.awt.headless=true", "-Dglass.platform=Monocle",
+                                   "-Dmonocle.platform=Headless", "-Dprism.order=sw" })
+public class LevelOfDetailBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    @Param({ "100000", "1000000", "10000000" })
+    private int nSamples;
+    @Param({ "true", "false" })
+    private boolean levelOfDetail;
+    private XYChart chart;
+    private ErrorDataSetRenderer renderer;
+    private GraphicsContext gc;
+    private final ObservableList<DataSet> dataSets = FXCollections.observableArrayList();
+
+    @Setup
+    public void setup() throws Exception {
+        chart = HeadlessJavaFx.createChart(WIDTH, HEIGHT, 0.0, BenchmarkData.X_RANGE, -BenchmarkData.Y_RANGE,
+                BenchmarkData.Y_RANGE);
+        gc = new Canvas(WIDTH, HEIGHT).getGraphicsContext2D();
+        renderer = new ErrorDataSetRenderer();
+        renderer.setErrorType(ErrorStyle.NONE);
+        renderer.setLevelOfDetail(levelOfDetail);
+        renderer.getAxes().setAll(chart.getXAxis(), chart.getYAxis());
+        dataSets.setAll(BenchmarkData.createSineDataSet("sine", nSamples));
+    }
+
+    @Benchmark
+    public GraphicsContext render() {
+        gc.clearRect(0, 0, WIDTH, HEIGHT);
+        renderer.render(gc, chart, 0, dataSets);
+        return gc;
+    }
+}
@@ -0,0 +1,81 @@
+package de.gsi.dataset.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link EventSource#invokeListener(UpdateEvent, boolean)} event rate (ops/s = events/s) as a function
+ * of the number of registered listeners for the legacy synchronised {@link LinkedList} and the copy-on-write
+ * {@link EventListenerList} listener storage.
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSourceBenchmark {
+    @Param({ "synchronizedList", "EventListenerList" })
+    private String listType;
+    @Param({ "1", "4", "16" })
+    private int nListeners;
+    @Param({ "false", "true" })
+    private boolean parallel;
+    private BenchmarkEventSource eventSource;
+    private UpdateEvent event;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        eventSource = new BenchmarkEventSource("EventListenerList".equals(listType) ? new EventListenerList() : Collections.synchronizedList(new LinkedList<>()));
+        for (int i = 0; i < nListeners; i++) {
+            eventSource.addListener(blackhole::consume);
+        }
+        event = new AddedDataEvent(eventSource);
+    }
+
+    @Benchmark
+    public void invokeListener() {
+        eventSource.invokeListener(event, parallel);
+    }
+
+    /**
+     * minimal event source w/o additional functionality
+     */
+    protected static class BenchmarkEventSource implements EventSource {
+        private final AtomicBoolean autoNotification = new AtomicBoolean(true);
+        private final List<EventListener> updateListeners;
+
+        protected BenchmarkEventSource(final List<EventListener> updateListeners) {
+            this.updateListeners = updateListeners == null ? new ArrayList<>() : updateListeners;
+        }
+
+        @Override
+        public AtomicBoolean autoNotification() {
+            return autoNotification;
+        }
+
+        @Override
+        public List<EventListener> updateEventListener() {
+            return updateListeners;
+        }
+    }
+}
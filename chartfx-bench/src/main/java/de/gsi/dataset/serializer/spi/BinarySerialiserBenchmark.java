@@ -0,0 +1,79 @@
+package de.gsi.dataset.serializer.spi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gsi.bench.BenchmarkData;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetSerialiser;
+
+/**
+ * Benchmarks the {@link BinarySerialiser} primitive-array and {@link DataSetSerialiser} encoding/decoding paths for
+ * the two available {@link IoBuffer} implementations: {@link FastByteBuffer} (Unsafe-based) vs. {@link ByteBuffer}
+ * (java.nio-based).
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinarySerialiserBenchmark {
+    private static final String FIELD_NAME = "doubleArray";
+    @Param({ "FastByteBuffer", "ByteBuffer" })
+    private String bufferType;
+    @Param({ "1000", "100000" })
+    private int nSamples;
+    @Param({ "false", "true" })
+    private boolean asFloat;
+    private IoBuffer buffer;
+    private DataSet dataSet;
+    private double[] doubleArray;
+
+    @Setup
+    public void setup() {
+        final int capacity = 10 * Double.BYTES * nSamples + 100_000;
+        buffer = "ByteBuffer".equals(bufferType) ? new ByteBuffer(capacity) : new FastByteBuffer(capacity);
+        dataSet = BenchmarkData.createSineDataSet("sine", nSamples);
+        doubleArray = dataSet.getValues(DataSet.DIM_Y);
+
+        // reference serialised data set for the read benchmark
+        writeDataSet();
+    }
+
+    @Benchmark
+    public double[] putGetDoubleArray() {
+        buffer.reset();
+        BinarySerialiser.put(buffer, FIELD_NAME, doubleArray);
+        buffer.reset();
+        buffer.position(BinarySerialiser.getFieldHeader(buffer).getDataBufferPosition());
+        return BinarySerialiser.getDoubleArray(buffer);
+    }
+
+    @Benchmark
+    public DataSet readDataSet() {
+        buffer.reset();
+        return DataSetSerialiser.readDataSetFromByteArray(buffer);
+    }
+
+    @Benchmark
+    public long writeDataSet() {
+        buffer.reset();
+        DataSetSerialiser.writeDataSetToByteArray(dataSet, buffer, asFloat);
+        return buffer.position();
+    }
+}
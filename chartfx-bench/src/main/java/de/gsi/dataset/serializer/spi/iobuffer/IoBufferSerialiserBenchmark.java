@@ -0,0 +1,123 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+
+/**
+ * Benchmarks the reflective vs. the pre-compiled ({@link CompiledClassSerialiser}) POJO serialisation path of the
+ * {@link IoBufferSerialiser} for a typical small domain object (scalar device settings and short acquisition
+ * vectors).
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IoBufferSerialiserBenchmark {
+    @Param({ "false", "true" })
+    private boolean compiled;
+    @Param({ "10", "1000" })
+    private int nSamples;
+    private IoBuffer buffer;
+    private IoBufferSerialiser serialiser;
+    private final DomainObject inputObject = new DomainObject();
+    private final DomainObject outputObject = new DomainObject();
+
+    @Setup
+    public void setup() throws IllegalAccessException {
+        buffer = new FastByteBuffer(100_000 + 40 * nSamples);
+        serialiser = new IoBufferSerialiser(buffer);
+        serialiser.setUseCompiledSerialisers(compiled);
+        inputObject.init(nSamples);
+        outputObject.init(1);
+
+        // reference serialised object for the read benchmark
+        writeObject();
+    }
+
+    @Benchmark
+    public DomainObject readObject() throws IllegalAccessException {
+        buffer.reset();
+        return (DomainObject) serialiser.deserialiseObject(outputObject);
+    }
+
+    @Benchmark
+    public long writeObject() throws IllegalAccessException {
+        buffer.reset();
+        serialiser.serialiseObject(inputObject);
+        return buffer.position();
+    }
+
+    /**
+     * minimal domain object as exchanged e.g. at 50 Hz between front-end and UI
+     */
+    public static class DomainObject {
+        public boolean enabled;
+        public byte mode;
+        public short channel; // NOPMD
+        public int cycle;
+        public long timeStamp;
+        public float gain;
+        public double setting;
+        public double reading;
+        public String deviceName;
+        public String unit;
+        public int[] status;
+        public float[] spectrum;
+        public double[] time;
+        public double[] values;
+        public Context context;
+
+        protected void init(final int nSamples) {
+            enabled = true;
+            mode = 3;
+            channel = 42;
+            cycle = 1234;
+            timeStamp = System.currentTimeMillis();
+            gain = 1.5f;
+            setting = 42.0;
+            reading = 41.9;
+            deviceName = "GS11MU2";
+            unit = "A";
+            status = new int[8];
+            spectrum = new float[nSamples];
+            time = new double[nSamples];
+            values = new double[nSamples];
+            for (int i = 0; i < nSamples; i++) {
+                spectrum[i] = i;
+                time[i] = 1e-3 * i;
+                values[i] = Math.sin(0.01 * i);
+            }
+            Arrays.fill(status, 1);
+            context = new Context();
+            context.selector = "FAIR.SELECTOR.C=1:S=2:P=3";
+            context.acqStamp = timeStamp;
+        }
+    }
+
+    /**
+     * nested acquisition context
+     */
+    public static class Context {
+        public String selector;
+        public long acqStamp;
+    }
+}
@@ -0,0 +1,96 @@
+package de.gsi.dataset.spi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gsi.dataset.event.EventListener;
+
+/**
+ * Benchmarks the single-point and bulk {@code add}/{@code set} paths of {@link DoubleErrorDataSet} including locking,
+ * axis range updates and event notification (with and without a registered listener).
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoubleErrorDataSetBenchmark {
+    private static final int N_SAMPLES = 100_000;
+    @Param({ "false", "true" })
+    private boolean withListener;
+    @Param({ "false", "true" })
+    private boolean autoNotification;
+    private final EventListener listener = evt -> {
+        // no-op listener, just to exercise the notification path
+    };
+    private DoubleErrorDataSet dataSet;
+    private final double[] x = new double[N_SAMPLES];
+    private final double[] y = new double[N_SAMPLES];
+    private final double[] eyn = new double[N_SAMPLES];
+    private final double[] eyp = new double[N_SAMPLES];
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setupArrays() {
+        for (int i = 0; i < N_SAMPLES; i++) {
+            x[i] = i;
+            y[i] = Math.sin(0.01 * i);
+            eyn[i] = 0.1;
+            eyp[i] = 0.2;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupDataSet() {
+        dataSet = new DoubleErrorDataSet("test", N_SAMPLES);
+        dataSet.set(x, y, eyn, eyp, N_SAMPLES, true);
+        dataSet.autoNotification().set(autoNotification);
+        if (withListener) {
+            dataSet.addListener(listener);
+        }
+        index = 0;
+    }
+
+    @Benchmark
+    public DoubleErrorDataSet addPoint() {
+        if (dataSet.getDataCount() >= 4 * N_SAMPLES) {
+            dataSet.clearData();
+        }
+        final double xNew = index++;
+        return dataSet.add(xNew, 0.5, 0.1, 0.2);
+    }
+
+    @Benchmark
+    public DoubleErrorDataSet addArrays() {
+        if (dataSet.getDataCount() >= 4 * N_SAMPLES) {
+            dataSet.clearData();
+        }
+        return dataSet.add(x, y, eyn, eyp);
+    }
+
+    @Benchmark
+    public DoubleErrorDataSet setPoint() {
+        index = (index + 1) % N_SAMPLES;
+        return dataSet.set(index, x[index], y[index], eyn[index], eyp[index]);
+    }
+
+    @Benchmark
+    public DoubleErrorDataSet setArrays() {
+        return dataSet.set(x, y, eyn, eyp, N_SAMPLES, true);
+    }
+}
@@ -0,0 +1,49 @@
+package de.gsi.math;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.gsi.bench.BenchmarkData;
+import de.gsi.dataset.DataSet;
+import de.gsi.math.spectra.Apodization;
+
+/**
+ * Benchmarks the {@link DataSetMath#magnitudeSpectrum} FFT-based spectrum computation (linear and dB scale) for
+ * power-of-two and non-power-of-two input lengths.
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSetMathBenchmark {
+    @Param({ "1024", "65536", "1048576", "100000" })
+    private int nSamples;
+    @Param({ "false", "true" })
+    private boolean dbScale;
+    private DataSet dataSet;
+
+    @Setup
+    public void setup() {
+        dataSet = BenchmarkData.createSineDataSet("sine", nSamples);
+    }
+
+    @Benchmark
+    public DataSet magnitudeSpectrum() {
+        return DataSetMath.magnitudeSpectrum(dataSet, Apodization.Hann, dbScale, false);
+    }
+}
@@ -0,0 +1,94 @@
+package de.gsi.math.filter.iir;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the sample-by-sample against the block-processing {@link Cascade} filter for an 8th-order Butterworth
+ * low-pass filter.
+ *
+ * @author rstein
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CascadeBenchmark {
+    private static final int N_CHANNELS = 8;
+    @Param({ "65536", "1048576" })
+    private int nSamples;
+    @Param({ "0", "1" })
+    private int directFormType;
+    private final Butterworth filter = new Butterworth();
+    private double[] input;
+    private double[] output;
+    private float[] floatInput;
+    private float[] floatOutput;
+    private double[][] channelInput;
+    private double[][] channelOutput;
+
+    @Setup
+    public void setup() {
+        filter.lowPass(8, 1.0, 0.1, directFormType);
+        final Random rnd = new Random(42);
+        input = new double[nSamples];
+        floatInput = new float[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            input[i] = rnd.nextGaussian();
+            floatInput[i] = (float) input[i];
+        }
+        output = new double[nSamples];
+        floatOutput = new float[nSamples];
+        channelInput = new double[N_CHANNELS][];
+        for (int channel = 0; channel < N_CHANNELS; channel++) {
+            channelInput[channel] = input.clone();
+        }
+        channelOutput = new double[N_CHANNELS][nSamples];
+    }
+
+    @Benchmark
+    public double[] filterBlock() {
+        filter.filter(input, output, 0, nSamples);
+        return output;
+    }
+
+    @Benchmark
+    public float[] filterBlockFloat() {
+        filter.filter(floatInput, floatOutput, 0, nSamples);
+        return floatOutput;
+    }
+
+    @Benchmark
+    public double[][] filterMultiChannel() {
+        filter.filter(channelInput, channelOutput, 0, nSamples);
+        return channelOutput;
+    }
+
+    @Benchmark
+    public double[] filterSampleBySample() {
+        for (int i = 0; i < nSamples; i++) {
+            output[i] = filter.filter(input[i]);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public double[] filtfilt() {
+        filter.filtfilt(input, output, 0, nSamples);
+        return output;
+    }
+}
@@ -2,9 +2,20 @@ package de.gsi.chart;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javafx.animation.KeyFrame;
@@ -28,6 +39,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.gsi.chart.axes.Axis;
+import de.gsi.chart.renderer.AsyncRenderer;
+import de.gsi.chart.renderer.AsyncRenderer.DrawCommand;
+import de.gsi.chart.renderer.AsyncRenderer.RenderTask;
 import de.gsi.chart.renderer.PolarTickStep;
 import de.gsi.chart.renderer.Renderer;
 import de.gsi.chart.renderer.spi.ErrorDataSetRenderer;
@@ -36,7 +50,10 @@ import de.gsi.chart.renderer.spi.LabelledMarkerRenderer;
 import de.gsi.chart.ui.geometry.Side;
 import de.gsi.chart.utils.FXUtils;
 import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DataRange;
 import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+import de.gsi.dataset.utils.MinMaxPyramid;
 
 /**
  * Chart designed primarily to display data traces using DataSet interfaces which are more flexible and efficient than
@@ -52,13 +69,21 @@ import de.gsi.dataset.utils.AssertUtils;
 public class XYChart extends Chart {
     private static final Logger LOGGER = LoggerFactory.getLogger(XYChart.class);
     protected static final int BURST_LIMIT_MS = 15;
+    private static final ExecutorService RENDER_EXECUTOR = Executors.newCachedThreadPool(CachedDaemonThreadFactory.getInstance());
     protected BooleanProperty polarPlot = new SimpleBooleanProperty(this, "polarPlot", false);
+    private final BooleanProperty asyncRendering = new SimpleBooleanProperty(this, "asyncRendering", false);
+    private final AtomicLong frameCounter = new AtomicLong();
+    private final AtomicLong lastComputedFrame = new AtomicLong();
+    private final AtomicReference<AsyncFrame> pendingFrame = new AtomicReference<>();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicBoolean renderWorkerActive = new AtomicBoolean();
     private final ObjectProperty<PolarTickStep> polarStepSize = new SimpleObjectProperty<>(PolarTickStep.THIRTY);
     private final GridRenderer gridRenderer = new GridRenderer();
     protected final ChangeListener<? super Boolean> gridLineVisibilitychange = (ob, o, n) -> requestLayout();
     private long lastCanvasUpdate;
     private boolean callCanvasUpdateLater;
     private final ChangeListener<Side> axisSideChangeListener = this::axisSideChanged;
+    private final Map<DataSet, MinMaxPyramid[]> rangeIndices = new IdentityHashMap<>(); // per-dimension min/max range indices (FX thread)
 
     public XYChart() {
         this(null, null);
@@ -93,10 +118,24 @@ public class XYChart extends Chart {
 
         this.setAnimated(false);
         getRenderers().addListener(this::rendererChanged);
+        asyncRendering.addListener((ch, o, n) -> requestLayout());
 
         getRenderers().add(new ErrorDataSetRenderer());
     }
 
+    /**
+     * Opt-in asynchronous render mode: the costly part of renderers implementing {@link AsyncRenderer} (e.g. coordinate
+     * transforms, data reduction, contour quantisation) is computed by a background worker and only the final
+     * GraphicsContext draw calls are executed on the JavaFX application thread. The canvas retains the previous frame
+     * until the new one is complete. Frames that are superseded by a newer one are dropped. Renderers not implementing
+     * {@link AsyncRenderer} are rendered as before on the FX thread.
+     *
+     * @return asyncRendering property
+     */
+    public final BooleanProperty asyncRenderingProperty() {
+        return asyncRendering;
+    }
+
     /**
      * @return datasets attached to the chart and datasets attached to all renderers
      */
@@ -125,6 +164,15 @@ public class XYChart extends Chart {
         return ret;
     }
 
+    /**
+     * @return number of asynchronously rendered frames that have been superseded by a newer frame before they were
+     *         computed or drawn
+     * @see #asyncRenderingProperty()
+     */
+    public long getDroppedFrameCount() {
+        return droppedFrames.get();
+    }
+
     /**
      * @return nomen est omen
      */
@@ -163,6 +211,14 @@ public class XYChart extends Chart {
         return gridRenderer.horizontalGridLinesVisibleProperty();
     }
 
+    /**
+     * @return {@code true} if the costly part of the rendering is performed outside the JavaFX application thread
+     * @see #asyncRenderingProperty()
+     */
+    public final boolean isAsyncRendering() {
+        return asyncRenderingProperty().get();
+    }
+
     /**
      * Indicates whether horizontal grid lines are visible.
      *
@@ -203,6 +259,16 @@ public class XYChart extends Chart {
         return polarStepSize;
     }
 
+    /**
+     * @param state {@code true}: perform the costly part of the rendering outside the JavaFX application thread
+     * @return itself (fluent design)
+     * @see #asyncRenderingProperty()
+     */
+    public final XYChart setAsyncRendering(final boolean state) {
+        asyncRenderingProperty().set(state);
+        return this;
+    }
+
     /**
      * Sets the value of the {@link #verticalGridLinesVisibleProperty()}.
      *
@@ -268,9 +334,18 @@ public class XYChart extends Chart {
 
         dataSets.forEach(ds -> ds.lock().readLock());
         try {
-            getAxes().forEach(chartAxis -> {
+            releaseUnusedRangeIndices(dataSets);
+            // axes fitted to the visible range of their orthogonal axis are updated last
+            final List<Axis> axes = new ArrayList<>(getAxes());
+            axes.sort(Comparator.comparing(Axis::isAutoRangeVisibleData));
+            axes.forEach(chartAxis -> {
                 final List<DataSet> dataSetForAxis = getDataSetForAxis(chartAxis);
-                updateNumericAxis(chartAxis, dataSetForAxis);
+                final Axis orthogonalAxis = chartAxis.isAutoRangeVisibleData() ? getOrthogonalAxis(chartAxis) : null;
+                if (orthogonalAxis != null) {
+                    updateNumericAxis(chartAxis, dataSetForAxis, dataSet -> getVisibleRange(dataSet, chartAxis, orthogonalAxis));
+                } else {
+                    updateNumericAxis(chartAxis, dataSetForAxis);
+                }
                 // chartAxis.requestAxisLayout();
             });
         } finally {
@@ -289,6 +364,53 @@ public class XYChart extends Chart {
         return gridRenderer.verticalGridLinesVisibleProperty();
     }
 
+    /**
+     * @param axis the reference axis
+     * @return the axis orthogonal to the given one that is shared with a renderer, the first orthogonal chart axis or
+     *         {@code null} if there is none
+     */
+    private Axis getOrthogonalAxis(final Axis axis) {
+        final boolean isHorizontal = axis.getSide().isHorizontal();
+        for (final Renderer renderer : getRenderers()) {
+            if (renderer.getAxes().contains(axis)) {
+                final Optional<Axis> rendererAxis = getOrthogonalAxis(renderer.getAxes(), isHorizontal);
+                if (rendererAxis.isPresent()) {
+                    return rendererAxis.get();
+                }
+            }
+        }
+        return getOrthogonalAxis(getAxes(), isHorizontal).orElse(null);
+    }
+
+    /**
+     * N.B. needs to be called while holding the data set's read-lock
+     *
+     * @param dataSet the data set (assumed to be sorted along the orthogonal dimension)
+     * @param axis the axis to be fitted
+     * @param orthogonalAxis the axis defining the visible window
+     * @return the range of the data points within the visible window of the orthogonal axis
+     */
+    private DataRange getVisibleRange(final DataSet dataSet, final Axis axis, final Axis orthogonalAxis) {
+        final int dimIndex = axis.getSide().isHorizontal() ? DataSet.DIM_X : DataSet.DIM_Y;
+        final int orthogonalDimIndex = dimIndex == DataSet.DIM_X ? DataSet.DIM_Y : DataSet.DIM_X;
+        if (dataSet.getDataCount(orthogonalDimIndex) == 0) {
+            return new DataRange();
+        }
+        // N.B. getIndex(..) returns the closest index, ie. the adjacent data points just outside the window are included
+        final int index1 = dataSet.getIndex(orthogonalDimIndex, orthogonalAxis.getMin());
+        final int index2 = dataSet.getIndex(orthogonalDimIndex, orthogonalAxis.getMax());
+        final MinMaxPyramid[] indices = rangeIndices.computeIfAbsent(dataSet, ds -> new MinMaxPyramid[2]);
+        if (indices[dimIndex] == null) {
+            // N.B. shared with e.g. the level-of-detail index of the renderer drawing the same data set
+            indices[dimIndex] = MinMaxPyramid.acquire(dataSet, dimIndex);
+        }
+        return indices[dimIndex].getRange(Math.min(index1, index2), Math.max(index1, index2) + 1);
+    }
+
+    private static Optional<Axis> getOrthogonalAxis(final List<Axis> axes, final boolean isHorizontal) {
+        return axes.stream().filter(axis -> axis.getSide() != null && axis.getSide().isHorizontal() != isHorizontal).findFirst();
+    }
+
     private boolean isDataEmpty() {
         return getAllDatasets() == null || getAllDatasets().isEmpty();
     }
@@ -424,6 +546,12 @@ public class XYChart extends Chart {
         lastCanvasUpdate = now;
         callCanvasUpdateLater = false;
 
+        if (isAsyncRendering()) {
+            prepareAsyncFrame();
+            setAutoNotification(true);
+            return;
+        }
+
         final GraphicsContext gc = canvas.getGraphicsContext2D();
         gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
 
@@ -449,6 +577,93 @@ public class XYChart extends Chart {
         }
     }
 
+    /**
+     * prepares a new frame on the FX thread and hands it over to the background render worker. A pending frame whose
+     * computation has not yet been started is superseded and dropped (see {@link #getDroppedFrameCount()}).
+     */
+    protected void prepareAsyncFrame() {
+        FXUtils.assertJavaFxThread();
+        final List<Renderer> renderers = new ArrayList<>(getRenderers());
+        final List<DataSet> chartDataSets = new ArrayList<>(getDatasets());
+        final AsyncFrame frame = new AsyncFrame(frameCounter.incrementAndGet(), renderers);
+        int dataSetOffset = 0;
+        for (int i = 0; i < renderers.size(); i++) {
+            final Renderer renderer = renderers.get(i);
+            // check for and add required axes
+            checkRendererForRequiredAxes(renderer);
+
+            if (renderer instanceof AsyncRenderer) {
+                frame.tasks[i] = ((AsyncRenderer) renderer).prepare(this, dataSetOffset, chartDataSets);
+            }
+            frame.dataSetOffsets[i] = dataSetOffset;
+            dataSetOffset += chartDataSets.size() + renderer.getDatasets().size();
+        }
+
+        final AsyncFrame superseded = pendingFrame.getAndSet(frame);
+        if (superseded != null) {
+            dropAsyncFrame(superseded, "superseded before computation");
+        }
+        if (renderWorkerActive.compareAndSet(false, true)) {
+            RENDER_EXECUTOR.execute(this::computePendingFrames);
+        }
+    }
+
+    private void computePendingFrames() {
+        do {
+            AsyncFrame frame;
+            while ((frame = pendingFrame.getAndSet(null)) != null) {
+                frame.compute();
+                lastComputedFrame.set(frame.frameId);
+                final AsyncFrame computedFrame = frame;
+                Platform.runLater(() -> drawAsyncFrame(computedFrame));
+            }
+            renderWorkerActive.set(false);
+            // re-check for frames that have been submitted while the worker was about to finish
+        } while (pendingFrame.get() != null && renderWorkerActive.compareAndSet(false, true));
+    }
+
+    private void drawAsyncFrame(final AsyncFrame frame) {
+        if (frame.frameId != lastComputedFrame.get() || !isAsyncRendering()) {
+            // stale frame -- a newer one is ready to be drawn
+            dropAsyncFrame(frame, "superseded before drawing");
+            return;
+        }
+
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        if (!gridRenderer.isDrawOnTop()) {
+            gridRenderer.render(gc, this, 0, null);
+        }
+
+        for (int i = 0; i < frame.renderers.size(); i++) {
+            final Renderer renderer = frame.renderers.get(i);
+            final DrawCommand command = frame.commands[i];
+            if (!getRenderers().contains(renderer)) {
+                // renderer has been removed in the meantime
+                if (command != null) {
+                    command.drop();
+                }
+            } else if (command == null) {
+                renderer.render(gc, this, frame.dataSetOffsets[i], getDatasets());
+            } else {
+                command.draw(gc);
+            }
+        }
+
+        if (gridRenderer.isDrawOnTop()) {
+            gridRenderer.render(gc, this, 0, null);
+        }
+    }
+
+    private void dropAsyncFrame(final AsyncFrame frame, final String reason) {
+        frame.drop();
+        final long nDropped = droppedFrames.incrementAndGet();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.atDebug().addArgument(frame.frameId).addArgument(reason).addArgument(nDropped).log("dropped async frame {} ({}) - total dropped frames: {}");
+        }
+    }
+
     @Override
     protected void rendererChanged(final ListChangeListener.Change<? extends Renderer> change) {
         while (change.next()) {
@@ -464,6 +679,42 @@ public class XYChart extends Chart {
     }
 
     protected static void updateNumericAxis(final Axis axis, final List<DataSet> dataSets) {
+        updateNumericAxis(axis, dataSets, null);
+    }
+
+    /**
+     * releases the range indices of data sets that are no longer drawn or if no axis is fitted to the visible data
+     *
+     * @param dataSets data sets that are drawn in the present frame
+     */
+    private void releaseUnusedRangeIndices(final List<DataSet> dataSets) {
+        if (rangeIndices.isEmpty()) {
+            return;
+        }
+        final boolean isUsed = getAxes().stream().anyMatch(Axis::isAutoRangeVisibleData);
+        final Set<DataSet> drawn = Collections.newSetFromMap(new IdentityHashMap<>());
+        drawn.addAll(dataSets);
+        rangeIndices.entrySet().removeIf(entry -> {
+            if (isUsed && drawn.contains(entry.getKey())) {
+                return false;
+            }
+            for (final MinMaxPyramid index : entry.getValue()) {
+                if (index != null) {
+                    index.release();
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * @param axis the axis to be updated
+     * @param dataSets the data sets drawn against the axis
+     * @param dataRange optional provider of the data range to be considered for a given data set (e.g. the range of the
+     *        data points within the visible window of the orthogonal axis), {@code null}: global data set limits
+     */
+    protected static void updateNumericAxis(final Axis axis, final List<DataSet> dataSets,
+            final Function<DataSet, DataRange> dataRange) {
         if (dataSets == null || dataSets.isEmpty()) {
             return;
         }
@@ -475,27 +726,6 @@ public class XYChart extends Chart {
         // TODO: add new auto-ranging here
         final boolean isHorizontal = axis.getSide().isHorizontal();
         final Side side = axis.getSide();
-        axis.getAutoRange().clear();
-        dataSets.forEach(dataset -> {
-            if (dataset.getDimension() > 2 && (side == Side.RIGHT || side == Side.TOP)) {
-                axis.getAutoRange().add(dataset.getAxisDescription(DataSet.DIM_Z).getMin());
-                axis.getAutoRange().add(dataset.getAxisDescription(DataSet.DIM_Z).getMax());
-            } else {
-                axis.getAutoRange().add(dataset.getAxisDescription(isHorizontal ? DataSet.DIM_X : DataSet.DIM_Y).getMin());
-                axis.getAutoRange().add(dataset.getAxisDescription(isHorizontal ? DataSet.DIM_X : DataSet.DIM_Y).getMax());
-            }
-        });
-        axis.getAutoRange().setAxisLength(axis.getLength() == 0 ? 1 : axis.getLength(), side);
-
-        // handling of numeric axis and auto-range or auto-grow setting only
-        if (!axis.isAutoRanging() && !axis.isAutoGrowRanging()) {
-            if (oldMin != axis.getMin() || oldMax != axis.getMax() || oldLength != axis.getLength()) {
-                axis.requestAxisLayout();
-            }
-            axis.autoNotification().set(oldAutoState);
-            return;
-        }
-
         final List<Number> dataMinMax = new ArrayList<>();
         dataSets.forEach(dataset -> dataset.lock().readLockGuardOptimistic(() -> {
             // for (AxisDescription axisDescription : dataset.getAxisDescriptions()) {
@@ -506,11 +736,29 @@ public class XYChart extends Chart {
             if (dataset.getDimension() > 2 && (side == Side.RIGHT || side == Side.TOP)) {
                 dataMinMax.add(dataset.getAxisDescription(DataSet.DIM_Z).getMin());
                 dataMinMax.add(dataset.getAxisDescription(DataSet.DIM_Z).getMax());
+            } else if (dataRange != null) {
+                final DataRange range = dataRange.apply(dataset);
+                if (range.isDefined()) {
+                    dataMinMax.add(range.getMin());
+                    dataMinMax.add(range.getMax());
+                }
             } else {
                 dataMinMax.add(dataset.getAxisDescription(isHorizontal ? DataSet.DIM_X : DataSet.DIM_Y).getMin());
                 dataMinMax.add(dataset.getAxisDescription(isHorizontal ? DataSet.DIM_X : DataSet.DIM_Y).getMax());
             }
         }));
+        axis.getAutoRange().clear();
+        dataMinMax.forEach(value -> axis.getAutoRange().add(value.doubleValue()));
+        axis.getAutoRange().setAxisLength(axis.getLength() == 0 ? 1 : axis.getLength(), side);
+
+        // handling of numeric axis and auto-range or auto-grow setting only
+        if (!axis.isAutoRanging() && !axis.isAutoGrowRanging()) {
+            if (oldMin != axis.getMin() || oldMax != axis.getMax() || oldLength != axis.getLength()) {
+                axis.requestAxisLayout();
+            }
+            axis.autoNotification().set(oldAutoState);
+            return;
+        }
 
         if (axis.isAutoGrowRanging()) {
             dataMinMax.add(axis.getMin());
@@ -534,4 +782,46 @@ public class XYChart extends Chart {
         }
         axis.autoNotification().set(oldAutoState);
     }
+
+    /**
+     * state of one frame of the asynchronous render mode
+     */
+    private static class AsyncFrame {
+        private final long frameId;
+        private final List<Renderer> renderers;
+        private final int[] dataSetOffsets;
+        private final RenderTask[] tasks;
+        private final DrawCommand[] commands;
+
+        private AsyncFrame(final long frameId, final List<Renderer> renderers) {
+            this.frameId = frameId;
+            this.renderers = renderers;
+            dataSetOffsets = new int[renderers.size()];
+            tasks = new RenderTask[renderers.size()];
+            commands = new DrawCommand[renderers.size()];
+        }
+
+        private void compute() {
+            for (int i = 0; i < tasks.length; i++) {
+                if (tasks[i] == null) {
+                    // renderer is not async-capable and is drawn on the FX thread
+                    continue;
+                }
+                try {
+                    commands[i] = tasks[i].compute();
+                } catch (final RuntimeException e) { // NOPMD -- keep the remaining renderers alive
+                    LOGGER.atError().setCause(e).addArgument(renderers.get(i).getClass().getSimpleName()).log("async render task of '{}' failed");
+                    commands[i] = DrawCommand.NONE;
+                }
+            }
+        }
+
+        private void drop() {
+            for (final DrawCommand command : commands) {
+                if (command != null) {
+                    command.drop();
+                }
+            }
+        }
+    }
 }
@@ -28,6 +28,15 @@ public interface Axis extends AxisDescription, EventSource {
      */
     BooleanProperty autoGrowRangingProperty();
 
+    /**
+     * This is true when the auto-ranging axis determines its range only from the data points within the visible range
+     * of the orthogonal axis (e.g. fitting 'Y' to the visible 'X' window on every pan or zoom). N.B. assumes data sets
+     * that are sorted along the orthogonal dimension.
+     *
+     * @return property
+     */
+    BooleanProperty autoRangeVisibleDataProperty();
+
     /**
      * This is true when the axis determines its range from the data automatically
      *
@@ -75,6 +84,26 @@ public interface Axis extends AxisDescription, EventSource {
      */
     double getDisplayPosition(double value);
 
+    /**
+     * Bulk version of {@link #getDisplayPosition(double)} that transforms a contiguous range of data values into
+     * display positions. Implementations should override this with a specialised, branch-free loop over cached axis
+     * variables to avoid the per-sample virtual call overhead.
+     * <p>
+     * N.B. 'values' and 'displayPositions' may be the same array provided that {@code fromIndex == toIndex}
+     *
+     * @param values input data values
+     * @param fromIndex index of the first data value to be transformed
+     * @param displayPositions output array receiving the display positions
+     * @param toIndex index of the first display position to be written
+     * @param length number of values to be transformed
+     */
+    default void getDisplayPositions(final double[] values, final int fromIndex, final double[] displayPositions,
+            final int toIndex, final int length) {
+        for (int i = 0; i < length; i++) {
+            displayPositions[toIndex + i] = getDisplayPosition(values[fromIndex + i]);
+        }
+    }
+
     double getHeight();
 
     /**
@@ -212,6 +241,12 @@ public interface Axis extends AxisDescription, EventSource {
      */
     boolean isAutoGrowRanging();
 
+    /**
+     * @return true if the auto-ranging axis is fitted only to the data points within the visible range of the
+     *         orthogonal axis
+     */
+    boolean isAutoRangeVisibleData();
+
     /**
      * This is true when the axis determines its range from the data automatically
      *
@@ -283,6 +318,12 @@ public interface Axis extends AxisDescription, EventSource {
      */
     void setAutoGrowRanging(boolean value);
 
+    /**
+     * @param value true if the auto-ranging axis shall be fitted only to the data points within the visible range of the
+     *        orthogonal axis
+     */
+    void setAutoRangeVisibleData(boolean value);
+
     /**
      * This is true when the axis determines its range from the data automatically
      *
@@ -2,7 +2,6 @@ package de.gsi.chart.axes.spi;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -51,6 +50,7 @@ import de.gsi.chart.ui.css.StylishStringProperty;
 import de.gsi.chart.ui.geometry.Side;
 import de.gsi.dataset.event.AxisChangeEvent;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.EventListenerList;
 import de.gsi.dataset.event.UpdateEvent;
 import de.gsi.dataset.utils.NoDuplicatesList;
 
@@ -88,7 +88,7 @@ public abstract class AbstractAxisParameter extends Pane implements Axis {
     private static final PseudoClass CENTRE_VER_PSEUDOCLASS_STATE = PseudoClass.getPseudoClass("verCentre");
 
     private final transient AtomicBoolean autoNotification = new AtomicBoolean(true);
-    private final List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final List<EventListener> updateListeners = new EventListenerList();
     /**
      * Paths used for css-type styling. Not used for actual drawing. Used as a storage contained for the settings
      * applied to GraphicsContext which allow much faster (and less complex) drawing routines but do no not allow
@@ -404,6 +404,13 @@ public abstract class AbstractAxisParameter extends Pane implements Axis {
 
     private final DoubleProperty autoRangePadding = new SimpleDoubleProperty(0);
 
+    private final BooleanProperty autoRangeVisibleData = new SimpleBooleanProperty(this, "autoRangeVisibleData", false) {
+        @Override
+        protected void invalidated() {
+            requestAxisLayout();
+        }
+    };
+
     /** The axis unit label */
     private final ObjectProperty<String> axisUnit = new StylishObjectProperty<>(
             StyleableProperties.AXIS_UNIT, this, "axisUnit", null, this::requestAxisLayout) {
@@ -597,6 +604,11 @@ public abstract class AbstractAxisParameter extends Pane implements Axis {
         return autoRangeRounding;
     }
 
+    @Override
+    public BooleanProperty autoRangeVisibleDataProperty() {
+        return autoRangeVisibleData;
+    }
+
     @Override
     public BooleanProperty autoRangingProperty() {
         return autoRanging;
@@ -951,6 +963,11 @@ public abstract class AbstractAxisParameter extends Pane implements Axis {
         return autoRangeRoundingProperty().get();
     }
 
+    @Override
+    public boolean isAutoRangeVisibleData() {
+        return autoRangeVisibleDataProperty().get();
+    }
+
     @Override
     public boolean isAutoRanging() {
         return autoRangingProperty().get();
@@ -1143,6 +1160,11 @@ public abstract class AbstractAxisParameter extends Pane implements Axis {
         autoRangeRoundingProperty().set(round);
     }
 
+    @Override
+    public void setAutoRangeVisibleData(final boolean value) {
+        autoRangeVisibleDataProperty().set(value);
+    }
+
     @Override
     public void setAutoRanging(final boolean value) {
         autoRangingProperty().set(value);
@@ -0,0 +1,151 @@
+package de.gsi.chart.axes.spi;
+
+import de.gsi.chart.axes.Axis;
+import de.gsi.chart.axes.AxisTransform;
+
+/**
+ * Immutable copy of the axis state needed to map between data and pixel coordinates. It is taken on the FX thread so
+ * that renderer computations executed concurrently to the FX thread (e.g. asynchronous rendering) do not read the live
+ * axis properties that may change while the axis is being laid out.
+ * <p>
+ * N.B. the axis is assumed to map the (for logarithmic axes: transformed) data coordinate linearly onto the display
+ * (ie. linear, logarithmic, inverted, etc.)
+ *
+ * @author rstein
+ */
+public final class AxisSnapshot {
+    private final double length;
+    private final double min;
+    private final double max;
+    private final boolean inverted;
+    private final boolean logAxis;
+    private final boolean autoRanging;
+    private final AxisTransform axisTransform;
+    private final AxisTransform displayTransform;
+    private final double offset;
+    private final double scale;
+
+    private AxisSnapshot(final Axis axis, final double length) {
+        this.length = length;
+        this.min = axis.getMin();
+        this.max = axis.getMax();
+        this.inverted = axis.isInvertedAxis();
+        this.logAxis = axis.isLogAxis();
+        this.autoRanging = axis.isAutoRanging() || axis.isAutoGrowRanging();
+        this.axisTransform = axis.getAxisTransform();
+        this.displayTransform = logAxis ? axisTransform : null;
+        // N.B. display and (transformed) data coordinates are related by an affine mapping
+        final double p0 = axis.getDisplayPosition(min);
+        final double range = forward(max) - forward(min);
+        final double localScale = range == 0.0 ? 0.0 : (axis.getDisplayPosition(max) - p0) / range;
+        if (Double.isFinite(localScale) && Double.isFinite(p0)) {
+            this.scale = localScale;
+            this.offset = p0 - localScale * forward(min);
+        } else {
+            this.scale = 0.0;
+            this.offset = 0.0;
+        }
+    }
+
+    /**
+     * @return the axis transform (e.g. logarithmic) at the time the snapshot was taken
+     */
+    public AxisTransform getAxisTransform() {
+        return axisTransform;
+    }
+
+    /**
+     * @param value data coordinate
+     * @return pixel coordinate as it was given by the axis at the time the snapshot was taken
+     */
+    public double getDisplayPosition(final double value) {
+        return offset + scale * forward(value);
+    }
+
+    /**
+     * bulk version of {@link #getDisplayPosition(double)}
+     *
+     * @param values input data values
+     * @param fromIndex index of the first data value to be transformed
+     * @param displayPositions output array receiving the display positions
+     * @param toIndex index of the first display position to be written
+     * @param length number of values to be transformed
+     * @see Axis#getDisplayPositions(double[], int, double[], int, int)
+     */
+    public void getDisplayPositions(final double[] values, final int fromIndex, final double[] displayPositions,
+            final int toIndex, final int length) {
+        if (displayTransform == null) {
+            for (int i = 0; i < length; i++) {
+                displayPositions[toIndex + i] = offset + scale * values[fromIndex + i];
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            displayPositions[toIndex + i] = offset + scale * displayTransform.forward(values[fromIndex + i]);
+        }
+    }
+
+    /**
+     * @return axis length in pixel
+     */
+    public double getLength() {
+        return length;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @param displayPosition pixel coordinate
+     * @return data coordinate as it was given by the axis at the time the snapshot was taken
+     */
+    public double getValueForDisplay(final double displayPosition) {
+        final double value = scale == 0.0 ? forward(min) : (displayPosition - offset) / scale;
+        return displayTransform == null ? value : displayTransform.backward(value);
+    }
+
+    /**
+     * @return whether the axis was auto-ranging or auto-grow-ranging
+     */
+    public boolean isAutoRanging() {
+        return autoRanging;
+    }
+
+    public boolean isInvertedAxis() {
+        return inverted;
+    }
+
+    public boolean isLogAxis() {
+        return logAxis;
+    }
+
+    private double forward(final double value) {
+        return displayTransform == null ? value : displayTransform.forward(value);
+    }
+
+    /**
+     * N.B. to be called on the FX thread
+     *
+     * @param axis the axis to be copied
+     * @return snapshot of the present axis state
+     */
+    public static AxisSnapshot of(final Axis axis) {
+        return new AxisSnapshot(axis, axis.getLength());
+    }
+
+    /**
+     * N.B. to be called on the FX thread
+     *
+     * @param axis the axis to be copied
+     * @param length the axis length in pixel (ie. width for horizontal, height for vertical axes)
+     * @return snapshot of the present axis state
+     */
+    public static AxisSnapshot of(final Axis axis, final double length) {
+        return new AxisSnapshot(axis, length);
+    }
+}
@@ -212,6 +212,34 @@ public class DefaultNumericAxis extends AbstractAxis implements Axis {
         return getDisplayPositionImpl(value);
     }
 
+    @Override
+    public void getDisplayPositions(final double[] values, final int fromIndex, final double[] displayPositions,
+            final int toIndex, final int length) {
+        // N.B. same as getDisplayPosition(..) but with the inversion/log-case decisions hoisted out of the loop
+        final double sign = isInvertedAxis ? -1.0 : +1.0;
+        if (isLogAxis) {
+            final double lowerBoundLog = cache.lowerBoundLog;
+            final double logScaleLengthInv = cache.logScaleLengthInv;
+            final double invertOffset = isInvertedAxis ? offset : 0.0;
+            final double axisOffset = cache.isVerticalAxis ? cache.axisHeight : 0.0;
+            final double axisSign = cache.isVerticalAxis ? -1.0 : +1.0;
+            for (int i = 0; i < length; i++) {
+                final double valueLogOffset = axisTransform.forward(values[fromIndex + i]) - lowerBoundLog;
+                displayPositions[toIndex + i] = invertOffset
+                                                + sign * (axisOffset + axisSign * (valueLogOffset * logScaleLengthInv));
+            }
+            return;
+        }
+
+        // default case: linear axis computation
+        final double invertOffset = isInvertedAxis ? offset : 0.0;
+        final double localOffset = cache.localOffset2;
+        final double localScale = cache.localScale;
+        for (int i = 0; i < length; i++) {
+            displayPositions[toIndex + i] = invertOffset + sign * (localOffset + values[fromIndex + i] * localScale);
+        }
+    }
+
     /**
      * Returns the value of the {@link #logarithmBaseProperty()}.
      *
@@ -212,6 +212,17 @@ public class LinearAxis extends AbstractAxis {
         return cache.localOffset + (value - cache.localCurrentLowerBound) * cache.localScale;
     }
 
+    @Override
+    public void getDisplayPositions(final double[] values, final int fromIndex, final double[] displayPositions,
+            final int toIndex, final int length) {
+        final double offset = cache.localOffset;
+        final double lowerBound = cache.localCurrentLowerBound;
+        final double scale = cache.localScale;
+        for (int i = 0; i < length; i++) {
+            displayPositions[toIndex + i] = offset + (values[fromIndex + i] - lowerBound) * scale;
+        }
+    }
+
     /**
      * @return the log axis Type @see LogAxisType
      */
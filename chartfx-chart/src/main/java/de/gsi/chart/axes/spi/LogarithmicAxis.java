@@ -151,6 +151,21 @@ public class LogarithmicAxis extends AbstractAxis {
         return valueLogOffset * cache.logScaleLengthInv;
     }
 
+    @Override
+    public void getDisplayPositions(final double[] values, final int fromIndex, final double[] displayPositions,
+            final int toIndex, final int length) {
+        final double lowerBoundLog = cache.lowerBoundLog;
+        final double logScaleLengthInv = cache.logScaleLengthInv;
+        final double logBase = cache.logBase;
+        final double sign = cache.isVerticalAxis ? -1.0 : +1.0;
+        final double offset = cache.isVerticalAxis ? cache.axisHeight : 0.0;
+        for (int i = 0; i < length; i++) {
+            final double value = values[fromIndex + i];
+            final double valueLog = value <= 0 ? Double.NaN : Math.log10(value) / logBase;
+            displayPositions[toIndex + i] = offset + sign * ((valueLog - lowerBoundLog) * logScaleLengthInv);
+        }
+    }
+
     /**
      * Returns the value of the {@link #logarithmBaseProperty()}.
      *
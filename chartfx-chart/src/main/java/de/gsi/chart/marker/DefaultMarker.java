@@ -42,6 +42,105 @@ public enum DefaultMarker implements Marker {
         }
     }
 
+    /**
+     * appends the marker outline to the current path of the GraphicsContext. This allows to draw many markers with a
+     * single {@link GraphicsContext#fill()} or {@link GraphicsContext#stroke()} (see {@link #isFilled()}) rather than
+     * one drawing command per marker, e.g.
+     *
+     * <pre>
+     * gc.beginPath();
+     * for (int i = 0; i &lt; n; i++) {
+     *     marker.appendToPath(gc, x[i], y[i], size);
+     * }
+     * if (marker.isFilled()) {
+     *     gc.fill();
+     * } else {
+     *     gc.stroke();
+     * }
+     * </pre>
+     *
+     * N.B. this is only faster than {@link #draw} for markers that are composed of lines or polygons (see
+     * {@link #isBatchable()}).
+     *
+     * @param gc the graphics context
+     * @param x the marker centre x-coordinate
+     * @param y the marker centre y-coordinate
+     * @param size the marker size
+     */
+    public void appendToPath(final GraphicsContext gc, final double x, final double y, final double size) {
+        switch (this) {
+        case DIAMOND:
+        case DIAMOND1:
+        case DIAMOND2:
+            gc.moveTo(x + size, y);
+            gc.lineTo(x, y + size);
+            gc.lineTo(x - size, y);
+            gc.lineTo(x, y - size);
+            gc.closePath();
+            break;
+        case CIRCLE:
+        case CIRCLE1:
+        case CIRCLE2:
+            gc.moveTo(x + size, y);
+            gc.arc(x, y, size, size, 0.0, 360.0);
+            gc.closePath();
+            break;
+        case CROSS:
+            gc.moveTo(x - size, y - size);
+            gc.lineTo(x + size, y + size);
+            gc.moveTo(x - size, y + size);
+            gc.lineTo(x + size, y - size);
+            break;
+        case PLUS:
+            gc.moveTo(x, y - size);
+            gc.lineTo(x, y + size);
+            gc.moveTo(x - size, y);
+            gc.lineTo(x + size, y);
+            break;
+        case RECTANGLE:
+        case RECTANGLE1:
+        case RECTANGLE2:
+        default:
+            gc.rect(x - size, y - size, 2.0 * size, 2.0 * size);
+            break;
+        }
+    }
+
+    /**
+     * @return true if drawing many markers as a single path (see {@link #appendToPath}) is faster than drawing them
+     *         individually. This is the case for polygon-based markers, while circles and rectangles are rendered
+     *         faster by the dedicated oval and rectangle primitives of the graphics pipeline and line-based markers
+     *         show no significant gain
+     */
+    public boolean isBatchable() {
+        switch (this) {
+        case DIAMOND:
+        case DIAMOND1:
+        case DIAMOND2:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the marker is drawn filled (using the fill colour), false if it is stroked (using the stroke
+     *         colour)
+     */
+    public boolean isFilled() {
+        switch (this) {
+        case DIAMOND:
+        case DIAMOND1:
+        case CIRCLE:
+        case CIRCLE1:
+        case RECTANGLE:
+        case RECTANGLE1:
+            return true;
+        default:
+            return false;
+        }
+    }
+
     public static void drawCircle(final GraphicsContext gc, final double x, final double y, final double size) {
         gc.fillOval(x - size, y - size, 2.0 * size, 2.0 * size);
     }
@@ -4,8 +4,6 @@
 
 package de.gsi.chart.plugins;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -18,6 +16,7 @@ import javafx.scene.shape.Polygon;
 
 import de.gsi.chart.axes.Axis;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.EventListenerList;
 import de.gsi.dataset.event.EventSource;
 import de.gsi.dataset.event.UpdateEvent;
 
@@ -39,7 +38,7 @@ public abstract class AbstractSingleValueIndicator extends AbstractValueIndicato
     protected static final String STYLE_CLASS_MARKER = "value-indicator-marker";
     protected static double triangleHalfWidth = 5.0;
     private final transient AtomicBoolean autoNotification = new AtomicBoolean(true);
-    private final transient List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final transient List<EventListener> updateListeners = new EventListenerList();
     private boolean autoRemove = false;
 
     /**
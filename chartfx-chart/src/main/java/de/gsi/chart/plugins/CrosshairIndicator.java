@@ -4,6 +4,8 @@
 
 package de.gsi.chart.plugins;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.ObservableList;
 import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
@@ -20,12 +22,14 @@ import javafx.scene.shape.PathElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.gsi.chart.XYChart;
 import de.gsi.chart.axes.Axis;
 import de.gsi.dataset.spi.utils.Tuple;
 
 /**
  * Horizontal and vertical {@link Line} drawn on the plot area, crossing at the mouse cursor location, together with a
- * {@link Label} displaying the cursor coordinates in data units.
+ * {@link Label} displaying the cursor coordinates in data units. Optionally, the crosshair snaps to the nearest data
+ * point within {@value DataPointTooltip#DEFAULT_PICKING_DISTANCE} pixels (see {@link #snapToDataPointProperty()}).
  * <p>
  * CSS style class names: {@value #STYLE_CLASS_PATH} and {@value #STYLE_CLASS_LABEL}
  *
@@ -48,6 +52,7 @@ public class CrosshairIndicator extends AbstractDataFormattingPlugin {
 
     private final Path crosshairPath = new Path();
     private final Label coordinatesLabel = new Label();
+    private final BooleanProperty snapToDataPoint = new SimpleBooleanProperty(this, "snapToDataPoint", false);
 
     private final EventHandler<MouseEvent> mouseMoveHandler = (final MouseEvent event) -> {
         final Bounds plotAreaBounds = getChart().getBoundsInLocal();
@@ -56,8 +61,17 @@ public class CrosshairIndicator extends AbstractDataFormattingPlugin {
             return;
         }
 
-        updatePath(event, plotAreaBounds);
-        updateLabel(event, plotAreaBounds);
+        final Point2D locationInPlotArea = getLocationInPlotArea(event);
+        Point2D crosshairInPlotArea = locationInPlotArea;
+        double crosshairX = event.getX();
+        double crosshairY = event.getY();
+        if (isSnapToDataPoint() && locationInPlotArea != null) {
+            crosshairInPlotArea = snapToNearestDataPoint(locationInPlotArea);
+            crosshairX += crosshairInPlotArea.getX() - locationInPlotArea.getX();
+            crosshairY += crosshairInPlotArea.getY() - locationInPlotArea.getY();
+        }
+        updatePath(crosshairX, crosshairY, plotAreaBounds);
+        updateLabel(crosshairX, crosshairY, crosshairInPlotArea, plotAreaBounds);
 
         if (!getChartChildren().contains(crosshairPath)) {
             getChartChildren().addAll(crosshairPath, coordinatesLabel);
@@ -74,6 +88,7 @@ public class CrosshairIndicator extends AbstractDataFormattingPlugin {
         coordinatesLabel.setManaged(false);
 
         registerInputEventHandler(MouseEvent.MOUSE_MOVED, mouseMoveHandler);
+        DataPointLocator.getInstance().releaseOnDetach(this);
     }
 
     private String formatLabelText(final Point2D displayPointInPlotArea) {
@@ -92,30 +107,75 @@ public class CrosshairIndicator extends AbstractDataFormattingPlugin {
         return formatData(getChart(), tuple);
     }
 
-    private void updateLabel(final MouseEvent event, final Bounds plotAreaBounds) {
-        coordinatesLabel.setText(formatLabelText(getLocationInPlotArea(event)));
+    /**
+     * Returns the value of the {@link #snapToDataPointProperty()}.
+     *
+     * @return {@code true} if the crosshair snaps to the nearest data point
+     */
+    public final boolean isSnapToDataPoint() {
+        return snapToDataPointProperty().get();
+    }
+
+    /**
+     * Sets the value of the {@link #snapToDataPointProperty()}.
+     *
+     * @param state {@code true} if the crosshair should snap to the nearest data point
+     */
+    public final void setSnapToDataPoint(final boolean state) {
+        snapToDataPointProperty().set(state);
+    }
+
+    /**
+     * When {@code true} the crosshair snaps to the nearest data point within
+     * {@value DataPointTooltip#DEFAULT_PICKING_DISTANCE} pixels of the mouse cursor. By default it's {@code false}.
+     *
+     * @return the snapToDataPoint property
+     */
+    public final BooleanProperty snapToDataPointProperty() {
+        return snapToDataPoint;
+    }
+
+    private Point2D snapToNearestDataPoint(final Point2D locationInPlotArea) {
+        if (!(getChart() instanceof XYChart)) {
+            return locationInPlotArea;
+        }
+        final XYChart xyChart = (XYChart) getChart();
+        final Axis xAxis = xyChart.getXAxis();
+        final Axis yAxis = xyChart.getYAxis();
+        final DataPointLocator.Result result = DataPointLocator.getInstance().findNearest(xAxis, yAxis,
+                xyChart.getAllDatasets(), locationInPlotArea.getX(), locationInPlotArea.getY(),
+                DataPointTooltip.DEFAULT_PICKING_DISTANCE);
+        if (result == null) {
+            return locationInPlotArea;
+        }
+        return new Point2D(xAxis.getDisplayPosition(result.getX()), yAxis.getDisplayPosition(result.getY()));
+    }
+
+    private void updateLabel(final double crosshairX, final double crosshairY, final Point2D crosshairInPlotArea,
+            final Bounds plotAreaBounds) {
+        coordinatesLabel.setText(formatLabelText(crosshairInPlotArea));
 
         final double width = coordinatesLabel.prefWidth(-1);
         final double height = coordinatesLabel.prefHeight(width);
 
-        double xLocation = event.getX() + CrosshairIndicator.LABEL_X_OFFSET;
-        double yLocation = event.getY() + CrosshairIndicator.LABEL_Y_OFFSET;
+        double xLocation = crosshairX + CrosshairIndicator.LABEL_X_OFFSET;
+        double yLocation = crosshairY + CrosshairIndicator.LABEL_Y_OFFSET;
 
         if (xLocation + width > plotAreaBounds.getMaxX()) {
-            xLocation = event.getX() - CrosshairIndicator.LABEL_X_OFFSET - width;
+            xLocation = crosshairX - CrosshairIndicator.LABEL_X_OFFSET - width;
         }
         if (yLocation + height > plotAreaBounds.getMaxY()) {
-            yLocation = event.getY() - CrosshairIndicator.LABEL_Y_OFFSET - height;
+            yLocation = crosshairY - CrosshairIndicator.LABEL_Y_OFFSET - height;
         }
         coordinatesLabel.resizeRelocate(xLocation, yLocation, width, height);
     }
 
-    private void updatePath(final MouseEvent event, final Bounds plotAreaBounds) {
+    private void updatePath(final double crosshairX, final double crosshairY, final Bounds plotAreaBounds) {
         final ObservableList<PathElement> path = crosshairPath.getElements();
         path.clear();
-        path.add(new MoveTo(plotAreaBounds.getMinX() + 1, event.getY()));
-        path.add(new LineTo(plotAreaBounds.getMaxX(), event.getY()));
-        path.add(new MoveTo(event.getX(), plotAreaBounds.getMinY() + 1));
-        path.add(new LineTo(event.getX(), plotAreaBounds.getMaxY()));
+        path.add(new MoveTo(plotAreaBounds.getMinX() + 1, crosshairY));
+        path.add(new LineTo(plotAreaBounds.getMaxX(), crosshairY));
+        path.add(new MoveTo(crosshairX, plotAreaBounds.getMinY() + 1));
+        path.add(new LineTo(crosshairX, plotAreaBounds.getMaxY()));
     }
 }
@@ -0,0 +1,563 @@
+package de.gsi.chart.plugins;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+
+import de.gsi.chart.Chart;
+import de.gsi.chart.axes.Axis;
+import de.gsi.chart.renderer.Renderer;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.AxisChangeEvent;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Nearest-neighbour service for picking the data point closest to a given screen coordinate, e.g. used by the
+ * {@link DataPointTooltip}, {@link EditDataSet} and {@link CrosshairIndicator} plugins.
+ * <p>
+ * Distances are computed in screen (display) coordinates. For data sets with sorted x coordinates the search starts
+ * at the binary-search result of {@link DataSet#getIndex(int, double)} and expands only as long as the horizontal
+ * screen distance of the next candidate is within the best distance found so far. Unsorted and 2D scatter-type data
+ * sets are indexed by a lazily built uniform grid in data coordinates that is queried using the screen-space search
+ * rectangle. The sortedness information and grid are cached per data set and (re-)built lazily on the next query.
+ * Data points appended at the end of the data set (as reported by {@link AddedDataEvent}s) only extend the index: the
+ * sortedness check covers the new points only, while new points of unsorted data sets are kept in a small linearly
+ * searched tail until the grid is rebuilt. Any other update event (except {@link AxisChangeEvent}s) invalidates the
+ * index. The index is attached to the data set until it is {@link #release(DataSet) released}, e.g. automatically
+ * for plugins registered via {@link #releaseOnDetach(ChartPlugin)}.
+ * <p>
+ * N.B. the axes are assumed to be monotonic (ie. linear, logarithmic, inverted, etc.)
+ *
+ * @author rstein
+ */
+public class DataPointLocator {
+    private static final DataPointLocator SELF = new DataPointLocator();
+    private static final int MIN_SEARCH_RADIUS = 8; // [pixel]
+    private static final int POINTS_PER_CELL = 4;
+    private static final int MIN_GRID_TAIL = 64; // max. number of linearly searched points appended after the grid
+
+    /**
+     * @param xAxis the horizontal axis
+     * @param yAxis the vertical axis
+     * @param dataSets data sets to be searched
+     * @param screenX horizontal screen coordinate (in axis display coordinates)
+     * @param screenY vertical screen coordinate (in axis display coordinates)
+     * @param maxDistance maximum screen distance (e.g. picking distance or {@link Double#POSITIVE_INFINITY})
+     * @return the nearest data point within the maximum distance or {@code null} if there is none
+     */
+    public Result findNearest(final Axis xAxis, final Axis yAxis, final Collection<? extends DataSet> dataSets,
+            final double screenX, final double screenY, final double maxDistance) {
+        AssertUtils.notNull("dataSets", dataSets);
+        Result nearest = null;
+        for (final DataSet dataSet : dataSets) {
+            final Result result = findNearest(xAxis, yAxis, dataSet, screenX, screenY,
+                    nearest == null ? maxDistance : nearest.getDistance());
+            if (result != null && (nearest == null || result.getDistance() < nearest.getDistance())) {
+                nearest = result;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * @param xAxis the horizontal axis
+     * @param yAxis the vertical axis
+     * @param dataSet data set to be searched
+     * @param screenX horizontal screen coordinate (in axis display coordinates)
+     * @param screenY vertical screen coordinate (in axis display coordinates)
+     * @param maxDistance maximum screen distance (e.g. picking distance or {@link Double#POSITIVE_INFINITY})
+     * @return the nearest data point within the maximum distance or {@code null} if there is none
+     */
+    public Result findNearest(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final double screenX,
+            final double screenY, final double maxDistance) {
+        AssertUtils.notNull("xAxis", xAxis);
+        AssertUtils.notNull("yAxis", yAxis);
+        AssertUtils.notNull("dataSet", dataSet);
+        if (!Double.isFinite(screenX) || !Double.isFinite(screenY) || !(maxDistance >= 0)) {
+            return null;
+        }
+        final DataSetIndex index = getIndex(dataSet, true);
+        return dataSet.lock().readLockGuard(
+                () -> index.findNearest(dataSet, xAxis, yAxis, screenX, screenY, maxDistance));
+    }
+
+    /**
+     * @param dataSet data set to be searched
+     * @param x the x coordinate
+     * @return {index of the data point with the largest x coordinate &lt;= x, index of the data point with the smallest x
+     *         coordinate &gt; x}, or -1 if there is no such data point
+     */
+    public int[] findNeighbourIndices(final DataSet dataSet, final double x) {
+        AssertUtils.notNull("dataSet", dataSet);
+        final DataSetIndex index = getIndex(dataSet, true);
+        return dataSet.lock().readLockGuard(() -> index.findNeighbours(dataSet, x));
+    }
+
+    /**
+     * drops the cached index of the given data set (e.g. if the data set is no longer displayed)
+     *
+     * @param dataSet the data set
+     */
+    public void release(final DataSet dataSet) {
+        final DataSetIndex index = getIndex(dataSet, false);
+        if (index != null) {
+            dataSet.removeListener(index);
+        }
+    }
+
+    /**
+     * releases the indices of the chart's data sets once the plugin is removed from its chart, and those of data sets
+     * (or renderers) that are removed from the chart while the plugin is attached. N.B. indices that are still used
+     * elsewhere are rebuilt on their next query.
+     *
+     * @param plugin the plugin querying this locator
+     */
+    public void releaseOnDetach(final ChartPlugin plugin) {
+        AssertUtils.notNull("plugin", plugin);
+        final ListChangeListener<DataSet> dataSetListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::release);
+            }
+        };
+        final ListChangeListener<Renderer> rendererListener = change -> {
+            while (change.next()) {
+                for (final Renderer renderer : change.getRemoved()) {
+                    renderer.getDatasets().removeListener(dataSetListener);
+                    renderer.getDatasets().forEach(this::release);
+                }
+                change.getAddedSubList().forEach(renderer -> renderer.getDatasets().addListener(dataSetListener));
+            }
+        };
+        plugin.chartProperty().addListener((obs, oldChart, newChart) -> {
+            if (oldChart != null) {
+                oldChart.getDatasets().removeListener(dataSetListener);
+                oldChart.getRenderers().removeListener(rendererListener);
+                oldChart.getRenderers().forEach(renderer -> renderer.getDatasets().removeListener(dataSetListener));
+                release(oldChart);
+            }
+            if (newChart != null) {
+                newChart.getDatasets().addListener(dataSetListener);
+                newChart.getRenderers().addListener(rendererListener);
+                newChart.getRenderers().forEach(renderer -> renderer.getDatasets().addListener(dataSetListener));
+            }
+        });
+    }
+
+    private void release(final Chart chart) {
+        chart.getDatasets().forEach(this::release);
+        chart.getRenderers().forEach(renderer -> renderer.getDatasets().forEach(this::release));
+    }
+
+    /**
+     * N.B. the index is attached to the data set as its update listener (rather than being kept in a map keyed by the
+     * data set, whose {@code hashCode()} depends on its content) and thus shares the data set's life-time. Since views
+     * (e.g. {@code TransposedDataSet}) may share the listener list of their source, the index refers (weakly) to the
+     * data set it has been created for.
+     *
+     * @param dataSet the data set
+     * @param create {@code true}: creates and attaches a new index if there is none
+     * @return the data set's index of this locator
+     */
+    private DataSetIndex getIndex(final DataSet dataSet, final boolean create) {
+        final List<EventListener> listeners = dataSet.updateEventListener();
+        synchronized (listeners) {
+            DataSetIndex stale = null;
+            for (final EventListener listener : listeners) {
+                if (!(listener instanceof DataSetIndex) || ((DataSetIndex) listener).locator != this) {
+                    continue;
+                }
+                final DataSet indexed = ((DataSetIndex) listener).dataSetReference.get();
+                if (indexed == dataSet) {
+                    return (DataSetIndex) listener;
+                }
+                if (indexed == null) {
+                    stale = (DataSetIndex) listener;
+                }
+            }
+            if (stale != null) {
+                // view of a shared listener list that has been garbage collected
+                dataSet.removeListener(stale);
+            }
+            if (!create) {
+                return null;
+            }
+            final DataSetIndex index = new DataSetIndex(this, dataSet);
+            dataSet.addListener(index);
+            return index;
+        }
+    }
+
+    public static DataPointLocator getInstance() {
+        return SELF;
+    }
+
+    /**
+     * nearest data point search result
+     */
+    public static class Result {
+        private final DataSet dataSet;
+        private final int index;
+        private final double x;
+        private final double y;
+        private final double distance;
+
+        protected Result(final DataSet dataSet, final int index, final double x, final double y,
+                final double distance) {
+            this.dataSet = dataSet;
+            this.index = index;
+            this.x = x;
+            this.y = y;
+            this.distance = distance;
+        }
+
+        public DataSet getDataSet() {
+            return dataSet;
+        }
+
+        /**
+         * @return screen distance between data point and search location
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        @Override
+        public String toString() {
+            return "Result [dataSet=" + dataSet.getName() + ", index=" + index + ", x=" + x + ", y=" + y
+                    + ", distance=" + distance + "]";
+        }
+    }
+
+    /**
+     * per data set search structures
+     */
+    private static class DataSetIndex implements EventListener {
+        private final DataPointLocator locator;
+        private final WeakReference<DataSet> dataSetReference;
+        // modifications reported by the data set since the last query (guarded by 'this')
+        private boolean valid;
+        private int pendingAppended;
+        private int pendingAppendedFrom = Integer.MAX_VALUE;
+        private boolean sorted;
+        private int nData;
+        private double lastX; // last x coordinate of sorted data
+        private int nGrid; // number of data points indexed by the grid, points [nGrid, nData) are searched linearly
+        // uniform grid in data coordinates (compressed row storage) for unsorted data
+        private int nCellsX;
+        private int nCellsY;
+        private double gridMinX;
+        private double gridMaxX;
+        private double gridMinY;
+        private double gridMaxY;
+        private int[] cellStart;
+        private int[] cellIndices;
+
+        private DataSetIndex(final DataPointLocator locator, final DataSet dataSet) {
+            this.locator = locator;
+            this.dataSetReference = new WeakReference<>(dataSet);
+        }
+
+        @Override
+        public synchronized void handle(final UpdateEvent event) {
+            if (event instanceof AxisChangeEvent) {
+                return;
+            }
+            if (event instanceof AddedDataEvent && ((UpdatedDataEvent) event).hasIndexRange()) {
+                final AddedDataEvent addedEvent = (AddedDataEvent) event;
+                pendingAppended += addedEvent.getToIndex() - addedEvent.getFromIndex();
+                pendingAppendedFrom = Math.min(pendingAppendedFrom, addedEvent.getFromIndex());
+                return;
+            }
+            valid = false;
+        }
+
+        private synchronized Result findNearest(final DataSet dataSet, final Axis xAxis, final Axis yAxis,
+                final double screenX, final double screenY, final double maxDistance) {
+            final int n = validate(dataSet);
+            if (n == 0) {
+                return null;
+            }
+            if (sorted) {
+                return findNearestSorted(dataSet, xAxis, yAxis, screenX, screenY, maxDistance);
+            }
+
+            // expanding search for unbounded or large search radii
+            Result nearest = null;
+            double radius = Math.min(maxDistance, MIN_SEARCH_RADIUS);
+            while (nGrid > 0) {
+                nearest = findNearestGrid(dataSet, xAxis, yAxis, screenX, screenY, radius);
+                if (nearest != null || radius >= maxDistance || coversGrid(xAxis, yAxis, screenX, screenY, radius)) {
+                    break;
+                }
+                radius = Math.min(maxDistance, 4 * radius);
+            }
+            // appended points that are not yet part of the grid
+            final double best = nearest == null ? maxDistance : nearest.getDistance();
+            return findNearestLinear(dataSet, xAxis, yAxis, screenX, screenY, best, nearest);
+        }
+
+        private synchronized int[] findNeighbours(final DataSet dataSet, final double x) {
+            final int n = validate(dataSet);
+            if (sorted) {
+                // first index with an x coordinate larger than 'x'
+                int low = 0;
+                int high = n;
+                while (low < high) {
+                    final int mid = (low + high) >>> 1;
+                    if (dataSet.get(DIM_X, mid) <= x) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                return new int[] { low - 1, low < n ? low : -1 };
+            }
+            int prevIndex = -1;
+            int nextIndex = -1;
+            double prevX = Double.NEGATIVE_INFINITY;
+            double nextX = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                final double currentX = dataSet.get(DIM_X, i);
+                if (currentX <= x) {
+                    if (prevIndex < 0 || prevX <= currentX) {
+                        prevIndex = i;
+                        prevX = currentX;
+                    }
+                } else if (nextIndex < 0 || currentX < nextX) {
+                    nextIndex = i;
+                    nextX = currentX;
+                }
+            }
+            return new int[] { prevIndex, nextIndex };
+        }
+
+        /**
+         * brings the index up to date with the data set
+         *
+         * @return number of indexed data points
+         */
+        private int validate(final DataSet dataSet) {
+            final int n = Math.min(dataSet.getDataCount(DIM_X), dataSet.getDataCount(DIM_Y));
+            if (valid && n != nData && pendingAppendedFrom >= nData && nData + pendingAppended == n) {
+                // N.B. all new points have been appended at the end
+                extend(dataSet, n);
+            } else if (!valid || n != nData || pendingAppended > 0) {
+                update(dataSet, n);
+            }
+            pendingAppended = 0;
+            pendingAppendedFrom = Integer.MAX_VALUE;
+            return n;
+        }
+
+        private void extend(final DataSet dataSet, final int n) {
+            if (sorted) {
+                for (int i = nData; i < n; i++) {
+                    final double x = dataSet.get(DIM_X, i);
+                    if (!(x >= lastX)) {
+                        update(dataSet, n);
+                        return;
+                    }
+                    lastX = x;
+                }
+            } else if (n - nGrid > Math.max(MIN_GRID_TAIL, nGrid / 8)) {
+                update(dataSet, n);
+                return;
+            }
+            nData = n;
+        }
+
+        private Result findNearestLinear(final DataSet dataSet, final Axis xAxis, final Axis yAxis, final double screenX,
+                final double screenY, final double maxDistance, final Result gridResult) {
+            Result nearest = gridResult;
+            double best = maxDistance;
+            for (int index = nGrid; index < nData; index++) {
+                final double x = dataSet.get(DIM_X, index);
+                final double y = dataSet.get(DIM_Y, index);
+                final double distance = Math.hypot(xAxis.getDisplayPosition(x) - screenX,
+                        yAxis.getDisplayPosition(y) - screenY);
+                if (distance <= best && (nearest == null || distance < nearest.getDistance())) {
+                    best = distance;
+                    nearest = new Result(dataSet, index, x, y, distance);
+                }
+            }
+            return nearest;
+        }
+
+        private Result findNearestGrid(final DataSet dataSet, final Axis xAxis, final Axis yAxis, final double screenX,
+                final double screenY, final double radius) {
+            final double x1 = xAxis.getValueForDisplay(screenX - radius);
+            final double x2 = xAxis.getValueForDisplay(screenX + radius);
+            final double y1 = yAxis.getValueForDisplay(screenY - radius);
+            final double y2 = yAxis.getValueForDisplay(screenY + radius);
+            final int minCellX = getCell(Math.min(x1, x2), gridMinX, gridMaxX, nCellsX);
+            final int maxCellX = getCell(Math.max(x1, x2), gridMinX, gridMaxX, nCellsX);
+            final int minCellY = getCell(Math.min(y1, y2), gridMinY, gridMaxY, nCellsY);
+            final int maxCellY = getCell(Math.max(y1, y2), gridMinY, gridMaxY, nCellsY);
+
+            Result nearest = null;
+            double best = radius;
+            for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                    final int cell = cellY * nCellsX + cellX;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        final int index = cellIndices[i];
+                        final double x = dataSet.get(DIM_X, index);
+                        final double y = dataSet.get(DIM_Y, index);
+                        final double distance = Math.hypot(xAxis.getDisplayPosition(x) - screenX,
+                                yAxis.getDisplayPosition(y) - screenY);
+                        if (distance <= best && (nearest == null || distance < nearest.getDistance())) {
+                            best = distance;
+                            nearest = new Result(dataSet, index, x, y, distance);
+                        }
+                    }
+                }
+            }
+            return nearest;
+        }
+
+        private Result findNearestSorted(final DataSet dataSet, final Axis xAxis, final Axis yAxis,
+                final double screenX, final double screenY, final double maxDistance) {
+            final int closestIndex = dataSet.getIndex(DIM_X, xAxis.getValueForDisplay(screenX));
+            final int start = Math.max(0, Math.min(nData - 1, closestIndex));
+            Result nearest = null;
+            double best = maxDistance;
+            // N.B. along each direction the horizontal screen distance first decreases (if the start index is not
+            // the closest) and then grows monotonically
+            for (int direction = -1; direction <= 1; direction += 2) {
+                double lastDx = Double.POSITIVE_INFINITY;
+                for (int index = direction < 0 ? start : start + 1; index >= 0 && index < nData; index += direction) {
+                    final double x = dataSet.get(DIM_X, index);
+                    final double dx = Math.abs(xAxis.getDisplayPosition(x) - screenX);
+                    if (Double.isNaN(dx)) {
+                        // not representable on the axis (e.g. log-axis and x <= 0)
+                        break;
+                    }
+                    if (dx > best) {
+                        if (dx >= lastDx) {
+                            break;
+                        }
+                        lastDx = dx;
+                        continue;
+                    }
+                    lastDx = dx;
+                    final double y = dataSet.get(DIM_Y, index);
+                    final double distance = Math.hypot(dx, yAxis.getDisplayPosition(y) - screenY);
+                    if (distance <= best && (nearest == null || distance < nearest.getDistance())) {
+                        best = distance;
+                        nearest = new Result(dataSet, index, x, y, distance);
+                    }
+                }
+            }
+            return nearest;
+        }
+
+        private boolean coversGrid(final Axis xAxis, final Axis yAxis, final double screenX, final double screenY,
+                final double radius) {
+            final double x1 = xAxis.getValueForDisplay(screenX - radius);
+            final double x2 = xAxis.getValueForDisplay(screenX + radius);
+            final double y1 = yAxis.getValueForDisplay(screenY - radius);
+            final double y2 = yAxis.getValueForDisplay(screenY + radius);
+            return Math.min(x1, x2) <= gridMinX && Math.max(x1, x2) >= gridMaxX && Math.min(y1, y2) <= gridMinY
+                    && Math.max(y1, y2) >= gridMaxY;
+        }
+
+        private void update(final DataSet dataSet, final int n) {
+            valid = true;
+            nData = n;
+            nGrid = 0;
+            sorted = true;
+            double prev = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                final double x = dataSet.get(DIM_X, i);
+                if (!(x >= prev)) {
+                    sorted = false;
+                    break;
+                }
+                prev = x;
+            }
+            lastX = prev;
+            cellStart = null;
+            cellIndices = null;
+            if (!sorted) {
+                buildGrid(dataSet, n);
+                nGrid = n;
+            }
+        }
+
+        private void buildGrid(final DataSet dataSet, final int n) {
+            gridMinX = Double.POSITIVE_INFINITY;
+            gridMaxX = Double.NEGATIVE_INFINITY;
+            gridMinY = Double.POSITIVE_INFINITY;
+            gridMaxY = Double.NEGATIVE_INFINITY;
+            int nValid = 0;
+            for (int i = 0; i < n; i++) {
+                final double x = dataSet.get(DIM_X, i);
+                final double y = dataSet.get(DIM_Y, i);
+                if (Double.isFinite(x) && Double.isFinite(y)) {
+                    gridMinX = Math.min(gridMinX, x);
+                    gridMaxX = Math.max(gridMaxX, x);
+                    gridMinY = Math.min(gridMinY, y);
+                    gridMaxY = Math.max(gridMaxY, y);
+                    nValid++;
+                }
+            }
+            nCellsX = Math.max(1, (int) Math.sqrt((double) nValid / POINTS_PER_CELL));
+            nCellsY = nCellsX;
+            final int[] cellOfPoint = new int[n];
+            cellStart = new int[nCellsX * nCellsY + 1];
+            cellIndices = new int[nValid];
+            for (int i = 0; i < n; i++) {
+                final double x = dataSet.get(DIM_X, i);
+                final double y = dataSet.get(DIM_Y, i);
+                if (Double.isFinite(x) && Double.isFinite(y)) {
+                    cellOfPoint[i] = getCell(y, gridMinY, gridMaxY, nCellsY) * nCellsX
+                                     + getCell(x, gridMinX, gridMaxX, nCellsX);
+                    cellStart[cellOfPoint[i] + 1]++;
+                } else {
+                    cellOfPoint[i] = -1;
+                }
+            }
+            for (int cell = 0; cell < nCellsX * nCellsY; cell++) {
+                cellStart[cell + 1] += cellStart[cell];
+            }
+            final int[] fill = new int[nCellsX * nCellsY];
+            for (int i = 0; i < n; i++) {
+                final int cell = cellOfPoint[i];
+                if (cell >= 0) {
+                    cellIndices[cellStart[cell] + fill[cell]++] = i;
+                }
+            }
+        }
+
+        private static int getCell(final double value, final double min, final double max, final int nCells) {
+            if (!(value > min) || max <= min) {
+                return 0;
+            }
+            if (value >= max) {
+                return nCells - 1;
+            }
+            return Math.min(nCells - 1, (int) ((value - min) / (max - min) * nCells));
+        }
+    }
+}
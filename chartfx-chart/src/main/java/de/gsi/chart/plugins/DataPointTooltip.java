@@ -4,22 +4,16 @@
 
 package de.gsi.chart.plugins;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
-import javafx.geometry.Orientation;
 import javafx.geometry.Point2D;
 import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
-import javafx.util.Pair;
 
 import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
-import de.gsi.chart.axes.Axis;
 import de.gsi.dataset.DataSet;
 
 /**
@@ -73,6 +67,7 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
         label.setWrapText(true);
         label.setMinWidth(0);
         registerInputEventHandler(MouseEvent.MOUSE_MOVED, mouseMoveHandler);
+        DataPointLocator.getInstance().releaseOnDetach(this);
     }
 
     /**
@@ -97,84 +92,23 @@ public class DataPointTooltip extends AbstractDataFormattingPlugin {
     }
 
     private DataPoint findNearestDataPointWithinPickingDistance(final Chart chart, final Point2D mouseLocation) {
-        DataPoint nearestDataPoint = null;
         if (!(chart instanceof XYChart)) {
             return null;
         }
         final XYChart xyChart = (XYChart) chart;
-        // final double xValue = toDataPoint(xyChart.getYAxis(),
-        // mouseLocation).getXValue().doubleValue();
         // TODO: iterate through all axes, renderer and datasets
-        final double xValue = xyChart.getXAxis().getValueForDisplay(mouseLocation.getX());
-
-        for (final DataPoint dataPoint : findNeighborPoints(xyChart, xValue)) {
-            // Point2D displayPoint = toDisplayPoint(chart.getYAxis(),
-            // (X)dataPoint.x , dataPoint.y);
-            if (getChart().getFirstAxis(Orientation.HORIZONTAL) instanceof Axis) {
-                final double x = xyChart.getXAxis().getDisplayPosition(dataPoint.x);
-                final double y = xyChart.getYAxis().getDisplayPosition(dataPoint.y);
-                final Point2D displayPoint = new Point2D(x, y);
-                dataPoint.distanceFromMouse = displayPoint.distance(mouseLocation);
-                if (displayPoint.distance(mouseLocation) <= getPickingDistance() && (nearestDataPoint == null || dataPoint.distanceFromMouse < nearestDataPoint.distanceFromMouse)) {
-                    nearestDataPoint = dataPoint;
-                }
-            }
+        final DataPointLocator.Result result = DataPointLocator.getInstance().findNearest(xyChart.getXAxis(),
+                xyChart.getYAxis(), xyChart.getAllDatasets(), mouseLocation.getX(), mouseLocation.getY(),
+                getPickingDistance());
+        if (result == null) {
+            return null;
         }
+        final DataPoint nearestDataPoint = new DataPoint(chart, result.getX(), result.getY(),
+                getDataLabelSafe(result.getDataSet(), result.getIndex()));
+        nearestDataPoint.distanceFromMouse = result.getDistance();
         return nearestDataPoint;
     }
 
-    /**
-     * Handles series that have data sorted or not sorted with respect to X coordinate.
-     * 
-     * @param dataSet data set
-     * @param searchedX x coordinate
-     * @return return neighbouring data points
-     */
-    private Pair<DataPoint, DataPoint> findNeighborPoints(final DataSet dataSet, final double searchedX) {
-        int prevIndex = -1;
-        int nextIndex = -1;
-        double prevX = Double.MIN_VALUE;
-        double nextX = Double.MAX_VALUE;
-
-        final int nDataCount = dataSet.getDataCount(DataSet.DIM_X);
-        final int ny = dataSet.getDataCount(DataSet.DIM_Y); // ensure that the point is within data range. TODO: correctly handle 3D Data
-        for (int i = 0, size = nDataCount; i < size; i++) {
-            final double currentX = dataSet.get(DataSet.DIM_X, i);
-
-            if (currentX < searchedX) {
-                if (prevX < currentX && i < ny) {
-                    prevIndex = i;
-                    prevX = currentX;
-                }
-            } else if (nextX > currentX && i < ny) {
-                nextIndex = i;
-                nextX = currentX;
-            }
-        }
-        final DataPoint prevPoint = prevIndex == -1 ? null
-                                                    : new DataPoint(getChart(), dataSet.get(DataSet.DIM_X, prevIndex),
-                                                            dataSet.get(DataSet.DIM_Y, prevIndex), getDataLabelSafe(dataSet, prevIndex));
-        final DataPoint nextPoint = nextIndex == -1 || nextIndex == prevIndex ? null
-                                                                              : new DataPoint(getChart(), dataSet.get(DataSet.DIM_X, nextIndex),
-                                                                                      dataSet.get(DataSet.DIM_Y, nextIndex), getDataLabelSafe(dataSet, nextIndex));
-
-        return new Pair<>(prevPoint, nextPoint);
-    }
-
-    private List<DataPoint> findNeighborPoints(final XYChart chart, final double searchedX) {
-        final List<DataPoint> points = new LinkedList<>();
-        for (final DataSet dataSet : chart.getAllDatasets()) {
-            final Pair<DataPoint, DataPoint> neighborPoints = findNeighborPoints(dataSet, searchedX);
-            if (neighborPoints.getKey() != null) {
-                points.add(neighborPoints.getKey());
-            }
-            if (neighborPoints.getValue() != null) {
-                points.add(neighborPoints.getValue());
-            }
-        }
-        return points;
-    }
-
     private static String formatDataPoint(final DataPoint dataPoint) {
         return String.format("DataPoint@(%.3f,%.3f)", dataPoint.x, dataPoint.y);
         // return formatData(dataPoint.chart.getYAxis(), dataPoint.x,
@@ -179,6 +179,7 @@ public class EditDataSet extends TableViewer {
 
         registerMouseHandlers();
         registerKeyHandlers();
+        DataPointLocator.getInstance().releaseOnDetach(this);
 
         markerPane.setManaged(false);
 
@@ -325,21 +326,16 @@ public class EditDataSet extends TableViewer {
         }
         final XYChart xyChart = (XYChart) chart;
         // TODO: iterate through all axes, renderer and datasets
-        final double xValue = xyChart.getXAxis().getValueForDisplay(mouseLocation.getX());
-
-        DataPoint nearestDataPoint = null;
-        for (final DataPoint dataPoint : findNeighborPoints(xyChart, xValue)) {
-            if (getChart().getFirstAxis(Orientation.HORIZONTAL) != null) {
-                final double x = xyChart.getXAxis().getDisplayPosition(dataPoint.getX());
-                final double y = xyChart.getYAxis().getDisplayPosition(dataPoint.getY());
-                final Point2D displayPoint = new Point2D(x, y);
-                dataPoint.setDistanceFromMouse(displayPoint.distance(mouseLocation));
-                if ((nearestDataPoint == null
-                            || dataPoint.getDistanceFromMouse() < nearestDataPoint.getDistanceFromMouse())) {
-                    nearestDataPoint = dataPoint;
-                }
-            }
+        final DataPointLocator.Result result = DataPointLocator.getInstance().findNearest(xyChart.getXAxis(),
+                xyChart.getYAxis(), xyChart.getAllDatasets(), mouseLocation.getX(), mouseLocation.getY(),
+                Double.POSITIVE_INFINITY);
+        if (result == null) {
+            return null;
         }
+        final DataSet dataSet = result.getDataSet();
+        final DataPoint nearestDataPoint = new DataPoint(chart, dataSet, result.getIndex(), result.getX(),
+                result.getY(), dataSet.getDataLabel(result.getIndex()));
+        nearestDataPoint.setDistanceFromMouse(result.getDistance());
         return nearestDataPoint;
     }
 
@@ -349,36 +345,30 @@ public class EditDataSet extends TableViewer {
      * @param dataSet data set
      * @param searchedX X coordinates
      * @return pair of neighbouring data points
+     * @deprecated use {@link DataPointLocator#findNeighbourIndices(DataSet, double)} instead
      */
+    @Deprecated
     protected Pair<DataPoint, DataPoint> findNeighborPoints(final DataSet dataSet, final double searchedX) {
-        int prevIndex = -1;
-        int nextIndex = -1;
-        double prevX = Double.MIN_VALUE;
-        double nextX = Double.MAX_VALUE;
-
-        for (int i = 0; i < dataSet.getDataCount(DataSet.DIM_X); i++) {
-            final double currentX = dataSet.get(DataSet.DIM_X, i);
-
-            if (currentX <= searchedX) {
-                if (prevX <= currentX) {
-                    prevIndex = i;
-                    prevX = currentX;
-                }
-            } else if (nextX > currentX) {
-                nextIndex = i;
-                nextX = currentX;
-            }
-        }
+        final int[] indices = DataPointLocator.getInstance().findNeighbourIndices(dataSet, searchedX);
+        final int prevIndex = indices[0];
+        final int nextIndex = indices[1];
         final DataPoint prevPoint = prevIndex == -1 ? null
                                                     : new DataPoint(getChart(), dataSet, prevIndex, dataSet.get(DataSet.DIM_X, prevIndex),
                                                             dataSet.get(DataSet.DIM_Y, prevIndex), dataSet.getDataLabel(prevIndex));
-        final DataPoint nextPoint = nextIndex == -1 || nextIndex == prevIndex ? null
-                                                                              : new DataPoint(getChart(), dataSet, nextIndex, dataSet.get(DataSet.DIM_X, nextIndex),
-                                                                                      dataSet.get(DataSet.DIM_Y, nextIndex), dataSet.getDataLabel(nextIndex));
+        final DataPoint nextPoint = nextIndex == -1 ? null
+                                                    : new DataPoint(getChart(), dataSet, nextIndex, dataSet.get(DataSet.DIM_X, nextIndex),
+                                                            dataSet.get(DataSet.DIM_Y, nextIndex), dataSet.getDataLabel(nextIndex));
 
         return new Pair<>(prevPoint, nextPoint);
     }
 
+    /**
+     * @param chart the chart whose data sets are searched
+     * @param searchedX X coordinates
+     * @return neighbouring data points of all data sets
+     * @deprecated use {@link DataPointLocator#findNeighbourIndices(DataSet, double)} instead
+     */
+    @Deprecated
     protected List<DataPoint> findNeighborPoints(final XYChart chart, final double searchedX) {
         final List<DataPoint> points = new LinkedList<>();
         for (final DataSet dataSet : chart.getAllDatasets()) {
@@ -4,8 +4,6 @@ import static de.gsi.chart.axes.AxisMode.X;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -56,6 +54,7 @@ import de.gsi.chart.viewer.DataViewWindow;
 import de.gsi.chart.viewer.DataViewWindow.WindowDecoration;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.EventListenerList;
 import de.gsi.dataset.event.EventRateLimiter;
 import de.gsi.dataset.event.EventSource;
 
@@ -79,7 +78,7 @@ public abstract class AbstractChartMeasurement implements EventListener, EventSo
     protected final DecimalFormat formatterSmall = new DecimalFormat(FORMAT_SMALL_SCALE);
     protected final DecimalFormat formatterLarge = new DecimalFormat(FORMAT_LARGE_SCALE);
     private final AtomicBoolean autoNotify = new AtomicBoolean(true);
-    private final List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final List<EventListener> updateListeners = new EventListenerList();
     private final CheckedValueField valueField = new CheckedValueField();
     private final StringProperty title = new SimpleStringProperty(this, "title", null);
     private final ObjectProperty<DataSet> dataSet = new SimpleObjectProperty<>(this, "dataSet", null);
@@ -0,0 +1,78 @@
+package de.gsi.chart.renderer;
+
+import java.util.List;
+
+import javafx.scene.canvas.GraphicsContext;
+
+import de.gsi.chart.Chart;
+import de.gsi.dataset.DataSet;
+
+/**
+ * -- renderer interface extension for the asynchronous render mode (see e.g. XYChart::setAsyncRendering) --
+ * <p>
+ * The rendering is split into three phases:
+ * <ol>
+ * <li>{@link #prepare}: executed on the JavaFX application thread, captures the renderer state and everything that
+ * must not be touched outside the FX thread (e.g. category axis updates, the renderer's data set list);</li>
+ * <li>{@link RenderTask#compute()}: executed by a background worker, performs the costly part (e.g. data set read
+ * locks, coordinate transforms, data reduction, contour quantisation) on a snapshot of the data;</li>
+ * <li>{@link DrawCommand#draw(GraphicsContext)}: executed on the JavaFX application thread, issues only the final
+ * GraphicsContext draw calls.</li>
+ * </ol>
+ * Frames that are superseded by a newer one before being drawn are discarded via {@link DrawCommand#drop()}.
+ *
+ * @author rstein
+ */
+public interface AsyncRenderer extends Renderer {
+
+    /**
+     * N.B. to be called on the JavaFX application thread
+     *
+     * @param chart the chart the renderer is attached to
+     * @param dataSetOffset global data set index offset (for styling)
+     * @param datasets (copy of) the data sets attached to the chart
+     * @return the task that computes the draw commands outside the JavaFX application thread
+     */
+    RenderTask prepare(Chart chart, int dataSetOffset, List<DataSet> datasets);
+
+    /**
+     * draw calls of one renderer for one frame
+     */
+    @FunctionalInterface
+    interface DrawCommand {
+        /**
+         * empty draw command, e.g. if there are no data sets to be drawn
+         */
+        DrawCommand NONE = gc -> {
+            // nothing to be drawn
+        };
+
+        /**
+         * N.B. to be called on the JavaFX application thread
+         *
+         * @param gc the GraphicsContext to be drawn into
+         */
+        void draw(GraphicsContext gc);
+
+        /**
+         * releases the resources (e.g. cached arrays) held by this command in case the frame has been superseded and
+         * is not going to be drawn
+         */
+        default void drop() {
+            // no resources held by default
+        }
+    }
+
+    /**
+     * background part of the rendering of one renderer for one frame
+     */
+    @FunctionalInterface
+    interface RenderTask {
+        /**
+         * N.B. may be called outside the JavaFX application thread
+         *
+         * @return draw commands to be executed on the JavaFX application thread
+         */
+        DrawCommand compute();
+    }
+}
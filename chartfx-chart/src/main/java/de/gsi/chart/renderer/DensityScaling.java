@@ -0,0 +1,7 @@
+package de.gsi.chart.renderer;
+
+public enum DensityScaling {
+    LINEAR, // colour proportional to the number of hits per pixel
+    SQRT, // colour proportional to the square-root of the number of hits per pixel
+    LOG; // colour proportional to the logarithm of the number of hits per pixel (1 + hits)
+}
@@ -54,6 +54,10 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
             AbstractErrorDataSetRendererParameter.DEFAULT_HISTORY_INTENSITY_FADING);
     private final BooleanProperty drawBubbles = new SimpleBooleanProperty(this, "drawBubbles", false);
     private final BooleanProperty allowNaNs = new SimpleBooleanProperty(this, "allowNans", false);
+    private final BooleanProperty incrementalRendering = new SimpleBooleanProperty(this, "incrementalRendering",
+            false);
+    private final BooleanProperty batchedDrawing = new SimpleBooleanProperty(this, "batchedDrawing", false);
+    private final BooleanProperty levelOfDetail = new SimpleBooleanProperty(this, "levelOfDetail", false);
 
     /**
      * 
@@ -81,6 +85,17 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return dashSize;
     }
 
+    /**
+     * N.B. disabled by default: a shared path is stroked/filled once, ie. overlapping error bars, polar bars or markers
+     * are no longer composited on top of each other, which changes the output for semi-transparent styles.
+     *
+     * @return the batchedDrawing state, ie. if error bars, bars and markers of the same style are submitted as a single
+     *         path rather than as individual GraphicsContext drawing commands per data point
+     */
+    public BooleanProperty batchedDrawingProperty() {
+        return batchedDrawing;
+    }
+
     /**
      * @return the drawBars state
      */
@@ -202,10 +217,26 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return shiftBarOffsetProperty().get();
     }
 
+    /**
+     * @return the incrementalRendering state, ie. if screen coordinates are kept across frames and only
+     *         appended/modified data points are being transformed
+     */
+    public BooleanProperty incrementalRenderingProperty() {
+        return incrementalRendering;
+    }
+
     public DoubleProperty intensityFadingProperty() {
         return intensityFading;
     }
 
+    /**
+     * @return the levelOfDetail state, ie. if (sorted) data sets are drawn from a multi-resolution min/max pyramid
+     *         providing a few data points per pixel column rather than from all visible data points
+     */
+    public BooleanProperty levelOfDetailProperty() {
+        return levelOfDetail;
+    }
+
     /**
      * @return true if NaN values are permitted
      */
@@ -213,6 +244,29 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return allowNaNsProperty().get();
     }
 
+    /**
+     * @return true if screen coordinates are kept across frames and only appended/modified data points (as notified by
+     *         the DataSet's Added-/Removed-/UpdatedDataEvent index ranges) are being transformed
+     */
+    public boolean isIncrementalRendering() {
+        return incrementalRenderingProperty().get();
+    }
+
+    /**
+     * @return true if (sorted) data sets are drawn from the coarsest level of a min/max pyramid that still provides at
+     *         least one bucket per pixel column
+     */
+    public boolean isLevelOfDetail() {
+        return levelOfDetailProperty().get();
+    }
+
+    /**
+     * @return true if error bars, bars and markers of the same style are submitted as a single path
+     */
+    public boolean isBatchedDrawing() {
+        return batchedDrawingProperty().get();
+    }
+
     /**
      * @return true if bars from the data points to the y==0 axis shall be drawn
      */
@@ -327,6 +381,16 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return getThis();
     }
 
+    /**
+     * @param state true if error bars, bars and markers of the same style shall be submitted as a single path (fewer
+     *        GraphicsContext commands for large data sets)
+     * @return itself (fluent design)
+     */
+    public R setBatchedDrawing(final boolean state) {
+        batchedDrawingProperty().set(state);
+        return getThis();
+    }
+
     /**
      * @param state true if bars from the data points to the y==0 axis shall be drawn
      * @return itself (fluent design)
@@ -384,6 +448,27 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         return getThis();
     }
 
+    /**
+     * @param state true if screen coordinates shall be kept across frames and only appended/modified data points are
+     *        to be transformed (beneficial for append-only, e.g. streaming, data sets and static axes)
+     * @return itself (fluent design)
+     */
+    public R setIncrementalRendering(final boolean state) {
+        incrementalRenderingProperty().set(state);
+        return getThis();
+    }
+
+    /**
+     * @param state true if (sorted) data sets shall be drawn from a min/max pyramid (level-of-detail index) that is
+     *        kept up to date incrementally (beneficial for zoomed-out views of very large data sets, requires
+     *        {@link #isAssumeSortedData()})
+     * @return itself (fluent design)
+     */
+    public R setLevelOfDetail(final boolean state) {
+        levelOfDetailProperty().set(state);
+        return getThis();
+    }
+
     /**
      * Sets the <code>intensityFading</code> to the specified value.
      *
@@ -468,6 +553,7 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         errorStyleProperty().bind(other.errorStyleProperty());
         pointReductionProperty().bind(other.pointReductionProperty());
         assumeSortedDataProperty().bind(other.assumeSortedDataProperty());
+        parallelDataSetsProperty().bind(other.parallelDataSetsProperty());
         dashSizeProperty().bind(other.dashSizeProperty());
         minRequiredReductionSizeProperty().bind(other.minRequiredReductionSizeProperty());
         markerSizeProperty().bind(other.markerSizeProperty());
@@ -477,6 +563,9 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         drawBarsProperty().bind(other.drawBarsProperty());
         drawBubblesProperty().bind(other.drawBubblesProperty());
         allowNaNsProperty().bind(other.allowNaNsProperty());
+        incrementalRenderingProperty().bind(other.incrementalRenderingProperty());
+        batchedDrawingProperty().bind(other.batchedDrawingProperty());
+        levelOfDetailProperty().bind(other.levelOfDetailProperty());
         shiftBarProperty().bind(other.shiftBarProperty());
         shiftBarOffsetProperty().bind(other.shiftBarOffsetProperty());
         dynamicBarWidthProperty().bind(other.dynamicBarWidthProperty());
@@ -514,6 +603,9 @@ public abstract class AbstractErrorDataSetRendererParameter<R extends AbstractEr
         drawBarsProperty().unbind();
         drawBubblesProperty().unbind();
         allowNaNsProperty().unbind();
+        incrementalRenderingProperty().unbind();
+        batchedDrawingProperty().unbind();
+        levelOfDetailProperty().unbind();
         shiftBarProperty().unbind();
         shiftBarOffsetProperty().unbind();
         dynamicBarWidthProperty().unbind();
@@ -17,6 +17,7 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
             5);
     private final BooleanProperty parallelImplementation = new SimpleBooleanProperty(this, "parallelImplementation",
             true);
+    private final BooleanProperty parallelDataSets = new SimpleBooleanProperty(this, "parallelDataSets", false);
     private final BooleanProperty pointReduction = new SimpleBooleanProperty(this, "pointReduction", true);
 
     public AbstractPointReductionManagment() {
@@ -69,6 +70,16 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
         return assumeSortedData.get();
     }
 
+    /**
+     * whether the renderer processes (lock, transform and reduce) all its data sets concurrently before drawing them
+     * in their original order
+     *
+     * @return true if data sets are processed concurrently
+     */
+    public boolean isParallelDataSets() {
+        return parallelDataSets.get();
+    }
+
     /**
      * whether renderer should aim at parallelising sub-functionalities
      *
@@ -93,6 +104,16 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
         return minRequiredReductionSize;
     }
 
+    /**
+     * Sets whether the renderer processes (lock, transform and reduce) all its data sets concurrently before drawing
+     * them in their original order. Mostly beneficial for charts with many data sets of moderate size.
+     *
+     * @return true if data sets are processed concurrently
+     */
+    public BooleanProperty parallelDataSetsProperty() {
+        return parallelDataSets;
+    }
+
     /**
      * Sets whether renderer should aim at parallelising sub-functionalities
      *
@@ -133,6 +154,18 @@ public abstract class AbstractPointReductionManagment<R extends AbstractPointRed
         return getThis();
     }
 
+    /**
+     * Sets whether the renderer processes (lock, transform and reduce) all its data sets concurrently before drawing
+     * them in their original order
+     *
+     * @param state true if data sets are supposed to be processed concurrently
+     * @return itself (fluent design)
+     */
+    public R setParallelDataSets(final boolean state) {
+        parallelDataSets.set(state);
+        return getThis();
+    }
+
     /**
      * Sets whether renderer should aim at parallelising sub-functionalities
      *
@@ -9,15 +9,15 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
-import de.gsi.chart.XYChartCss;
-import de.gsi.chart.axes.Axis;
+import de.gsi.chart.axes.spi.AxisSnapshot;
 import de.gsi.chart.renderer.ErrorStyle;
 import de.gsi.chart.renderer.RendererDataReducer;
-import de.gsi.chart.utils.StyleParser;
+import de.gsi.chart.utils.CompiledStyle;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
 import de.gsi.dataset.DataSetError;
 import de.gsi.dataset.DataSetError.ErrorType;
+import de.gsi.dataset.spi.ColumnarErrorDataSet;
 import de.gsi.dataset.utils.ArrayCache;
 import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 import de.gsi.dataset.utils.DoubleArrayCache;
@@ -47,6 +47,7 @@ class CachedDataPoints {
     protected boolean xAxisInverted;
     protected boolean yAxisInverted;
     protected String defaultStyle;
+    protected CompiledStyle compiledDefaultStyle = CompiledStyle.EMPTY;
     protected int dataSetIndex;
     protected int dataSetStyleIndex;
     protected boolean allowForNaNs;
@@ -67,6 +68,7 @@ class CachedDataPoints {
     protected double maxRadius;
     protected int maxDataCount;
     protected int actualDataCount; // number of data points that remain after data reduction
+    protected ErrorDataSetRenderer.DrawParameters drawParameters; // renderer parameters captured with the axis state
 
     public CachedDataPoints(final int indexMin, final int indexMax, final int dataLength, final boolean full) {
         maxDataCount = dataLength;
@@ -85,7 +87,7 @@ class CachedDataPoints {
         ArrayUtils.fillArray(styles, null);
     }
 
-    protected void computeBoundaryVariables(final Axis xAxis, final Axis yAxis) {
+    protected void computeBoundaryVariables(final AxisSnapshot xAxis, final AxisSnapshot yAxis) {
         xAxisInverted = xAxis.isInvertedAxis();
         yAxisInverted = yAxis.isInvertedAxis();
 
@@ -127,7 +129,7 @@ class CachedDataPoints {
         });
     }
 
-    private void computeFullPolar(final Axis yAxis, final DataSetError dataSet, final int min, final int max) {
+    private void computeFullPolar(final AxisSnapshot yAxis, final DataSetError dataSet, final int min, final int max) {
         dataSet.lock().readLockGuardOptimistic(() -> {
             for (int index = min; index < max; index++) {
                 final double x = dataSet.get(DIM_X, index);
@@ -154,7 +156,7 @@ class CachedDataPoints {
         });
     }
 
-    private void computeNoErrorPolar(final Axis yAxis, final DataSet2D dataSet, final int min, final int max) {
+    private void computeNoErrorPolar(final AxisSnapshot yAxis, final DataSet2D dataSet, final int min, final int max) {
         // experimental transform euclidean to polar coordinates
         dataSet.lock().readLockGuardOptimistic(() -> {
             for (int index = min; index < max; index++) {
@@ -175,7 +177,7 @@ class CachedDataPoints {
         });
     }
 
-    protected void computeScreenCoordinates(final Axis xAxis, final Axis yAxis, final DataSet dataSet,
+    protected void computeScreenCoordinates(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final DataSet dataSet,
             final int dsIndex, final int min, final int max, final ErrorStyle localRendErrorStyle,
             final boolean isPolarPlot, final boolean doAllowForNaNs) {
         setBoundaryConditions(xAxis, yAxis, dataSet, dsIndex, min, max, localRendErrorStyle, isPolarPlot,
@@ -185,7 +187,7 @@ class CachedDataPoints {
         computeScreenCoordinatesNonThreaded(xAxis, yAxis, dataSet, min, max);
     }
 
-    private void computeScreenCoordinatesEuclidean(final Axis xAxis, final Axis yAxis, final DataSet dataSet,
+    private void computeScreenCoordinatesEuclidean(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final DataSet dataSet,
             final int min, final int max) {
         for (int dimIndex = 0; dimIndex < 2; dimIndex++) {
             switch (errorType[dimIndex]) {
@@ -211,7 +213,7 @@ class CachedDataPoints {
         computeErrorStyles(dataSet, min, max);
     }
 
-    protected void computeScreenCoordinatesInParallel(final Axis xAxis, final Axis yAxis, final DataSet dataSet,
+    protected void computeScreenCoordinatesInParallel(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final DataSet dataSet,
             final int dsIndex, final int min, final int max, final ErrorStyle localRendErrorStyle,
             final boolean isPolarPlot, final boolean doAllowForNaNs) {
         setBoundaryConditions(xAxis, yAxis, dataSet, dsIndex, min, max, localRendErrorStyle, isPolarPlot,
@@ -221,7 +223,7 @@ class CachedDataPoints {
         computeScreenCoordinatesParallel(xAxis, yAxis, dataSet, min, max);
     }
 
-    protected void computeScreenCoordinatesNonThreaded(final Axis xAxis, final Axis yAxis, final DataSet dataSet,
+    protected void computeScreenCoordinatesNonThreaded(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final DataSet dataSet,
             final int min, final int max) {
         if (polarPlot) {
             computeScreenCoordinatesPolar(yAxis, dataSet, min, max);
@@ -230,7 +232,7 @@ class CachedDataPoints {
         }
     }
 
-    protected void computeScreenCoordinatesParallel(final Axis xAxis, final Axis yAxis, final DataSet dataSet,
+    protected void computeScreenCoordinatesParallel(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final DataSet dataSet,
             final int min, final int max) {
         final int minthreshold = 1000;
         final int divThread = (int) Math
@@ -262,7 +264,7 @@ class CachedDataPoints {
         }
     }
 
-    private void computeScreenCoordinatesPolar(final Axis yAxis, final DataSet dataSet, final int min, final int max) {
+    private void computeScreenCoordinatesPolar(final AxisSnapshot yAxis, final DataSet dataSet, final int min, final int max) {
         if (!(dataSet instanceof DataSet2D)) {
             throw new IllegalStateException("non-DataSet2D implementation not yet propagated");
         }
@@ -278,7 +280,7 @@ class CachedDataPoints {
         }
     }
 
-    private void computeWithError(final Axis yAxis, final DataSet dataSet, final int dimIndex, final int min,
+    private void computeWithError(final AxisSnapshot yAxis, final DataSet dataSet, final int dimIndex, final int min,
             final int max) {
         if (dataSet instanceof DataSetError) {
             dataSet.lock().readLockGuardOptimistic(() -> {
@@ -286,21 +288,17 @@ class CachedDataPoints {
                 final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
                 final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
                 final double minValue = dimIndex == DIM_X ? xMin : yMin;
-                final DataSetError ds = (DataSetError) dataSet;
-                for (int index = min; index < max; index++) {
-                    final double value = dataSet.get(dimIndex, index);
-
-                    values[index] = yAxis.getDisplayPosition(value);
+                final double[] raw = computeErrorPositions(yAxis, (DataSetError) dataSet, dimIndex, min, max);
+                if (raw != null) {
+                    DoubleArrayCache.getInstance().add(raw);
+                }
 
-                    if (!Double.isNaN(values[index])) {
-                        // if (Double.isFinite(values[index])) {
-                        valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                        valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
-                        continue;
+                for (int index = min; index < max; index++) {
+                    if (Double.isNaN(values[index])) {
+                        values[index] = minValue;
+                        valuesEN[index] = minValue;
+                        valuesEP[index] = minValue;
                     }
-                    values[index] = minValue;
-                    valuesEN[index] = minValue;
-                    valuesEP[index] = minValue;
                 }
             });
             return;
@@ -312,9 +310,9 @@ class CachedDataPoints {
             final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
             final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
             final double minValue = dimIndex == DIM_X ? xMin : yMin;
+            computePositions(yAxis, dataSet, dimIndex, min, max, values);
 
             for (int index = min; index < max; index++) {
-                values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
                 if (Double.isFinite(values[index])) {
                     valuesEN[index] = values[index];
                     valuesEP[index] = values[index];
@@ -327,27 +325,24 @@ class CachedDataPoints {
         });
     }
 
-    private void computeWithErrorAllowingNaNs(final Axis yAxis, final DataSet dataSet, final int dimIndex,
+    private void computeWithErrorAllowingNaNs(final AxisSnapshot yAxis, final DataSet dataSet, final int dimIndex,
             final int min, final int max) {
         if (dataSet instanceof DataSetError) {
             dataSet.lock().readLockGuardOptimistic(() -> {
                 final double[] values = dimIndex == DIM_X ? xValues : yValues;
                 final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
                 final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
-                final DataSetError ds = (DataSetError) dataSet;
-                for (int index = min; index < max; index++) {
-                    final double value = dataSet.get(dimIndex, index);
+                final double[] raw = computeErrorPositions(yAxis, (DataSetError) dataSet, dimIndex, min, max);
 
-                    if (!Double.isFinite(value)) {
+                for (int index = min; index < max; index++) {
+                    if (!Double.isFinite(raw == null ? values[index] : raw[index - min])) {
                         values[index] = Double.NaN;
                         valuesEN[index] = Double.NaN;
                         valuesEP[index] = Double.NaN;
-                        continue;
                     }
-
-                    values[index] = yAxis.getDisplayPosition(value);
-                    valuesEN[index] = yAxis.getDisplayPosition(value - ds.getErrorNegative(dimIndex, index));
-                    valuesEP[index] = yAxis.getDisplayPosition(value + ds.getErrorPositive(dimIndex, index));
+                }
+                if (raw != null) {
+                    DoubleArrayCache.getInstance().add(raw);
                 }
             });
             return;
@@ -358,10 +353,9 @@ class CachedDataPoints {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
             final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
             final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
+            computePositions(yAxis, dataSet, dimIndex, min, max, values);
 
             for (int index = min; index < max; index++) {
-                values[index] = yAxis.getDisplayPosition(dataSet.get(dimIndex, index));
-
                 if (Double.isFinite(values[index])) {
                     valuesEN[index] = values[index];
                     valuesEP[index] = values[index];
@@ -374,17 +368,15 @@ class CachedDataPoints {
         });
     }
 
-    private void computeWithNoError(final Axis axis, final DataSet dataSet, final int dimIndex, final int min,
+    private void computeWithNoError(final AxisSnapshot axis, final DataSet dataSet, final int dimIndex, final int min,
             final int max) {
         // no error attached
         dataSet.lock().readLockGuardOptimistic(() -> {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
             final double minValue = dimIndex == DIM_X ? xMin : yMin;
-            for (int index = min; index < max; index++) {
-                final double value = dataSet.get(dimIndex, index);
-
-                values[index] = axis.getDisplayPosition(value);
+            computePositions(axis, dataSet, dimIndex, min, max, values);
 
+            for (int index = min; index < max; index++) {
                 // if (!Double.isFinite(values[index])) {
                 if (Double.isNaN(values[index])) {
                     yValues[index] = minValue;
@@ -398,20 +390,21 @@ class CachedDataPoints {
         });
     }
 
-    private void computeWithNoErrorAllowingNaNs(final Axis axis, final DataSet dataSet, final int dimIndex,
+    private void computeWithNoErrorAllowingNaNs(final AxisSnapshot axis, final DataSet dataSet, final int dimIndex,
             final int min, final int max) {
         // no error attached
         dataSet.lock().readLockGuardOptimistic(() -> {
             final double[] values = dimIndex == DIM_X ? xValues : yValues;
-            for (int index = min; index < max; index++) {
-                final double value = dataSet.get(dimIndex, index);
+            final int length = max - min;
+            final double[] raw = dataSet.getValues(dimIndex, min, max, DoubleArrayCache.getInstance().getArray(length));
+            axis.getDisplayPositions(raw, 0, values, min, length);
 
-                if (Double.isFinite(value)) {
-                    values[index] = axis.getDisplayPosition(value);
-                } else {
+            for (int index = min; index < max; index++) {
+                if (!Double.isFinite(raw[index - min])) {
                     values[index] = Double.NaN;
                 }
             }
+            DoubleArrayCache.getInstance().add(raw);
 
             if ((dimIndex == DIM_Y) && (rendererErrorStyle != ErrorStyle.NONE)) {
                 System.arraycopy(values, min, errorYNeg, min, max - min);
@@ -420,7 +413,88 @@ class CachedDataPoints {
         });
     }
 
-    private void computeYonlyPolar(final Axis yAxis, final DataSet2D dataSet, final int min, final int max) {
+    /**
+     * bulk-transforms the data set values and the negative/positive error bounds in [min, max) into the (screen) value
+     * and error arrays of the given dimension
+     *
+     * @return the (cached) raw data values starting at index '0' -- to be returned to the DoubleArrayCache by the caller
+     *         -- or {@code null} if the values have been transformed directly on the typed column storage
+     */
+    private double[] computeErrorPositions(final AxisSnapshot axis, final DataSetError dataSet, final int dimIndex,
+            final int min, final int max) {
+        final double[] values = dimIndex == DIM_X ? xValues : yValues;
+        final double[] valuesEN = dimIndex == DIM_X ? errorXNeg : errorYNeg;
+        final double[] valuesEP = dimIndex == DIM_X ? errorXPos : errorYPos;
+        final double[] affine = dataSet instanceof ColumnarErrorDataSet ? getAffineTransform(axis) : null;
+        if (affine != null) {
+            final ColumnarErrorDataSet columnar = (ColumnarErrorDataSet) dataSet;
+            columnar.transformValues(dimIndex, min, max, affine[0], affine[1], values, min);
+            columnar.transformErrorBounds(dimIndex, min, max, affine[1], values, valuesEN, valuesEP, min);
+            return null;
+        }
+        final int length = max - min;
+        final DoubleArrayCache cache = DoubleArrayCache.getInstance();
+        final double[] raw = dataSet.getValues(dimIndex, min, max, cache.getArray(length));
+        final double[] error = cache.getArray(length);
+
+        axis.getDisplayPositions(raw, 0, values, min, length);
+
+        dataSet.getErrorsNegative(dimIndex, min, max, error);
+        for (int i = 0; i < length; i++) {
+            error[i] = raw[i] - error[i];
+        }
+        axis.getDisplayPositions(error, 0, valuesEN, min, length);
+
+        dataSet.getErrorsPositive(dimIndex, min, max, error);
+        for (int i = 0; i < length; i++) {
+            error[i] = raw[i] + error[i];
+        }
+        axis.getDisplayPositions(error, 0, valuesEP, min, length);
+
+        cache.add(error);
+        return raw;
+    }
+
+    /**
+     * bulk-transforms the data set values in [min, max) into the given (screen) value array
+     */
+    private static void computePositions(final AxisSnapshot axis, final DataSet dataSet, final int dimIndex, final int min,
+            final int max, final double[] values) {
+        final double[] affine = dataSet instanceof ColumnarErrorDataSet ? getAffineTransform(axis) : null;
+        if (affine != null) {
+            ((ColumnarErrorDataSet) dataSet).transformValues(dimIndex, min, max, affine[0], affine[1], values, min);
+            return;
+        }
+        final int length = max - min;
+        final DoubleArrayCache cache = DoubleArrayCache.getInstance();
+        final double[] raw = dataSet.getValues(dimIndex, min, max, cache.getArray(length));
+        axis.getDisplayPositions(raw, 0, values, min, length);
+        cache.add(raw);
+    }
+
+    /**
+     * linear data-to-screen mapping 'offset + scale * value' of the given axis snapshot
+     *
+     * @param axis the axis snapshot
+     * @return {offset, scale} or {@code null} if the axis mapping is not affine, e.g. for log axes
+     */
+    private static double[] getAffineTransform(final AxisSnapshot axis) {
+        final double min = axis.getMin();
+        final double max = axis.getMax();
+        if (axis.isLogAxis() || !Double.isFinite(min) || !Double.isFinite(max) || max == min) {
+            return null;
+        }
+        final double p0 = axis.getDisplayPosition(min);
+        final double p1 = axis.getDisplayPosition(max);
+        final double scale = (p1 - p0) / (max - min);
+        final double offset = p0 - scale * min;
+        if (!Double.isFinite(scale) || !Double.isFinite(offset)) {
+            return null;
+        }
+        return new double[] { offset, scale };
+    }
+
+    private void computeYonlyPolar(final AxisSnapshot yAxis, final DataSet2D dataSet, final int min, final int max) {
         dataSet.lock().readLockGuardOptimistic(() -> {
             for (int index = min; index < max; index++) {
                 final double x = dataSet.get(DIM_X, index);
@@ -522,6 +596,42 @@ class CachedDataPoints {
         minDataPointDistanceX();
     }
 
+    /**
+     * copies previously computed screen coordinates and styles for the index range [min, max) from another cache
+     *
+     * @param source the cache holding the screen coordinates (N.B. needs to be computed with the same axes and error
+     *        style)
+     * @param min minimum index (inclusive)
+     * @param max maximum index (exclusive)
+     */
+    protected void copyScreenCoordinates(final CachedDataPoints source, final int min, final int max) {
+        final int length = max - min;
+        System.arraycopy(source.xValues, min, xValues, min, length);
+        System.arraycopy(source.yValues, min, yValues, min, length);
+        System.arraycopy(source.errorXNeg, min, errorXNeg, min, length);
+        System.arraycopy(source.errorXPos, min, errorXPos, min, length);
+        System.arraycopy(source.errorYNeg, min, errorYNeg, min, length);
+        System.arraycopy(source.errorYPos, min, errorYPos, min, length);
+        System.arraycopy(source.styles, min, styles, min, length);
+    }
+
+    /**
+     * moves the screen coordinates and styles of the index range [shift, shift + length) to [0, length), e.g. to
+     * follow data points that have been dropped at the front of a ring-buffer-type data set
+     *
+     * @param shift number of dropped (front) data points
+     * @param length number of data points to be moved
+     */
+    protected void shiftScreenCoordinates(final int shift, final int length) {
+        System.arraycopy(xValues, shift, xValues, 0, length);
+        System.arraycopy(yValues, shift, yValues, 0, length);
+        System.arraycopy(errorXNeg, shift, errorXNeg, 0, length);
+        System.arraycopy(errorXPos, shift, errorXPos, 0, length);
+        System.arraycopy(errorYNeg, shift, errorYNeg, 0, length);
+        System.arraycopy(errorYPos, shift, errorYPos, 0, length);
+        System.arraycopy(styles, shift, styles, 0, length);
+    }
+
     public void release() {
         DoubleArrayCache.getInstance().add(xValues);
         DoubleArrayCache.getInstance().add(yValues);
@@ -533,7 +643,7 @@ class CachedDataPoints {
         ArrayCache.release(STYLES2, styles);
     }
 
-    private void setBoundaryConditions(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final int dsIndex,
+    protected void setBoundaryConditions(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final DataSet dataSet, final int dsIndex,
             final int min, final int max, final ErrorStyle rendererErrorStyle, final boolean isPolarPlot,
             final boolean doAllowForNaNs) {
         indexMin = min;
@@ -578,9 +688,9 @@ class CachedDataPoints {
 
     protected void setStyleVariable(final DataSet dataSet, final int dsIndex) {
         dataSet.lock().readLockGuardOptimistic(() -> defaultStyle = dataSet.getStyle());
-        final Integer layoutOffset = StyleParser.getIntegerPropertyValue(defaultStyle,
-                XYChartCss.DATASET_LAYOUT_OFFSET);
-        final Integer dsIndexLocal = StyleParser.getIntegerPropertyValue(defaultStyle, XYChartCss.DATASET_INDEX);
+        compiledDefaultStyle = CompiledStyle.get(defaultStyle);
+        final Integer layoutOffset = compiledDefaultStyle.getDataSetLayoutOffset();
+        final Integer dsIndexLocal = compiledDefaultStyle.getDataSetIndex();
 
         dataSetStyleIndex = layoutOffset == null ? 0 : layoutOffset.intValue();
         dataSetIndex = dsIndexLocal == null ? dsIndex : dsIndexLocal.intValue();
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import de.gsi.chart.XYChart;
 import de.gsi.chart.axes.Axis;
 import de.gsi.chart.axes.AxisTransform;
+import de.gsi.chart.axes.spi.AxisSnapshot;
 import de.gsi.chart.renderer.ContourType;
 import de.gsi.chart.renderer.datareduction.DefaultDataReducer3D;
 import de.gsi.chart.renderer.datareduction.ReductionType;
@@ -43,9 +44,9 @@ class ContourDataSetCache extends WritableImageCache {
     private static final int REF_HEIGHT_PARALLEL = 1000;
 
     protected final DataSet dataSet;
-    protected final Axis xAxis;
-    protected final Axis yAxis;
-    protected final Axis zAxis;
+    protected final AxisSnapshot xAxis;
+    protected final AxisSnapshot yAxis;
+    protected final AxisSnapshot zAxis;
 
     protected double xAxisWidth;
     protected double yAxisHeight;
@@ -82,15 +83,40 @@ class ContourDataSetCache extends WritableImageCache {
     protected final double[] reduced;
 
     public ContourDataSetCache(final XYChart chart, final ContourDataSetRenderer renderer, final DataSet dataSet) {
+        this(chart, renderer, dataSet, renderer.getZAxis());
+    }
+
+    /**
+     * @param chart the chart the renderer is attached to
+     * @param renderer the contour renderer
+     * @param dataSet the data set to be cached
+     * @param zAxis the z-axis of the renderer (N.B. resolved beforehand, since ContourDataSetRenderer::getZAxis may
+     *        modify the scene graph and must thus be called on the FX thread)
+     */
+    public ContourDataSetCache(final XYChart chart, final ContourDataSetRenderer renderer, final DataSet dataSet,
+            final Axis zAxis) {
+        this(renderer, dataSet, AxisSnapshot.of(chart.getXAxis(), chart.getXAxis().getWidth()),
+                AxisSnapshot.of(chart.getYAxis(), chart.getYAxis().getHeight()), AxisSnapshot.of(zAxis, 0.0));
+    }
+
+    /**
+     * @param renderer the contour renderer
+     * @param dataSet the data set to be cached
+     * @param xAxis x-axis state captured on the FX thread
+     * @param yAxis y-axis state captured on the FX thread
+     * @param zAxis z-axis state captured on the FX thread
+     */
+    public ContourDataSetCache(final ContourDataSetRenderer renderer, final DataSet dataSet, final AxisSnapshot xAxis,
+            final AxisSnapshot yAxis, final AxisSnapshot zAxis) {
         if (dataSet.getDimension() < 3) {
             throw new IllegalArgumentException("dataSet needs be at least 3D but is " + dataSet.getDimension());
         }
         assertGridDimensions(dataSet);
         final long start = ProcessingProfiler.getTimeStamp();
         this.dataSet = dataSet;
-        this.xAxis = chart.getXAxis();
-        this.yAxis = chart.getYAxis();
-        this.zAxis = renderer.getZAxis();
+        this.xAxis = xAxis;
+        this.yAxis = yAxis;
+        this.zAxis = zAxis;
 
         // zMin/zMax from the axis are usually either DataSet driven (via computeLimits)
         // or user-defined limits on the z axis
@@ -101,8 +127,8 @@ class ContourDataSetCache extends WritableImageCache {
         yInverted = yAxis.isInvertedAxis();
         zInverted = zAxis.isInvertedAxis();
 
-        this.xAxisWidth = xAxis.getWidth();
-        this.yAxisHeight = yAxis.getHeight();
+        this.xAxisWidth = xAxis.getLength();
+        this.yAxisHeight = yAxis.getLength();
 
         // real-world coordinates for given pixel coordinates
         // N.B. (0,0) in pixel coordinates is on the top-left corner of the canvas -> asymmetry between x and y
@@ -149,8 +175,7 @@ class ContourDataSetCache extends WritableImageCache {
         ProcessingProfiler.getTimeDiff(start, "data reduction");
 
         // compute local Range
-        final boolean computeLocalRange = renderer.computeLocalRange()
-                                          && (zAxis.isAutoRanging() || zAxis.isAutoGrowRanging());
+        final boolean computeLocalRange = renderer.computeLocalRange() && zAxis.isAutoRanging();
         final DataRange zDataRange = computeLocalRange(reduced, xSize, ySize, computeLocalRange);
         if (zDataRange.isDefined()) {
             zMin = zDataRange.getMin();
@@ -33,9 +33,10 @@ import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
 import de.gsi.chart.axes.Axis;
 import de.gsi.chart.axes.AxisTransform;
+import de.gsi.chart.axes.spi.AxisSnapshot;
 import de.gsi.chart.axes.spi.DefaultNumericAxis;
 import de.gsi.chart.plugins.Zoomer;
-import de.gsi.chart.renderer.Renderer;
+import de.gsi.chart.renderer.AsyncRenderer;
 import de.gsi.chart.renderer.spi.hexagon.Hexagon;
 import de.gsi.chart.renderer.spi.hexagon.HexagonMap;
 import de.gsi.chart.renderer.spi.hexagon.HexagonMap.Direction;
@@ -79,7 +80,7 @@ import de.gsi.dataset.utils.ProcessingProfiler;
  * @author rstein
  */
 public class ContourDataSetRenderer extends AbstractContourDataSetRendererParameter<ContourDataSetRenderer>
-        implements Renderer {
+        implements AsyncRenderer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ContourDataSetRenderer.class);
     private ContourDataSetCache localCache;
     private Axis zAxis;
@@ -586,9 +587,7 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
     }
 
     @Override
-    public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
-            final ObservableList<DataSet> datasets) {
-        final long start = ProcessingProfiler.getTimeStamp();
+    public RenderTask prepare(final Chart chart, final int dataSetOffset, final List<DataSet> datasets) {
         if (!(chart instanceof XYChart)) {
             throw new InvalidParameterException(
                     "must be derivative of XYChart for renderer - " + this.getClass().getSimpleName());
@@ -600,49 +599,73 @@ public class ContourDataSetRenderer extends AbstractContourDataSetRendererParame
 
         // If there are no data sets
         if (localDataSetList.isEmpty()) {
-            return;
+            return () -> DrawCommand.NONE;
         }
 
         final XYChart xyChart = (XYChart) chart;
-        long mid = ProcessingProfiler.getTimeDiff(start, "init");
-        // N.B. importance of reverse order: start with last index, so that
-        // most(-like) important DataSet is drawn on
-        // top of the others
-        for (int dataSetIndex = localDataSetList.size() - 1; dataSetIndex >= 0; dataSetIndex--) {
-            final DataSet dataSet = localDataSetList.get(dataSetIndex);
-            if (dataSet.getDimension() <= 2) {
-                // minimum dimension criteria not met
-                continue;
-            }
-            if (dataSet.getDataCount(DataSet.DIM_Z) != dataSet.getDataCount(DIM_X) * dataSet.getDataCount(DIM_Y)) {
-                // dataSet does not have grid Topology
-                continue;
-            }
-
-            final boolean result = dataSet.lock().readLockGuard(() -> {
-                long stop = ProcessingProfiler.getTimeDiff(mid, "dataSet.lock()");
-
-                if (dataSet.getDataCount(DIM_X) == 0 || dataSet.getDataCount(DIM_Y) == 0) {
-                    return false;
+        // N.B. resolve (or create) the z-axis and capture the axis transforms before leaving the FX thread
+        final Axis xAxis = xyChart.getXAxis();
+        final Axis yAxis = xyChart.getYAxis();
+        final AxisSnapshot xAxisSnapshot = AxisSnapshot.of(xAxis, xAxis.getWidth());
+        final AxisSnapshot yAxisSnapshot = AxisSnapshot.of(yAxis, yAxis.getHeight());
+        final AxisSnapshot zAxisSnapshot = AxisSnapshot.of(getZAxis(), 0.0);
+        return () -> {
+            final long start = ProcessingProfiler.getTimeStamp();
+            final List<ContourDataSetCache> caches = new ArrayList<>(localDataSetList.size());
+            // N.B. importance of reverse order: start with last index, so that
+            // most(-like) important DataSet is drawn on
+            // top of the others
+            for (int dataSetIndex = localDataSetList.size() - 1; dataSetIndex >= 0; dataSetIndex--) {
+                final DataSet dataSet = localDataSetList.get(dataSetIndex);
+                if (dataSet.getDimension() <= 2) {
+                    // minimum dimension criteria not met
+                    continue;
+                }
+                if (dataSet.getDataCount(DataSet.DIM_Z) != dataSet.getDataCount(DIM_X) * dataSet.getDataCount(DIM_Y)) {
+                    // dataSet does not have grid Topology
+                    continue;
                 }
 
-                localCache = new ContourDataSetCache(xyChart, this, dataSet); // NOPMD
-                ProcessingProfiler.getTimeDiff(stop, "updateCachedVariables");
-                return true;
-            });
-
-            if (result) {
-                layoutZAxis(getZAxis());
-                // data reduction algorithm here
-                paintCanvas(gc);
-
-                localCache.releaseCachedVariables();
-            }
-
-            ProcessingProfiler.getTimeDiff(mid, "finished drawing");
+                // copy, reduce and quantise the visible data range
+                final ContourDataSetCache cache = dataSet.lock().readLockGuard(() -> {
+                    if (dataSet.getDataCount(DIM_X) == 0 || dataSet.getDataCount(DIM_Y) == 0) {
+                        return null;
+                    }
+                    return new ContourDataSetCache(this, dataSet, xAxisSnapshot, yAxisSnapshot, zAxisSnapshot); // NOPMD
+                });
+                if (cache != null) {
+                    caches.add(cache);
+                }
+            } // end of 'dataSetIndex' loop
+            ProcessingProfiler.getTimeDiff(start, "updateCachedVariables");
+
+            return new DrawCommand() {
+                @Override
+                public void draw(final GraphicsContext gc) {
+                    for (final ContourDataSetCache cache : caches) {
+                        localCache = cache;
+                        layoutZAxis(getZAxis());
+                        // data reduction algorithm here
+                        paintCanvas(gc);
+                        localCache.releaseCachedVariables();
+                    }
+                    caches.clear();
+                }
 
-        } // end of 'dataSetIndex' loop
+                @Override
+                public void drop() {
+                    caches.forEach(ContourDataSetCache::releaseCachedVariables);
+                    caches.clear();
+                }
+            };
+        };
+    }
 
+    @Override
+    public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
+            final ObservableList<DataSet> datasets) {
+        final long start = ProcessingProfiler.getTimeStamp();
+        prepare(chart, dataSetOffset, datasets).compute().draw(gc);
         ProcessingProfiler.getTimeDiff(start);
     }
 
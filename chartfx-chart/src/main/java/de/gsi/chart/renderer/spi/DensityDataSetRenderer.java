@@ -0,0 +1,602 @@
+package de.gsi.chart.renderer.spi;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.chart.Chart;
+import de.gsi.chart.XYChart;
+import de.gsi.chart.axes.Axis;
+import de.gsi.chart.renderer.DensityScaling;
+import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.utils.WritableImageCache;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.utils.ArrayCache;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
+import de.gsi.dataset.utils.DoubleArrayCache;
+import de.gsi.dataset.utils.ProcessingProfiler;
+
+/**
+ * Renderer for dense scatter and line plots with up to tens of millions of data points.
+ * <p>
+ * Rather than drawing every data point via individual {@link GraphicsContext} commands, the data points (and
+ * optionally the connecting line segments, see {@link #setDrawLines(boolean)}) are rasterised directly into a pixel
+ * hit-count buffer. The hit-counts of all attached data sets are accumulated (added) and subsequently mapped -- via
+ * the {@link DensityScaling} and {@link ColorGradient} -- to a premultiplied ARGB pixel buffer that is drawn with a
+ * single {@link GraphicsContext#drawImage} (N.B. pixels without hits remain transparent, ie. the image is
+ * alpha-blended with the remaining chart content).
+ * <p>
+ * The rasterisation is parallelised (see {@link #setParallelImplementation(boolean)}) by splitting the data points
+ * between worker threads that accumulate into private hit buffers, which are merged and colour-mapped in parallel
+ * row tiles.
+ *
+ * <pre>
+ * final DensityDataSetRenderer renderer = new DensityDataSetRenderer();
+ * renderer.setColorGradient(ColorGradient.HOT);
+ * renderer.setDensityScaling(DensityScaling.LOG);
+ * renderer.getDatasets().add(denseScatterDataSet);
+ * chart.getRenderers().add(renderer);
+ * </pre>
+ *
+ * @author rstein
+ */
+public class DensityDataSetRenderer extends AbstractDataSetManagement<DensityDataSetRenderer> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DensityDataSetRenderer.class);
+    private static final String PARALLEL_WORKER_ERROR = "one parallel worker thread finished execution with error";
+    private static final String HIT_BUFFER = "DensityDataSetRenderer-hitBuffer";
+    private static final String PIXEL_BUFFER = "DensityDataSetRenderer-pixelBuffer";
+    private static final int CHUNK_SIZE = 4096; // number of data points that are read and transformed in one go
+    private static final int MIN_POINTS_PER_WORKER = 100_000;
+    private static final int MIN_ROWS_PER_TILE = 32;
+    /** number of colours in the look-up table (N.B. index '0' is reserved for pixels without hits) */
+    protected static final int N_COLOUR_LEVELS = 256;
+    private final ObjectProperty<ColorGradient> colorGradient = new SimpleObjectProperty<>(this, "colorGradient",
+            ColorGradient.VIRIDIS);
+    private final ObjectProperty<DensityScaling> densityScaling = new SimpleObjectProperty<>(this, "densityScaling",
+            DensityScaling.LOG);
+    private final BooleanProperty drawLines = new SimpleBooleanProperty(this, "drawLines", false);
+    private final BooleanProperty parallelImplementation = new SimpleBooleanProperty(this, "parallelImplementation",
+            true);
+    private ColorGradient lutGradient; // gradient of the cached colour look-up table
+    private int[] colourLut;
+
+    /**
+     * Colour gradient used to encode the number of hits per pixel.
+     *
+     * @return gradient property
+     */
+    public ObjectProperty<ColorGradient> colorGradientProperty() {
+        return colorGradient;
+    }
+
+    /**
+     * Scaling of the number of hits per pixel prior to the colour mapping.
+     *
+     * @return scaling property
+     */
+    public ObjectProperty<DensityScaling> densityScalingProperty() {
+        return densityScaling;
+    }
+
+    @Override
+    public Canvas drawLegendSymbol(final DataSet dataSet, final int dsIndex, final int width, final int height) {
+        final Canvas canvas = new Canvas(width, height);
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(new LinearGradient(0, 0, 1, 0, true, CycleMethod.NO_CYCLE, getColorGradient().getStops()));
+        gc.fillRect(1, 1, width - 2.0, height - 2.0);
+        return canvas;
+    }
+
+    /**
+     * Whether the line segments connecting consecutive data points are rasterised rather than only the data points.
+     *
+     * @return drawLines property
+     */
+    public BooleanProperty drawLinesProperty() {
+        return drawLines;
+    }
+
+    public ColorGradient getColorGradient() {
+        return colorGradientProperty().get();
+    }
+
+    public DensityScaling getDensityScaling() {
+        return densityScalingProperty().get();
+    }
+
+    public boolean isDrawLines() {
+        return drawLinesProperty().get();
+    }
+
+    public boolean isParallelImplementation() {
+        return parallelImplementationProperty().get();
+    }
+
+    /**
+     * Whether the rasterisation and colour mapping is performed on multiple worker threads.
+     *
+     * @return parallelImplementation property
+     */
+    public BooleanProperty parallelImplementationProperty() {
+        return parallelImplementation;
+    }
+
+    @Override
+    public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
+            final ObservableList<DataSet> datasets) {
+        if (!(chart instanceof XYChart)) {
+            throw new InvalidParameterException(
+                    "must be derivative of XYChart for renderer - " + this.getClass().getSimpleName());
+        }
+        final long start = ProcessingProfiler.getTimeStamp();
+        final XYChart xyChart = (XYChart) chart;
+        final Axis xAxis = getFirstAxis(Orientation.HORIZONTAL, xyChart);
+        final Axis yAxis = getFirstAxis(Orientation.VERTICAL, xyChart);
+        final int width = (int) Math.ceil(gc.getCanvas().getWidth());
+        final int height = (int) Math.ceil(gc.getCanvas().getHeight());
+
+        // make local copy and add renderer specific data sets
+        final List<DataSet> localDataSetList = new ArrayList<>(datasets);
+        localDataSetList.addAll(super.getDatasets());
+        if (width <= 0 || height <= 0 || localDataSetList.isEmpty()) {
+            return;
+        }
+
+        final int nPixels = width * height;
+        int nTotal = 0;
+        for (final DataSet dataSet : localDataSetList) {
+            nTotal += dataSet.getDataCount();
+        }
+        final int nWorkers = isParallelImplementation()
+                                     ? Math.max(1, Math.min(CachedDaemonThreadFactory.getNumbersOfThreads(), nTotal / MIN_POINTS_PER_WORKER))
+                                     : 1;
+        final int[][] hitBuffers = new int[nWorkers][];
+        for (int k = 0; k < nWorkers; k++) {
+            hitBuffers[k] = ArrayCache.getCachedIntArray(HIT_BUFFER, nPixels);
+            Arrays.fill(hitBuffers[k], 0);
+        }
+        final int[] pixels = ArrayCache.getCachedIntArray(PIXEL_BUFFER, nPixels);
+
+        try {
+            // rasterise data points -- N.B. each worker accumulates into its private hit buffer
+            final boolean lines = isDrawLines();
+            for (final DataSet dataSet : localDataSetList) {
+                dataSet.lock().readLockGuard(() -> {
+                    final int nData = dataSet.getDataCount();
+                    final int stepSize = (nData + nWorkers - 1) / nWorkers;
+                    final List<Callable<Integer>> workers = new ArrayList<>(nWorkers);
+                    for (int k = 0; k < nWorkers && k * stepSize < nData; k++) {
+                        final int[] hits = hitBuffers[k];
+                        final int from = k * stepSize;
+                        final int to = Math.min(from + stepSize, nData);
+                        workers.add(() -> {
+                            rasterise(dataSet, xAxis, yAxis, hits, width, height, from, to, lines);
+                            return 0;
+                        });
+                    }
+                    invokeAll(workers);
+                });
+            }
+            ProcessingProfiler.getTimeDiff(start, "rasterise");
+
+            // merge hit buffers and colour-map in row tiles
+            final int nTiles = isParallelImplementation()
+                                       ? Math.max(1, Math.min(CachedDaemonThreadFactory.getNumbersOfThreads(), height / MIN_ROWS_PER_TILE))
+                                       : 1;
+            final int rowsPerTile = (height + nTiles - 1) / nTiles;
+            final List<Callable<Integer>> mergeJobs = new ArrayList<>(nTiles);
+            for (int row = 0; row < height; row += rowsPerTile) {
+                final int from = row * width;
+                final int to = Math.min(row + rowsPerTile, height) * width;
+                mergeJobs.add(() -> mergeHits(hitBuffers, from, to));
+            }
+            final int maxHits = invokeAll(mergeJobs);
+            if (maxHits == 0) {
+                return;
+            }
+
+            final int[] lut = getColourLut(getColorGradient());
+            final DensityScaling scaling = getDensityScaling();
+            final List<Callable<Integer>> colourJobs = new ArrayList<>(nTiles);
+            for (int row = 0; row < height; row += rowsPerTile) {
+                final int from = row * width;
+                final int to = Math.min(row + rowsPerTile, height) * width;
+                colourJobs.add(() -> {
+                    convertHitsToColours(hitBuffers[0], pixels, from, to, maxHits, scaling, lut);
+                    return 0;
+                });
+            }
+            invokeAll(colourJobs);
+            ProcessingProfiler.getTimeDiff(start, "colour map");
+
+            // single blit of the whole pixel buffer
+            final WritableImage image = WritableImageCache.getInstance().getImage(width, height);
+            final PixelWriter pixelWriter = image.getPixelWriter();
+            if (pixelWriter == null) {
+                if (LOGGER.isErrorEnabled()) {
+                    LOGGER.atError().log("Could not get PixelWriter for image");
+                }
+                return;
+            }
+            pixelWriter.setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+            gc.drawImage(image, 0, 0);
+            WritableImageCache.getInstance().add(image);
+        } finally {
+            for (final int[] hits : hitBuffers) {
+                ArrayCache.release(HIT_BUFFER, hits);
+            }
+            ArrayCache.release(PIXEL_BUFFER, pixels);
+        }
+        ProcessingProfiler.getTimeDiff(start);
+    }
+
+    /**
+     * Sets the value of the {@link #colorGradientProperty()}.
+     *
+     * @param value the gradient to be used
+     * @return itself (fluent design)
+     */
+    public DensityDataSetRenderer setColorGradient(final ColorGradient value) {
+        colorGradientProperty().set(value);
+        return getThis();
+    }
+
+    /**
+     * Sets the value of the {@link #densityScalingProperty()}.
+     *
+     * @param value the scaling to be used
+     * @return itself (fluent design)
+     */
+    public DensityDataSetRenderer setDensityScaling(final DensityScaling value) {
+        densityScalingProperty().set(value);
+        return getThis();
+    }
+
+    /**
+     * @param state true: rasterise the line segments connecting consecutive data points, false: data points only
+     * @return itself (fluent design)
+     */
+    public DensityDataSetRenderer setDrawLines(final boolean state) {
+        drawLinesProperty().set(state);
+        return getThis();
+    }
+
+    /**
+     * @param state true: rasterise and colour-map on multiple worker threads
+     * @return itself (fluent design)
+     */
+    public DensityDataSetRenderer setParallelImplementation(final boolean state) {
+        parallelImplementationProperty().set(state);
+        return getThis();
+    }
+
+    /**
+     * @param gradient the colour gradient
+     * @return cached premultiplied ARGB look-up table of the given gradient
+     */
+    protected int[] getColourLut(final ColorGradient gradient) {
+        if (colourLut == null || lutGradient != gradient) { // NOPMD -- identity intended
+            colourLut = computeColourLut(gradient);
+            lutGradient = gradient;
+        }
+        return colourLut;
+    }
+
+    /**
+     * @return the instance of this DensityDataSetRenderer.
+     */
+    @Override
+    protected DensityDataSetRenderer getThis() {
+        return this;
+    }
+
+    /**
+     * rasterises the data points within the index range [from, to[ into the hit buffer
+     *
+     * @param dataSet the source data set (N.B. needs to be read-locked by the caller)
+     * @param xAxis the horizontal axis
+     * @param yAxis the vertical axis
+     * @param hits the hit buffer (row-major, width * height)
+     * @param width the buffer width
+     * @param height the buffer height
+     * @param from first data point index (inclusive)
+     * @param to last data point index (exclusive)
+     * @param lines true: rasterise connecting line segments, false: data points only
+     */
+    protected static void rasterise(final DataSet dataSet, final Axis xAxis, final Axis yAxis, final int[] hits,
+            final int width, final int height, final int from, final int to, final boolean lines) {
+        final double[] xValues = DoubleArrayCache.getInstance().getArrayExact(CHUNK_SIZE);
+        final double[] yValues = DoubleArrayCache.getInstance().getArrayExact(CHUNK_SIZE);
+        try {
+            double prevX = Double.NaN;
+            double prevY = Double.NaN;
+            if (lines && from > 0) {
+                prevX = xAxis.getDisplayPosition(dataSet.get(DIM_X, from - 1));
+                prevY = yAxis.getDisplayPosition(dataSet.get(DIM_Y, from - 1));
+            }
+            for (int chunk = from; chunk < to; chunk += CHUNK_SIZE) {
+                final int n = Math.min(CHUNK_SIZE, to - chunk);
+                dataSet.getValues(DIM_X, chunk, chunk + n, xValues);
+                dataSet.getValues(DIM_Y, chunk, chunk + n, yValues);
+                for (int i = 0; i < n; i++) {
+                    xValues[i] = xAxis.getDisplayPosition(xValues[i]);
+                    yValues[i] = yAxis.getDisplayPosition(yValues[i]);
+                }
+                if (lines) {
+                    addLines(hits, width, height, prevX, prevY, xValues, yValues, n);
+                    prevX = xValues[n - 1];
+                    prevY = yValues[n - 1];
+                } else {
+                    addPoints(hits, width, height, xValues, yValues, n);
+                }
+            }
+            if (lines && to == dataSet.getDataCount()) {
+                // N.B. line segments include their start but not their end point
+                addPoint(hits, width, height, prevX, prevY);
+            }
+        } finally {
+            DoubleArrayCache.getInstance().add(xValues);
+            DoubleArrayCache.getInstance().add(yValues);
+        }
+    }
+
+    /**
+     * adds a single hit at the given pixel coordinate (N.B. coordinates outside the buffer or NaN are ignored)
+     *
+     * @param hits the hit buffer (row-major, width * height)
+     * @param width the buffer width
+     * @param height the buffer height
+     * @param x the horizontal pixel coordinate
+     * @param y the vertical pixel coordinate
+     */
+    protected static void addPoint(final int[] hits, final int width, final int height, final double x, final double y) {
+        if (x >= 0 && x < width && y >= 0 && y < height) {
+            hits[(int) y * width + (int) x]++;
+        }
+    }
+
+    /**
+     * adds one hit per pixel coordinate
+     *
+     * @param hits the hit buffer (row-major, width * height)
+     * @param width the buffer width
+     * @param height the buffer height
+     * @param x the horizontal pixel coordinates
+     * @param y the vertical pixel coordinates
+     * @param length number of coordinates
+     */
+    protected static void addPoints(final int[] hits, final int width, final int height, final double[] x,
+            final double[] y, final int length) {
+        for (int i = 0; i < length; i++) {
+            final double px = x[i];
+            final double py = y[i];
+            if (px >= 0 && px < width && py >= 0 && py < height) {
+                hits[(int) py * width + (int) px]++;
+            }
+        }
+    }
+
+    /**
+     * adds one hit for each pixel crossed by the line segment [(x0, y0), (x1, y1)[. The segment is clipped to the
+     * buffer and rasterised using a digital differential analyser (DDA). N.B. the end point is excluded so that
+     * consecutive segments do not count their common point twice; a segment shorter than one pixel adds one hit at
+     * its start point.
+     *
+     * @param hits the hit buffer (row-major, width * height)
+     * @param width the buffer width
+     * @param height the buffer height
+     * @param x0 horizontal start coordinate
+     * @param y0 vertical start coordinate
+     * @param x1 horizontal end coordinate
+     * @param y1 vertical end coordinate
+     */
+    protected static void addLine(final int[] hits, final int width, final int height, final double x0,
+            final double y0, final double x1, final double y1) {
+        if (!Double.isFinite(x1) || !Double.isFinite(y1)) {
+            // gap in the data -> start point only
+            addPoint(hits, width, height, x0, y0);
+            return;
+        }
+        if (!Double.isFinite(x0) || !Double.isFinite(y0)) {
+            return;
+        }
+        // Liang-Barsky clipping to [0, width] x [0, height]
+        final double dx = x1 - x0;
+        final double dy = y1 - y0;
+        double t0 = 0.0;
+        double t1 = 1.0;
+        for (int edge = 0; edge < 4; edge++) {
+            final double p;
+            final double q;
+            switch (edge) {
+            case 0:
+                p = -dx;
+                q = x0;
+                break;
+            case 1:
+                p = dx;
+                q = width - x0;
+                break;
+            case 2:
+                p = -dy;
+                q = y0;
+                break;
+            default:
+                p = dy;
+                q = height - y0;
+                break;
+            }
+            if (p == 0.0) {
+                if (q < 0.0) {
+                    return; // parallel to and outside of this edge
+                }
+                continue;
+            }
+            final double r = q / p;
+            if (p < 0.0) {
+                if (r > t1) {
+                    return;
+                }
+                t0 = Math.max(t0, r);
+            } else {
+                if (r < t0) {
+                    return;
+                }
+                t1 = Math.min(t1, r);
+            }
+        }
+
+        // N.B. the samples are computed w.r.t. the unclipped start point to avoid accumulating rounding errors
+        final double steps = Math.max(1.0, Math.ceil(Math.max(Math.abs(dx), Math.abs(dy))));
+        final double stepX = dx / steps;
+        final double stepY = dy / steps;
+        final long iEnd = (long) Math.ceil(t1 * steps);
+        for (long i = (long) Math.floor(t0 * steps); i < iEnd; i++) {
+            final double x = x0 + i * stepX;
+            final double y = y0 + i * stepY;
+            if (x >= 0 && x < width && y >= 0 && y < height) {
+                hits[(int) y * width + (int) x]++;
+            }
+        }
+    }
+
+    /**
+     * adds the line segments connecting (prevX, prevY) and the given consecutive pixel coordinates
+     *
+     * @param hits the hit buffer (row-major, width * height)
+     * @param width the buffer width
+     * @param height the buffer height
+     * @param prevX horizontal coordinate of the preceding point (NaN if none)
+     * @param prevY vertical coordinate of the preceding point (NaN if none)
+     * @param x the horizontal pixel coordinates
+     * @param y the vertical pixel coordinates
+     * @param length number of coordinates
+     */
+    protected static void addLines(final int[] hits, final int width, final int height, final double prevX,
+            final double prevY, final double[] x, final double[] y, final int length) {
+        if (length <= 0) {
+            return;
+        }
+        addLine(hits, width, height, prevX, prevY, x[0], y[0]);
+        for (int i = 1; i < length; i++) {
+            addLine(hits, width, height, x[i - 1], y[i - 1], x[i], y[i]);
+        }
+    }
+
+    /**
+     * @param gradient the colour gradient
+     * @return premultiplied ARGB colour look-up table with {@link #N_COLOUR_LEVELS} entries sampled equidistantly
+     *         over [0, 1]
+     */
+    protected static int[] computeColourLut(final ColorGradient gradient) {
+        final int[] lut = new int[N_COLOUR_LEVELS];
+        for (int level = 0; level < N_COLOUR_LEVELS; level++) {
+            final Color color = gradient.getColor(level / (double) (N_COLOUR_LEVELS - 1));
+            final double alpha = color.getOpacity();
+            lut[level] = (int) Math.round(255 * alpha) << 24 | (int) Math.round(255 * alpha * color.getRed()) << 16
+                         | (int) Math.round(255 * alpha * color.getGreen()) << 8
+                         | (int) Math.round(255 * alpha * color.getBlue());
+        }
+        return lut;
+    }
+
+    /**
+     * converts the hit counts within [from, to[ to colours
+     *
+     * @param hits the hit buffer
+     * @param pixels the destination premultiplied ARGB pixel buffer
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @param maxHits the maximum number of hits (&gt; 0) mapped to the last colour level
+     * @param scaling the hit scaling
+     * @param lut the colour look-up table (see {@link #computeColourLut})
+     */
+    protected static void convertHitsToColours(final int[] hits, final int[] pixels, final int from, final int to,
+            final int maxHits, final DensityScaling scaling, final int[] lut) {
+        final double norm = (lut.length - 2) / scale(maxHits, scaling);
+        for (int i = from; i < to; i++) {
+            final int nHits = hits[i];
+            // N.B. level '0' is reserved for pixels without hits (transparent)
+            pixels[i] = nHits == 0 ? 0 : lut[1 + (int) (scale(nHits, scaling) * norm)];
+        }
+    }
+
+    /**
+     * adds the hits of buffers[1..n] to buffers[0] within [from, to[
+     *
+     * @param buffers the hit buffers
+     * @param from first index (inclusive)
+     * @param to last index (exclusive)
+     * @return the maximum number of hits within [from, to[
+     */
+    protected static int mergeHits(final int[][] buffers, final int from, final int to) {
+        final int[] target = buffers[0];
+        for (int k = 1; k < buffers.length; k++) {
+            final int[] source = buffers[k];
+            for (int i = from; i < to; i++) {
+                target[i] += source[i];
+            }
+        }
+        int max = 0;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, target[i]);
+        }
+        return max;
+    }
+
+    private static int invokeAll(final List<Callable<Integer>> workers) {
+        if (workers.size() == 1) {
+            try {
+                return workers.get(0).call();
+            } catch (final Exception e) { // NOPMD -- rethrown as unchecked exception
+                throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+            }
+        }
+        try {
+            int max = 0;
+            for (final Future<Integer> future : CachedDaemonThreadFactory.getCommonPool().invokeAll(workers)) {
+                max = Math.max(max, future.get());
+            }
+            return max;
+        } catch (final InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(PARALLEL_WORKER_ERROR, e);
+        }
+    }
+
+    private static double scale(final int nHits, final DensityScaling scaling) {
+        switch (scaling) {
+        case LINEAR:
+            return nHits;
+        case SQRT:
+            return Math.sqrt(nHits);
+        case LOG:
+        default:
+            return Math.log1p(nHits);
+        }
+    }
+}
@@ -2,10 +2,19 @@ package de.gsi.chart.renderer.spi;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import javafx.collections.ObservableList;
 import javafx.geometry.Orientation;
@@ -14,25 +23,26 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.FillRule;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
-import de.gsi.chart.XYChartCss;
 import de.gsi.chart.axes.Axis;
+import de.gsi.chart.axes.spi.AxisSnapshot;
 import de.gsi.chart.axes.spi.CategoryAxis;
 import de.gsi.chart.marker.DefaultMarker;
 import de.gsi.chart.marker.Marker;
+import de.gsi.chart.renderer.AsyncRenderer;
 import de.gsi.chart.renderer.ErrorStyle;
-import de.gsi.chart.renderer.Renderer;
+import de.gsi.chart.renderer.LineStyle;
+import de.gsi.chart.renderer.RendererDataReducer;
 import de.gsi.chart.renderer.spi.utils.BezierCurve;
 import de.gsi.chart.renderer.spi.utils.DefaultRenderColorScheme;
-import de.gsi.chart.utils.StyleParser;
+import de.gsi.chart.utils.CompiledStyle;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSetError.ErrorType;
 import de.gsi.dataset.spi.utils.Triple;
+import de.gsi.dataset.utils.CachedDaemonThreadFactory;
 import de.gsi.dataset.utils.DoubleArrayCache;
+import de.gsi.dataset.utils.MinMaxPyramid;
 import de.gsi.dataset.utils.ProcessingProfiler;
 
 /**
@@ -49,10 +59,14 @@ import de.gsi.dataset.utils.ProcessingProfiler;
 @SuppressWarnings({ "PMD.LongVariable", "PMD.ShortVariable" }) // short variables like x, y are perfectly fine, as well
 // as descriptive long ones
 public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<ErrorDataSetRenderer>
-        implements Renderer {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ErrorDataSetRenderer.class);
+        implements AsyncRenderer {
+    // bounded pool for the concurrent per data set processing -- distinct from the common pool used for splitting
+    // individual data sets to avoid nested-submission dead-locks
+    private static final ExecutorService DATA_SET_POOL = Executors.newFixedThreadPool(
+            CachedDaemonThreadFactory.getNumbersOfThreads(), CachedDaemonThreadFactory.getInstance());
     private Marker marker = DefaultMarker.RECTANGLE; // default: rectangle
-    private long stopStamp;
+    private final Map<DataSet, IncrementalDataPointCache> incrementalCaches = new IdentityHashMap<>();
+    private final Map<DataSet, MinMaxPyramid> levelOfDetailIndices = new IdentityHashMap<>(); // guarded by 'incrementalCaches'
 
     /**
      * Creates new <code>ErrorDataSetRenderer</code>.
@@ -82,9 +96,9 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         final Canvas canvas = new Canvas(width, height);
         final GraphicsContext gc = canvas.getGraphicsContext2D();
 
-        final String style = dataSet.getStyle();
-        final Integer layoutOffset = StyleParser.getIntegerPropertyValue(style, XYChartCss.DATASET_LAYOUT_OFFSET);
-        final Integer dsIndexLocal = StyleParser.getIntegerPropertyValue(style, XYChartCss.DATASET_INDEX);
+        final CompiledStyle style = CompiledStyle.get(dataSet.getStyle());
+        final Integer layoutOffset = style.getDataSetLayoutOffset();
+        final Integer dsIndexLocal = style.getDataSetIndex();
 
         final int dsLayoutIndexOffset = layoutOffset == null ? 0 : layoutOffset; // TODO: rationalise
 
@@ -132,8 +146,21 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
     }
 
     @Override
-    public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
-            final ObservableList<DataSet> datasets) {
+    public RenderTask prepare(final Chart chart, final int dataSetOffset, final List<DataSet> datasets) {
+        return prepare(chart, dataSetOffset, datasets, null);
+    }
+
+    /**
+     * @param chart the chart the data sets are drawn onto
+     * @param dataSetOffset global offset of the first data set (style index)
+     * @param datasets the chart data sets
+     * @param immediateGc if non-null: each data set is drawn onto this graphics context (and its screen coordinates
+     *            released) right after it has been computed rather than holding the screen coordinates of all data sets
+     *            until {@link DrawCommand#draw(GraphicsContext)} (N.B. synchronous rendering on the FX thread only)
+     * @return the render task of this frame
+     */
+    private RenderTask prepare(final Chart chart, final int dataSetOffset, final List<DataSet> datasets,
+            final GraphicsContext immediateGc) {
         if (!(chart instanceof XYChart)) {
             throw new InvalidParameterException("must be derivative of XYChart for renderer - " + this.getClass().getSimpleName());
         }
@@ -141,10 +168,17 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         // make local copy and add renderer specific data sets
         final List<DataSet> localDataSetList = isDrawChartDataSets() ? new ArrayList<>(datasets) : new ArrayList<>();
         localDataSetList.addAll(super.getDatasets());
+        final boolean isIncremental = isIncrementalRendering();
+        final boolean isLevelOfDetail = isLevelOfDetail() && isAssumeSortedData() && !((XYChart) chart).isPolarPlot();
 
         // If there are no data sets
         if (localDataSetList.isEmpty()) {
-            return;
+            return () -> {
+                synchronized (incrementalCaches) {
+                    releaseUnusedCaches(Collections.emptyList(), Collections.emptyList());
+                }
+                return DrawCommand.NONE;
+            };
         }
 
         Axis xAxisTemp = getFirstAxis(Orientation.HORIZONTAL);
@@ -161,99 +195,189 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         final double xAxisWidth = xAxis.getWidth();
         final double xMin = xAxis.getValueForDisplay(0);
         final double xMax = xAxis.getValueForDisplay(xAxisWidth);
+        // N.B. the screen coordinates are computed from a copy of the axis state -- the live axes may change while the
+        // task below is being executed outside the FX thread
+        final AxisSnapshot xAxisSnapshot = AxisSnapshot.of(xAxis);
+        final AxisSnapshot yAxisSnapshot = AxisSnapshot.of(yAxis);
+
+        // update categories in case of category axes for the first (index == '0') indexed data set
+        final DataSet firstDataSet = localDataSetList.get(0);
+        if (getFirstAxis(Orientation.HORIZONTAL) instanceof CategoryAxis) {
+            final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.HORIZONTAL);
+            firstDataSet.lock().readLockGuard(() -> axis.updateCategories(firstDataSet));
+        }
+        if (getFirstAxis(Orientation.VERTICAL) instanceof CategoryAxis) {
+            final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.VERTICAL);
+            firstDataSet.lock().readLockGuard(() -> axis.updateCategories(firstDataSet));
+        }
+
+        // snapshot of the renderer parameters -- the task below may be executed outside the FX thread
+        final boolean isPolarPlot = ((XYChart) chart).isPolarPlot();
+        final boolean isAssumeSorted = isAssumeSortedData();
+        final boolean isParallel = isParallelImplementation();
+        final DrawParameters drawParameters = new DrawParameters(this);
+        final boolean allowNaNs = drawParameters.allowNaNs;
+        final ErrorStyle errorStyle = drawParameters.errorStyle;
+        final RendererDataReducer reducer = getRendererDataReducer();
+        final boolean isReducePoints = isReducePoints();
+        final int minRequiredReductionSize = getMinRequiredReductionSize();
 
         if (ProcessingProfiler.getDebugState()) {
             ProcessingProfiler.getTimeDiff(start, "init");
         }
 
-        for (int dataSetIndex = localDataSetList.size() - 1; dataSetIndex >= 0; dataSetIndex--) {
-            final int ldataSetIndex = dataSetIndex;
-            stopStamp = ProcessingProfiler.getTimeStamp();
-            final DataSet dataSet = localDataSetList.get(dataSetIndex);
-
-            // N.B. print out for debugging purposes, please keep (used for
-            // detecting redundant or too frequent render updates)
-            // System.err.println(String.format("render for range [%f,%f] and dataset = '%s'", xMin, xMax, dataSet.getName()));
-
-            // update categories in case of category axes for the first (index == '0') indexed data set
-            if (dataSetIndex == 0) {
-                if (getFirstAxis(Orientation.HORIZONTAL) instanceof CategoryAxis) {
-                    final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.HORIZONTAL);
-                    dataSet.lock().readLockGuard(() -> axis.updateCategories(dataSet));
-                }
-
-                if (getFirstAxis(Orientation.VERTICAL) instanceof CategoryAxis) {
-                    final CategoryAxis axis = (CategoryAxis) getFirstAxis(Orientation.VERTICAL);
-                    dataSet.lock().readLockGuard(() -> axis.updateCategories(dataSet));
-                }
-            }
-
-            // check for potentially reduced data range we are supposed to plot
-            final Optional<CachedDataPoints> cachedPoints = dataSet.lock().readLockGuard(() -> {
-                int indexMin;
-                int indexMax; /* indexMax is excluded in the drawing */
-                if (isAssumeSortedData()) {
-                    indexMin = Math.max(0, dataSet.getIndex(DataSet.DIM_X, xMin) - 1);
-                    indexMax = Math.min(dataSet.getIndex(DataSet.DIM_X, xMax) + 2, dataSet.getDataCount(DataSet.DIM_X));
+        final boolean isParallelDataSets = isParallelDataSets() && localDataSetList.size() > 1;
+
+        return () -> {
+            final List<Callable<Optional<CachedDataPoints>>> jobs = new ArrayList<>(localDataSetList.size());
+            final List<CachedDataPoints> pointsToDraw = new ArrayList<>(localDataSetList.size());
+            synchronized (incrementalCaches) {
+                releaseUnusedCaches(isIncremental ? localDataSetList : Collections.emptyList(),
+                        isLevelOfDetail ? localDataSetList : Collections.emptyList());
+                final Set<DataSet> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+                for (int dataSetIndex = localDataSetList.size() - 1; dataSetIndex >= 0; dataSetIndex--) {
+                    final int ldataSetIndex = dataSetIndex;
+                    final DataSet dataSet = localDataSetList.get(dataSetIndex);
+                    // N.B. incremental caches are not thread-safe -- duplicate entries are recomputed from scratch
+                    final IncrementalDataPointCache cache = isIncremental && seen.add(dataSet)
+                                                                  ? incrementalCaches.computeIfAbsent(dataSet, IncrementalDataPointCache::new)
+                                                                  : null;
+                    final MinMaxPyramid lodIndex = isLevelOfDetail
+                                                           ? levelOfDetailIndices.computeIfAbsent(dataSet, ds -> MinMaxPyramid.acquire(ds, DataSet.DIM_Y))
+                                                           : null;
+
+                    // N.B. print out for debugging purposes, please keep (used for
+                    // detecting redundant or too frequent render updates)
+                    // System.err.println(String.format("render for range [%f,%f] and dataset = '%s'", xMin, xMax, dataSet.getName()));
+
+                    // check for potentially reduced data range we are supposed to plot
+                    jobs.add(() -> {
+                        final long stopStamp = ProcessingProfiler.getTimeStamp();
+                        final Optional<CachedDataPoints> cachedPoints = dataSet.lock().readLockGuard(() -> {
+                            int indexMin;
+                            int indexMax; /* indexMax is excluded in the drawing */
+                            if (isAssumeSorted) {
+                                indexMin = Math.max(0, dataSet.getIndex(DataSet.DIM_X, xMin) - 1);
+                                indexMax = Math.min(dataSet.getIndex(DataSet.DIM_X, xMax) + 2, dataSet.getDataCount(DataSet.DIM_X));
+                            } else {
+                                indexMin = 0;
+                                indexMax = dataSet.getDataCount(DataSet.DIM_X);
+                            }
+                            if (xAxisSnapshot.isInvertedAxis()) {
+                                final int temp = indexMin;
+                                indexMin = indexMax - 1;
+                                indexMax = temp + 1;
+                            }
+
+                            if (indexMax - indexMin <= 0) {
+                                // zero length/range data set -> nothing to be drawn
+                                return Optional.empty();
+                            }
+
+                            if (ProcessingProfiler.getDebugState()) {
+                                ProcessingProfiler.getTimeDiff(stopStamp,
+                                        "get min/max" + String.format(" from:%d to:%d", indexMin, indexMax));
+                            }
+
+                            // compute local screen coordinates
+                            if (lodIndex != null && !xAxisSnapshot.isInvertedAxis()) {
+                                // draw only the first/min/max/last data points of the coarsest pyramid level that
+                                // still provides one bucket per pixel column
+                                final int[] indices = lodIndex.getIndices(indexMin, indexMax, (int) Math.ceil(xAxisWidth));
+                                if (indices != null) {
+                                    final DataSet view = IndexedDataSetView.of(dataSet, indices);
+                                    final CachedDataPoints localCachedPoints = new CachedDataPoints(0, indices.length,
+                                            indices.length, true);
+                                    localCachedPoints.computeScreenCoordinates(xAxisSnapshot, yAxisSnapshot, view,
+                                            dataSetOffset + ldataSetIndex, 0, indices.length, errorStyle, isPolarPlot,
+                                            allowNaNs);
+                                    if (ProcessingProfiler.getDebugState()) {
+                                        ProcessingProfiler.getTimeDiff(stopStamp, "level-of-detail computeScreenCoordinates()");
+                                    }
+                                    return Optional.of(localCachedPoints);
+                                }
+                            }
+
+                            if (cache != null) {
+                                // re-use the screen coordinates of the previous frame and transform only new/modified points
+                                final CachedDataPoints localCachedPoints = cache.computeScreenCoordinates(xAxisSnapshot, yAxisSnapshot,
+                                        dataSetOffset + ldataSetIndex, indexMin, indexMax, errorStyle, isPolarPlot,
+                                        allowNaNs, isParallel);
+                                if (ProcessingProfiler.getDebugState()) {
+                                    ProcessingProfiler.getTimeDiff(stopStamp, "incremental computeScreenCoordinates()");
+                                }
+                                return Optional.of(localCachedPoints);
+                            }
+
+                            final CachedDataPoints localCachedPoints = new CachedDataPoints(indexMin, indexMax,
+                                    dataSet.getDataCount(DataSet.DIM_X), true);
+
+                            if (isParallel) {
+                                localCachedPoints.computeScreenCoordinatesInParallel(xAxisSnapshot, yAxisSnapshot, dataSet,
+                                        dataSetOffset + ldataSetIndex, indexMin, indexMax, errorStyle, isPolarPlot,
+                                        allowNaNs);
+                            } else {
+                                localCachedPoints.computeScreenCoordinates(xAxisSnapshot, yAxisSnapshot, dataSet, dataSetOffset + ldataSetIndex,
+                                        indexMin, indexMax, errorStyle, isPolarPlot, allowNaNs);
+                            }
+                            if (ProcessingProfiler.getDebugState()) {
+                                ProcessingProfiler.getTimeDiff(stopStamp, "computeScreenCoordinates()");
+                            }
+                            return Optional.of(localCachedPoints);
+                        });
+
+                        // invoke data reduction algorithm
+                        cachedPoints.ifPresent(value -> {
+                            value.reduce(reducer, isReducePoints, minRequiredReductionSize);
+                            value.drawParameters = drawParameters;
+                        });
+                        return cachedPoints;
+                    });
+                } // end of 'dataSetIndex' loop
+
+                if (isParallelDataSets) {
+                    computeInParallel(jobs, pointsToDraw);
+                } else if (immediateGc != null) {
+                    // N.B. holds the screen coordinates of only one data set at a time
+                    for (final Callable<Optional<CachedDataPoints>> job : jobs) {
+                        computeJob(job).ifPresent(value -> {
+                            drawChartCompontents(immediateGc, value);
+                            value.release();
+                        });
+                    }
                 } else {
-                    indexMin = 0;
-                    indexMax = dataSet.getDataCount(DataSet.DIM_X);
-                }
-                if (xAxis.isInvertedAxis()) {
-                    final int temp = indexMin;
-                    indexMin = indexMax - 1;
-                    indexMax = temp + 1;
-                }
-
-                if (indexMax - indexMin <= 0) {
-                    // zero length/range data set -> nothing to be drawn
-                    return Optional.empty();
-                }
-
-                if (ProcessingProfiler.getDebugState()) {
-                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp,
-                            "get min/max" + String.format(" from:%d to:%d", indexMin, indexMax));
+                    for (final Callable<Optional<CachedDataPoints>> job : jobs) {
+                        computeJob(job).ifPresent(pointsToDraw::add);
+                    }
                 }
+            }
 
-                final CachedDataPoints localCachedPoints = new CachedDataPoints(indexMin, indexMax,
-                        dataSet.getDataCount(DataSet.DIM_X), true);
-                if (ProcessingProfiler.getDebugState()) {
-                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "get CachedPoints");
+            return new DrawCommand() {
+                @Override
+                public void draw(final GraphicsContext gc) {
+                    for (final CachedDataPoints value : pointsToDraw) {
+                        // draw individual plot components
+                        drawChartCompontents(gc, value);
+                        value.release();
+                    }
+                    pointsToDraw.clear();
                 }
 
-                // compute local screen coordinates
-                final boolean isPolarPlot = ((XYChart) chart).isPolarPlot();
-                if (isParallelImplementation()) {
-                    localCachedPoints.computeScreenCoordinatesInParallel(xAxis, yAxis, dataSet,
-                            dataSetOffset + ldataSetIndex, indexMin, indexMax, getErrorType(), isPolarPlot,
-                            isallowNaNs());
-                } else {
-                    localCachedPoints.computeScreenCoordinates(xAxis, yAxis, dataSet, dataSetOffset + ldataSetIndex,
-                            indexMin, indexMax, getErrorType(), isPolarPlot, isallowNaNs());
-                }
-                if (ProcessingProfiler.getDebugState()) {
-                    stopStamp = ProcessingProfiler.getTimeDiff(stopStamp, "computeScreenCoordinates()");
+                @Override
+                public void drop() {
+                    pointsToDraw.forEach(CachedDataPoints::release);
+                    pointsToDraw.clear();
                 }
-                return Optional.of(localCachedPoints);
-            });
-
-            cachedPoints.ifPresent(value -> {
-                // invoke data reduction algorithm
-                value.reduce(rendererDataReducerProperty().get(), isReducePoints(),
-                        getMinRequiredReductionSize());
-
-                // draw individual plot components
-                drawChartCompontents(gc, value);
-
-                value.release();
-            });
-
-            stopStamp = ProcessingProfiler.getTimeStamp();
+            };
+        };
+    }
 
-            if (ProcessingProfiler.getDebugState()) {
-                ProcessingProfiler.getTimeDiff(stopStamp, "localCachedPoints.release()");
-            }
-        } // end of 'dataSetIndex' loop
+    @Override
+    public void render(final GraphicsContext gc, final Chart chart, final int dataSetOffset,
+            final ObservableList<DataSet> datasets) {
+        final long start = ProcessingProfiler.getTimeStamp();
+        prepare(chart, dataSetOffset, datasets, gc).compute().draw(gc);
         ProcessingProfiler.getTimeDiff(start);
     }
 
@@ -271,33 +395,50 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
      * @param localCachedPoints reference to local cached data point object
      */
     protected void drawBars(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
-        if (!isDrawBars()) {
+        final DrawParameters parameters = getDrawParameters(localCachedPoints);
+        if (!parameters.drawBars) {
             return;
         }
 
         final int xOffset = localCachedPoints.dataSetIndex >= 0 ? localCachedPoints.dataSetIndex : 0;
-        final int minRequiredWidth = Math.max(getDashSize(), localCachedPoints.minDistanceX);
+        final int minRequiredWidth = Math.max(parameters.dashSize, localCachedPoints.minDistanceX);
 
-        final double barWPercentage = getBarWidthPercentage();
+        final double barWPercentage = parameters.barWidthPercentage;
         final double dynBarWidth = minRequiredWidth * barWPercentage / 100;
-        final double constBarWidth = getBarWidth();
-        final double localBarWidth = isDynamicBarWidth() ? dynBarWidth : constBarWidth;
-        final double barWidthHalf = localBarWidth / 2 - (isShiftBar() ? xOffset * getShiftBarOffset() : 0);
+        final double constBarWidth = parameters.barWidth;
+        final double localBarWidth = parameters.dynamicBarWidth ? dynBarWidth : constBarWidth;
+        final double barWidthHalf = localBarWidth / 2 - (parameters.shiftBar ? xOffset * parameters.shiftBarOffset : 0);
 
         gc.save();
-        DefaultRenderColorScheme.setMarkerScheme(gc, localCachedPoints.defaultStyle,
+        DefaultRenderColorScheme.setMarkerScheme(gc, localCachedPoints.compiledDefaultStyle,
                 localCachedPoints.dataSetIndex + localCachedPoints.dataSetStyleIndex);
-        DefaultRenderColorScheme.setGraphicsContextAttributes(gc, localCachedPoints.defaultStyle);
+        DefaultRenderColorScheme.setGraphicsContextAttributes(gc, localCachedPoints.compiledDefaultStyle);
+
+        if (parameters.batchedDrawing && localCachedPoints.polarPlot) {
+            // N.B. only the stroked polar bars are batched -- the individual cartesian bars are drawn faster using the
+            // dedicated (axis-aligned) rectangle primitive
+            drawPolarBarsBatched(gc, localCachedPoints, barWidthHalf);
+            gc.restore();
+            return;
+        }
 
+        // N.B. compiled point styles are resolved once per distinct (consecutive) style
+        String lastStyle = null;
+        Color lastFillColor = null;
         if (localCachedPoints.polarPlot) {
             for (int i = 0; i < localCachedPoints.actualDataCount; i++) {
-                if (localCachedPoints.styles[i] == null) {
+                final String pointStyle = localCachedPoints.styles[i];
+                if (pointStyle == null) {
                     gc.strokeLine(localCachedPoints.xZero, localCachedPoints.yZero, localCachedPoints.xValues[i],
                             localCachedPoints.yValues[i]);
                 } else {
+                    if (!pointStyle.equals(lastStyle)) {
+                        lastStyle = pointStyle;
+                        lastFillColor = CompiledStyle.get(pointStyle).getFillColor();
+                    }
                     // work-around: bar colour controlled by the marker color
                     gc.save();
-                    gc.setFill(StyleParser.getColorPropertyValue(localCachedPoints.styles[i], XYChartCss.FILL_COLOR));
+                    gc.setFill(lastFillColor);
                     gc.setLineWidth(barWidthHalf);
                     gc.strokeLine(localCachedPoints.xZero, localCachedPoints.yZero, localCachedPoints.xValues[i],
                             localCachedPoints.yValues[i]);
@@ -315,12 +456,17 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
                     yDiff = Math.abs(yDiff);
                 }
 
-                if (localCachedPoints.styles[i] == null) {
+                final String pointStyle = localCachedPoints.styles[i];
+                if (pointStyle == null) {
                     gc.fillRect(localCachedPoints.xValues[i] - barWidthHalf, yMin, localBarWidth, yDiff);
 
                 } else {
+                    if (!pointStyle.equals(lastStyle)) {
+                        lastStyle = pointStyle;
+                        lastFillColor = CompiledStyle.get(pointStyle).getFillColor();
+                    }
                     gc.save();
-                    gc.setFill(StyleParser.getColorPropertyValue(localCachedPoints.styles[i], XYChartCss.FILL_COLOR));
+                    gc.setFill(lastFillColor);
                     gc.fillRect(localCachedPoints.xValues[i] - barWidthHalf, yMin, localBarWidth, yDiff);
                     gc.restore();
                 }
@@ -335,7 +481,8 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
      * @param localCachedPoints reference to local cached data point object
      */
     protected void drawBubbles(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
-        if (!isDrawBubbles()) {
+        final DrawParameters parameters = getDrawParameters(localCachedPoints);
+        if (!parameters.drawBubbles) {
             return;
         }
         gc.save();
@@ -343,13 +490,12 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
                 localCachedPoints.dataSetIndex + localCachedPoints.dataSetStyleIndex);
 
         // N.B. bubbles are drawn with the same colour as polyline (ie. not the fillColor)
-        final Color fillColor = StyleParser.getColorPropertyValue(localCachedPoints.defaultStyle,
-                XYChartCss.STROKE_COLOR);
+        final Color fillColor = localCachedPoints.compiledDefaultStyle.getStrokeColor();
         if (fillColor != null) {
             gc.setFill(fillColor);
         }
 
-        final double minSize = getMarkerSize();
+        final double minSize = parameters.markerSize;
         if (localCachedPoints.errorType[DataSet.DIM_X] != ErrorType.NO_ERROR
                 || localCachedPoints.errorType[DataSet.DIM_Y] == ErrorType.NO_ERROR) {
             // X, X_ASYMMETRIC
@@ -417,51 +563,39 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
 
         drawBars(gc, lCacheP);
 
-        final int dashHalf = getDashSize() / 2;
+        final DrawParameters parameters = getDrawParameters(lCacheP);
+        final int dashHalf = parameters.dashSize / 2;
         gc.save();
         DefaultRenderColorScheme.setFillScheme(gc, lCacheP.defaultStyle, lCacheP.dataSetIndex);
         DefaultRenderColorScheme.setGraphicsContextAttributes(gc, lCacheP.defaultStyle);
 
+        final boolean batched = parameters.batchedDrawing;
+        if (batched) {
+            gc.beginPath();
+        }
         for (int i = 0; i < lCacheP.actualDataCount; i++) {
-            if (lCacheP.errorType[DataSet.DIM_X] != ErrorType.NO_ERROR
-                    && lCacheP.errorType[DataSet.DIM_Y] != ErrorType.NO_ERROR) {
-                // draw error bars
-                gc.strokeLine(lCacheP.xValues[i], lCacheP.errorYNeg[i], lCacheP.xValues[i], lCacheP.errorYPos[i]);
-                gc.strokeLine(lCacheP.errorXNeg[i], lCacheP.yValues[i], lCacheP.errorXPos[i], lCacheP.yValues[i]);
-
-                // draw horizontal dashes
-                gc.strokeLine(lCacheP.xValues[i] - dashHalf, lCacheP.errorYNeg[i], lCacheP.xValues[i] + dashHalf,
+            final boolean errorX = lCacheP.errorType[DataSet.DIM_X] != ErrorType.NO_ERROR;
+            final boolean errorY = lCacheP.errorType[DataSet.DIM_Y] != ErrorType.NO_ERROR;
+            if (errorY) {
+                // draw vertical error bar and horizontal dashes
+                drawLine(gc, batched, lCacheP.xValues[i], lCacheP.errorYNeg[i], lCacheP.xValues[i], lCacheP.errorYPos[i]);
+                drawLine(gc, batched, lCacheP.xValues[i] - dashHalf, lCacheP.errorYNeg[i], lCacheP.xValues[i] + dashHalf,
                         lCacheP.errorYNeg[i]);
-                gc.strokeLine(lCacheP.xValues[i] - dashHalf, lCacheP.errorYPos[i], lCacheP.xValues[i] + dashHalf,
+                drawLine(gc, batched, lCacheP.xValues[i] - dashHalf, lCacheP.errorYPos[i], lCacheP.xValues[i] + dashHalf,
                         lCacheP.errorYPos[i]);
-
-                // draw vertical dashes
-                gc.strokeLine(lCacheP.errorXNeg[i], lCacheP.yValues[i] - dashHalf, lCacheP.errorXNeg[i],
+            }
+            if (errorX) {
+                // draw horizontal error bar and vertical dashes
+                drawLine(gc, batched, lCacheP.errorXNeg[i], lCacheP.yValues[i], lCacheP.errorXPos[i], lCacheP.yValues[i]);
+                drawLine(gc, batched, lCacheP.errorXNeg[i], lCacheP.yValues[i] - dashHalf, lCacheP.errorXNeg[i],
                         lCacheP.yValues[i] + dashHalf);
-                gc.strokeLine(lCacheP.errorXPos[i], lCacheP.yValues[i] - dashHalf, lCacheP.errorXPos[i],
+                drawLine(gc, batched, lCacheP.errorXPos[i], lCacheP.yValues[i] - dashHalf, lCacheP.errorXPos[i],
                         lCacheP.yValues[i] + dashHalf);
-            } else if (lCacheP.errorType[DataSet.DIM_X] == ErrorType.NO_ERROR
-                       && lCacheP.errorType[DataSet.DIM_Y] != ErrorType.NO_ERROR) {
-                // draw error bars
-                gc.strokeLine(lCacheP.xValues[i], lCacheP.errorYNeg[i], lCacheP.xValues[i], lCacheP.errorYPos[i]);
-
-                // draw horizontal dashes
-                gc.strokeLine(lCacheP.xValues[i] - dashHalf, lCacheP.errorYNeg[i], lCacheP.xValues[i] + dashHalf,
-                        lCacheP.errorYNeg[i]);
-                gc.strokeLine(lCacheP.xValues[i] - dashHalf, lCacheP.errorYPos[i], lCacheP.xValues[i] + dashHalf,
-                        lCacheP.errorYPos[i]);
-            } else if (lCacheP.errorType[DataSet.DIM_X] != ErrorType.NO_ERROR
-                       && lCacheP.errorType[DataSet.DIM_Y] == ErrorType.NO_ERROR) {
-                // draw error bars
-                gc.strokeLine(lCacheP.errorXNeg[i], lCacheP.yValues[i], lCacheP.errorXPos[i], lCacheP.yValues[i]);
-
-                // draw horizontal dashes
-                gc.strokeLine(lCacheP.xValues[i] - dashHalf, lCacheP.errorYNeg[i], lCacheP.xValues[i] + dashHalf,
-                        lCacheP.errorYNeg[i]);
-                gc.strokeLine(lCacheP.xValues[i] - dashHalf, lCacheP.errorYPos[i], lCacheP.xValues[i] + dashHalf,
-                        lCacheP.errorYPos[i]);
             }
         }
+        if (batched) {
+            gc.stroke();
+        }
         gc.restore();
 
         drawPolyLine(gc, lCacheP);
@@ -585,35 +719,50 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
      * @param localCachedPoints reference to local cached data point object
      */
     protected void drawMarker(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
-        if (!isDrawMarker()) {
+        final DrawParameters parameters = getDrawParameters(localCachedPoints);
+        if (!parameters.drawMarker) {
             return;
         }
         gc.save();
-        DefaultRenderColorScheme.setMarkerScheme(gc, localCachedPoints.defaultStyle,
+        DefaultRenderColorScheme.setMarkerScheme(gc, localCachedPoints.compiledDefaultStyle,
                 localCachedPoints.dataSetIndex + localCachedPoints.dataSetStyleIndex);
 
-        final Triple<Marker, Color, Double> markerTypeColorAndSize = getDefaultMarker(localCachedPoints.defaultStyle);
-        final Marker defaultMarker = markerTypeColorAndSize.getFirst();
-        final Color defaultMarkerColor = markerTypeColorAndSize.getSecond();
-        final double defaultMarkerSize = markerTypeColorAndSize.getThird();
+        final CompiledStyle defaultStyle = localCachedPoints.compiledDefaultStyle;
+        final Marker defaultMarker = parameters.getMarker(defaultStyle);
+        final Color defaultMarkerColor = getMarkerColor(defaultStyle);
+        final double defaultMarkerSize = parameters.getMarkerSize(defaultStyle);
         if (defaultMarkerColor != null) {
             gc.setFill(defaultMarkerColor);
         }
+        if (parameters.batchedDrawing) {
+            drawMarkerBatched(gc, localCachedPoints, defaultMarker, defaultMarkerSize);
+            gc.restore();
+            return;
+        }
+        // N.B. compiled point styles are resolved once per distinct (consecutive) style
+        String lastStyle = null;
+        Marker pointMarker = defaultMarker;
+        Color pointMarkerColor = defaultMarkerColor;
+        double pointMarkerSize = defaultMarkerSize;
         for (int i = 0; i < localCachedPoints.actualDataCount; i++) {
             final double x = localCachedPoints.xValues[i];
             final double y = localCachedPoints.yValues[i];
-            if (localCachedPoints.styles[i] == null) {
+            final String pointStyle = localCachedPoints.styles[i];
+            if (pointStyle == null) {
                 defaultMarker.draw(gc, x, y, defaultMarkerSize);
             } else {
-                final Triple<Marker, Color, Double> markerForPoint = getDefaultMarker(
-                        localCachedPoints.defaultStyle + localCachedPoints.styles[i]);
+                if (!pointStyle.equals(lastStyle)) {
+                    lastStyle = pointStyle;
+                    final CompiledStyle markerStyle = defaultStyle.derive(pointStyle);
+                    pointMarker = parameters.getMarker(markerStyle);
+                    pointMarkerColor = getMarkerColor(markerStyle);
+                    pointMarkerSize = parameters.getMarkerSize(markerStyle);
+                }
                 gc.save();
-                if (markerForPoint.getSecond() != null) {
-                    gc.setFill(markerForPoint.getSecond());
+                if (pointMarkerColor != null) {
+                    gc.setFill(pointMarkerColor);
                 }
-                final Marker pointMarker = markerForPoint.getFirst() == null ? defaultMarker
-                                                                             : markerForPoint.getFirst();
-                pointMarker.draw(gc, x, y, markerForPoint.getThird());
+                pointMarker.draw(gc, x, y, pointMarkerSize);
                 gc.restore();
             }
         }
@@ -626,7 +775,7 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
      * @param localCachedPoints reference to local cached data point object
      */
     protected void drawPolyLine(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
-        switch (getPolyLineStyle()) {
+        switch (getDrawParameters(localCachedPoints).polyLineStyle) {
         case NONE:
             return;
         case AREA:
@@ -652,57 +801,108 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         }
     }
 
-    protected Triple<Marker, Color, Double> getDefaultMarker(final String dataSetStyle) {
-        Marker defaultMarker = getMarker();
-        // N.B. the markers are drawn in the same colour
-        // as the polyline (ie. stroke color)
-        Color defaultMarkerColor = StyleParser.getColorPropertyValue(dataSetStyle, XYChartCss.STROKE_COLOR);
-        double defaultMarkerSize = getMarkerSize();
-
-        if (dataSetStyle == null) {
-            return new Triple<>(defaultMarker, defaultMarkerColor, defaultMarkerSize);
+    /**
+     * draws the polar bars of each run of consecutive data points with the same style as a single path
+     *
+     * @param gc the graphics context from the Canvas parent
+     * @param localCachedPoints reference to local cached data point object
+     * @param barWidthHalf the line width of bars with individual style
+     */
+    protected void drawPolarBarsBatched(final GraphicsContext gc, final CachedDataPoints localCachedPoints, final double barWidthHalf) {
+        final int nPoints = localCachedPoints.actualDataCount;
+        for (int runStart = 0; runStart < nPoints;) {
+            final String runStyle = localCachedPoints.styles[runStart];
+            final int runEnd = getStyleRunEnd(localCachedPoints.styles, runStart, nPoints);
+            if (runStyle != null) {
+                // work-around: bar colour controlled by the marker color
+                gc.save();
+                gc.setFill(CompiledStyle.get(runStyle).getFillColor());
+                gc.setLineWidth(barWidthHalf);
+            }
+            gc.beginPath();
+            for (int i = runStart; i < runEnd; i++) {
+                appendLine(gc, localCachedPoints.xZero, localCachedPoints.yZero, localCachedPoints.xValues[i], localCachedPoints.yValues[i]);
+            }
+            gc.stroke();
+            if (runStyle != null) {
+                gc.restore();
+            }
+            runStart = runEnd;
         }
+    }
 
-        // parse style:
-        final Map<String, String> map = StyleParser.splitIntoMap(dataSetStyle);
-
-        final String markerType = map.get(XYChartCss.MARKER_TYPE.toLowerCase(Locale.UK));
-        if (markerType != null) {
-            try {
-                final Marker tempType = DefaultMarker.get(markerType);
-                defaultMarker = tempType;
-            } catch (final IllegalArgumentException ex) {
-                if (LOGGER.isErrorEnabled()) {
-                    LOGGER.error(new StringBuilder().append("could not parse marker type description for '").append(XYChartCss.MARKER_TYPE).append("'='").append(markerType).append("'").toString(), ex);
+    /**
+     * draws the markers of each run of consecutive data points with the same style as a single path (N.B. markers that
+     * are not {@link DefaultMarker#isBatchable() batchable}, as well as custom markers, are drawn individually)
+     *
+     * @param gc the graphics context from the Canvas parent
+     * @param localCachedPoints reference to local cached data point object
+     * @param defaultMarker the marker of data points without individual style
+     * @param defaultMarkerSize the marker size of data points without individual style
+     */
+    protected void drawMarkerBatched(final GraphicsContext gc, final CachedDataPoints localCachedPoints, final Marker defaultMarker, final double defaultMarkerSize) {
+        gc.setFillRule(FillRule.NON_ZERO);
+        final DrawParameters parameters = getDrawParameters(localCachedPoints);
+        final int nPoints = localCachedPoints.actualDataCount;
+        for (int runStart = 0; runStart < nPoints;) {
+            final String runStyle = localCachedPoints.styles[runStart];
+            final int runEnd = getStyleRunEnd(localCachedPoints.styles, runStart, nPoints);
+            Marker runMarker = defaultMarker;
+            double runMarkerSize = defaultMarkerSize;
+            if (runStyle != null) {
+                final CompiledStyle markerStyle = localCachedPoints.compiledDefaultStyle.derive(runStyle);
+                runMarker = parameters.getMarker(markerStyle);
+                runMarkerSize = parameters.getMarkerSize(markerStyle);
+                gc.save();
+                final Color markerColor = getMarkerColor(markerStyle);
+                if (markerColor != null) {
+                    gc.setFill(markerColor);
                 }
             }
-        }
-        final String markerSize = map.get(XYChartCss.MARKER_SIZE.toLowerCase(Locale.UK));
-        if (markerSize != null) {
-            try {
-                final double tempSize = Double.parseDouble(markerSize);
-                defaultMarkerSize = tempSize;
-            } catch (final NumberFormatException ex) {
-                if (LOGGER.isErrorEnabled()) {
-                    LOGGER.error(new StringBuilder().append("could not parse marker size description for '").append(XYChartCss.MARKER_SIZE).append("'='").append(markerSize).append("'").toString(), ex);
+            if (runMarker instanceof DefaultMarker && ((DefaultMarker) runMarker).isBatchable()) {
+                final DefaultMarker marker = (DefaultMarker) runMarker;
+                gc.beginPath();
+                for (int i = runStart; i < runEnd; i++) {
+                    final double x = localCachedPoints.xValues[i];
+                    final double y = localCachedPoints.yValues[i];
+                    // N.B. a single non-finite coordinate would invalidate the whole shared path
+                    if (Double.isFinite(x) && Double.isFinite(y)) {
+                        marker.appendToPath(gc, x, y, runMarkerSize);
+                    }
                 }
-            }
-        }
-
-        final String markerColor = map.get(XYChartCss.MARKER_COLOR.toLowerCase(Locale.UK));
-        if (markerColor != null) {
-            try {
-                final Color tempColor = Color.web(markerColor);
-                defaultMarkerColor = tempColor;
-            } catch (final IllegalArgumentException ex) {
-                if (LOGGER.isErrorEnabled()) {
-                    LOGGER.error(new StringBuilder().append("could not parse marker color description for '").append(XYChartCss.MARKER_COLOR).append("'='").append(markerColor).append("'").toString(),
-                            ex);
+                if (marker.isFilled()) {
+                    gc.fill();
+                } else {
+                    gc.stroke();
+                }
+            } else {
+                for (int i = runStart; i < runEnd; i++) {
+                    runMarker.draw(gc, localCachedPoints.xValues[i], localCachedPoints.yValues[i], runMarkerSize);
                 }
             }
+            if (runStyle != null) {
+                gc.restore();
+            }
+            runStart = runEnd;
         }
+    }
 
-        return new Triple<>(defaultMarker, defaultMarkerColor, defaultMarkerSize);
+    protected Triple<Marker, Color, Double> getDefaultMarker(final String dataSetStyle) {
+        final CompiledStyle style = CompiledStyle.get(dataSetStyle);
+        return new Triple<>(getMarker(style), getMarkerColor(style), getMarkerSize(style));
+    }
+
+    protected Marker getMarker(final CompiledStyle style) {
+        return style.getMarkerType() == null ? getMarker() : style.getMarkerType();
+    }
+
+    protected Color getMarkerColor(final CompiledStyle style) {
+        // N.B. the markers are drawn in the same colour as the polyline (ie. stroke color) unless specified otherwise
+        return style.getMarkerColor() == null ? style.getStrokeColor() : style.getMarkerColor();
+    }
+
+    protected double getMarkerSize(final CompiledStyle style) {
+        return style.getMarkerSize() == null ? getMarkerSize() : style.getMarkerSize();
     }
 
     /**
@@ -713,24 +913,34 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         return this;
     }
 
+    /**
+     * @param localCachedPoints reference to local cached data point object
+     * @return the renderer parameters captured when the frame has been prepared or -- for points computed outside of
+     *         {@link #prepare(Chart, int, List)} -- the present renderer parameters
+     */
+    private DrawParameters getDrawParameters(final CachedDataPoints localCachedPoints) {
+        return localCachedPoints.drawParameters == null ? new DrawParameters(this) : localCachedPoints.drawParameters;
+    }
+
     private void drawChartCompontents(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
         final long start = ProcessingProfiler.getTimeStamp();
-        switch (getErrorType()) {
+        final DrawParameters parameters = getDrawParameters(localCachedPoints);
+        switch (parameters.errorStyle) {
         case ERRORBARS:
             drawErrorBars(gc, localCachedPoints);
             break;
         case ERRORSURFACE:
-            if (isallowNaNs()) {
+            if (parameters.allowNaNs) {
                 drawErrorSurfaceNaNCompatible(gc, localCachedPoints);
             } else {
                 drawErrorSurface(gc, localCachedPoints);
             }
             break;
         case ERRORCOMBO:
-            if (localCachedPoints.getMinXDistance() >= getDashSize() * 2) {
+            if (localCachedPoints.getMinXDistance() >= parameters.dashSize * 2) {
                 drawErrorBars(gc, localCachedPoints);
             } else {
-                if (isallowNaNs()) {
+                if (parameters.allowNaNs) {
                     drawErrorSurfaceNaNCompatible(gc, localCachedPoints);
                 } else {
                     drawErrorSurface(gc, localCachedPoints);
@@ -745,6 +955,89 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
         ProcessingProfiler.getTimeDiff(start);
     }
 
+    /**
+     * executes the per data set jobs concurrently and collects their results in the original (drawing) order
+     *
+     * @param jobs per data set lock, transform and reduce jobs
+     * @param pointsToDraw list the results are added to
+     */
+    private static void computeInParallel(final List<Callable<Optional<CachedDataPoints>>> jobs,
+            final List<CachedDataPoints> pointsToDraw) {
+        final List<Future<Optional<CachedDataPoints>>> futures = new ArrayList<>(jobs.size());
+        for (final Callable<Optional<CachedDataPoints>> job : jobs) {
+            futures.add(DATA_SET_POOL.submit(job));
+        }
+
+        RuntimeException exception = null;
+        boolean interrupted = false;
+        for (final Future<Optional<CachedDataPoints>> future : futures) {
+            // N.B. wait uninterruptibly: the workers write into pooled buffers that must not be released (or drawn)
+            // before they finished, the interrupt flag is restored below
+            while (true) {
+                try {
+                    future.get().ifPresent(pointsToDraw::add);
+                    break;
+                } catch (final InterruptedException e) { // NOPMD -- interrupt flag restored after all jobs finished
+                    interrupted = true;
+                } catch (final ExecutionException e) {
+                    if (exception == null) {
+                        exception = new IllegalStateException("one data set worker finished execution with error", e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (exception != null) {
+            // N.B. all jobs have finished at this point -- no worker is left writing into released buffers
+            pointsToDraw.forEach(CachedDataPoints::release);
+            pointsToDraw.clear();
+            throw exception;
+        }
+    }
+
+    private static Optional<CachedDataPoints> computeJob(final Callable<Optional<CachedDataPoints>> job) {
+        try {
+            return job.call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final Exception e) { // NOPMD -- Callable contract, not thrown by the jobs above
+            throw new IllegalStateException("data set job finished execution with error", e);
+        }
+    }
+
+    /**
+     * releases the incremental screen coordinate caches and level-of-detail indices of data sets that are no longer
+     * drawn
+     *
+     * @param incrementalDataSets data sets that are drawn incrementally in the present frame
+     * @param levelOfDetailDataSets data sets that are drawn from a level-of-detail index in the present frame
+     */
+    private void releaseUnusedCaches(final List<DataSet> incrementalDataSets,
+            final List<DataSet> levelOfDetailDataSets) {
+        releaseUnused(incrementalCaches, incrementalDataSets, IncrementalDataPointCache::release);
+        releaseUnused(levelOfDetailIndices, levelOfDetailDataSets, MinMaxPyramid::release);
+    }
+
+    private static <T> void releaseUnused(final Map<DataSet, T> map, final List<DataSet> drawnDataSets,
+            final Consumer<T> release) {
+        if (map.isEmpty()) {
+            return;
+        }
+        final Set<DataSet> drawn = Collections.newSetFromMap(new IdentityHashMap<>());
+        drawn.addAll(drawnDataSets);
+        map.entrySet().removeIf(entry -> {
+            if (drawn.contains(entry.getKey())) {
+                return false;
+            }
+            release.accept(entry.getValue());
+            return true;
+        });
+    }
+
     protected static void drawPolyLineArea(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
         final int n = localCachedPoints.actualDataCount;
         if (n == 0) {
@@ -1023,4 +1316,80 @@ public class ErrorDataSetRenderer extends AbstractErrorDataSetRendererParameter<
             input[stopIndex + i] = input[xend - stopIndex + i];
         }
     }
+
+    /**
+     * appends a line segment to the current path, segments with non-finite coordinates are skipped (N.B. a single
+     * non-finite coordinate would invalidate the whole shared path while 'strokeLine' only drops the affected line)
+     */
+    private static void appendLine(final GraphicsContext gc, final double x1, final double y1, final double x2, final double y2) {
+        if (Double.isFinite(x1) && Double.isFinite(y1) && Double.isFinite(x2) && Double.isFinite(y2)) {
+            gc.moveTo(x1, y1);
+            gc.lineTo(x2, y2);
+        }
+    }
+
+    private static void drawLine(final GraphicsContext gc, final boolean batched, final double x1, final double y1, final double x2, final double y2) {
+        if (batched) {
+            appendLine(gc, x1, y1, x2, y2);
+        } else {
+            gc.strokeLine(x1, y1, x2, y2);
+        }
+    }
+
+    private static int getStyleRunEnd(final String[] styles, final int runStart, final int nPoints) {
+        final String runStyle = styles[runStart];
+        int runEnd = runStart + 1;
+        while (runEnd < nPoints && Objects.equals(styles[runEnd], runStyle)) {
+            runEnd++;
+        }
+        return runEnd;
+    }
+
+    /**
+     * immutable copy of the renderer parameters read while drawing, taken on the FX thread together with the axis
+     * snapshots so that a frame is drawn with the same parameters its screen coordinates have been computed with
+     */
+    static final class DrawParameters {
+        protected final ErrorStyle errorStyle;
+        protected final boolean allowNaNs;
+        protected final int dashSize;
+        protected final boolean drawBars;
+        protected final double barWidthPercentage;
+        protected final int barWidth;
+        protected final boolean dynamicBarWidth;
+        protected final boolean shiftBar;
+        protected final int shiftBarOffset;
+        protected final boolean batchedDrawing;
+        protected final boolean drawBubbles;
+        protected final boolean drawMarker;
+        protected final Marker marker;
+        protected final double markerSize;
+        protected final LineStyle polyLineStyle;
+
+        protected DrawParameters(final ErrorDataSetRenderer renderer) {
+            errorStyle = renderer.getErrorType();
+            allowNaNs = renderer.isallowNaNs();
+            dashSize = renderer.getDashSize();
+            drawBars = renderer.isDrawBars();
+            barWidthPercentage = renderer.getBarWidthPercentage();
+            barWidth = renderer.getBarWidth();
+            dynamicBarWidth = renderer.isDynamicBarWidth();
+            shiftBar = renderer.isShiftBar();
+            shiftBarOffset = renderer.getShiftBarOffset();
+            batchedDrawing = renderer.isBatchedDrawing();
+            drawBubbles = renderer.isDrawBubbles();
+            drawMarker = renderer.isDrawMarker();
+            marker = renderer.getMarker();
+            markerSize = renderer.getMarkerSize();
+            polyLineStyle = renderer.getPolyLineStyle();
+        }
+
+        protected Marker getMarker(final CompiledStyle style) {
+            return style.getMarkerType() == null ? marker : style.getMarkerType();
+        }
+
+        protected double getMarkerSize(final CompiledStyle style) {
+            return style.getMarkerSize() == null ? markerSize : style.getMarkerSize();
+        }
+    }
 }
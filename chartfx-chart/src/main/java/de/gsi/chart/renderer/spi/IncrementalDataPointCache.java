@@ -0,0 +1,273 @@
+package de.gsi.chart.renderer.spi;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+import de.gsi.chart.axes.spi.AxisSnapshot;
+import de.gsi.chart.renderer.ErrorStyle;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.AxisChangeEvent;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.utils.DoubleArrayCache;
+
+/**
+ * package private per-DataSet screen coordinate cache used by the ErrorDataSetRenderer 'incrementalRendering' mode.
+ * <p>
+ * The transformed screen coordinates are kept across frames as long as the axis ranges and sizes (as well as the
+ * renderer error style) do not change. Based on the index ranges carried by {@link AddedDataEvent} and
+ * {@link RemovedDataEvent} only newly appended data points are transformed, while points dropped at the front (e.g.
+ * by ring-buffer-type data sets) are shifted out of the cache. Any other data modification (in-place updates,
+ * insertions, removals within the data set, or events without index information) falls back to a full
+ * re-computation.
+ * <p>
+ * N.B. since notifications are issued after the data set's write-lock has been released, the cache cross-checks the
+ * first and last retained data point against the data set before re-using its content. The cache is registered with
+ * the data set via a weak listener, ie. it does not keep the cache alive once the renderer has dropped it.
+ *
+ * @author rstein
+ */
+class IncrementalDataPointCache {
+    private static final int KEY_LENGTH = 13;
+    private final DataSet dataSet;
+    private final WeakUpdateListener listener;
+    private final double[] key = new double[KEY_LENGTH];
+    private CachedDataPoints points;
+    private double[] rawX;
+    private double[] rawY;
+    private int capacity;
+    private int dataCount; // number of data points the cache refers to
+    private int validMin; // first index (inclusive) holding valid screen coordinates
+    private int validMax; // last index (exclusive) holding valid screen coordinates
+    // pending modifications reported by the data set since the last frame (guarded by 'this')
+    private boolean pendingInvalidate = true;
+    private int pendingAppended;
+    private int pendingAppendedFrom = Integer.MAX_VALUE;
+
+    IncrementalDataPointCache(final DataSet dataSet) {
+        this.dataSet = dataSet;
+        this.listener = new WeakUpdateListener(this);
+        dataSet.addListener(listener);
+    }
+
+    /**
+     * @param event data set notification
+     */
+    synchronized void handle(final UpdateEvent event) {
+        if (event instanceof AxisChangeEvent) {
+            // data set limits only -- data points are unchanged
+            return;
+        }
+        if (!(event instanceof AddedDataEvent || event instanceof RemovedDataEvent)
+                || !((UpdatedDataEvent) event).hasIndexRange()) {
+            // in-place modifications or unspecified changes
+            pendingInvalidate = true;
+            return;
+        }
+        final UpdatedDataEvent dataEvent = (UpdatedDataEvent) event;
+        if (event instanceof AddedDataEvent) {
+            // appended data points -- the number of points dropped at the front is derived from the data count
+            pendingAppended += dataEvent.getToIndex() - dataEvent.getFromIndex();
+            pendingAppendedFrom = Math.min(pendingAppendedFrom, dataEvent.getFromIndex());
+        } else if (dataEvent.getFromIndex() != 0) {
+            // removal from within the data set shifts indices of all later points
+            pendingInvalidate = true;
+        }
+    }
+
+    /**
+     * releases the cached arrays and detaches from the data set
+     */
+    public void release() {
+        dataSet.removeListener(listener);
+        releaseArrays();
+    }
+
+    /**
+     * N.B. needs to be called while holding the data set's read-lock
+     *
+     * @param xAxis the horizontal axis state (captured on the FX thread)
+     * @param yAxis the vertical axis state (captured on the FX thread)
+     * @param dsIndex the data set index (used for the default styling)
+     * @param indexMin minimum index (inclusive) to be drawn
+     * @param indexMax maximum index (exclusive) to be drawn
+     * @param errorStyle the renderer's error style
+     * @param isPolarPlot whether the chart is polar
+     * @param doAllowForNaNs whether NaN values are permitted
+     * @param parallel whether a full re-computation may use the parallel implementation
+     * @return new CachedDataPoints for the given index range (to be released by the caller)
+     */
+    public CachedDataPoints computeScreenCoordinates(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final int dsIndex,
+            final int indexMin, final int indexMax, final ErrorStyle errorStyle, final boolean isPolarPlot,
+            final boolean doAllowForNaNs, final boolean parallel) {
+        final int nData = dataSet.getDataCount(DIM_X);
+        final boolean invalidate;
+        final int appended;
+        final int appendedFrom;
+        synchronized (this) {
+            invalidate = pendingInvalidate;
+            appended = pendingAppended;
+            appendedFrom = pendingAppendedFrom;
+            pendingInvalidate = false;
+            pendingAppended = 0;
+            pendingAppendedFrom = Integer.MAX_VALUE;
+        }
+
+        final boolean sameAxes = updateKey(xAxis, yAxis, errorStyle, isPolarPlot, doAllowForNaNs);
+        if (invalidate || !sameAxes || nData > capacity || !retainValidRange(nData, appended, appendedFrom)) {
+            reallocate(nData);
+            validMin = indexMin;
+            validMax = indexMin;
+        }
+
+        if (indexMax <= validMin || indexMin >= validMax) {
+            // no overlap with the previously valid range
+            validMin = indexMin;
+            validMax = indexMin;
+        }
+
+        if (validMin == validMax) {
+            // full re-computation
+            compute(xAxis, yAxis, dsIndex, indexMin, indexMax, errorStyle, isPolarPlot, doAllowForNaNs, parallel);
+            validMin = indexMin;
+            validMax = indexMax;
+        } else {
+            if (indexMin < validMin) {
+                compute(xAxis, yAxis, dsIndex, indexMin, validMin, errorStyle, isPolarPlot, doAllowForNaNs, false);
+                validMin = indexMin;
+            }
+            if (indexMax > validMax) {
+                compute(xAxis, yAxis, dsIndex, validMax, indexMax, errorStyle, isPolarPlot, doAllowForNaNs, false);
+                validMax = indexMax;
+            }
+        }
+        dataCount = nData;
+
+        final CachedDataPoints localCachedPoints = new CachedDataPoints(indexMin, indexMax, nData, true);
+        localCachedPoints.setBoundaryConditions(xAxis, yAxis, dataSet, dsIndex, indexMin, indexMax, errorStyle,
+                isPolarPlot, doAllowForNaNs);
+        localCachedPoints.copyScreenCoordinates(points, indexMin, indexMax);
+        return localCachedPoints;
+    }
+
+    private void compute(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final int dsIndex, final int min, final int max,
+            final ErrorStyle errorStyle, final boolean isPolarPlot, final boolean doAllowForNaNs,
+            final boolean parallel) {
+        if (parallel) {
+            points.computeScreenCoordinatesInParallel(xAxis, yAxis, dataSet, dsIndex, min, max, errorStyle,
+                    isPolarPlot, doAllowForNaNs);
+        } else {
+            points.computeScreenCoordinates(xAxis, yAxis, dataSet, dsIndex, min, max, errorStyle, isPolarPlot,
+                    doAllowForNaNs);
+        }
+        for (int index = min; index < max; index++) {
+            rawX[index] = dataSet.get(DIM_X, index);
+            rawY[index] = dataSet.get(DIM_Y, index);
+        }
+    }
+
+    private void reallocate(final int nData) {
+        if (points != null && nData <= capacity) {
+            return;
+        }
+        releaseArrays();
+        // N.B. some head-room to amortise re-allocations of growing data sets
+        capacity = nData + (nData >> 1) + 1;
+        points = new CachedDataPoints(0, 0, capacity, true);
+        rawX = DoubleArrayCache.getInstance().getArrayExact(capacity);
+        rawY = DoubleArrayCache.getInstance().getArrayExact(capacity);
+    }
+
+    private void releaseArrays() {
+        if (points == null) {
+            return;
+        }
+        points.release();
+        DoubleArrayCache.getInstance().add(rawX);
+        DoubleArrayCache.getInstance().add(rawY);
+        points = null;
+        capacity = 0;
+    }
+
+    /**
+     * drops data points at the front
+     *
+     * @param nData present number of data points
+     * @param appended number of data points added since the last frame
+     * @param appendedFrom lowest index at which data points have been added since the last frame
+     * @return {@code false} if the cache content cannot be (safely) re-used
+     */
+    private boolean retainValidRange(final int nData, final int appended, final int appendedFrom) {
+        final int dropped = dataCount + appended - nData;
+        if (dropped < 0 || dropped > dataCount || (appended > 0 && appendedFrom < nData - appended)) {
+            // inconsistent count or points inserted before the end of the data set
+            return false;
+        }
+        if (dropped > 0) {
+            final int retained = dataCount - dropped;
+            points.shiftScreenCoordinates(dropped, retained);
+            System.arraycopy(rawX, dropped, rawX, 0, retained);
+            System.arraycopy(rawY, dropped, rawY, 0, retained);
+            validMin = Math.max(0, validMin - dropped);
+            validMax = Math.max(0, validMax - dropped);
+        }
+        validMax = Math.min(validMax, dataCount - dropped);
+        if (validMax <= validMin) {
+            return false;
+        }
+
+        return isUnchanged(validMin) && isUnchanged(validMax - 1);
+    }
+
+    private boolean isUnchanged(final int index) {
+        return Double.doubleToLongBits(rawX[index]) == Double.doubleToLongBits(dataSet.get(DIM_X, index))
+                && Double.doubleToLongBits(rawY[index]) == Double.doubleToLongBits(dataSet.get(DIM_Y, index));
+    }
+
+    /**
+     * @return {@code true} if the axis ranges, sizes and renderer settings are unchanged since the last call
+     */
+    private boolean updateKey(final AxisSnapshot xAxis, final AxisSnapshot yAxis, final ErrorStyle errorStyle,
+            final boolean isPolarPlot, final boolean doAllowForNaNs) {
+        final double[] newKey = { xAxis.getMin(), xAxis.getMax(), xAxis.getDisplayPosition(xAxis.getMin()),
+            xAxis.getDisplayPosition(xAxis.getMax()), xAxis.isLogAxis() ? 1 : 0, //
+            yAxis.getMin(), yAxis.getMax(), yAxis.getDisplayPosition(yAxis.getMin()),
+            yAxis.getDisplayPosition(yAxis.getMax()), yAxis.isLogAxis() ? 1 : 0, //
+            errorStyle.ordinal(), isPolarPlot ? 1 : 0, doAllowForNaNs ? 1 : 0 };
+        if (Arrays.equals(key, newKey)) {
+            return true;
+        }
+        System.arraycopy(newKey, 0, key, 0, KEY_LENGTH);
+        return false;
+    }
+
+    /**
+     * forwards data set notifications to the cache as long as the latter is referenced by the renderer and detaches
+     * itself from the data set otherwise
+     */
+    private static class WeakUpdateListener implements EventListener {
+        private final WeakReference<IncrementalDataPointCache> cacheReference;
+        private final DataSet dataSet;
+
+        private WeakUpdateListener(final IncrementalDataPointCache cache) {
+            this.cacheReference = new WeakReference<>(cache);
+            this.dataSet = cache.dataSet;
+        }
+
+        @Override
+        public void handle(final UpdateEvent event) {
+            final IncrementalDataPointCache cache = cacheReference.get();
+            if (cache == null) {
+                dataSet.removeListener(this);
+                return;
+            }
+            cache.handle(event);
+        }
+    }
+}
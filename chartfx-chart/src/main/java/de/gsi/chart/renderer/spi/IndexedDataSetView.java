@@ -0,0 +1,144 @@
+package de.gsi.chart.renderer.spi;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.locks.DataSetLock;
+
+/**
+ * package private read-only view on a (sorted) subset of data points of another data set used by the
+ * ErrorDataSetRenderer 'levelOfDetail' mode, e.g. the first/min/max/last points selected by a
+ * {@link de.gsi.dataset.utils.MinMaxPyramid}.
+ * <p>
+ * The view shares the lock, style, axis descriptions and listeners of the underlying data set. Use {@link #of} to
+ * obtain a view that also exposes the errors if the underlying data set is a {@link DataSetError}.
+ *
+ * @author rstein
+ */
+class IndexedDataSetView implements DataSet {
+    private static final long serialVersionUID = 2020031401L;
+    protected final DataSet dataSet;
+    protected final int[] indices;
+
+    protected IndexedDataSetView(final DataSet dataSet, final int[] indices) {
+        this.dataSet = dataSet;
+        this.indices = indices;
+    }
+
+    @Override
+    public AtomicBoolean autoNotification() {
+        return dataSet.autoNotification();
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return dataSet.get(dimIndex, indices[index]);
+    }
+
+    @Override
+    public List<AxisDescription> getAxisDescriptions() {
+        return dataSet.getAxisDescriptions();
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return indices.length;
+    }
+
+    @Override
+    public String getDataLabel(final int index) {
+        return dataSet.getDataLabel(indices[index]);
+    }
+
+    @Override
+    public int getDimension() {
+        return dataSet.getDimension();
+    }
+
+    @Override
+    public int getIndex(final int dimIndex, final double value) {
+        final int index = Arrays.binarySearch(indices, dataSet.getIndex(dimIndex, value));
+        return index >= 0 ? index : Math.min(-index - 1, indices.length - 1);
+    }
+
+    @Override
+    public String getName() {
+        return dataSet.getName();
+    }
+
+    @Override
+    public String getStyle() {
+        return dataSet.getStyle();
+    }
+
+    @Override
+    public String getStyle(final int index) {
+        return dataSet.getStyle(indices[index]);
+    }
+
+    @Override
+    public double getValue(final int dimIndex, final double x) {
+        return dataSet.getValue(dimIndex, x);
+    }
+
+    @Override
+    public <D extends DataSet> DataSetLock<D> lock() {
+        return dataSet.lock();
+    }
+
+    @Override
+    public DataSet recomputeLimits(final int dimension) {
+        return this; // limits are those of the underlying data set
+    }
+
+    @Override
+    public DataSet setStyle(final String style) {
+        dataSet.setStyle(style);
+        return this;
+    }
+
+    @Override
+    public List<EventListener> updateEventListener() {
+        return dataSet.updateEventListener();
+    }
+
+    /**
+     * @param dataSet the underlying data set
+     * @param indices sorted data point indices of the underlying data set
+     * @return view of the given data points, implementing {@link DataSetError} if the underlying data set does
+     */
+    public static IndexedDataSetView of(final DataSet dataSet, final int[] indices) {
+        if (dataSet instanceof DataSetError) {
+            return new IndexedErrorDataSetView((DataSetError) dataSet, indices);
+        }
+        return new IndexedDataSetView(dataSet, indices);
+    }
+
+    protected static class IndexedErrorDataSetView extends IndexedDataSetView implements DataSetError {
+        private static final long serialVersionUID = 2020031402L;
+
+        protected IndexedErrorDataSetView(final DataSetError dataSet, final int[] indices) {
+            super(dataSet, indices);
+        }
+
+        @Override
+        public double getErrorNegative(final int dimIndex, final int index) {
+            return ((DataSetError) dataSet).getErrorNegative(dimIndex, indices[index]);
+        }
+
+        @Override
+        public double getErrorPositive(final int dimIndex, final int index) {
+            return ((DataSetError) dataSet).getErrorPositive(dimIndex, indices[index]);
+        }
+
+        @Override
+        public ErrorType getErrorType(final int dimIndex) {
+            return ((DataSetError) dataSet).getErrorType(dimIndex);
+        }
+    }
+}
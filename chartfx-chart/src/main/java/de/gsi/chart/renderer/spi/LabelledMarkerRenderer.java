@@ -22,10 +22,9 @@ import org.slf4j.LoggerFactory;
 
 import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
-import de.gsi.chart.XYChartCss;
 import de.gsi.chart.axes.Axis;
 import de.gsi.chart.renderer.Renderer;
-import de.gsi.chart.utils.StyleParser;
+import de.gsi.chart.utils.CompiledStyle;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.utils.ProcessingProfiler;
 
@@ -278,36 +277,36 @@ public class LabelledMarkerRenderer extends AbstractDataSetManagement<LabelledMa
     }
 
     protected void setGraphicsContextAttributes(final GraphicsContext gc, final String style) {
-        final Color strokeColor = StyleParser.getColorPropertyValue(style, XYChartCss.STROKE_COLOR);
+        final CompiledStyle compiledStyle = CompiledStyle.get(style);
+        final Color strokeColor = compiledStyle.getStrokeColor();
         if (strokeColor == null) {
             gc.setStroke(strokeColorMarker);
         } else {
             gc.setStroke(strokeColor);
         }
 
-        final Color fillColor = StyleParser.getColorPropertyValue(style, XYChartCss.FILL_COLOR);
+        final Color fillColor = compiledStyle.getFillColor();
         if (fillColor == null) {
             gc.setFill(strokeColorMarker);
         } else {
             gc.setFill(fillColor);
         }
 
-        final Double strokeWidth = StyleParser.getFloatingDecimalPropertyValue(style, XYChartCss.STROKE_WIDTH);
+        final Double strokeWidth = compiledStyle.getStrokeWidth();
         if (strokeWidth == null) {
             gc.setLineWidth(strokeLineWidthMarker);
         } else {
             gc.setLineWidth(strokeWidth);
         }
 
-        final Font font = StyleParser.getFontPropertyValue(style);
+        final Font font = compiledStyle.getFont();
         if (font == null) {
             gc.setFont(Font.font(LabelledMarkerRenderer.DEFAULT_FONT, LabelledMarkerRenderer.DEFAULT_FONT_SIZE));
         } else {
             gc.setFont(font);
         }
 
-        final double[] dashPattern = StyleParser.getFloatingDecimalArrayPropertyValue(style,
-                XYChartCss.STROKE_DASH_PATTERN);
+        final double[] dashPattern = compiledStyle.getDashPattern();
         if (dashPattern == null) {
             gc.setLineDashes(strokeDashPattern);
         } else {
@@ -25,6 +25,7 @@ import de.gsi.chart.renderer.Renderer;
 import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.EventListenerList;
 import de.gsi.dataset.locks.DataSetLock;
 import de.gsi.dataset.locks.DefaultDataSetLock;
 import de.gsi.dataset.spi.DefaultAxisDescription;
@@ -188,7 +189,7 @@ public class MountainRangeRenderer extends ErrorDataSetRenderer implements Rende
         private final double zMin;
         private final double zMax;
         private final double yShift;
-        private final transient List<EventListener> updateListener = new ArrayList<>();
+        private final transient List<EventListener> updateListener = new EventListenerList();
         private final transient List<AxisDescription> axesDescriptions = new ArrayList<>(Arrays.asList( //
                 new DefaultAxisDescription("x-Axis", "a.u."), //
                 new DefaultAxisDescription("y-Axis", "a.u.")));
@@ -1,13 +1,6 @@
 package de.gsi.chart.renderer.spi.utils;
 
-import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ListProperty;
@@ -23,8 +16,7 @@ import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
 
-import de.gsi.chart.XYChartCss;
-import de.gsi.chart.utils.StyleParser;
+import de.gsi.chart.utils.CompiledStyle;
 import de.gsi.dataset.utils.AssertUtils;
 
 @SuppressWarnings("PMD.FieldNamingConventions")
@@ -106,13 +98,6 @@ public final class DefaultRenderColorScheme {
     private DefaultRenderColorScheme() {
     }
 
-    private SimpleImmutableEntry<String, String> splitQueryParameter(final String it) {
-        final int idx = it.indexOf('=');
-        final String key = idx > 0 ? it.substring(0, idx) : it;
-        final String value = (idx > 0) && (it.length() > (idx + 1)) ? it.substring(idx + 1) : null;
-        return new SimpleImmutableEntry<>(key, value);
-    }
-
     public static DoubleProperty defaultStrokeLineWidthProperty() {
         return lineWidth;
     }
@@ -129,22 +114,6 @@ public final class DefaultRenderColorScheme {
         return defaultFont;
     }
 
-    private static Color getColorModifier(final Map<String, List<String>> parameterMap, final Color orignalColor) {
-        Color color = orignalColor;
-
-        final List<String> intensityModifier = parameterMap.get(XYChartCss.DATASET_INTENSITY.toLowerCase(Locale.UK));
-        if ((color != null) && (intensityModifier != null) && !intensityModifier.isEmpty()) {
-            try {
-                final double intensity = Double.parseDouble(intensityModifier.get(0));
-                color = color.deriveColor(0, intensity / 100, 1.0, intensity / 100);
-            } catch (final NumberFormatException e) {
-                // re-use unmodified original color
-            }
-        }
-
-        return color;
-    }
-
     public static Paint getFill(final int index) {
         AssertUtils.gtEqThanZero("fillStyles index", index);
         final int size = fillStylesProperty().size();
@@ -180,18 +149,14 @@ public final class DefaultRenderColorScheme {
     }
 
     public static void setFillScheme(final GraphicsContext gc, final String defaultStyle, final int dsIndex) {
-        AssertUtils.gtEqThanZero("setFillScheme dsIndex", dsIndex);
-        final Map<String, List<String>> map = splitQuery(defaultStyle);
+        setFillScheme(gc, CompiledStyle.get(defaultStyle), dsIndex);
+    }
 
-        final Color fillColor = StyleParser.getColorPropertyValue(defaultStyle, XYChartCss.FILL_COLOR);
+    public static void setFillScheme(final GraphicsContext gc, final CompiledStyle defaultStyle, final int dsIndex) {
+        AssertUtils.gtEqThanZero("setFillScheme dsIndex", dsIndex);
+        final Color fillColor = defaultStyle.getFillColor();
         if (fillColor != null) {
-            final Color rawColor = fillColor;
-
-            final Color color = getColorModifier(map, rawColor);
-            if (color == null) {
-                return;
-            }
-
+            final Color color = defaultStyle.modifyColor(fillColor);
             final ImagePattern hatch = FillPatternStyleHelper.getDefaultHatch(color.brighter(),
                     dsIndex * hatchShiftByIndexProperty().get());
 
@@ -206,67 +171,68 @@ public final class DefaultRenderColorScheme {
         if ((gc == null) || (style == null)) {
             return;
         }
+        setGraphicsContextAttributes(gc, CompiledStyle.get(style));
+    }
+
+    public static void setGraphicsContextAttributes(final GraphicsContext gc, final CompiledStyle style) {
+        if ((gc == null) || (style == null) || (style.getStyle() == null)) {
+            return;
+        }
 
-        final Color strokeColor = StyleParser.getColorPropertyValue(style, XYChartCss.STROKE_COLOR);
+        final Color strokeColor = style.getStrokeColor();
         if (strokeColor != null) {
             gc.setStroke(strokeColor);
         }
 
-        final Color fillColor = StyleParser.getColorPropertyValue(style, XYChartCss.FILL_COLOR);
+        final Color fillColor = style.getFillColor();
         if (fillColor != null) {
             gc.setFill(fillColor);
         }
 
-        final Double strokeWidth = StyleParser.getFloatingDecimalPropertyValue(style, XYChartCss.STROKE_WIDTH);
+        final Double strokeWidth = style.getStrokeWidth();
         if (strokeWidth != null) {
             gc.setLineWidth(strokeWidth);
         }
 
-        final Font font = StyleParser.getFontPropertyValue(style);
+        final Font font = style.getFont();
         if (font != null) {
             gc.setFont(font);
         }
 
-        final double[] dashPattern = StyleParser.getFloatingDecimalArrayPropertyValue(style,
-                XYChartCss.STROKE_DASH_PATTERN);
+        final double[] dashPattern = style.getDashPattern();
         if (dashPattern != null) {
             gc.setLineDashes(dashPattern);
         }
     }
 
     public static void setLineScheme(final GraphicsContext gc, final String defaultStyle, final int dsIndex) {
-        AssertUtils.gtEqThanZero("setLineScheme dsIndex", dsIndex);
-        final Map<String, List<String>> map = splitQuery(defaultStyle);
+        setLineScheme(gc, CompiledStyle.get(defaultStyle), dsIndex);
+    }
 
-        final Color lineColor = StyleParser.getColorPropertyValue(defaultStyle, XYChartCss.DATASET_STROKE_COLOR);
-        final double[] lineDash = StyleParser.getStrokeDashPropertyValue(defaultStyle, XYChartCss.STROKE_DASH_PATTERN);
+    public static void setLineScheme(final GraphicsContext gc, final CompiledStyle defaultStyle, final int dsIndex) {
+        AssertUtils.gtEqThanZero("setLineScheme dsIndex", dsIndex);
+        final Color lineColor = defaultStyle.getStrokeColor();
         final Color rawColor = lineColor == null ? getStrokeColor(dsIndex) : lineColor;
 
         gc.setLineWidth(defaultStrokeLineWidthProperty().get());
-        gc.setLineDashes(lineDash);
+        gc.setLineDashes(defaultStyle.getDashPattern());
         gc.setFill(getFill(dsIndex));
-        gc.setStroke(getColorModifier(map, rawColor));
+        gc.setStroke(defaultStyle.modifyColor(rawColor));
     }
 
     public static void setMarkerScheme(final GraphicsContext gc, final String defaultStyle, final int dsIndex) {
-        AssertUtils.gtEqThanZero("setMarkerScheme dsIndex", dsIndex);
-        final Map<String, List<String>> map = splitQuery(defaultStyle);
+        setMarkerScheme(gc, CompiledStyle.get(defaultStyle), dsIndex);
+    }
 
-        final Color color = getColorModifier(map, getStrokeColor(dsIndex));
+    public static void setMarkerScheme(final GraphicsContext gc, final CompiledStyle defaultStyle, final int dsIndex) {
+        AssertUtils.gtEqThanZero("setMarkerScheme dsIndex", dsIndex);
+        final Color color = defaultStyle.modifyColor(getStrokeColor(dsIndex));
 
         gc.setLineWidth(markerLineWidthProperty().get());
         gc.setStroke(color);
         gc.setFill(color);
     }
 
-    private static Map<String, List<String>> splitQuery(final String styleString) {
-        if ((styleString == null) || styleString.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        return Arrays.stream(styleString.split(";")).map(SELF::splitQueryParameter).collect(Collectors.groupingBy(SimpleImmutableEntry::getKey, LinkedHashMap::new, Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
-    }
-
     public static ListProperty<Color> strokeColorProperty() {
         return strokeColours;
     }
@@ -0,0 +1,295 @@
+package de.gsi.chart.utils;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.chart.XYChartCss;
+import de.gsi.chart.marker.DefaultMarker;
+import de.gsi.chart.marker.Marker;
+
+/**
+ * Immutable, pre-parsed representation of a CSS-like data set or data point style string (e.g.
+ * "strokeColor=red; markerType=circle; markerSize=3").
+ * <p>
+ * Instances are interned in a bounded cache keyed by the style string so that renderers may resolve styles inside
+ * their drawing loops without re-parsing the string or allocating intermediate maps and strings. Missing or malformed
+ * properties are returned as {@code null} (N.B. malformed properties are logged once per distinct style string).
+ *
+ * <pre>
+ * final CompiledStyle style = CompiledStyle.get(dataSet.getStyle());
+ * final Color strokeColor = style.getStrokeColor(); // null if not defined
+ * // point style overriding the data set default style (cached per default style)
+ * final CompiledStyle pointStyle = style.derive(dataSet.getStyle(index));
+ * </pre>
+ *
+ * @author rstein
+ */
+public final class CompiledStyle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledStyle.class);
+    private static final String COULD_NOT_PARSE = "could not parse style property '{}'='{}' of '{}' returning null";
+    /** maximum number of cached styles (cache is cleared if exceeded) */
+    public static final int MAX_CACHED_STYLES = 1024;
+    /** style representing a 'null' or empty style string */
+    public static final CompiledStyle EMPTY = new CompiledStyle(null);
+    private static final Map<String, CompiledStyle> STYLE_CACHE = new ConcurrentHashMap<>();
+    private final Map<String, CompiledStyle> derivedStyles = new ConcurrentHashMap<>();
+    private final String style;
+    private final Color strokeColor;
+    private final Color fillColor;
+    private final Double strokeWidth;
+    private final double[] dashPattern;
+    private final Marker markerType;
+    private final Color markerColor;
+    private final Double markerSize;
+    private final Double intensity;
+    private final Integer dataSetIndex;
+    private final Integer dataSetLayoutOffset;
+    private final Boolean showInLegend;
+    private Font font; // lazily initialised since this requires the font subsystem
+
+    private CompiledStyle(final String style) {
+        this.style = style;
+        final Map<String, String> map = StyleParser.splitIntoMap(style);
+        strokeColor = parseColor(map, XYChartCss.STROKE_COLOR);
+        fillColor = parseColor(map, XYChartCss.FILL_COLOR);
+        strokeWidth = parseDouble(map, XYChartCss.STROKE_WIDTH);
+        dashPattern = parseDoubleArray(map, XYChartCss.STROKE_DASH_PATTERN);
+        markerType = parseMarker(map, XYChartCss.MARKER_TYPE);
+        markerColor = parseColor(map, XYChartCss.MARKER_COLOR);
+        markerSize = parseDouble(map, XYChartCss.MARKER_SIZE);
+        intensity = parseDouble(map, XYChartCss.DATASET_INTENSITY);
+        dataSetIndex = parseInteger(map, XYChartCss.DATASET_INDEX);
+        dataSetLayoutOffset = parseInteger(map, XYChartCss.DATASET_LAYOUT_OFFSET);
+        final String legend = getValue(map, XYChartCss.DATASET_SHOW_IN_LEGEND);
+        showInLegend = legend == null ? null : Boolean.valueOf(legend);
+    }
+
+    /**
+     * @param pointStyle additional style, e.g. of an individual data point, that overrides the properties of this style
+     * @return compiled combination of this and the given style (this if 'pointStyle' is null or empty)
+     */
+    public CompiledStyle derive(final String pointStyle) {
+        if (pointStyle == null || pointStyle.isEmpty()) {
+            return this;
+        }
+        if (style == null) {
+            return get(pointStyle);
+        }
+        final CompiledStyle derived = derivedStyles.get(pointStyle);
+        if (derived != null) {
+            return derived;
+        }
+        if (derivedStyles.size() >= MAX_CACHED_STYLES) {
+            derivedStyles.clear();
+        }
+        return derivedStyles.computeIfAbsent(pointStyle, key -> new CompiledStyle(style + ';' + key));
+    }
+
+    /**
+     * @return dash pattern (N.B. shared internal array -- do not modify) or null if not defined
+     */
+    public double[] getDashPattern() {
+        return dashPattern;
+    }
+
+    public Integer getDataSetIndex() {
+        return dataSetIndex;
+    }
+
+    public Integer getDataSetLayoutOffset() {
+        return dataSetLayoutOffset;
+    }
+
+    public Color getFillColor() {
+        return fillColor;
+    }
+
+    /**
+     * @return the font defined by the 'font', 'fontWeight', 'fontPosture' and 'fontSize' properties or the default font
+     * @see StyleParser#getFontPropertyValue(String)
+     */
+    public Font getFont() {
+        if (font == null) {
+            font = StyleParser.getFontPropertyValue(style);
+        }
+        return font;
+    }
+
+    /**
+     * @return colour intensity modifier in percent or null if not defined
+     */
+    public Double getIntensity() {
+        return intensity;
+    }
+
+    public Color getMarkerColor() {
+        return markerColor;
+    }
+
+    public Double getMarkerSize() {
+        return markerSize;
+    }
+
+    public Marker getMarkerType() {
+        return markerType;
+    }
+
+    public Boolean getShowInLegend() {
+        return showInLegend;
+    }
+
+    public Color getStrokeColor() {
+        return strokeColor;
+    }
+
+    public Double getStrokeWidth() {
+        return strokeWidth;
+    }
+
+    /**
+     * @return the source style string
+     */
+    public String getStyle() {
+        return style;
+    }
+
+    /**
+     * @param color the original colour
+     * @return colour modified by the 'intensity' property (if defined), or the unmodified colour
+     */
+    public Color modifyColor(final Color color) {
+        if (color == null || intensity == null) {
+            return color;
+        }
+        return color.deriveColor(0, intensity / 100, 1.0, intensity / 100);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledStyle{'" + style + "'}";
+    }
+
+    /**
+     * clears the interned style cache
+     */
+    public static void clearCache() {
+        STYLE_CACHE.clear();
+    }
+
+    /**
+     * @param style CSS-like style string
+     * @return the interned compiled style ({@link #EMPTY} for null or empty strings)
+     */
+    public static CompiledStyle get(final String style) {
+        if (style == null || style.isEmpty()) {
+            return EMPTY;
+        }
+        final CompiledStyle compiledStyle = STYLE_CACHE.get(style);
+        if (compiledStyle != null) {
+            return compiledStyle;
+        }
+        if (STYLE_CACHE.size() >= MAX_CACHED_STYLES) {
+            // simple bound -- the working set of distinct styles is usually small
+            STYLE_CACHE.clear();
+        }
+        return STYLE_CACHE.computeIfAbsent(style, CompiledStyle::new);
+    }
+
+    /**
+     * @return number of currently interned styles
+     */
+    public static int getCacheSize() {
+        return STYLE_CACHE.size();
+    }
+
+    private static String getValue(final Map<String, String> map, final String key) {
+        final String value = map.get(key.toLowerCase(Locale.UK));
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static void logParseError(final String key, final String value, final Map<String, String> map, final Exception ex) {
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.atTrace().setCause(ex).addArgument(key).addArgument(value).addArgument(map).log(COULD_NOT_PARSE);
+        }
+        if (LOGGER.isErrorEnabled()) {
+            LOGGER.atError().addArgument(key).addArgument(value).addArgument(map).log(COULD_NOT_PARSE);
+        }
+    }
+
+    private static Color parseColor(final Map<String, String> map, final String key) {
+        final String value = getValue(map, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Color.web(value);
+        } catch (final IllegalArgumentException ex) {
+            logParseError(key, value, map, ex);
+            return null;
+        }
+    }
+
+    private static Double parseDouble(final Map<String, String> map, final String key) {
+        final String value = getValue(map, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException ex) {
+            logParseError(key, value, map, ex);
+            return null;
+        }
+    }
+
+    private static double[] parseDoubleArray(final Map<String, String> map, final String key) {
+        final String value = getValue(map, key);
+        if (value == null) {
+            return null; // NOPMD -- null denotes 'not defined'
+        }
+        try {
+            final String[] splitValues = value.split(",");
+            final double[] retArray = new double[splitValues.length];
+            for (int i = 0; i < splitValues.length; i++) {
+                retArray[i] = Double.parseDouble(splitValues[i]);
+            }
+            return retArray;
+        } catch (final NumberFormatException ex) {
+            logParseError(key, value, map, ex);
+            return null; // NOPMD -- null denotes 'not defined'
+        }
+    }
+
+    private static Integer parseInteger(final Map<String, String> map, final String key) {
+        final String value = getValue(map, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.decode(value);
+        } catch (final NumberFormatException ex) {
+            logParseError(key, value, map, ex);
+            return null;
+        }
+    }
+
+    private static Marker parseMarker(final Map<String, String> map, final String key) {
+        final String value = getValue(map, key);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DefaultMarker.get(value);
+        } catch (final IllegalArgumentException ex) {
+            logParseError(key, value, map, ex);
+            return null;
+        }
+    }
+}
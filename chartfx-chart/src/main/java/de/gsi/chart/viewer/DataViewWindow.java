@@ -1,7 +1,5 @@
 package de.gsi.chart.viewer;
 
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -55,6 +53,7 @@ import de.gsi.chart.viewer.event.WindowMinimisingEvent;
 import de.gsi.chart.viewer.event.WindowRestoredEvent;
 import de.gsi.chart.viewer.event.WindowRestoringEvent;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.EventListenerList;
 import de.gsi.dataset.event.EventSource;
 
 /**
@@ -81,7 +80,7 @@ public class DataViewWindow extends BorderPane implements EventSource {
     protected transient boolean parallelListeners = false;
     private final transient AtomicBoolean autoNotification = new AtomicBoolean(true);
     private final transient AtomicBoolean updatingStage = new AtomicBoolean(false);
-    private final transient List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final transient List<EventListener> updateListeners = new EventListenerList();
 
     private final StringProperty name = new SimpleStringProperty(this, "name", "");
     private final HBox leftButtons = new HBox();
@@ -0,0 +1,81 @@
+package de.gsi.chart;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import javafx.scene.canvas.Canvas;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import de.gsi.chart.renderer.spi.ErrorDataSetRenderer;
+import de.gsi.chart.ui.geometry.Side;
+import de.gsi.chart.ui.utils.FixedRangeTestAxis;
+import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
+import de.gsi.chart.ui.utils.TestFx;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.utils.MinMaxPyramid;
+
+/**
+ * Tests the {@link XYChart} axis range handling
+ *
+ * @author rstein
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(SelectiveJavaFxInterceptor.class)
+public class XYChartTests {
+    private static final int N_SAMPLES = 20_000;
+    private static final int N_ZOOMS = 50;
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+
+    @TestFx
+    public void testAutoRangeVisibleData() {
+        final Random random = new Random(42);
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0, N_SAMPLES, WIDTH);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -1, 1, HEIGHT);
+        yAxis.setAutoRanging(true);
+        yAxis.setAutoRangeVisibleData(true);
+        final XYChart chart = new XYChart(xAxis, yAxis);
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, 10.0 * Math.sin(1e-3 * i) + random.nextGaussian());
+        }
+        chart.getDatasets().add(dataSet);
+
+        // level-of-detail renderer drawing the same data set
+        final ErrorDataSetRenderer renderer = (ErrorDataSetRenderer) chart.getRenderers().get(0);
+        renderer.setLevelOfDetail(true);
+        renderer.prepare(chart, 0, chart.getDatasets()).compute().draw(new Canvas(WIDTH, HEIGHT).getGraphicsContext2D());
+
+        for (int zoom = 0; zoom < N_ZOOMS; zoom++) {
+            // N.B. window limits on sample positions, ie. without adjacent data points outside the window
+            final int min = random.nextInt(N_SAMPLES - 2);
+            final int max = min + 1 + random.nextInt(Math.min(N_SAMPLES - min - 1, zoom % 2 == 0 ? 200 : N_SAMPLES));
+            xAxis.setRange(min, max);
+            chart.updateAxisRange();
+
+            double yMin = Double.POSITIVE_INFINITY;
+            double yMax = Double.NEGATIVE_INFINITY;
+            for (int index = 0; index < N_SAMPLES; index++) {
+                final double x = dataSet.get(DataSet.DIM_X, index);
+                if (x >= min && x <= max) {
+                    yMin = Math.min(yMin, dataSet.get(DataSet.DIM_Y, index));
+                    yMax = Math.max(yMax, dataSet.get(DataSet.DIM_Y, index));
+                }
+            }
+            assertEquals(yMin, yAxis.getAutoRange().getMin(), "visible y minimum for x in [" + min + ", " + max + "]");
+            assertEquals(yMax, yAxis.getAutoRange().getMax(), "visible y maximum for x in [" + min + ", " + max + "]");
+        }
+
+        // the chart's range query and the renderer's level-of-detail drawing share one pyramid
+        assertEquals(1, dataSet.updateEventListener().stream().filter(MinMaxPyramid.class::isInstance).count());
+
+        yAxis.setAutoRangeVisibleData(false);
+        chart.updateAxisRange();
+        assertEquals(dataSet.getAxisDescription(DataSet.DIM_Y).getMin(), yAxis.getAutoRange().getMin());
+        assertEquals(dataSet.getAxisDescription(DataSet.DIM_Y).getMax(), yAxis.getAutoRange().getMax());
+    }
+}
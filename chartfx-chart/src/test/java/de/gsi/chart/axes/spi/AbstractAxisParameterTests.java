@@ -52,6 +52,11 @@ public class AbstractAxisParameterTests {
         assertFalse(axis.isAutoRanging());
         axis.setAutoRangeRounding(false);
 
+        assertFalse(axis.isAutoRangeVisibleData());
+        axis.setAutoRangeVisibleData(true);
+        assertTrue(axis.isAutoRangeVisibleData());
+        axis.setAutoRangeVisibleData(false);
+
         assertFalse(axis.isAutoUnitScaling());
         axis.setAutoUnitScaling(true);
         assertTrue(axis.isAutoUnitScaling());
@@ -0,0 +1,67 @@
+package de.gsi.chart.axes.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import de.gsi.chart.ui.geometry.Side;
+import de.gsi.chart.ui.utils.FixedRangeTestAxis;
+import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
+import de.gsi.chart.ui.utils.TestFx;
+
+/**
+ * Tests {@link AxisSnapshot}
+ *
+ * @author rstein
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(SelectiveJavaFxInterceptor.class)
+public class AxisSnapshotTests {
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+
+    @TestFx
+    public void testAxisSnapshot() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0.0, 4.0, WIDTH);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, 0.0, 5.0, HEIGHT);
+        final FixedRangeTestAxis logAxis = new FixedRangeTestAxis(Side.LEFT, 1.0, 1000.0, HEIGHT);
+        logAxis.setLogAxis(true);
+        logAxis.updateTransform();
+        for (final FixedRangeTestAxis axis : new FixedRangeTestAxis[] { xAxis, yAxis, logAxis }) {
+            for (final boolean inverted : new boolean[] { false, true }) {
+                axis.invertAxis(inverted);
+                axis.updateTransform();
+                final AxisSnapshot snapshot = AxisSnapshot.of(axis);
+                final double length = snapshot.getLength();
+                assertEquals(axis.getSide().isHorizontal() ? axis.getWidth() : axis.getHeight(), length);
+                assertEquals(inverted, snapshot.isInvertedAxis());
+                assertEquals(axis.isLogAxis(), snapshot.isLogAxis());
+                assertEquals(axis.getMin(), snapshot.getMin());
+                assertEquals(axis.getMax(), snapshot.getMax());
+
+                final double[] values = new double[11];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = axis.getMin() + 0.1 * i * (axis.getMax() - axis.getMin());
+                    assertEquals(axis.getDisplayPosition(values[i]), snapshot.getDisplayPosition(values[i]), 1e-6, "display position of " + values[i]);
+                }
+                final double[] positions = new double[values.length + 1];
+                snapshot.getDisplayPositions(values, 0, positions, 1, values.length);
+                for (int i = 0; i < values.length; i++) {
+                    assertEquals(snapshot.getDisplayPosition(values[i]), positions[i + 1], "bulk display position of " + values[i]);
+                }
+                for (double pixel = 0; pixel <= length; pixel += 0.1 * length) {
+                    assertEquals(axis.getValueForDisplay(pixel), snapshot.getValueForDisplay(pixel), 1e-6 * Math.abs(axis.getMax()), "value at " + pixel);
+                }
+
+                // N.B. later axis changes must not affect the snapshot
+                final double reference = snapshot.getDisplayPosition(axis.getMax());
+                axis.setRange(axis.getMin(), 2.0 * axis.getMax());
+                assertEquals(reference, snapshot.getDisplayPosition(axis.getMax() / 2.0));
+                axis.setRange(axis.getMin(), axis.getMax() / 2.0);
+            }
+            axis.invertAxis(false);
+            axis.updateTransform();
+        }
+    }
+}
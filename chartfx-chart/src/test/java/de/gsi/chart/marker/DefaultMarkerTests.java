@@ -2,7 +2,9 @@ package de.gsi.chart.marker;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -24,6 +26,23 @@ public class DefaultMarkerTests {
             assertEquals(marker, DefaultMarker.get(marker.toString()));
         }
 
+        gc.beginPath();
+        for (DefaultMarker marker : DefaultMarker.values()) {
+            assertDoesNotThrow(() -> marker.appendToPath(gc, 10, 10, 5));
+        }
+        assertDoesNotThrow(() -> gc.stroke());
+        assertTrue(DefaultMarker.RECTANGLE.isFilled());
+        assertTrue(DefaultMarker.CIRCLE.isFilled());
+        assertTrue(DefaultMarker.DIAMOND1.isFilled());
+        assertFalse(DefaultMarker.RECTANGLE2.isFilled());
+        assertFalse(DefaultMarker.CIRCLE2.isFilled());
+        assertFalse(DefaultMarker.PLUS.isFilled());
+        assertFalse(DefaultMarker.CROSS.isFilled());
+        assertTrue(DefaultMarker.DIAMOND.isBatchable());
+        assertTrue(DefaultMarker.DIAMOND2.isBatchable());
+        assertFalse(DefaultMarker.CIRCLE.isBatchable());
+        assertFalse(DefaultMarker.RECTANGLE.isBatchable());
+
         assertThrows(IllegalArgumentException.class, () -> DefaultMarker.get(null));
         assertThrows(IllegalArgumentException.class, () -> DefaultMarker.get("unknown marker name ObeyDoo"));
     }
@@ -0,0 +1,247 @@
+package de.gsi.chart.plugins;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import de.gsi.chart.XYChart;
+import de.gsi.chart.axes.Axis;
+import de.gsi.chart.renderer.spi.ErrorDataSetRenderer;
+import de.gsi.chart.ui.geometry.Side;
+import de.gsi.chart.ui.utils.FixedRangeTestAxis;
+import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
+import de.gsi.chart.ui.utils.TestFx;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests the nearest-neighbour search of the {@link DataPointLocator} against a brute-force search
+ *
+ * @author rstein
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(SelectiveJavaFxInterceptor.class)
+public class DataPointLocatorTests {
+    private static final int N_SAMPLES = 2000;
+    private static final int N_QUERIES = 200;
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    private final Random random = new Random(42);
+
+    @TestFx
+    public void testSortedData() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0, N_SAMPLES, WIDTH);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -2, 2, HEIGHT);
+        final DoubleDataSet dataSet = new DoubleDataSet("sorted");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i + 0.5 * random.nextDouble(), Math.sin(0.01 * i) + 0.1 * random.nextGaussian());
+        }
+        assertNearest(xAxis, yAxis, dataSet);
+
+        // appended (sorted) data points extend the index
+        for (int i = N_SAMPLES; i < N_SAMPLES + 100; i++) {
+            dataSet.add(i, random.nextGaussian());
+        }
+        xAxis.setRange(0, N_SAMPLES + 100);
+        assertNearest(xAxis, yAxis, dataSet);
+
+        // appended data point that breaks the ordering
+        dataSet.add(N_SAMPLES / 2.0 + 0.25, 1.5);
+        assertNearest(xAxis, yAxis, dataSet);
+
+        // one index per data set, independent of the data set's content-based hash code
+        assertEquals(1, dataSet.updateEventListener().size());
+        DataPointLocator.getInstance().release(dataSet);
+        assertTrue(dataSet.updateEventListener().isEmpty());
+    }
+
+    @TestFx
+    public void testUnsortedData() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, -5, 5, WIDTH);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -5, 5, HEIGHT);
+        final DoubleDataSet dataSet = new DoubleDataSet("scatter");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(random.nextGaussian(), random.nextGaussian());
+        }
+        assertNearest(xAxis, yAxis, dataSet);
+
+        // appended points outside and within the grid range -- searched linearly until the grid is rebuilt
+        dataSet.add(4.5, -4.5);
+        for (int i = 0; i < 10; i++) {
+            dataSet.add(random.nextGaussian(), random.nextGaussian());
+        }
+        assertNearest(xAxis, yAxis, dataSet);
+        final DataPointLocator.Result corner = DataPointLocator.getInstance().findNearest(xAxis, yAxis, dataSet, xAxis.getDisplayPosition(4.5), yAxis.getDisplayPosition(-4.5), 1.0);
+        assertNotNull(corner);
+        assertEquals(N_SAMPLES, corner.getIndex());
+
+        // enough appended points to trigger a rebuild of the grid
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(2 + random.nextGaussian(), random.nextGaussian());
+        }
+        assertNearest(xAxis, yAxis, dataSet);
+
+        // in-place modification
+        dataSet.set(10, -4.0, 4.0);
+        assertNearest(xAxis, yAxis, dataSet);
+        final DataPointLocator.Result modified = DataPointLocator.getInstance().findNearest(xAxis, yAxis, dataSet, xAxis.getDisplayPosition(-4.0), yAxis.getDisplayPosition(4.0), 1.0);
+        assertNotNull(modified);
+        assertEquals(10, modified.getIndex());
+
+        // removal
+        dataSet.remove(0, 100);
+        assertNearest(xAxis, yAxis, dataSet);
+        DataPointLocator.getInstance().release(dataSet);
+    }
+
+    @TestFx
+    public void testMultipleDataSets() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, -5, 5, WIDTH);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -5, 5, HEIGHT);
+        final DoubleDataSet sorted = new DoubleDataSet("sorted");
+        final DoubleDataSet unsorted = new DoubleDataSet("unsorted");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            sorted.add(-5.0 + 10.0 * i / N_SAMPLES, random.nextGaussian());
+            unsorted.add(random.nextGaussian(), random.nextGaussian());
+        }
+        for (int query = 0; query < N_QUERIES; query++) {
+            final double screenX = WIDTH * random.nextDouble();
+            final double screenY = HEIGHT * random.nextDouble();
+            final double maxDistance = query % 2 == 0 ? Double.POSITIVE_INFINITY : 20.0;
+            final DataPointLocator.Result result = DataPointLocator.getInstance().findNearest(xAxis, yAxis, Arrays.asList(sorted, unsorted), screenX, screenY, maxDistance);
+            final double[] bruteForceSorted = bruteForce(xAxis, yAxis, sorted, screenX, screenY);
+            final double[] bruteForceUnsorted = bruteForce(xAxis, yAxis, unsorted, screenX, screenY);
+            final double best = Math.min(bruteForceSorted[1], bruteForceUnsorted[1]);
+            if (best > maxDistance) {
+                assertNull(result);
+                continue;
+            }
+            assertNotNull(result);
+            assertEquals(best, result.getDistance(), 1e-9);
+            assertSame(bruteForceSorted[1] <= bruteForceUnsorted[1] ? sorted : unsorted, result.getDataSet());
+        }
+        DataPointLocator.getInstance().release(sorted);
+        DataPointLocator.getInstance().release(unsorted);
+    }
+
+    @TestFx
+    public void testNeighbourIndices() {
+        final DoubleDataSet sorted = new DoubleDataSet("sorted");
+        final DoubleDataSet unsorted = new DoubleDataSet("unsorted");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            sorted.add(i / 4, random.nextGaussian()); // N.B. with duplicate x coordinates
+            unsorted.add(Math.round(10 * random.nextGaussian()), random.nextGaussian());
+        }
+        for (final DataSet dataSet : new DataSet[] { sorted, unsorted }) {
+            for (int query = 0; query < N_QUERIES; query++) {
+                final double x = query % 2 == 0 ? Math.round(30 * random.nextGaussian()) : 600 * random.nextDouble() - 50;
+                assertArrayEquals(bruteForceNeighbours(dataSet, x), DataPointLocator.getInstance().findNeighbourIndices(dataSet, x), "neighbours of x = " + x);
+            }
+            DataPointLocator.getInstance().release(dataSet);
+        }
+    }
+
+    @TestFx
+    public void testReleaseOnDetach() {
+        final XYChart chart = new XYChart(new FixedRangeTestAxis(Side.BOTTOM, 0, N_SAMPLES, WIDTH), new FixedRangeTestAxis(Side.LEFT, -2, 2, HEIGHT));
+        final DataPointTooltip plugin = new DataPointTooltip();
+        chart.getPlugins().add(plugin);
+        final DoubleDataSet chartDataSet = new DoubleDataSet("chart");
+        final DoubleDataSet rendererDataSet = new DoubleDataSet("renderer");
+        final DoubleDataSet remaining = new DoubleDataSet("remaining");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            chartDataSet.add(i, random.nextGaussian());
+            rendererDataSet.add(i, random.nextGaussian());
+            remaining.add(i, random.nextGaussian());
+        }
+        final ErrorDataSetRenderer renderer = new ErrorDataSetRenderer();
+        renderer.getDatasets().add(rendererDataSet);
+        chart.getRenderers().add(renderer);
+        chart.getDatasets().addAll(chartDataSet, remaining);
+        for (final DataSet dataSet : new DataSet[] { chartDataSet, rendererDataSet, remaining }) {
+            DataPointLocator.getInstance().findNearest(chart.getXAxis(), chart.getYAxis(), dataSet, 0.5 * WIDTH, 0.5 * HEIGHT, Double.POSITIVE_INFINITY);
+            assertEquals(1, countIndices(dataSet));
+        }
+
+        // data set removed from the chart
+        chart.getDatasets().remove(chartDataSet);
+        assertEquals(0, countIndices(chartDataSet));
+        assertEquals(1, countIndices(remaining));
+
+        // renderer removed from the chart
+        chart.getRenderers().remove(renderer);
+        assertEquals(0, countIndices(rendererDataSet));
+        assertEquals(1, countIndices(remaining));
+
+        // plugin removed from the chart
+        chart.getPlugins().remove(plugin);
+        assertEquals(0, countIndices(remaining));
+    }
+
+    private void assertNearest(final Axis xAxis, final Axis yAxis, final DataSet dataSet) {
+        for (int query = 0; query < N_QUERIES; query++) {
+            final double screenX = WIDTH * random.nextDouble();
+            final double screenY = HEIGHT * random.nextDouble();
+            final double maxDistance = query % 2 == 0 ? Double.POSITIVE_INFINITY : 10.0;
+            final DataPointLocator.Result result = DataPointLocator.getInstance().findNearest(xAxis, yAxis, dataSet, screenX, screenY, maxDistance);
+            final double[] expected = bruteForce(xAxis, yAxis, dataSet, screenX, screenY);
+            if (expected[1] > maxDistance) {
+                assertNull(result, "no point within maximum distance");
+                continue;
+            }
+            assertNotNull(result, "nearest point");
+            assertEquals(expected[1], result.getDistance(), 1e-9, "nearest distance");
+            final int index = result.getIndex();
+            assertEquals(dataSet.get(DataSet.DIM_X, index), result.getX());
+            assertEquals(dataSet.get(DataSet.DIM_Y, index), result.getY());
+            assertEquals(expected[1], Math.hypot(xAxis.getDisplayPosition(result.getX()) - screenX, yAxis.getDisplayPosition(result.getY()) - screenY), 1e-9);
+        }
+    }
+
+    private static long countIndices(final DataSet dataSet) {
+        return dataSet.updateEventListener().stream().filter(listener -> listener.getClass().getEnclosingClass() == DataPointLocator.class).count();
+    }
+
+    /**
+     * @return {index of largest x &lt;= searched x, index of smallest x &gt; searched x}
+     */
+    private static int[] bruteForceNeighbours(final DataSet dataSet, final double searchedX) {
+        final int[] neighbours = { -1, -1 };
+        for (int index = 0; index < dataSet.getDataCount(); index++) {
+            final double x = dataSet.get(DataSet.DIM_X, index);
+            if (x <= searchedX) {
+                if (neighbours[0] < 0 || x >= dataSet.get(DataSet.DIM_X, neighbours[0])) {
+                    neighbours[0] = index;
+                }
+            } else if (neighbours[1] < 0 || x < dataSet.get(DataSet.DIM_X, neighbours[1])) {
+                neighbours[1] = index;
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * @return {index, distance} of the nearest data point
+     */
+    private static double[] bruteForce(final Axis xAxis, final Axis yAxis, final DataSet dataSet, final double screenX, final double screenY) {
+        final double[] nearest = { -1, Double.POSITIVE_INFINITY };
+        for (int index = 0; index < dataSet.getDataCount(); index++) {
+            final double distance = Math.hypot(xAxis.getDisplayPosition(dataSet.get(DataSet.DIM_X, index)) - screenX,
+                    yAxis.getDisplayPosition(dataSet.get(DataSet.DIM_Y, index)) - screenY);
+            if (distance < nearest[1]) {
+                nearest[0] = index;
+                nearest[1] = distance;
+            }
+        }
+        return nearest;
+    }
+}
@@ -35,6 +35,23 @@ public class AbstractErrorDataSetRendererParameterTests {
         renderer.setAllowNaNs(false);
         assertFalse(renderer.isallowNaNs());
 
+        renderer.setIncrementalRendering(true);
+        assertTrue(renderer.isIncrementalRendering());
+        renderer.setIncrementalRendering(false);
+        assertFalse(renderer.isIncrementalRendering());
+
+        assertFalse(renderer.isBatchedDrawing());
+        renderer.setBatchedDrawing(true);
+        assertTrue(renderer.isBatchedDrawing());
+        renderer.setBatchedDrawing(false);
+        assertFalse(renderer.isBatchedDrawing());
+
+        assertFalse(renderer.isLevelOfDetail());
+        assertEquals(renderer, renderer.setLevelOfDetail(true));
+        assertTrue(renderer.isLevelOfDetail());
+        renderer.setLevelOfDetail(false);
+        assertFalse(renderer.isLevelOfDetail());
+
         renderer.setBarWidth(13);
         assertEquals(13, renderer.getBarWidth());
 
@@ -1,6 +1,8 @@
 package de.gsi.chart.renderer.spi;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static de.gsi.chart.ui.utils.FuzzyTestImageUtils.compareAndWriteReference;
@@ -21,9 +23,12 @@ import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 
 import de.gsi.chart.XYChart;
+import de.gsi.chart.axes.spi.AxisSnapshot;
 import de.gsi.chart.axes.spi.DefaultNumericAxis;
 import de.gsi.chart.renderer.ContourType;
 import de.gsi.chart.renderer.spi.utils.ColorGradient;
+import de.gsi.chart.ui.geometry.Side;
+import de.gsi.chart.ui.utils.FixedRangeTestAxis;
 import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
 import de.gsi.chart.ui.utils.TestFx;
 import de.gsi.chart.utils.FXUtils;
@@ -132,6 +137,33 @@ public class ContourDataSetRendererTests {
         assertDoesNotThrow(() -> cache.convertDataArrayToImage(TEST_DATA_Z, TEST_DATA_X.length, TEST_DATA_Y.length, ColorGradient.DEFAULT), "data to colour image conversion");
     }
 
+    @TestFx
+    public void testAxisSnapshot() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0.0, 4.0, WIDTH);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, 0.0, 5.0, HEIGHT);
+
+        // the asynchronous computation must use the axis state at the time the frame was prepared
+        final XYChart localChart = new XYChart(xAxis, yAxis);
+        final ContourDataSetRenderer localRenderer = new ContourDataSetRenderer();
+        localChart.getRenderers().setAll(localRenderer);
+        final DataSet dataSet = getTestDataSet();
+        final ContourDataSetCache reference = new ContourDataSetCache(localChart, localRenderer, dataSet);
+        final ContourDataSetCache snapshot = new ContourDataSetCache(localRenderer, dataSet, AxisSnapshot.of(xAxis, xAxis.getWidth()), //
+                AxisSnapshot.of(yAxis, yAxis.getHeight()), AxisSnapshot.of(localRenderer.getZAxis(), 0.0));
+        xAxis.setRange(1.0, 2.0); // N.B. concurrent axis change
+        assertEquals(reference.xMin, snapshot.xMin, 1e-9);
+        assertEquals(reference.xMax, snapshot.xMax, 1e-9);
+        assertEquals(reference.xDataPixelMin, snapshot.xDataPixelMin, 1e-9);
+        assertEquals(reference.xDataPixelMax, snapshot.xDataPixelMax, 1e-9);
+        assertEquals(reference.yDataPixelMin, snapshot.yDataPixelMin, 1e-9);
+        assertEquals(reference.yDataPixelMax, snapshot.yDataPixelMax, 1e-9);
+        assertEquals(reference.xSize, snapshot.xSize);
+        assertEquals(reference.ySize, snapshot.ySize);
+        assertArrayEquals(reference.reduced, snapshot.reduced);
+        reference.releaseCachedVariables();
+        snapshot.releaseCachedVariables();
+    }
+
     private static DataSet getTestDataSet() {
         return new DataSetBuilder().setValues(DataSet.DIM_X, TEST_DATA_X).setValues(DataSet.DIM_Y, TEST_DATA_Y).setValues(DataSet.DIM_Z, TEST_DATA_Z).build();
     }
@@ -0,0 +1,148 @@
+package de.gsi.chart.renderer.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.gsi.chart.renderer.DensityScaling;
+import de.gsi.chart.renderer.spi.utils.ColorGradient;
+
+/**
+ * Tests the rasterisation and colour-mapping kernels of the {@link DensityDataSetRenderer}
+ *
+ * @author rstein
+ */
+public class DensityDataSetRendererTests {
+    private static final int WIDTH = 10;
+    private static final int HEIGHT = 8;
+
+    @Test
+    public void basicGetterSetterTests() {
+        final DensityDataSetRenderer renderer = new DensityDataSetRenderer();
+        assertEquals(ColorGradient.VIRIDIS, renderer.getColorGradient());
+        assertSame(renderer, renderer.setColorGradient(ColorGradient.HOT));
+        assertEquals(ColorGradient.HOT, renderer.getColorGradient());
+
+        assertEquals(DensityScaling.LOG, renderer.getDensityScaling());
+        renderer.setDensityScaling(DensityScaling.LINEAR);
+        assertEquals(DensityScaling.LINEAR, renderer.getDensityScaling());
+
+        assertFalse(renderer.isDrawLines());
+        renderer.setDrawLines(true);
+        assertTrue(renderer.isDrawLines());
+
+        assertTrue(renderer.isParallelImplementation());
+        renderer.setParallelImplementation(false);
+        assertFalse(renderer.isParallelImplementation());
+
+        final int[] lut = renderer.getColourLut(ColorGradient.HOT);
+        assertSame(lut, renderer.getColourLut(ColorGradient.HOT));
+        assertFalse(Arrays.equals(lut, renderer.getColourLut(ColorGradient.JET)));
+    }
+
+    @Test
+    public void testAddPoints() {
+        final int[] hits = new int[WIDTH * HEIGHT];
+        final double[] x = { 0.0, 0.5, 9.99, 10.0, -0.1, 3.2, Double.NaN, 3.0 };
+        final double[] y = { 0.0, 0.9, 7.5, 1.0, 1.0, 8.0, 1.0, Double.NaN };
+        DensityDataSetRenderer.addPoints(hits, WIDTH, HEIGHT, x, y, x.length);
+        assertEquals(2, hits[0]);
+        assertEquals(1, hits[7 * WIDTH + 9]);
+        assertEquals(3, Arrays.stream(hits).sum(), "out-of-range and NaN coordinates are ignored");
+
+        DensityDataSetRenderer.addPoint(hits, WIDTH, HEIGHT, 4.5, 2.5);
+        DensityDataSetRenderer.addPoint(hits, WIDTH, HEIGHT, -1.0, 2.5);
+        assertEquals(1, hits[2 * WIDTH + 4]);
+        assertEquals(4, Arrays.stream(hits).sum());
+    }
+
+    @Test
+    public void testAddLines() {
+        // horizontal line -> end point is excluded
+        int[] hits = new int[WIDTH * HEIGHT];
+        DensityDataSetRenderer.addLine(hits, WIDTH, HEIGHT, 0.5, 2.5, 5.5, 2.5);
+        for (int x = 0; x < WIDTH; x++) {
+            assertEquals(x < 5 ? 1 : 0, hits[2 * WIDTH + x], "x = " + x);
+        }
+        assertEquals(5, Arrays.stream(hits).sum());
+
+        // diagonal line clipped to the buffer
+        hits = new int[WIDTH * HEIGHT];
+        DensityDataSetRenderer.addLine(hits, WIDTH, HEIGHT, -5.5, -5.5, 20.5, 20.5);
+        for (int i = 0; i < HEIGHT; i++) {
+            assertEquals(1, hits[i * WIDTH + i], "diagonal pixel " + i);
+        }
+        assertEquals(HEIGHT, Arrays.stream(hits).sum());
+
+        // fully outside, sub-pixel and NaN segments
+        hits = new int[WIDTH * HEIGHT];
+        DensityDataSetRenderer.addLine(hits, WIDTH, HEIGHT, -5.0, -1.0, 20.0, -1.0);
+        assertEquals(0, Arrays.stream(hits).sum());
+        DensityDataSetRenderer.addLine(hits, WIDTH, HEIGHT, 3.1, 3.1, 3.2, 3.2);
+        assertEquals(1, hits[3 * WIDTH + 3]);
+        DensityDataSetRenderer.addLine(hits, WIDTH, HEIGHT, 1.5, 1.5, Double.NaN, 1.5);
+        assertEquals(1, hits[WIDTH + 1], "start point of a segment ending in a gap");
+        DensityDataSetRenderer.addLine(hits, WIDTH, HEIGHT, Double.NaN, 1.5, 5.5, 1.5);
+        assertEquals(2, Arrays.stream(hits).sum());
+
+        // consecutive segments count common points once
+        hits = new int[WIDTH * HEIGHT];
+        final double[] x = { 1.5, 2.5, 3.5, 4.5 };
+        final double[] y = { 1.5, 1.5, 1.5, 1.5 };
+        DensityDataSetRenderer.addLines(hits, WIDTH, HEIGHT, 0.5, 1.5, x, y, x.length);
+        assertArrayEquals(new int[] { 1, 1, 1, 1, 0 }, Arrays.copyOfRange(hits, WIDTH, WIDTH + 5));
+    }
+
+    @Test
+    public void testMergeHits() {
+        final int[][] buffers = { { 1, 0, 2, 0 }, { 0, 3, 1, 0 }, { 1, 1, 1, 0 } };
+        assertEquals(4, DensityDataSetRenderer.mergeHits(buffers, 0, 4));
+        assertArrayEquals(new int[] { 2, 4, 4, 0 }, buffers[0]);
+        assertEquals(2, DensityDataSetRenderer.mergeHits(new int[][] { { 2, 1, 5 } }, 0, 2));
+    }
+
+    @ParameterizedTest
+    @EnumSource(DensityScaling.class)
+    public void testColourMapping(final DensityScaling scaling) {
+        final int[] lut = DensityDataSetRenderer.computeColourLut(ColorGradient.HOT);
+        assertEquals(DensityDataSetRenderer.N_COLOUR_LEVELS, lut.length);
+        assertEquals(0xFF000000, lut[0], "opaque black");
+        assertEquals(0xFFFFFFFF, lut[lut.length - 1], "opaque white");
+
+        final int[] hits = { 0, 1, 50, 100 };
+        final int[] pixels = new int[hits.length];
+        DensityDataSetRenderer.convertHitsToColours(hits, pixels, 0, hits.length, 100, scaling, lut);
+        assertEquals(0, pixels[0], "no hits -> transparent");
+        assertEquals(lut[lut.length - 1], pixels[3]);
+        final int level1 = indexOf(lut, pixels[1]);
+        final int level50 = indexOf(lut, pixels[2]);
+        assertTrue(level1 >= 1, "non-zero hits -> not the 'no hit' level");
+        assertTrue(level50 > level1, "level monotonically increasing with number of hits");
+        assertTrue(level50 < lut.length - 1, "level monotonically increasing with number of hits");
+
+        // premultiplied alpha
+        final int[] transparentLut = DensityDataSetRenderer.computeColourLut(ColorGradient.RAINBOW);
+        assertEquals(0, transparentLut[0]);
+        for (final int argb : transparentLut) {
+            final int alpha = argb >>> 24;
+            assertTrue(((argb >> 16) & 0xFF) <= alpha && ((argb >> 8) & 0xFF) <= alpha && (argb & 0xFF) <= alpha);
+        }
+    }
+
+    private static int indexOf(final int[] array, final int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
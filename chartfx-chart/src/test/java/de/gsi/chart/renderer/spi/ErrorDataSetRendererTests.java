@@ -1,16 +1,30 @@
 package de.gsi.chart.renderer.spi;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static de.gsi.chart.ui.utils.FuzzyTestImageUtils.compareAndWriteReference;
 import static de.gsi.chart.ui.utils.FuzzyTestImageUtils.writeTestImage;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import javafx.collections.FXCollections;
 import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
 import org.junit.jupiter.api.Test;
@@ -22,14 +36,24 @@ import org.slf4j.LoggerFactory;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 
+import de.gsi.chart.Chart;
 import de.gsi.chart.XYChart;
 import de.gsi.chart.axes.spi.DefaultNumericAxis;
+import de.gsi.chart.marker.DefaultMarker;
+import de.gsi.chart.renderer.AsyncRenderer.DrawCommand;
+import de.gsi.chart.renderer.AsyncRenderer.RenderTask;
 import de.gsi.chart.renderer.ErrorStyle;
 import de.gsi.chart.renderer.LineStyle;
+import de.gsi.chart.ui.geometry.Side;
+import de.gsi.chart.ui.utils.FixedRangeTestAxis;
 import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
+import de.gsi.chart.ui.utils.TestFx;
 import de.gsi.chart.utils.FXUtils;
 import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.ColumnarErrorDataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
 import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.spi.utils.DataColumn;
 import de.gsi.dataset.testdata.spi.SineFunction;
 import de.gsi.math.DataSetMath;
 
@@ -121,6 +145,313 @@ public class ErrorDataSetRendererTests {
         }
     }
 
+    @Test
+    public void testAsyncRendering() throws IOException, Exception {
+        FXUtils.runAndWait(() -> chart.setAsyncRendering(true));
+        assertTrue(chart.isAsyncRendering());
+        testRenderer(LineStyle.NORMAL);
+        renderer.setIncrementalRendering(true);
+        testRenderer(LineStyle.NORMAL);
+        renderer.setIncrementalRendering(false);
+        FXUtils.runAndWait(() -> chart.setAsyncRendering(false));
+
+        // N.B. chart without scene: frames are only triggered explicitly
+        final FixedRangeTestAxis xAxisLocal = new FixedRangeTestAxis(Side.BOTTOM, 0, 100, WIDTH);
+        final FixedRangeTestAxis yAxisLocal = new FixedRangeTestAxis(Side.LEFT, -10, 10, HEIGHT);
+        final AsyncTestChart localChart = FXUtils.runAndWait(() -> new AsyncTestChart(xAxisLocal, yAxisLocal));
+        final DoubleDataSet dataSet = new DoubleDataSet("async");
+        for (int i = 0; i <= 100; i++) {
+            dataSet.add(i, Math.sin(0.1 * i));
+        }
+        final GatedRecordingRenderer gatedRenderer = localChart.gatedRenderer;
+        FXUtils.runAndWait(() -> {
+            localChart.getDatasets().add(dataSet);
+            localChart.setAsyncRendering(true);
+            localChart.requestFrame(); // frame #1 -- blocks the render worker
+        });
+        assertTrue(gatedRenderer.computeStarted.await(MAX_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "frame #1 computation started");
+
+        // frame #2 is superseded by frame #3 while the worker is busy
+        FXUtils.runAndWait(() -> {
+            for (int i = 0; i <= 100; i++) {
+                dataSet.set(i, i, 5 + Math.cos(0.1 * i));
+            }
+            localChart.requestFrame();
+            localChart.requestFrame();
+        });
+        assertTrue(localChart.getDroppedFrameCount() >= 1, "superseded frame has been counted");
+        gatedRenderer.gate.countDown();
+        assertTrue(gatedRenderer.lastFrameDrawn.await(MAX_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "frame #3 drawn");
+        FXUtils.runAndWait(() -> localChart.setAsyncRendering(false));
+
+        assertEquals(Arrays.asList(1, 3), gatedRenderer.computedFrames, "superseded frame #2 must not be computed");
+        assertEquals(3, gatedRenderer.drawnFrames.get(gatedRenderer.drawnFrames.size() - 1), "last drawn frame");
+        assertFalse(gatedRenderer.drawnFrames.contains(2), "superseded frame #2 must not be drawn");
+        // frame #1 is either drawn or discarded as stale
+        assertEquals(1 + (gatedRenderer.drawnFrames.contains(1) ? 0 : 1), localChart.getDroppedFrameCount());
+
+        // asynchronous result must match the synchronous render of the same data
+        final List<RecordedPoints> synchronous = renderPoints(localChart, Collections.singletonList(dataSet), false);
+        final RecordedPoints asynchronous = gatedRenderer.recorded.get(gatedRenderer.recorded.size() - 1);
+        assertEquals(1, synchronous.size());
+        assertArrayEquals(synchronous.get(0).xValues, asynchronous.xValues);
+        assertArrayEquals(synchronous.get(0).yValues, asynchronous.yValues);
+    }
+
+    @Test
+    public void testParallelDataSets() throws IOException, Exception {
+        renderer.setParallelDataSets(true);
+        assertTrue(renderer.isParallelDataSets());
+        for (final boolean incremental : new boolean[] { false, true }) {
+            renderer.setIncrementalRendering(incremental);
+            FXUtils.runAndWait(() -> renderer.getDatasets().setAll(getTestDataSet(), getTestDataSet(), getTestDataSet()));
+            FXUtils.runAndWait(() -> chart.requestLayout());
+            assertTrue(FXUtils.waitForFxTicks(chart.getScene(), WAIT_N_FX_PULSES, MAX_TIMEOUT_MILLIS));
+            FXUtils.runAndWait(() -> testImage = chart.snapshot(null, null));
+        }
+        renderer.setIncrementalRendering(false);
+        renderer.setParallelDataSets(false);
+    }
+
+    @TestFx
+    public void testParallelDataSetsPointsAndOrdering() {
+        final FixedRangeTestAxis xAxisLocal = new FixedRangeTestAxis(Side.BOTTOM, 0, 100, WIDTH);
+        final FixedRangeTestAxis yAxisLocal = new FixedRangeTestAxis(Side.LEFT, -10, 10, HEIGHT);
+        final XYChart localChart = new XYChart(xAxisLocal, yAxisLocal);
+        final List<DataSet> dataSets = new ArrayList<>();
+        for (int k = 0; k < 4; k++) {
+            final DoubleDataSet dataSet = new DoubleDataSet("dataSet" + k);
+            for (int i = 0; i <= 100 * (k + 1); i++) {
+                final double x = i / (k + 1.0);
+                dataSet.add(x, k + Math.sin(0.1 * x));
+            }
+            dataSets.add(dataSet);
+        }
+
+        final List<RecordedPoints> serial = renderPoints(localChart, dataSets, false);
+        final List<RecordedPoints> parallel = renderPoints(localChart, dataSets, true);
+
+        // drawing order: last data set first
+        assertEquals(dataSets.size(), serial.size());
+        assertEquals(dataSets.size(), parallel.size());
+        for (int i = 0; i < dataSets.size(); i++) {
+            final int dataSetIndex = dataSets.size() - 1 - i;
+            assertEquals(dataSetIndex, serial.get(i).dataSetIndex, "serial order");
+            assertEquals(dataSetIndex, parallel.get(i).dataSetIndex, "parallel order");
+            assertArrayEquals(serial.get(i).xValues, parallel.get(i).xValues);
+            assertArrayEquals(serial.get(i).yValues, parallel.get(i).yValues);
+
+            // brute-force transform of all (visible) points
+            final DataSet dataSet = dataSets.get(dataSetIndex);
+            final int count = dataSet.getDataCount();
+            assertEquals(count, parallel.get(i).xValues.length, "number of points");
+            for (int index = 0; index < count; index++) {
+                assertEquals(xAxisLocal.getDisplayPosition(dataSet.get(DataSet.DIM_X, index)), parallel.get(i).xValues[index], 1e-9);
+                assertEquals(yAxisLocal.getDisplayPosition(dataSet.get(DataSet.DIM_Y, index)), parallel.get(i).yValues[index], 1e-9);
+            }
+        }
+
+        // interrupted caller: all jobs are awaited and the interrupt flag is restored
+        Thread.currentThread().interrupt();
+        final List<RecordedPoints> interrupted = renderPoints(localChart, dataSets, true);
+        assertTrue(Thread.interrupted(), "interrupt flag restored");
+        assertEquals(dataSets.size(), interrupted.size());
+        for (int i = 0; i < dataSets.size(); i++) {
+            assertArrayEquals(serial.get(i).yValues, interrupted.get(i).yValues);
+        }
+    }
+
+    @TestFx
+    public void testPrepareCapturesAxisAndRendererState() {
+        final FixedRangeTestAxis xAxisLocal = new FixedRangeTestAxis(Side.BOTTOM, 0, 100, WIDTH);
+        final FixedRangeTestAxis yAxisLocal = new FixedRangeTestAxis(Side.LEFT, -10, 10, HEIGHT);
+        final XYChart localChart = new XYChart(xAxisLocal, yAxisLocal);
+        final List<DataSet> dataSets = new ArrayList<>();
+        for (int k = 0; k < 3; k++) {
+            final DoubleDataSet dataSet = new DoubleDataSet("dataSet" + k);
+            for (int i = 0; i <= 100; i++) {
+                dataSet.add(i, k + Math.sin(0.1 * i));
+            }
+            dataSets.add(dataSet);
+        }
+        final double[] expectedX = new double[101];
+        for (int i = 0; i <= 100; i++) {
+            expectedX[i] = xAxisLocal.getDisplayPosition(i);
+        }
+
+        final List<RecordedPoints> recorded = new ArrayList<>();
+        final List<Double> markerSizes = new ArrayList<>();
+        final ErrorDataSetRenderer recordingRenderer = new ErrorDataSetRenderer() {
+            @Override
+            protected void drawDefaultNoErrors(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
+                recorded.add(new RecordedPoints(localCachedPoints));
+                markerSizes.add(localCachedPoints.drawParameters.markerSize);
+            }
+        };
+        recordingRenderer.setErrorType(ErrorStyle.NONE);
+        recordingRenderer.setPointReduction(false);
+        recordingRenderer.setMarkerSize(3.0);
+        final RenderTask task = recordingRenderer.prepare(localChart, 0, dataSets);
+
+        // N.B. axis and renderer changes after the frame has been prepared (e.g. while computing outside the FX thread)
+        xAxisLocal.setRange(20, 40);
+        recordingRenderer.setErrorType(ErrorStyle.ERRORBARS);
+        recordingRenderer.setMarkerSize(7.0);
+        task.compute().draw(new Canvas(1, 1).getGraphicsContext2D());
+
+        assertEquals(dataSets.size(), recorded.size());
+        for (int i = 0; i < recorded.size(); i++) {
+            assertArrayEquals(expectedX, recorded.get(i).xValues, 1e-9, "x coordinates of the prepared axis state");
+            assertEquals(3.0, markerSizes.get(i), "marker size of the prepared renderer state");
+        }
+
+        // synchronous rendering: same points, drawn one data set after the other
+        recorded.clear();
+        recordingRenderer.setErrorType(ErrorStyle.NONE);
+        xAxisLocal.setRange(0, 100);
+        recordingRenderer.render(new Canvas(1, 1).getGraphicsContext2D(), localChart, 0, FXCollections.observableArrayList(dataSets));
+        assertEquals(dataSets.size(), recorded.size());
+        for (int i = 0; i < recorded.size(); i++) {
+            assertEquals(dataSets.size() - 1 - i, recorded.get(i).dataSetIndex, "drawing order");
+            assertArrayEquals(expectedX, recorded.get(i).xValues, 1e-9);
+        }
+    }
+
+    @TestFx
+    public void testColumnarAffineTransform() {
+        final FixedRangeTestAxis xAxisLocal = new FixedRangeTestAxis(Side.BOTTOM, 0, 1.0, WIDTH);
+        final FixedRangeTestAxis yAxisLocal = new FixedRangeTestAxis(Side.LEFT, -10, 10, HEIGHT);
+        final XYChart localChart = new XYChart(xAxisLocal, yAxisLocal);
+
+        // typed columns with a bounded history: transformed directly on the column storage (affine fast path)
+        final int nSamples = 500;
+        final ColumnarErrorDataSet columnar = new ColumnarErrorDataSet("columnar", DataColumn.linear(0.0, 1e-3),
+                DataColumn.ofScaledShort(16, 0.0, 1e-3), DataColumn.ofFloat(16), DataColumn.constant(0.25));
+        columnar.setMaxDataCount(nSamples);
+        for (int i = 0; i < 2 * nSamples; i++) {
+            columnar.add(0.0, 5.0 * Math.sin(0.02 * i), 0.1 + 0.001 * i, 0.0);
+        }
+        final DoubleErrorDataSet reference = new DoubleErrorDataSet("reference", nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            reference.add(columnar.get(DataSet.DIM_X, i), columnar.get(DataSet.DIM_Y, i),
+                    columnar.getErrorNegative(DataSet.DIM_Y, i), columnar.getErrorPositive(DataSet.DIM_Y, i));
+        }
+
+        final RecordedPoints fast = renderErrorBars(localChart, columnar);
+        final RecordedPoints generic = renderErrorBars(localChart, reference);
+        assertEquals(nSamples, fast.xValues.length, "number of points");
+        for (int index = 0; index < nSamples; index++) {
+            final double x = columnar.get(DataSet.DIM_X, index);
+            final double y = columnar.get(DataSet.DIM_Y, index);
+            assertEquals(xAxisLocal.getDisplayPosition(x), fast.xValues[index], 1e-6, "x");
+            assertEquals(yAxisLocal.getDisplayPosition(y), fast.yValues[index], 1e-6, "y");
+            assertEquals(yAxisLocal.getDisplayPosition(y - columnar.getErrorNegative(DataSet.DIM_Y, index)), fast.errorYNeg[index], 1e-6, "lower error bound");
+            assertEquals(yAxisLocal.getDisplayPosition(y + columnar.getErrorPositive(DataSet.DIM_Y, index)), fast.errorYPos[index], 1e-6, "upper error bound");
+        }
+        assertArrayEquals(generic.xValues, fast.xValues, 1e-6);
+        assertArrayEquals(generic.yValues, fast.yValues, 1e-6);
+        assertArrayEquals(generic.errorYNeg, fast.errorYNeg, 1e-6);
+        assertArrayEquals(generic.errorYPos, fast.errorYPos, 1e-6);
+    }
+
+    @TestFx
+    public void testBatchedDrawing() {
+        final FixedRangeTestAxis xAxisLocal = new FixedRangeTestAxis(Side.BOTTOM, 0, 100, WIDTH);
+        final FixedRangeTestAxis yAxisLocal = new FixedRangeTestAxis(Side.LEFT, -10, 10, HEIGHT);
+        final XYChart localChart = new XYChart(xAxisLocal, yAxisLocal);
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("batched");
+        for (int i = 0; i <= 100; i++) {
+            // N.B. non-finite points must not invalidate the shared path of the batched drawing
+            final double y = i % 17 == 5 ? Double.NaN : 5.0 * Math.sin(0.2 * i);
+            dataSet.add(i, y, 0.5 + 0.02 * i, 1.0);
+        }
+
+        final ErrorDataSetRenderer localRenderer = new ErrorDataSetRenderer();
+        localRenderer.setErrorType(ErrorStyle.ERRORBARS);
+        localRenderer.setPointReduction(false);
+        localRenderer.setAllowNaNs(true);
+        localRenderer.setPolyLineStyle(LineStyle.NONE);
+        localRenderer.setMarker(DefaultMarker.DIAMOND);
+        assertFalse(localRenderer.isBatchedDrawing(), "batched drawing is opt-in");
+        assertBatchedImageIdentity(localChart, localRenderer, dataSet);
+
+        localChart.setPolarPlot(true);
+        localRenderer.setDrawBars(true);
+        localRenderer.setDrawMarker(false);
+        assertBatchedImageIdentity(localChart, localRenderer, dataSet);
+        localChart.setPolarPlot(false);
+    }
+
+    private static void assertBatchedImageIdentity(final XYChart chart, final ErrorDataSetRenderer renderer, final DataSet dataSet) {
+        renderer.setBatchedDrawing(false);
+        final Image reference = renderImage(chart, renderer, dataSet);
+        renderer.setBatchedDrawing(true);
+        final Image batched = renderImage(chart, renderer, dataSet);
+        renderer.setBatchedDrawing(false);
+
+        // N.B. overlapping primitives of a shared path are composited once rather than per primitive, ie. the opacity
+        // of overlapping (anti-aliased) pixels may differ -- compare the coverage and colour instead
+        final double tolerance = 0.25;
+        int nPainted = 0;
+        int nDifferent = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                final Color expected = reference.getPixelReader().getColor(x, y);
+                final Color actual = batched.getPixelReader().getColor(x, y);
+                final boolean expectedPainted = expected.getOpacity() > tolerance;
+                final boolean actualPainted = actual.getOpacity() > tolerance;
+                if (expectedPainted) {
+                    nPainted++;
+                }
+                if (expectedPainted != actualPainted || expectedPainted && (Math.abs(expected.getRed() - actual.getRed()) > tolerance
+                        || Math.abs(expected.getGreen() - actual.getGreen()) > tolerance
+                        || Math.abs(expected.getBlue() - actual.getBlue()) > tolerance)) {
+                    nDifferent++;
+                }
+            }
+        }
+        assertTrue(nPainted > 1000, "data set drawn: " + nPainted);
+        assertTrue(nDifferent < 0.01 * nPainted, "differing pixels: " + nDifferent + " of " + nPainted);
+    }
+
+    private static Image renderImage(final XYChart chart, final ErrorDataSetRenderer renderer, final DataSet dataSet) {
+        final Canvas canvas = new Canvas(WIDTH, HEIGHT);
+        renderer.prepare(chart, 0, Collections.singletonList(dataSet)).compute().draw(canvas.getGraphicsContext2D());
+        final SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(parameters, null);
+    }
+
+    private static RecordedPoints renderErrorBars(final XYChart chart, final DataSet dataSet) {
+        final List<RecordedPoints> recorded = new ArrayList<>();
+        final ErrorDataSetRenderer recordingRenderer = new ErrorDataSetRenderer() {
+            @Override
+            protected void drawErrorBars(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
+                recorded.add(new RecordedPoints(localCachedPoints));
+            }
+        };
+        recordingRenderer.setErrorType(ErrorStyle.ERRORBARS);
+        recordingRenderer.setPointReduction(false);
+        recordingRenderer.prepare(chart, 0, Collections.singletonList(dataSet)).compute().draw(new Canvas(1, 1).getGraphicsContext2D());
+        assertEquals(1, recorded.size());
+        return recorded.get(0);
+    }
+
+    private static List<RecordedPoints> renderPoints(final XYChart chart, final List<DataSet> dataSets, final boolean parallel) {
+        final List<RecordedPoints> recorded = new ArrayList<>();
+        final ErrorDataSetRenderer recordingRenderer = new ErrorDataSetRenderer() {
+            @Override
+            protected void drawDefaultNoErrors(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
+                recorded.add(new RecordedPoints(localCachedPoints));
+            }
+        };
+        recordingRenderer.setErrorType(ErrorStyle.NONE);
+        recordingRenderer.setPointReduction(false);
+        recordingRenderer.setParallelDataSets(parallel);
+        recordingRenderer.prepare(chart, 0, dataSets).compute().draw(new Canvas(1, 1).getGraphicsContext2D());
+        return recorded;
+    }
+
     private void testRenderer(final LineStyle lineStyle) throws IOException, Exception {
         renderer.setPolyLineStyle(lineStyle);
         final String referenceImage = getReferenceImageFileName();
@@ -183,4 +514,90 @@ public class ErrorDataSetRendererTests {
         }
         return retVal;
     }
+
+    private static class AsyncTestChart extends XYChart {
+        private final GatedRecordingRenderer gatedRenderer = new GatedRecordingRenderer();
+
+        private AsyncTestChart(final FixedRangeTestAxis xAxis, final FixedRangeTestAxis yAxis) {
+            super(xAxis, yAxis);
+            getRenderers().setAll(gatedRenderer);
+        }
+
+        private void requestFrame() {
+            prepareAsyncFrame();
+        }
+    }
+
+    /**
+     * records the computed and drawn frames, the computation of the first frame is blocked until the gate is opened
+     */
+    private static class GatedRecordingRenderer extends ErrorDataSetRenderer {
+        private final CountDownLatch computeStarted = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final CountDownLatch lastFrameDrawn = new CountDownLatch(1);
+        private final List<Integer> computedFrames = new CopyOnWriteArrayList<>();
+        private final List<Integer> drawnFrames = new CopyOnWriteArrayList<>();
+        private final List<RecordedPoints> recorded = new CopyOnWriteArrayList<>();
+        private int frameCount;
+
+        private GatedRecordingRenderer() {
+            super();
+            setErrorType(ErrorStyle.NONE);
+            setPointReduction(false);
+        }
+
+        @Override
+        public RenderTask prepare(final Chart chart, final int dataSetOffset, final List<DataSet> datasets) {
+            final int frame = ++frameCount;
+            final RenderTask task = super.prepare(chart, dataSetOffset, datasets);
+            return () -> {
+                computedFrames.add(frame);
+                if (frame == 1) {
+                    computeStarted.countDown();
+                    try {
+                        gate.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                final DrawCommand command = task.compute();
+                return new DrawCommand() {
+                    @Override
+                    public void draw(final GraphicsContext gc) {
+                        drawnFrames.add(frame);
+                        command.draw(gc);
+                        if (frame == 3) {
+                            lastFrameDrawn.countDown();
+                        }
+                    }
+
+                    @Override
+                    public void drop() {
+                        command.drop();
+                    }
+                };
+            };
+        }
+
+        @Override
+        protected void drawDefaultNoErrors(final GraphicsContext gc, final CachedDataPoints localCachedPoints) {
+            recorded.add(new RecordedPoints(localCachedPoints));
+        }
+    }
+
+    private static class RecordedPoints {
+        private final int dataSetIndex;
+        private final double[] xValues;
+        private final double[] yValues;
+        private final double[] errorYNeg;
+        private final double[] errorYPos;
+
+        private RecordedPoints(final CachedDataPoints points) {
+            dataSetIndex = points.dataSetIndex;
+            xValues = Arrays.copyOf(points.xValues, points.actualDataCount);
+            yValues = Arrays.copyOf(points.yValues, points.actualDataCount);
+            errorYNeg = Arrays.copyOf(points.errorYNeg, points.actualDataCount);
+            errorYPos = Arrays.copyOf(points.errorYPos, points.actualDataCount);
+        }
+    }
 }
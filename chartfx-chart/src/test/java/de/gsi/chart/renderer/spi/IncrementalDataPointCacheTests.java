@@ -0,0 +1,143 @@
+package de.gsi.chart.renderer.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.testfx.framework.junit5.ApplicationExtension;
+
+import de.gsi.chart.axes.spi.AxisSnapshot;
+import de.gsi.chart.renderer.ErrorStyle;
+import de.gsi.chart.ui.geometry.Side;
+import de.gsi.chart.ui.utils.FixedRangeTestAxis;
+import de.gsi.chart.ui.utils.JavaFXInterceptorUtils.SelectiveJavaFxInterceptor;
+import de.gsi.chart.ui.utils.TestFx;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests the {@link IncrementalDataPointCache} used by the ErrorDataSetRenderer 'incrementalRendering' mode
+ *
+ * @author rstein
+ */
+@ExtendWith(ApplicationExtension.class)
+@ExtendWith(SelectiveJavaFxInterceptor.class)
+public class IncrementalDataPointCacheTests {
+    private static final int N_SAMPLES = 100;
+    private static final int GC_TIMEOUT_MILLIS = 5000;
+
+    @TestFx
+    public void testAppend() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0, 2 * N_SAMPLES, 400);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -10, 10, 300);
+        final DoubleDataSet dataSet = getTestDataSet();
+        final IncrementalDataPointCache cache = new IncrementalDataPointCache(dataSet);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+
+        // silent modification of a retained point: appending must not re-transform the retained points
+        dataSet.autoNotification().set(false);
+        dataSet.set(N_SAMPLES / 2, N_SAMPLES / 2.0, 5.0);
+        dataSet.autoNotification().set(true);
+        for (int i = N_SAMPLES; i < N_SAMPLES + 10; i++) {
+            dataSet.add(i, Math.sin(0.1 * i));
+        }
+        final CachedDataPoints points = compute(xAxis, yAxis, dataSet, cache);
+        assertEquals(yAxis.getDisplayPosition(Math.sin(0.1 * (N_SAMPLES / 2))), points.yValues[N_SAMPLES / 2], 1e-9, "retained point");
+        for (int i = N_SAMPLES; i < N_SAMPLES + 10; i++) {
+            assertEquals(xAxis.getDisplayPosition(i), points.xValues[i], 1e-9, "appended point x");
+            assertEquals(yAxis.getDisplayPosition(Math.sin(0.1 * i)), points.yValues[i], 1e-9, "appended point y");
+        }
+        points.release();
+
+        // axis change: full re-computation
+        xAxis.setRange(0, N_SAMPLES);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+        cache.release();
+        assertTrue(dataSet.updateEventListener().isEmpty(), "listener detached");
+    }
+
+    @TestFx
+    public void testModification() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0, N_SAMPLES, 400);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -10, 10, 300);
+        final DoubleDataSet dataSet = getTestDataSet();
+        final IncrementalDataPointCache cache = new IncrementalDataPointCache(dataSet);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+
+        // in-place modification in the middle (first and last point unchanged)
+        dataSet.set(N_SAMPLES / 2, N_SAMPLES / 2.0, 7.0);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+
+        // modification followed by an append
+        dataSet.set(N_SAMPLES / 3, N_SAMPLES / 3.0, -7.0);
+        dataSet.add(N_SAMPLES, 1.0);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+
+        // insertion in the middle
+        dataSet.add(N_SAMPLES / 4, N_SAMPLES / 4.0 + 0.5, 3.0);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+        cache.release();
+    }
+
+    @TestFx
+    public void testRemoval() {
+        final FixedRangeTestAxis xAxis = new FixedRangeTestAxis(Side.BOTTOM, 0, N_SAMPLES, 400);
+        final FixedRangeTestAxis yAxis = new FixedRangeTestAxis(Side.LEFT, -10, 10, 300);
+        final DoubleDataSet dataSet = getTestDataSet();
+        final IncrementalDataPointCache cache = new IncrementalDataPointCache(dataSet);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+
+        // removal from within the data set
+        dataSet.remove(N_SAMPLES / 2, N_SAMPLES / 2 + 5);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+
+        // removal at the front followed by an append (ring-buffer-type use)
+        dataSet.remove(0, 10);
+        dataSet.add(N_SAMPLES, 2.0);
+        assertScreenCoordinates(xAxis, yAxis, dataSet, cache);
+        cache.release();
+    }
+
+    @Test
+    public void testWeakListener() throws InterruptedException {
+        final DoubleDataSet dataSet = getTestDataSet();
+        final WeakReference<IncrementalDataPointCache> reference = new WeakReference<>(new IncrementalDataPointCache(dataSet));
+        assertEquals(1, dataSet.updateEventListener().size());
+
+        final long timeOut = System.currentTimeMillis() + GC_TIMEOUT_MILLIS;
+        while (reference.get() != null && System.currentTimeMillis() < timeOut) {
+            System.gc(); // NOPMD -- necessary to test weak reference
+            Thread.sleep(10);
+        }
+        assertNull(reference.get(), "cache is not kept alive by the data set");
+
+        // next notification detaches the stale listener
+        dataSet.add(N_SAMPLES, 0.0);
+        assertTrue(dataSet.updateEventListener().isEmpty(), "stale listener detached");
+    }
+
+    private static void assertScreenCoordinates(final FixedRangeTestAxis xAxis, final FixedRangeTestAxis yAxis, final DataSet dataSet, final IncrementalDataPointCache cache) {
+        final CachedDataPoints points = compute(xAxis, yAxis, dataSet, cache);
+        for (int i = 0; i < dataSet.getDataCount(); i++) {
+            assertEquals(xAxis.getDisplayPosition(dataSet.get(DataSet.DIM_X, i)), points.xValues[i], 1e-9, "x of point " + i);
+            assertEquals(yAxis.getDisplayPosition(dataSet.get(DataSet.DIM_Y, i)), points.yValues[i], 1e-9, "y of point " + i);
+        }
+        points.release();
+    }
+
+    private static CachedDataPoints compute(final FixedRangeTestAxis xAxis, final FixedRangeTestAxis yAxis, final DataSet dataSet, final IncrementalDataPointCache cache) {
+        return dataSet.lock().readLockGuard(() -> cache.computeScreenCoordinates(AxisSnapshot.of(xAxis), AxisSnapshot.of(yAxis), 0, 0, dataSet.getDataCount(), ErrorStyle.NONE, false, false, false));
+    }
+
+    private static DoubleDataSet getTestDataSet() {
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            dataSet.add(i, Math.sin(0.1 * i));
+        }
+        return dataSet;
+    }
+}
@@ -0,0 +1,68 @@
+package de.gsi.chart.renderer.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.DataSetError.ErrorType;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Tests the index-mapping of the {@link IndexedDataSetView} used by the ErrorDataSetRenderer 'levelOfDetail' mode
+ *
+ * @author rstein
+ */
+public class IndexedDataSetViewTests {
+    private static final int[] INDICES = { 0, 3, 4, 9 };
+
+    @Test
+    public void testView() {
+        final DoubleDataSet dataSet = new DoubleDataSet("test");
+        for (int i = 0; i < 10; i++) {
+            dataSet.add(i, 10.0 * i, "label" + i);
+        }
+        dataSet.addDataStyle(4, "strokeColor=red");
+        dataSet.setStyle("dsIndex=2");
+
+        final DataSet view = IndexedDataSetView.of(dataSet, INDICES);
+        assertFalse(view instanceof DataSetError);
+        assertEquals(INDICES.length, view.getDataCount());
+        assertEquals(dataSet.getDimension(), view.getDimension());
+        assertEquals(dataSet.getName(), view.getName());
+        assertEquals("dsIndex=2", view.getStyle());
+        assertSame(dataSet.lock(), view.lock());
+        for (int i = 0; i < INDICES.length; i++) {
+            assertEquals(INDICES[i], view.get(DataSet.DIM_X, i));
+            assertEquals(10.0 * INDICES[i], view.get(DataSet.DIM_Y, i));
+            assertEquals("label" + INDICES[i], view.getDataLabel(i));
+        }
+        assertEquals("strokeColor=red", view.getStyle(2));
+        assertEquals(1, view.getIndex(DataSet.DIM_X, 3.0));
+        assertEquals(3, view.getIndex(DataSet.DIM_X, 7.0), "next selected data point");
+        assertEquals(30.0, view.getValue(DataSet.DIM_Y, 3.0));
+    }
+
+    @Test
+    public void testErrorView() {
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test");
+        for (int i = 0; i < 10; i++) {
+            dataSet.add(i, 10.0 * i, 0.1 * i, 0.2 * i);
+        }
+
+        final DataSet view = IndexedDataSetView.of(dataSet, INDICES);
+        assertTrue(view instanceof DataSetError);
+        final DataSetError errorView = (DataSetError) view;
+        assertEquals(dataSet.getErrorType(DataSet.DIM_Y), errorView.getErrorType(DataSet.DIM_Y));
+        assertEquals(ErrorType.NO_ERROR, errorView.getErrorType(DataSet.DIM_X));
+        for (int i = 0; i < INDICES.length; i++) {
+            assertEquals(0.1 * INDICES[i], errorView.getErrorNegative(DataSet.DIM_Y, i));
+            assertEquals(0.2 * INDICES[i], errorView.getErrorPositive(DataSet.DIM_Y, i));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package de.gsi.chart.ui.utils;
+
+import de.gsi.chart.axes.spi.DefaultNumericAxis;
+import de.gsi.chart.ui.geometry.Side;
+
+/**
+ * {@link DefaultNumericAxis} with a fixed range and length whose display transform is updated without a JavaFX layout
+ * pass (i.e. without tick label/font rendering). Used to test renderer and plugin coordinate computations outside a
+ * Scene.
+ *
+ * @author rstein
+ */
+public class FixedRangeTestAxis extends DefaultNumericAxis {
+    /**
+     * @param side axis side, defines the orientation
+     * @param min lower axis bound
+     * @param max upper axis bound
+     * @param length axis length in pixel
+     */
+    public FixedRangeTestAxis(final Side side, final double min, final double max, final double length) {
+        super("axis", min, max, (max - min) / 10.0);
+        setSide(side);
+        setAutoRanging(false);
+        if (side.isVertical()) {
+            resize(50, length);
+        } else {
+            resize(length, 50);
+        }
+        updateTransform();
+    }
+
+    /**
+     * sets a new axis range and updates the display transform
+     *
+     * @param min lower axis bound
+     * @param max upper axis bound
+     */
+    public void setRange(final double min, final double max) {
+        set(min, max);
+        updateTransform();
+    }
+
+    /**
+     * updates the display transform, e.g. after changing the axis range or inversion
+     */
+    public final void updateTransform() {
+        setScale(calculateNewScale(getLength(), getMin(), getMax()));
+        updateCachedVariables();
+    }
+}
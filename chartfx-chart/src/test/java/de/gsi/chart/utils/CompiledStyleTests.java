@@ -0,0 +1,82 @@
+package de.gsi.chart.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javafx.scene.paint.Color;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import de.gsi.chart.marker.DefaultMarker;
+
+/**
+ * Tests the {@link CompiledStyle} and its consistency with the {@link StyleParser}
+ *
+ * @author rstein
+ */
+class CompiledStyleTests {
+    @Test
+    @DisplayName("Test compiled style properties")
+    public void testCompiledStyle() {
+        final String testStyle = "strokeColor=red; fillColor = #00FF00; strokeWidth=2.5; strokeDashPattern=3,1.5; markerType=circle; "
+                                 + "markerColor=blue; markerSize=4; intensity=50; dsIndex=3; dsLayoutOffset=0x2; showInLegend=false";
+        final CompiledStyle style = CompiledStyle.get(testStyle);
+        assertEquals(testStyle, style.getStyle());
+        assertEquals(StyleParser.getColorPropertyValue(testStyle, "strokeColor"), style.getStrokeColor());
+        assertEquals(Color.web("#00FF00"), style.getFillColor());
+        assertEquals(2.5, style.getStrokeWidth());
+        assertArrayEquals(new double[] { 3.0, 1.5 }, style.getDashPattern());
+        assertEquals(DefaultMarker.CIRCLE, style.getMarkerType());
+        assertEquals(Color.BLUE, style.getMarkerColor());
+        assertEquals(4.0, style.getMarkerSize());
+        assertEquals(50.0, style.getIntensity());
+        assertEquals(3, style.getDataSetIndex());
+        assertEquals(2, style.getDataSetLayoutOffset());
+        assertEquals(false, style.getShowInLegend());
+        assertEquals(Color.RED.deriveColor(0, 0.5, 1.0, 0.5), style.modifyColor(Color.RED));
+
+        // interned
+        assertSame(style, CompiledStyle.get(testStyle));
+        assertSame(CompiledStyle.EMPTY, CompiledStyle.get(null));
+        assertSame(CompiledStyle.EMPTY, CompiledStyle.get(""));
+        assertNull(CompiledStyle.EMPTY.getStrokeColor());
+        assertNull(CompiledStyle.EMPTY.getMarkerType());
+        assertEquals(Color.RED, CompiledStyle.EMPTY.modifyColor(Color.RED));
+
+        // malformed or missing properties
+        final CompiledStyle malformed = CompiledStyle.get("strokeColor=darthRed#22; markerType=unknown; markerSize=; dsIndex=0.aG; strokeDashPattern=1,a");
+        assertNull(malformed.getStrokeColor());
+        assertNull(malformed.getMarkerType());
+        assertNull(malformed.getMarkerSize());
+        assertNull(malformed.getDataSetIndex());
+        assertNull(malformed.getDashPattern());
+        assertNull(malformed.getFillColor());
+    }
+
+    @Test
+    @DisplayName("Test derived (point) styles and cache bound")
+    public void testDerivedStyleAndCache() {
+        final CompiledStyle defaultStyle = CompiledStyle.get("strokeColor=red; markerType=circle; markerSize=3");
+        assertSame(defaultStyle, defaultStyle.derive(null));
+        assertSame(defaultStyle, defaultStyle.derive(""));
+
+        final CompiledStyle pointStyle = defaultStyle.derive("markerSize=7;markerColor=green");
+        assertSame(pointStyle, defaultStyle.derive("markerSize=7;markerColor=green"));
+        assertEquals(Color.RED, pointStyle.getStrokeColor());
+        assertEquals(DefaultMarker.CIRCLE, pointStyle.getMarkerType());
+        assertEquals(7.0, pointStyle.getMarkerSize());
+        assertEquals(Color.GREEN, pointStyle.getMarkerColor());
+        assertSame(CompiledStyle.get("markerSize=7"), CompiledStyle.EMPTY.derive("markerSize=7"));
+
+        CompiledStyle.clearCache();
+        assertEquals(0, CompiledStyle.getCacheSize());
+        for (int i = 0; i < 2 * CompiledStyle.MAX_CACHED_STYLES; i++) {
+            CompiledStyle.get("markerSize=" + i);
+            assertTrue(CompiledStyle.getCacheSize() <= CompiledStyle.MAX_CACHED_STYLES);
+        }
+    }
+}
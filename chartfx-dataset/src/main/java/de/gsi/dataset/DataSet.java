@@ -133,6 +133,25 @@ public interface DataSet extends EventSource, Serializable {
         return retValues;
     }
 
+    /**
+     * Bulk read of the values in the index range [fromIndex, toIndex) along the 'dimIndex' axis. Implementations
+     * backed by primitive arrays should override this with a single {@code System.arraycopy}.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex index of the first data point (inclusive)
+     * @param toIndex index of the last data point (exclusive)
+     * @param target array receiving the values starting at index '0' (allocated if {@code null} or too short)
+     * @return the target array
+     */
+    default double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        for (int i = 0; i < length; i++) {
+            retValues[i] = get(dimIndex, fromIndex + i);
+        }
+        return retValues;
+    }
+
     /**
      * @return Read-Write Lock to guard the DataSet
      * @see de.gsi.dataset.locks.DataSetLock
@@ -106,6 +106,24 @@ public interface DataSetError extends DataSet {
         return retValues;
     }
 
+    /**
+     * Bulk read of the negative errors in the index range [fromIndex, toIndex) along the 'dimIndex' axis.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex index of the first data point (inclusive)
+     * @param toIndex index of the last data point (exclusive)
+     * @param target array receiving the errors starting at index '0' (allocated if {@code null} or too short)
+     * @return the target array
+     */
+    default double[] getErrorsNegative(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        for (int i = 0; i < length; i++) {
+            retValues[i] = getErrorNegative(dimIndex, fromIndex + i);
+        }
+        return retValues;
+    }
+
     /**
      * Returns the positive error along the 'dimIndex' axis for all available data points. Please note that errors are
      * assumed to be always positive!
@@ -122,6 +140,24 @@ public interface DataSetError extends DataSet {
         return retValues;
     }
 
+    /**
+     * Bulk read of the positive errors in the index range [fromIndex, toIndex) along the 'dimIndex' axis.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex index of the first data point (inclusive)
+     * @param toIndex index of the last data point (exclusive)
+     * @param target array receiving the errors starting at index '0' (allocated if {@code null} or too short)
+     * @return the target array
+     */
+    default double[] getErrorsPositive(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        for (int i = 0; i < length; i++) {
+            retValues[i] = getErrorPositive(dimIndex, fromIndex + i);
+        }
+        return retValues;
+    }
+
     /**
      * Returns the given error type for a specific dimension that may be used to drive given simplifications and
      * optimisation in derived classes.
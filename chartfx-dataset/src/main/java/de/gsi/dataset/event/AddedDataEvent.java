@@ -41,4 +41,18 @@ public class AddedDataEvent extends UpdatedDataEvent {
     public AddedDataEvent(final EventSource source, final String msg, final Object payload) {
         super(source, msg, payload);
     }
+
+    /**
+     * generates new update event for a known range of appended data point indices. N.B. the indices refer to the data
+     * set after the points have been appended, ie. after ring-buffer-type data sets may have dropped their oldest
+     * entries.
+     * 
+     * @param source the class issuing the event
+     * @param msg a customised message to be passed along (e.g. for debugging)
+     * @param fromIndex first index (inclusive) of the added data points
+     * @param toIndex last index (exclusive) of the added data points
+     */
+    public AddedDataEvent(final EventSource source, final String msg, final int fromIndex, final int toIndex) {
+        super(source, msg, fromIndex, toIndex);
+    }
 }
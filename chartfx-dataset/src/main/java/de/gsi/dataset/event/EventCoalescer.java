@@ -0,0 +1,255 @@
+package de.gsi.dataset.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * EventCoalescer that acts as an {@link EventListener} and merges bursts of {@link UpdateEvent}s from one or more
+ * {@link EventSource}s into at most one consolidated event per source and event type which are forwarded to a
+ * secondary {@link EventListener} either periodically or on demand (e.g. once per screen refresh/animation pulse).
+ * <p>
+ * Merge rules (see {@link #merge(UpdateEvent, UpdateEvent)}):
+ * <ul>
+ * <li>{@link UpdatedDataEvent}, {@link AddedDataEvent} and {@link RemovedDataEvent}: the index ranges are combined to
+ * their union. If any of the merged events has no index range, neither has the consolidated event.
+ * <li>{@link AxisChangeEvent}, {@link AxisNameChangeEvent} and {@link AxisRangeChangeEvent}: events for different
+ * dimensions are merged into an event for all dimensions (ie. dimension '-1').
+ * <li>all other events: the latest event supersedes the previous ones.
+ * </ul>
+ * Consolidated events are delivered in the order of their first occurrence since the last flush.
+ * <p>
+ * Basic usage:
+ *
+ * <pre>
+ * {@code
+ *  // at most one notification per source and event type every 40 ms
+ *  final EventCoalescer coalescer = new EventCoalescer(evt -> {  ... do stuff with the event ... }, 40, TimeUnit.MILLISECONDS);
+ *  dataSet1.addListener(coalescer);
+ *  dataSet2.addListener(coalescer);
+ *  // or, frame-driven: period '0' and explicit flush, e.g. from a JavaFX AnimationTimer
+ *  final EventCoalescer frameCoalescer = new EventCoalescer(evt -> { ... }, 0, TimeUnit.MILLISECONDS);
+ *  ...
+ *  frameCoalescer.flush();
+ * }
+ * </pre>
+ *
+ * N.B. the merged index ranges are conservative bounds of the modified data region. Listeners that need the exact
+ * history of (e.g. ring-buffer) modifications should not be coalesced.
+ *
+ * @author rstein
+ */
+@SuppressWarnings("PMD.DoNotUseThreads") // thread handling is the declared purpose of this class
+public class EventCoalescer implements EventListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventCoalescer.class);
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread t = Executors.defaultThreadFactory().newThread(r);
+        t.setName(EventCoalescer.class.getSimpleName() + "-Thread");
+        t.setDaemon(true);
+        return t;
+    }); // Daemon Service
+    private final Object lock = new Object();
+    private final EventListener eventListener;
+    private final long periodNanos;
+    private final Executor executor;
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final Map<EventKey, UpdateEvent> pendingEvents = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private long lastFlush;
+
+    /**
+     * @param eventListener the secondary event listener that is notified with the consolidated events
+     * @param period minimum period between two notifications, '0': no automatic notification, ie. events are only
+     *            delivered on {@link #flush()}
+     * @param unit time unit of the period
+     */
+    public EventCoalescer(final EventListener eventListener, final long period, final TimeUnit unit) {
+        this(eventListener, period, unit, null);
+    }
+
+    /**
+     * @param eventListener the secondary event listener that is notified with the consolidated events
+     * @param period minimum period between two notifications, '0': no automatic notification, ie. events are only
+     *            delivered on {@link #flush()}
+     * @param unit time unit of the period
+     * @param executor executor on which the consolidated events are delivered. If {@code null}, events are delivered
+     *            in the thread triggering the flush (ie. the internal timer thread or the thread calling
+     *            {@link #flush()})
+     */
+    public EventCoalescer(final EventListener eventListener, final long period, final TimeUnit unit, final Executor executor) {
+        if (eventListener == null) {
+            throw new IllegalArgumentException("eventListener must not be null");
+        }
+        if (period < 0) {
+            throw new IllegalArgumentException("period must not be negative: " + period);
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("unit must not be null");
+        }
+        this.eventListener = eventListener;
+        this.periodNanos = unit.toNanos(period);
+        this.executor = executor == null ? Runnable::run : executor;
+        this.lastFlush = System.nanoTime() - periodNanos;
+    }
+
+    /**
+     * delivers all pending consolidated events to the secondary listener
+     *
+     * @return number of delivered consolidated events
+     */
+    public int flush() {
+        final List<UpdateEvent> events;
+        synchronized (lock) {
+            flushScheduled = false;
+            lastFlush = System.nanoTime();
+            if (pendingEvents.isEmpty()) {
+                return 0;
+            }
+            events = new ArrayList<>(pendingEvents.values());
+            pendingEvents.clear();
+        }
+        executor.execute(() -> {
+            for (final UpdateEvent event : events) {
+                try {
+                    eventListener.handle(event);
+                } catch (Exception e) { // NOPMD -- listener exceptions must not stop the delivery
+                    LOGGER.atError().setCause(e).addArgument(event).log("exception while delivering consolidated event {}");
+                }
+            }
+            deliveredCount.addAndGet(events.size());
+        });
+        return events.size();
+    }
+
+    /**
+     * @return number of consolidated events delivered to the secondary listener so far
+     */
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    /**
+     * @return number of consolidated events waiting for the next flush
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pendingEvents.size();
+        }
+    }
+
+    /**
+     * @return number of events received so far
+     */
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    @Override
+    public void handle(final UpdateEvent event) {
+        receivedCount.incrementAndGet();
+        final EventKey key = new EventKey(event);
+        synchronized (lock) {
+            // N.B. no Map::merge/compute since 'null' events are valid notifications
+            pendingEvents.put(key, pendingEvents.containsKey(key) ? merge(pendingEvents.get(key), event) : event);
+            if (periodNanos == 0 || flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+            final long delay = Math.max(0, lastFlush + periodNanos - System.nanoTime());
+            TIMER.schedule(this::flush, delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * merges two events of the same source and type
+     *
+     * @param previous the pending (possibly already merged) event
+     * @param next the newly received event
+     * @return the consolidated event
+     */
+    protected UpdateEvent merge(final UpdateEvent previous, final UpdateEvent next) {
+        if (next == null) {
+            return previous;
+        }
+        final EventSource source = (EventSource) next.getSource();
+        final Class<?> type = next.getClass();
+        if (next instanceof UpdatedDataEvent && (type == UpdatedDataEvent.class || type == AddedDataEvent.class || type == RemovedDataEvent.class)) {
+            final UpdatedDataEvent prev = (UpdatedDataEvent) previous;
+            final UpdatedDataEvent last = (UpdatedDataEvent) next;
+            if (!last.hasIndexRange()) {
+                return last;
+            }
+            if (!prev.hasIndexRange()) {
+                return createDataEvent(type, source, last.getMessage(), -1, -1);
+            }
+            final int fromIndex = Math.min(prev.getFromIndex(), last.getFromIndex());
+            final int toIndex = Math.max(prev.getToIndex(), last.getToIndex());
+            if (fromIndex == last.getFromIndex() && toIndex == last.getToIndex()) {
+                return last;
+            }
+            return createDataEvent(type, source, last.getMessage(), fromIndex, toIndex);
+        }
+
+        if (next instanceof AxisChangeEvent && (type == AxisChangeEvent.class || type == AxisNameChangeEvent.class || type == AxisRangeChangeEvent.class)) {
+            final int prevDim = ((AxisChangeEvent) previous).getDimension();
+            final int lastDim = ((AxisChangeEvent) next).getDimension();
+            if (prevDim == lastDim || lastDim == -1) {
+                return next;
+            }
+            if (type == AxisNameChangeEvent.class) {
+                return new AxisNameChangeEvent(source, next.getMessage(), -1);
+            } else if (type == AxisRangeChangeEvent.class) {
+                return new AxisRangeChangeEvent(source, next.getMessage(), -1);
+            }
+            return new AxisChangeEvent(source, next.getMessage(), -1);
+        }
+
+        return next;
+    }
+
+    private static UpdatedDataEvent createDataEvent(final Class<?> type, final EventSource source, final String msg, final int fromIndex, final int toIndex) {
+        if (type == AddedDataEvent.class) {
+            return new AddedDataEvent(source, msg, fromIndex, toIndex);
+        } else if (type == RemovedDataEvent.class) {
+            return new RemovedDataEvent(source, msg, fromIndex, toIndex);
+        }
+        return new UpdatedDataEvent(source, msg, fromIndex, toIndex);
+    }
+
+    /**
+     * identity-based (source, event type) key
+     */
+    private static class EventKey {
+        private final Object source;
+        private final Class<?> type;
+
+        protected EventKey(final UpdateEvent event) {
+            source = event == null ? null : event.getSource();
+            type = event == null ? null : event.getClass();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof EventKey)) {
+                return false;
+            }
+            final EventKey other = (EventKey) obj;
+            return source == other.source && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(source) + System.identityHashCode(type);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package de.gsi.dataset.event;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Thread-safe copy-on-write list of {@link EventListener}s intended as the backing store of
+ * {@link EventSource#updateEventListener()}.
+ * <p>
+ * The (rare) add/remove operations copy and atomically swap an immutable backing array while holding the list's
+ * monitor (which is also used by {@link EventSource#addListener(EventListener)}). Event dispatch via
+ * {@link EventSource#invokeListener(UpdateEvent, boolean)} obtains the current snapshot through {@link #getListeners()}
+ * without any locking, copying or allocation. Iterators operate on the snapshot taken at their creation and do not
+ * support {@code remove()}.
+ *
+ * @author rstein
+ */
+public class EventListenerList extends AbstractList<EventListener> implements RandomAccess {
+    private static final EventListener[] EMPTY_LISTENERS = new EventListener[0];
+    private volatile EventListener[] listeners = EMPTY_LISTENERS; // N.B. never modified in place
+
+    @Override
+    public synchronized void add(final int index, final EventListener listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        final EventListener[] oldListeners = listeners;
+        if (index < 0 || index > oldListeners.length) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range [0, " + oldListeners.length + "]");
+        }
+        final EventListener[] newListeners = new EventListener[oldListeners.length + 1];
+        System.arraycopy(oldListeners, 0, newListeners, 0, index);
+        newListeners[index] = listener;
+        System.arraycopy(oldListeners, index, newListeners, index + 1, oldListeners.length - index);
+        listeners = newListeners;
+        modCount++;
+    }
+
+    @Override
+    public synchronized void clear() {
+        listeners = EMPTY_LISTENERS;
+        modCount++;
+    }
+
+    @Override
+    public EventListener get(final int index) {
+        return listeners[index];
+    }
+
+    /**
+     * @return snapshot of the current listeners. N.B. the returned array is shared and must not be modified
+     */
+    public EventListener[] getListeners() {
+        return listeners; // NOPMD -- intended: immutable shared snapshot
+    }
+
+    @Override
+    public Iterator<EventListener> iterator() {
+        return Arrays.asList(listeners).iterator();
+    }
+
+    @Override
+    public synchronized EventListener remove(final int index) {
+        final EventListener[] oldListeners = listeners;
+        final EventListener oldListener = oldListeners[index];
+        final EventListener[] newListeners = oldListeners.length == 1 ? EMPTY_LISTENERS : new EventListener[oldListeners.length - 1];
+        System.arraycopy(oldListeners, 0, newListeners, 0, index);
+        System.arraycopy(oldListeners, index + 1, newListeners, index, oldListeners.length - index - 1);
+        listeners = newListeners;
+        modCount++;
+        return oldListener;
+    }
+
+    @Override
+    public synchronized boolean remove(final Object listener) {
+        final int index = indexOf(listener);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized EventListener set(final int index, final EventListener listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        final EventListener[] newListeners = listeners.clone();
+        final EventListener oldListener = newListeners[index];
+        newListeners[index] = listener;
+        listeners = newListeners;
+        return oldListener;
+    }
+
+    @Override
+    public int size() {
+        return listeners.length;
+    }
+}
@@ -1,9 +1,7 @@
 package de.gsi.dataset.event;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -76,66 +74,64 @@ public interface EventSource {
      */
     @SuppressWarnings("PMD.NPathComplexity") // cannot be further split w/o adding unwanted further public default implementations (N.B. 'private default' ... is forbidden)
     default void invokeListener(final UpdateEvent updateEvent, final boolean executeParallel) {
-        if (updateEventListener() == null) {
+        final List<EventListener> listenerList = updateEventListener();
+        if (listenerList == null || !isAutoNotification()) {
             return;
         }
-        List<EventListener> eventListener;
-        synchronized (updateEventListener()) {
-            synchronized (autoNotification()) {
-                if (!isAutoNotification() || updateEventListener().isEmpty()) {
-                    return;
-                }
+        final EventListener[] eventListener;
+        if (listenerList instanceof EventListenerList) {
+            // lock- and copy-free access to the immutable copy-on-write snapshot
+            eventListener = ((EventListenerList) listenerList).getListeners();
+        } else {
+            synchronized (listenerList) {
+                eventListener = listenerList.toArray(new EventListener[0]);
             }
-            eventListener = new ArrayList<>(updateEventListener());
         }
+        if (eventListener.length == 0) {
+            return;
+        }
+
+        AggregateException exceptions = null; // N.B. allocated only on failure
         if (!executeParallel) {
-            // alt implementation:
-            final AggregateException exceptions = new AggregateException(
-                    EventSource.class.getSimpleName() + "(NonParallel)");
-            for (EventListener listener : eventListener) {
+            for (final EventListener listener : eventListener) {
                 try {
                     listener.handle(updateEvent);
                 } catch (Exception e) { // NOPMD -- necessary since these are forwarded
+                    if (exceptions == null) {
+                        exceptions = new AggregateException(EventSource.class.getSimpleName() + "(NonParallel)");
+                    }
                     exceptions.add(e);
                 }
             }
-            if (!exceptions.isEmpty()) {
+            if (exceptions != null) {
                 throw exceptions;
             }
             return;
         }
 
         final UpdateEvent event = updateEvent == null ? new UpdateEvent(this) : updateEvent;
-        final AggregateException exceptions = new AggregateException(
-                EventSource.class.getSimpleName() + "(Parallel)");
-        final List<Callable<Boolean>> workers = new ArrayList<>();
-        for (EventListener listener : eventListener) {
-            workers.add(() -> {
-                try {
-                    listener.handle(event);
-                    return Boolean.TRUE;
-                } catch (Exception e) { // NOPMD -- necessary since these are forwarded
-                    exceptions.add(e);
-                    exceptions.fillInStackTrace();
-                }
-                return Boolean.FALSE;
-            });
+        final ExecutorService es = EventThreadHelper.getExecutorService();
+        final Future<?>[] jobs = new Future<?>[eventListener.length];
+        for (int i = 0; i < eventListener.length; i++) {
+            final EventListener listener = eventListener[i];
+            jobs[i] = es.submit(() -> listener.handle(event));
         }
-
-        try {
-            ExecutorService es = EventThreadHelper.getExecutorService();
-            final List<Future<Boolean>> jobs = new ArrayList<>();
-            for (Callable<Boolean> worker : workers) {
-                jobs.add(es.submit(worker));
-            }
-            // submitted tasks
-            for (final Future<Boolean> future : jobs) {
-                future.get();
+        for (final Future<?> job : jobs) {
+            try {
+                job.get();
+            } catch (final InterruptedException | ExecutionException e) {
+                if (exceptions == null) {
+                    exceptions = new AggregateException(EventSource.class.getSimpleName() + "(Parallel)");
+                }
+                if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+                    // exception thrown by the listener
+                    exceptions.add(e.getCause());
+                } else {
+                    exceptions.add(new IllegalStateException("one parallel worker thread finished execution with error", e));
+                }
             }
-        } catch (final InterruptedException | ExecutionException e) {
-            exceptions.add(new IllegalStateException("one parallel worker thread finished execution with error", e));
         }
-        if (!exceptions.isEmpty()) {
+        if (exceptions != null) {
             throw exceptions;
         }
     }
@@ -169,7 +165,8 @@ public interface EventSource {
     }
 
     /**
-     * @return list containing all update event listener (needs to be provided by implementing class)
+     * @return list containing all update event listener (needs to be provided by implementing class, preferably as
+     *         {@link EventListenerList} which enables the lock- and allocation-free notification path)
      */
     List<EventListener> updateEventListener();
 }
@@ -42,4 +42,17 @@ public class RemovedDataEvent extends UpdatedDataEvent {
         super(source, msg, payload);
     }
 
+    /**
+     * generates new update event for a known range of removed data point indices. N.B. the indices refer to the data
+     * set before the points have been removed.
+     * 
+     * @param source the class issuing the event
+     * @param msg a customised message to be passed along (e.g. for debugging)
+     * @param fromIndex first index (inclusive) of the removed data points
+     * @param toIndex last index (exclusive) of the removed data points
+     */
+    public RemovedDataEvent(final EventSource source, final String msg, final int fromIndex, final int toIndex) {
+        super(source, msg, fromIndex, toIndex);
+    }
+
 }
\ No newline at end of file
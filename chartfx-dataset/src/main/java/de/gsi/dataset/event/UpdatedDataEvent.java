@@ -11,6 +11,8 @@ package de.gsi.dataset.event;
  */
 public class UpdatedDataEvent extends UpdateEvent {
     private static final long serialVersionUID = 2906468013676213645L;
+    private final int fromIndex;
+    private final int toIndex;
 
     /**
      * generates new update event
@@ -18,7 +20,7 @@ public class UpdatedDataEvent extends UpdateEvent {
      * @param source the class issuing the event
      */
     public UpdatedDataEvent(final EventSource source) {
-        super(source, null, null);
+        this(source, null, null, -1, -1);
     }
 
     /**
@@ -28,7 +30,7 @@ public class UpdatedDataEvent extends UpdateEvent {
      * @param msg a customised message to be passed along (e.g. for debugging)
      */
     public UpdatedDataEvent(final EventSource source, final String msg) {
-        super(source, msg, null);
+        this(source, msg, null, -1, -1);
     }
 
     /**
@@ -39,6 +41,46 @@ public class UpdatedDataEvent extends UpdateEvent {
      * @param payload a customised user pay-load to be passed to the listener
      */
     public UpdatedDataEvent(final EventSource source, final String msg, final Object payload) {
+        this(source, msg, payload, -1, -1);
+    }
+
+    /**
+     * generates new update event for a known range of data point indices
+     * 
+     * @param source the class issuing the event
+     * @param msg a customised message to be passed along (e.g. for debugging)
+     * @param fromIndex first index (inclusive) of the modified data points
+     * @param toIndex last index (exclusive) of the modified data points
+     */
+    public UpdatedDataEvent(final EventSource source, final String msg, final int fromIndex, final int toIndex) {
+        this(source, msg, null, fromIndex, toIndex);
+    }
+
+    private UpdatedDataEvent(final EventSource source, final String msg, final Object payload, final int fromIndex,
+            final int toIndex) {
         super(source, msg, payload);
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    /**
+     * @return first index (inclusive) of the modified data points or '-1' if unknown (ie. whole data set)
+     */
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    /**
+     * @return last index (exclusive) of the modified data points or '-1' if unknown (ie. whole data set)
+     */
+    public int getToIndex() {
+        return toIndex;
+    }
+
+    /**
+     * @return {@code true} if the event carries the index range of the modified data points
+     */
+    public boolean hasIndexRange() {
+        return fromIndex >= 0 && toIndex >= fromIndex;
     }
 }
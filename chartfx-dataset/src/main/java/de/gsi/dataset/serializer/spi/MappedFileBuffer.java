@@ -0,0 +1,940 @@
+package de.gsi.dataset.serializer.spi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.utils.AssertUtils;
+
+import sun.misc.Unsafe; // NOPMD by rstein
+
+/**
+ * IoBuffer implementation backed by a memory-mapped file. This allows to persist and replay (large) sequences of
+ * serialised DataSets without copying them through intermediate byte arrays. The file is mapped in segments of (by
+ * default) 1 GiB so that files larger than 2 GiB are supported, positions and limits are thus handled as {@code long}.
+ * Primitives are stored using the native byte order, i.e. the binary layout is identical to the one produced by
+ * {@link FastByteBuffer}.
+ * <p>
+ * In read-write mode, the mapping is grown on demand and the file is truncated to the number of bytes actually written
+ * (see {@link #size()}) when the buffer is {@link #close() closed}. The absolute accessors (e.g.
+ * {@link #getDouble(long)}, {@link #getDoubles(long, double[], int, int)}) do not modify the buffer position and may be
+ * used concurrently, e.g. by lazy DataSet views into the mapped region. All accesses to the mapped segments hold the
+ * read lock of {@link #lock()} while re-mapping (growing) and {@link #close()} take its write lock, i.e. mappings are
+ * never released while being read. The relative (position-based) accessors must be used by one thread at a time.
+ * <p>
+ * N.B. the mapping is released on {@link #close()}: any further access -- including via DataSet views -- throws an
+ * {@link IllegalStateException}.
+ *
+ * @author rstein
+ */
+@SuppressWarnings("restriction")
+public class MappedFileBuffer implements IoBuffer, Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30; // 1 GiB
+    private static final long DEFAULT_INITIAL_CAPACITY = 1L << 20; // 1 MiB
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    public static final long SIZE_OF_BOOLEAN = 1;
+    public static final long SIZE_OF_BYTE = 1;
+    public static final long SIZE_OF_SHORT = 2;
+    public static final long SIZE_OF_CHAR = 2;
+    public static final long SIZE_OF_INT = 4;
+    public static final long SIZE_OF_LONG = 8;
+    public static final long SIZE_OF_FLOAT = 4;
+    public static final long SIZE_OF_DOUBLE = 8;
+
+    private static final Unsafe unsafe; // NOPMD
+    static {
+        // get an instance of the otherwise private 'Unsafe' class -- needed to release the file mappings
+        try {
+            final Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = (Unsafe) field.get(null);
+        } catch (NoSuchFieldException | SecurityException | IllegalAccessException e) {
+            throw new SecurityException(e); // NOPMD
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private final int segmentShift;
+    private final long segmentMask;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long mappedSize;
+    private long size; // number of valid bytes (read-only: file size, read-write: high-water mark of written bytes)
+    private long position;
+    private long limit;
+
+    /**
+     * opens the given file using the {@link #DEFAULT_SEGMENT_SIZE}
+     *
+     * @param file file to be mapped (created if it does not exist and {@code readOnly == false})
+     * @param readOnly {@code true}: read-only access, {@code false}: read-write access (existing content is retained)
+     * @throws IOException in case the file cannot be opened or mapped
+     */
+    public MappedFileBuffer(final Path file, final boolean readOnly) throws IOException {
+        this(file, readOnly, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param file file to be mapped (created if it does not exist and {@code readOnly == false})
+     * @param readOnly {@code true}: read-only access, {@code false}: read-write access (existing content is retained)
+     * @param segmentSize size of the individual mappings in bytes (must be a power of two)
+     * @throws IOException in case the file cannot be opened or mapped
+     */
+    public MappedFileBuffer(final Path file, final boolean readOnly, final int segmentSize) throws IOException {
+        AssertUtils.notNull("file", file);
+        if (segmentSize < SIZE_OF_LONG || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("segmentSize '" + segmentSize + "' must be a power of two >= 8");
+        }
+        this.file = file;
+        this.readOnly = readOnly;
+        segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        segmentMask = segmentSize - 1L;
+        channel = readOnly ? FileChannel.open(file, StandardOpenOption.READ)
+                           : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        try {
+            remap(readOnly ? size : Math.max(size, DEFAULT_INITIAL_CAPACITY));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        reset();
+    }
+
+    @Override
+    public int capacity() {
+        return (int) Math.min(mappedSize, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public IoBuffer clear() {
+        position = 0;
+        limit = readOnly ? size : mappedSize;
+        return this;
+    }
+
+    /**
+     * writes back the modified content, releases the file mappings and truncates the file to {@link #size()}
+     *
+     * @throws IOException in case the file could not be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        // N.B. waits for concurrent readers to finish before the mappings are released
+        lock.writeLock().lock();
+        try {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                if (!readOnly) {
+                    force();
+                }
+                unmap(0);
+                if (!readOnly) {
+                    channel.truncate(size);
+                }
+            } finally {
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public IoBuffer ensureAdditionalCapacity(final long capacity) {
+        return ensureCapacity(position + capacity);
+    }
+
+    @Override
+    public IoBuffer ensureCapacity(final long capacity) {
+        if (capacity <= mappedSize || readOnly) {
+            return this;
+        }
+        // grow geometrically, but at most by one segment at a time for multi-GB files
+        final long increment = Math.max(DEFAULT_INITIAL_CAPACITY, Math.min(mappedSize, segmentMask + 1));
+        try {
+            remap(Math.max(capacity, mappedSize + increment));
+        } catch (IOException e) {
+            throw new IllegalStateException("could not extend mapping of '" + file + "' to " + capacity + " bytes", e);
+        }
+        if (limit < mappedSize) {
+            limit = mappedSize;
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer forceCapacity(final long length, final long preserve) {
+        return ensureCapacity(length);
+    }
+
+    /**
+     * writes back any modified content of the mapped region to the file
+     */
+    public void force() {
+        lock.readLock().lock();
+        try {
+            for (final MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return getByte() > 0;
+    }
+
+    @Override
+    public boolean[] getBooleanArray(final boolean[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final boolean[] ret = dst == null ? new boolean[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        final int end = (int) offset + nElements;
+        for (int i = (int) offset; i < end; i++) {
+            ret[i] = getBoolean();
+        }
+        return ret;
+    }
+
+    @Override
+    public byte getByte() {
+        final byte value = getByte(position);
+        position += SIZE_OF_BYTE;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return byte value at the given position (N.B. the buffer position is not modified)
+     */
+    public byte getByte(final long pos) {
+        lock.readLock().lock();
+        try {
+            checkRange(pos, SIZE_OF_BYTE);
+            return segments[segmentIndex(pos)].get(segmentOffset(pos));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public byte[] getByteArray(final byte[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        final byte[] ret = dst == null ? new byte[nElements + (int) offset] : dst;
+        getBytes(position, ret, (int) offset, nElements);
+        position += nElements * SIZE_OF_BYTE;
+        return ret;
+    }
+
+    /**
+     * bulk read of byte values (N.B. the buffer position is not modified)
+     *
+     * @param pos absolute position within the file
+     * @param dst destination array
+     * @param offset first index within the destination array
+     * @param length number of elements to be copied
+     */
+    public void getBytes(final long pos, final byte[] dst, final int offset, final int length) {
+        transfer(pos, offset, length, SIZE_OF_BYTE, (view, index, n) -> view.get(dst, index, n),
+                (p, index) -> dst[index] = getByte(p));
+    }
+
+    @Override
+    public char getChar() {
+        final char value = getChar(position);
+        position += SIZE_OF_CHAR;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return char value at the given position (N.B. the buffer position is not modified)
+     */
+    public char getChar(final long pos) {
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_CHAR);
+            return segment == null ? (char) getRaw(pos, SIZE_OF_CHAR) : segment.getChar(segmentOffset(pos));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public char[] getCharArray(final char[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final char[] ret = dst == null ? new char[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        transfer(position, (int) offset, nElements, SIZE_OF_CHAR, (view, index, n) -> view.asCharBuffer().get(ret, index, n),
+                (p, index) -> ret[index] = getChar(p));
+        position += nElements * SIZE_OF_CHAR;
+        return ret;
+    }
+
+    @Override
+    public double getDouble() {
+        final double value = getDouble(position);
+        position += SIZE_OF_DOUBLE;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return double value at the given position (N.B. the buffer position is not modified)
+     */
+    public double getDouble(final long pos) {
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_DOUBLE);
+            return segment == null ? Double.longBitsToDouble(getRaw(pos, SIZE_OF_DOUBLE)) : segment.getDouble(segmentOffset(pos));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double[] getDoubleArray(final double[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final double[] ret = dst == null ? new double[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        getDoubles(position, ret, (int) offset, nElements);
+        position += nElements * SIZE_OF_DOUBLE;
+        return ret;
+    }
+
+    /**
+     * bulk read of double values (N.B. the buffer position is not modified)
+     *
+     * @param pos absolute position within the file
+     * @param dst destination array
+     * @param offset first index within the destination array
+     * @param length number of elements to be copied
+     */
+    public void getDoubles(final long pos, final double[] dst, final int offset, final int length) {
+        transfer(pos, offset, length, SIZE_OF_DOUBLE, (view, index, n) -> view.asDoubleBuffer().get(dst, index, n),
+                (p, index) -> dst[index] = getDouble(p));
+    }
+
+    /**
+     * @return the file that is mapped by this buffer
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public float getFloat() {
+        final float value = getFloat(position);
+        position += SIZE_OF_FLOAT;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return float value at the given position (N.B. the buffer position is not modified)
+     */
+    public float getFloat(final long pos) {
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_FLOAT);
+            return segment == null ? Float.intBitsToFloat((int) getRaw(pos, SIZE_OF_FLOAT)) : segment.getFloat(segmentOffset(pos));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public float[] getFloatArray(final float[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final float[] ret = dst == null ? new float[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        getFloats(position, ret, (int) offset, nElements);
+        position += nElements * SIZE_OF_FLOAT;
+        return ret;
+    }
+
+    /**
+     * bulk read of float values (N.B. the buffer position is not modified)
+     *
+     * @param pos absolute position within the file
+     * @param dst destination array
+     * @param offset first index within the destination array
+     * @param length number of elements to be copied
+     */
+    public void getFloats(final long pos, final float[] dst, final int offset, final int length) {
+        transfer(pos, offset, length, SIZE_OF_FLOAT, (view, index, n) -> view.asFloatBuffer().get(dst, index, n),
+                (p, index) -> dst[index] = getFloat(p));
+    }
+
+    @Override
+    public int getInt() {
+        final int value = getInt(position);
+        position += SIZE_OF_INT;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return int value at the given position (N.B. the buffer position is not modified)
+     */
+    public int getInt(final long pos) {
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_INT);
+            return segment == null ? (int) getRaw(pos, SIZE_OF_INT) : segment.getInt(segmentOffset(pos));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] getIntArray(final int[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final int[] ret = dst == null ? new int[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        transfer(position, (int) offset, nElements, SIZE_OF_INT, (view, index, n) -> view.asIntBuffer().get(ret, index, n),
+                (p, index) -> ret[index] = getInt(p));
+        position += nElements * SIZE_OF_INT;
+        return ret;
+    }
+
+    @Override
+    public long getLong() {
+        final long value = getLong(position);
+        position += SIZE_OF_LONG;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return long value at the given position (N.B. the buffer position is not modified)
+     */
+    public long getLong(final long pos) {
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_LONG);
+            return segment == null ? getRaw(pos, SIZE_OF_LONG) : segment.getLong(segmentOffset(pos));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long[] getLongArray(final long[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final long[] ret = dst == null ? new long[arraySize + (int) offset] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        transfer(position, (int) offset, nElements, SIZE_OF_LONG, (view, index, n) -> view.asLongBuffer().get(ret, index, n),
+                (p, index) -> ret[index] = getLong(p));
+        position += nElements * SIZE_OF_LONG;
+        return ret;
+    }
+
+    @Override
+    public short getShort() { // NOPMD by rstein
+        final short value = getShort(position); // NOPMD by rstein
+        position += SIZE_OF_SHORT;
+        return value;
+    }
+
+    /**
+     * @param pos absolute position within the file
+     * @return short value at the given position (N.B. the buffer position is not modified)
+     */
+    public short getShort(final long pos) { // NOPMD by rstein
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_SHORT);
+            return segment == null ? (short) getRaw(pos, SIZE_OF_SHORT) : segment.getShort(segmentOffset(pos)); // NOPMD
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public short[] getShortArray(final short[] dst, final long offset, final int length) { // NOPMD by rstein
+        final int arraySize = getInt();
+        final short[] ret = dst == null ? new short[arraySize + (int) offset] : dst; // NOPMD by rstein
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        transfer(position, (int) offset, nElements, SIZE_OF_SHORT, (view, index, n) -> view.asShortBuffer().get(ret, index, n),
+                (p, index) -> ret[index] = getShort(p));
+        position += nElements * SIZE_OF_SHORT;
+        return ret;
+    }
+
+    @Override
+    public String getString() {
+        final int arraySize = getInt() - 1; // for C++ zero terminated string
+        final byte[] values = new byte[arraySize];
+        getBytes(position, values, 0, arraySize);
+        position += arraySize;
+        getByte(); // For C++ zero terminated string
+        return new String(values, 0, arraySize, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String[] getStringArray(final String[] dst, final long offset, final int length) {
+        final int arraySize = getInt();
+        final String[] ret = dst == null ? new String[arraySize] : dst;
+        final int nElements = dst == null ? arraySize : Math.min(arraySize, length);
+        for (int k = 0; k < nElements; k++) {
+            ret[k + (int) offset] = getString();
+        }
+        return ret;
+    }
+
+    @Override
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public long limit() {
+        return limit;
+    }
+
+    @Override
+    public IoBuffer limit(final int newLimit) {
+        return limit((long) newLimit);
+    }
+
+    /**
+     * @param newLimit new buffer limit (N.B. {@code long} variant needed for files larger than 2 GiB)
+     * @return itself (fluent design)
+     */
+    public IoBuffer limit(final long newLimit) {
+        if (newLimit > mappedSize || newLimit < 0) {
+            throw new IllegalArgumentException(String.format("invalid newLimit: [0, position: %d, newLimit:%d, %d]",
+                    position, newLimit, mappedSize));
+        }
+        limit = newLimit;
+        if (position > limit) {
+            position = limit;
+        }
+        return this;
+    }
+
+    @Override
+    public ReadWriteLock lock() {
+        return lock;
+    }
+
+    @Override
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public IoBuffer position(final long newPosition) {
+        if (newPosition > limit || newPosition < 0) {
+            throw new IllegalArgumentException(String.format("invalid newPosition: [0, newPosition=%d, limit:%d, %d]",
+                    newPosition, limit, mappedSize));
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public IoBuffer putBoolean(final boolean value) {
+        return putByte((byte) (value ? 1 : 0));
+    }
+
+    @Override
+    public IoBuffer putBooleanArray(final boolean[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final int end = (int) offset + nElements;
+        for (int i = (int) offset; i < end; i++) {
+            putBoolean(src[i]);
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putByte(final byte value) {
+        final long pos = prepareWrite(SIZE_OF_BYTE);
+        lock.readLock().lock();
+        try {
+            segments[segmentIndex(pos)].put(segmentOffset(pos), value);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putByteArray(final byte[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_BYTE);
+        transfer(pos, (int) offset, nElements, SIZE_OF_BYTE, (view, index, n) -> view.put(src, index, n),
+                (p, index) -> putRaw(p, src[index], SIZE_OF_BYTE));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putChar(final char value) {
+        final long pos = prepareWrite(SIZE_OF_CHAR);
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_CHAR);
+            if (segment == null) {
+                putRaw(pos, value, SIZE_OF_CHAR);
+            } else {
+                segment.putChar(segmentOffset(pos), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putCharArray(final char[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_CHAR);
+        transfer(pos, (int) offset, nElements, SIZE_OF_CHAR, (view, index, n) -> view.asCharBuffer().put(src, index, n),
+                (p, index) -> putRaw(p, src[index], SIZE_OF_CHAR));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putDouble(final double value) {
+        final long pos = prepareWrite(SIZE_OF_DOUBLE);
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_DOUBLE);
+            if (segment == null) {
+                putRaw(pos, Double.doubleToRawLongBits(value), SIZE_OF_DOUBLE);
+            } else {
+                segment.putDouble(segmentOffset(pos), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putDoubleArray(final double[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_DOUBLE);
+        transfer(pos, (int) offset, nElements, SIZE_OF_DOUBLE, (view, index, n) -> view.asDoubleBuffer().put(src, index, n),
+                (p, index) -> putRaw(p, Double.doubleToRawLongBits(src[index]), SIZE_OF_DOUBLE));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putFloat(final float value) {
+        final long pos = prepareWrite(SIZE_OF_FLOAT);
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_FLOAT);
+            if (segment == null) {
+                putRaw(pos, Float.floatToRawIntBits(value), SIZE_OF_FLOAT);
+            } else {
+                segment.putFloat(segmentOffset(pos), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putFloatArray(final float[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_FLOAT);
+        transfer(pos, (int) offset, nElements, SIZE_OF_FLOAT, (view, index, n) -> view.asFloatBuffer().put(src, index, n),
+                (p, index) -> putRaw(p, Float.floatToRawIntBits(src[index]), SIZE_OF_FLOAT));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putInt(final int value) {
+        final long pos = prepareWrite(SIZE_OF_INT);
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_INT);
+            if (segment == null) {
+                putRaw(pos, value, SIZE_OF_INT);
+            } else {
+                segment.putInt(segmentOffset(pos), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putIntArray(final int[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_INT);
+        transfer(pos, (int) offset, nElements, SIZE_OF_INT, (view, index, n) -> view.asIntBuffer().put(src, index, n),
+                (p, index) -> putRaw(p, src[index], SIZE_OF_INT));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putLong(final long value) {
+        final long pos = prepareWrite(SIZE_OF_LONG);
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_LONG);
+            if (segment == null) {
+                putRaw(pos, value, SIZE_OF_LONG);
+            } else {
+                segment.putLong(segmentOffset(pos), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putLongArray(final long[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_LONG);
+        transfer(pos, (int) offset, nElements, SIZE_OF_LONG, (view, index, n) -> view.asLongBuffer().put(src, index, n),
+                (p, index) -> putRaw(p, src[index], SIZE_OF_LONG));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putShort(final short value) { // NOPMD by rstein
+        final long pos = prepareWrite(SIZE_OF_SHORT);
+        lock.readLock().lock();
+        try {
+            final java.nio.ByteBuffer segment = segmentFor(pos, SIZE_OF_SHORT);
+            if (segment == null) {
+                putRaw(pos, value, SIZE_OF_SHORT);
+            } else {
+                segment.putShort(segmentOffset(pos), value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return this;
+    }
+
+    @Override
+    public IoBuffer putShortArray(final short[] src, final long offset, final int nToCopy) { // NOPMD by rstein
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        final long pos = prepareWrite(nElements * SIZE_OF_SHORT);
+        transfer(pos, (int) offset, nElements, SIZE_OF_SHORT, (view, index, n) -> view.asShortBuffer().put(src, index, n),
+                (p, index) -> putRaw(p, src[index], SIZE_OF_SHORT));
+        return this;
+    }
+
+    @Override
+    public IoBuffer putString(final String string) {
+        final int strLength = string == null ? 0 : string.length();
+        putInt(strLength + 1); // for C++ zero terminated string
+        for (int i = 0; i < strLength; ++i) {
+            putByte((byte) (string.charAt(i) & 0xFF)); // ISO-8859-1 encoding
+        }
+        putByte((byte) 0); // For C++ zero terminated string
+        return this;
+    }
+
+    @Override
+    public IoBuffer putStringArray(final String[] src, final long offset, final int nToCopy) {
+        final int nElements = nToCopy > 0 ? Math.min(nToCopy, src.length) : src.length;
+        putInt(nElements);
+        for (int k = 0; k < nElements; k++) {
+            putString(src[k + (int) offset]);
+        }
+        return this;
+    }
+
+    @Override
+    public long remaining() {
+        return limit - position;
+    }
+
+    @Override
+    public IoBuffer reset() {
+        return clear();
+    }
+
+    /**
+     * @return number of valid bytes, i.e. the file size (read-only) or the largest position written so far
+     *         (read-write)
+     */
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public IoBuffer trim() {
+        return this; // file is truncated to the written size on close
+    }
+
+    @Override
+    public IoBuffer trim(final int requestedCapacity) {
+        return this; // file is truncated to the written size on close
+    }
+
+    private void checkRange(final long pos, final long nBytes) {
+        if (pos < 0 || pos + nBytes > mappedSize) {
+            if (!channel.isOpen()) {
+                throw new IllegalStateException("buffer for '" + file + "' has been closed");
+            }
+            throw new IndexOutOfBoundsException(String.format("invalid access: [0, position=%d, nBytes=%d, %d]", pos, nBytes, mappedSize));
+        }
+    }
+
+    /**
+     * assembles primitives that straddle a segment boundary (rare slow-path)
+     */
+    private long getRaw(final long pos, final long nBytes) {
+        long value = 0;
+        for (int i = 0; i < nBytes; i++) {
+            final long shift = LITTLE_ENDIAN ? 8L * i : 8L * (nBytes - 1 - i);
+            value |= (getByte(pos + i) & 0xFFL) << shift;
+        }
+        return value;
+    }
+
+    private long prepareWrite(final long nBytes) {
+        if (readOnly) {
+            throw new IllegalStateException("buffer for '" + file + "' is read-only");
+        }
+        final long pos = position;
+        ensureCapacity(pos + nBytes);
+        position += nBytes;
+        if (position > size) {
+            size = position;
+        }
+        return pos;
+    }
+
+    private void putRaw(final long pos, final long value, final long nBytes) {
+        for (int i = 0; i < nBytes; i++) {
+            final long shift = LITTLE_ENDIAN ? 8L * i : 8L * (nBytes - 1 - i);
+            segments[segmentIndex(pos + i)].put(segmentOffset(pos + i), (byte) (value >>> shift));
+        }
+    }
+
+    private void remap(final long newSize) throws IOException {
+        lock.writeLock().lock();
+        try {
+            final long segmentSize = segmentMask + 1;
+            final int nSegments = (int) ((newSize + segmentMask) >>> segmentShift);
+            // the last, partially mapped segment needs to be re-mapped
+            final int firstSegment = (mappedSize & segmentMask) == 0 ? segments.length : segments.length - 1;
+            unmap(firstSegment);
+            final MappedByteBuffer[] newSegments = Arrays.copyOf(segments, nSegments);
+            final FileChannel.MapMode mode = readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+            for (int i = firstSegment; i < nSegments; i++) {
+                final long start = i * segmentSize;
+                newSegments[i] = channel.map(mode, start, Math.min(segmentSize, newSize - start));
+                newSegments[i].order(ByteOrder.nativeOrder());
+            }
+            segments = newSegments;
+            mappedSize = newSize;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private java.nio.ByteBuffer segmentFor(final long pos, final long nBytes) {
+        checkRange(pos, nBytes);
+        final java.nio.ByteBuffer segment = segments[segmentIndex(pos)];
+        return segmentOffset(pos) + nBytes <= segment.limit() ? segment : null;
+    }
+
+    private int segmentIndex(final long pos) {
+        return (int) (pos >>> segmentShift);
+    }
+
+    private int segmentOffset(final long pos) {
+        return (int) (pos & segmentMask);
+    }
+
+    /**
+     * bulk copy between the mapped segments and a primitive array -- elements straddling a segment boundary are
+     * handled individually
+     */
+    private void transfer(final long pos, final int offset, final int length, final long elementSize,
+            final SegmentTransfer bulk, final ElementTransfer single) {
+        lock.readLock().lock();
+        try {
+            checkRange(pos, length * elementSize);
+            long filePos = pos;
+            int index = offset;
+            final int end = offset + length;
+            while (index < end) {
+                final java.nio.ByteBuffer segment = segments[segmentIndex(filePos)];
+                final int segmentOffset = segmentOffset(filePos);
+                final int n = (int) Math.min(end - index, (segment.limit() - segmentOffset) / elementSize);
+                if (n == 0) {
+                    single.transfer(filePos, index);
+                    index++;
+                    filePos += elementSize;
+                    continue;
+                }
+                // N.B. duplicate() resets the byte order
+                final java.nio.ByteBuffer view = segment.duplicate().order(ByteOrder.nativeOrder());
+                view.position(segmentOffset);
+                bulk.transfer(view, index, n);
+                index += n;
+                filePos += n * elementSize;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * N.B. the caller must hold the write lock: other threads may otherwise still access the released segments
+     */
+    private void unmap(final int fromSegment) {
+        for (int i = fromSegment; i < segments.length; i++) {
+            unsafe.invokeCleaner(segments[i]);
+        }
+        segments = Arrays.copyOf(segments, Math.min(fromSegment, segments.length));
+        mappedSize = Math.min(mappedSize, (long) segments.length << segmentShift);
+    }
+
+    @FunctionalInterface
+    private interface ElementTransfer {
+        void transfer(final long pos, final int index);
+    }
+
+    @FunctionalInterface
+    private interface SegmentTransfer {
+        void transfer(final java.nio.ByteBuffer view, final int index, final int n);
+    }
+}
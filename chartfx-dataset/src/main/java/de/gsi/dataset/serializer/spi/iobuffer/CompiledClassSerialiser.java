@@ -0,0 +1,311 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.serializer.spi.BinarySerialiser;
+import de.gsi.dataset.serializer.spi.ClassDescriptions;
+import de.gsi.dataset.serializer.spi.ClassFieldDescription;
+import de.gsi.dataset.serializer.spi.FieldHeader;
+import de.gsi.dataset.serializer.spi.FieldSerialiser;
+
+/**
+ * Class-specific, pre-compiled object serialiser for the {@link IoBufferSerialiser}.
+ * <p>
+ * The {@link ClassFieldDescription} tree of the given class is walked only once at construction: the matching
+ * {@link FieldSerialiser} is resolved for every (nested) field and the field access is bound via
+ * {@link MethodHandle}s. Primitive, String and primitive array fields are written/read through type-specialised
+ * {@link BinarySerialiser} calls without boxing or reflective {@link java.lang.reflect.Field Field} access. All other
+ * known types fall back to the registered {@link FieldSerialiser} functions. The produced byte stream is identical to
+ * the one of the reflective {@link de.gsi.dataset.serializer.spi.AbstractSerialiser#serialiseObject(Object)} path.
+ * <p>
+ * N.B. instances are bound to the {@link IoBuffer} and the field serialisers known to the parent
+ * {@link IoBufferSerialiser} at the time of construction.
+ *
+ * @author rstein
+ */
+public class CompiledClassSerialiser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledClassSerialiser.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private final IoBuffer ioBuffer;
+    private final Class<?> classType;
+    private final FieldNode root;
+
+    /**
+     * @param serialiser parent serialiser providing the IoBuffer and known field serialisers
+     * @param classType class for which the serialiser should be generated
+     */
+    public CompiledClassSerialiser(final IoBufferSerialiser serialiser, final Class<?> classType) {
+        if (serialiser == null) {
+            throw new IllegalArgumentException("serialiser must not be null");
+        }
+        if (classType == null) {
+            throw new IllegalArgumentException("classType must not be null");
+        }
+        this.ioBuffer = serialiser.getBuffer();
+        this.classType = classType;
+        this.root = new FieldNode(serialiser, ClassDescriptions.get(classType), 0);
+    }
+
+    /**
+     * de-serialises the fields described by the already parsed IoBuffer stream structure into the given object
+     *
+     * @param obj object to be updated
+     * @param fieldRoot root field header as returned by {@link BinarySerialiser#parseIoStream(IoBuffer)}
+     * @throws IllegalAccessException in case a forbidden field is being accessed
+     */
+    public void deserialise(final Object obj, final FieldHeader fieldRoot) throws IllegalAccessException {
+        checkClassType(obj);
+        try {
+            for (final FieldHeader child : fieldRoot.getChildren()) {
+                read(obj, child, root);
+            }
+        } catch (IllegalAccessException | RuntimeException | Error e) { // NOPMD -- pass-through
+            throw e;
+        } catch (Throwable e) { // NOPMD -- MethodHandle API
+            throw new IllegalStateException("could not de-serialise object of type " + classType.getName(), e);
+        }
+    }
+
+    /**
+     * @return class this serialiser has been generated for
+     */
+    public Class<?> getClassType() {
+        return classType;
+    }
+
+    /**
+     * serialises the fields of the given object (w/o IoBuffer stream header and end marker)
+     *
+     * @param obj object to be serialised
+     * @throws IllegalAccessException in case a forbidden field is being accessed
+     */
+    public void serialise(final Object obj) throws IllegalAccessException {
+        checkClassType(obj);
+        try {
+            writeChildren(obj, root);
+        } catch (IllegalAccessException | RuntimeException | Error e) { // NOPMD -- pass-through
+            throw e;
+        } catch (Throwable e) { // NOPMD -- MethodHandle API
+            throw new IllegalStateException("could not serialise object of type " + classType.getName(), e);
+        }
+    }
+
+    private void checkClassType(final Object obj) {
+        if (obj == null || obj.getClass() != classType) {
+            throw new IllegalArgumentException("object '" + obj + "' is not of type " + classType.getName());
+        }
+    }
+
+    private void read(final Object obj, final FieldHeader fieldHeader, final FieldNode node) throws Throwable { // NOPMD -- MethodHandle API
+        if (!fieldHeader.getFieldName().equals(node.name)) {
+            // did not find matching (sub-)field in class -> check for potential inner fields
+            readChildren(obj, fieldHeader, node);
+            return;
+        }
+
+        if (node.readOnly) {
+            LOGGER.atWarn().addArgument(node.description.getFieldNameRelative()).log("cannot set final field '{}'");
+            return;
+        }
+
+        if (node.reader == null) {
+            // no specific de-serialiser present check for potential inner fields
+            final Object ref = node.get(obj);
+            readChildren(ref == null ? node.description.allocateMemberClassField(obj) : ref, fieldHeader, node);
+            return;
+        }
+
+        ioBuffer.position(fieldHeader.getDataBufferPosition());
+        node.reader.exec(obj);
+    }
+
+    private void readChildren(final Object obj, final FieldHeader fieldHeader, final FieldNode node) throws Throwable { // NOPMD -- MethodHandle API
+        for (final FieldHeader child : fieldHeader.getChildren()) {
+            final FieldNode childNode = node.childMap.get(child.getFieldName());
+            if (childNode != null) {
+                read(obj, child, childNode);
+            }
+        }
+    }
+
+    private void writeChildren(final Object obj, final FieldNode node) throws Throwable { // NOPMD -- MethodHandle API
+        for (final FieldNode child : node.writeChildren) {
+            if (!child.primitive && child.get(obj) == null) {
+                // only follow and serialise non-null references of sub-classes
+                continue;
+            }
+            if (child.writer != null) {
+                child.writer.exec(obj);
+                continue;
+            }
+            BinarySerialiser.putStartMarker(ioBuffer, child.name);
+            writeChildren(child.get(obj), child);
+            BinarySerialiser.putEndMarker(ioBuffer, child.name);
+        }
+    }
+
+    private static FieldAccess createReader(final IoBuffer buffer, final ClassFieldDescription field, final FieldSerialiser fieldSerialiser, final boolean specialise) throws IllegalAccessException {
+        final Class<?> type = field.getType();
+        if (!specialise || !isSpecialisedType(type)) {
+            final FieldSerialiser.FieldSerialiserFunction function = fieldSerialiser.getReaderFunction();
+            return obj -> function.exec(obj, field);
+        }
+        final MethodHandle set = LOOKUP.unreflectSetter(field.getField()).asType(MethodType.methodType(void.class, Object.class, type));
+        final MethodHandle get = LOOKUP.unreflectGetter(field.getField()).asType(MethodType.methodType(type, Object.class));
+        if (type == boolean.class) {
+            return obj -> { set.invokeExact(obj, buffer.getBoolean()); };
+        } else if (type == byte.class) {
+            return obj -> { set.invokeExact(obj, buffer.getByte()); };
+        } else if (type == char.class) {
+            return obj -> { set.invokeExact(obj, buffer.getChar()); };
+        } else if (type == short.class) {
+            return obj -> { set.invokeExact(obj, buffer.getShort()); };
+        } else if (type == int.class) {
+            return obj -> { set.invokeExact(obj, buffer.getInt()); };
+        } else if (type == long.class) {
+            return obj -> { set.invokeExact(obj, buffer.getLong()); };
+        } else if (type == float.class) {
+            return obj -> { set.invokeExact(obj, buffer.getFloat()); };
+        } else if (type == double.class) {
+            return obj -> { set.invokeExact(obj, buffer.getDouble()); };
+        } else if (type == String.class) {
+            return obj -> { set.invokeExact(obj, buffer.getString()); };
+        } else if (type == boolean[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getBooleanArray((boolean[]) get.invokeExact(obj))); };
+        } else if (type == byte[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getByteArray((byte[]) get.invokeExact(obj))); };
+        } else if (type == short[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getShortArray((short[]) get.invokeExact(obj))); }; // NOPMD
+        } else if (type == int[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getIntArray((int[]) get.invokeExact(obj))); };
+        } else if (type == long[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getLongArray((long[]) get.invokeExact(obj))); };
+        } else if (type == float[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getFloatArray((float[]) get.invokeExact(obj))); };
+        } else if (type == double[].class) {
+            return obj -> { set.invokeExact(obj, buffer.getDoubleArray((double[]) get.invokeExact(obj))); };
+        }
+        // String[].class
+        return obj -> { set.invokeExact(obj, buffer.getStringArray((String[]) get.invokeExact(obj))); };
+    }
+
+    private static FieldAccess createWriter(final IoBuffer buffer, final ClassFieldDescription field, final FieldSerialiser fieldSerialiser, final boolean specialise) throws IllegalAccessException {
+        final Class<?> type = field.getType();
+        if (!specialise || !isSpecialisedType(type)) {
+            final FieldSerialiser.FieldSerialiserFunction function = fieldSerialiser.getWriterFunction();
+            return obj -> function.exec(obj, field);
+        }
+        final String name = field.getFieldName();
+        final MethodHandle get = LOOKUP.unreflectGetter(field.getField()).asType(MethodType.methodType(type, Object.class));
+        if (type == boolean.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (boolean) get.invokeExact(obj));
+        } else if (type == byte.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (byte) get.invokeExact(obj));
+        } else if (type == char.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (char) get.invokeExact(obj));
+        } else if (type == short.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (short) get.invokeExact(obj)); // NOPMD
+        } else if (type == int.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (int) get.invokeExact(obj));
+        } else if (type == long.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (long) get.invokeExact(obj));
+        } else if (type == float.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (float) get.invokeExact(obj));
+        } else if (type == double.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (double) get.invokeExact(obj));
+        } else if (type == String.class) {
+            return obj -> BinarySerialiser.put(buffer, name, (String) get.invokeExact(obj));
+        } else if (type == boolean[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (boolean[]) get.invokeExact(obj));
+        } else if (type == byte[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (byte[]) get.invokeExact(obj));
+        } else if (type == short[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (short[]) get.invokeExact(obj)); // NOPMD
+        } else if (type == int[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (int[]) get.invokeExact(obj));
+        } else if (type == long[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (long[]) get.invokeExact(obj));
+        } else if (type == float[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (float[]) get.invokeExact(obj));
+        } else if (type == double[].class) {
+            return obj -> BinarySerialiser.put(buffer, name, (double[]) get.invokeExact(obj));
+        }
+        // String[].class
+        return obj -> BinarySerialiser.put(buffer, name, (String[]) get.invokeExact(obj));
+    }
+
+    private static boolean isSpecialisedType(final Class<?> type) {
+        return (type.isPrimitive() && type != void.class) || type == String.class || (type.isArray() && ((type.getComponentType().isPrimitive() && type != char[].class) || type == String[].class));
+    }
+
+    /**
+     * bound field access operation
+     */
+    @FunctionalInterface
+    private interface FieldAccess {
+        void exec(Object obj) throws Throwable; // NOPMD -- MethodHandle API
+    }
+
+    /**
+     * pre-resolved serialiser information for a given class field
+     */
+    private static class FieldNode {
+        protected final ClassFieldDescription description;
+        protected final String name;
+        protected final boolean primitive;
+        protected final boolean readOnly;
+        protected final MethodHandle getter; // generic '(Object) -> Object' accessor, null for the root node
+        protected final FieldAccess reader;
+        protected final FieldAccess writer;
+        protected final Map<String, FieldNode> childMap = new HashMap<>();
+        protected final List<FieldNode> writeChildren = new ArrayList<>();
+
+        protected FieldNode(final IoBufferSerialiser serialiser, final ClassFieldDescription description, final int recursionDepth) {
+            this.description = description;
+            this.name = description.getFieldName();
+            this.primitive = description.isPrimitive();
+            this.readOnly = description.isFinal() && !description.getType().isInterface();
+
+            final Class<?> type = description.getType();
+            final Optional<FieldSerialiser> fieldSerialiser = serialiser.findFieldSerialiserForKnownClassOrInterface(type, description.getActualTypeArguments());
+            final List<FieldSerialiser> directMatches = serialiser.knownClasses().get(type);
+            // N.B. only specialise field access if there is no user-defined serialiser overriding the default one
+            final boolean specialise = description.getField() != null && directMatches != null && directMatches.size() == 1;
+            try {
+                getter = description.getField() == null ? null : LOOKUP.unreflectGetter(description.getField()).asType(MethodType.methodType(Object.class, Object.class));
+                reader = fieldSerialiser.isEmpty() || readOnly || description.getField() == null ? null : createReader(serialiser.getBuffer(), description, fieldSerialiser.get(), specialise);
+                writer = fieldSerialiser.isEmpty() || recursionDepth == 0 ? null : createWriter(serialiser.getBuffer(), description, fieldSerialiser.get(), specialise);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("cannot access field " + description.getFieldNameRelative(), e);
+            }
+
+            if (writer != null) {
+                // known class -> no need to dive into children
+                return;
+            }
+            for (final ClassFieldDescription child : description.getChildren()) {
+                final FieldNode childNode = new FieldNode(serialiser, child, recursionDepth + 1); // NOPMD -- unavoidable in-loop object generation
+                childMap.putIfAbsent(childNode.name, childNode);
+                if (childNode.writer != null || !child.getChildren().isEmpty()) {
+                    // N.B. unknown classes w/o serialisable children are not streamed
+                    writeChildren.add(childNode);
+                }
+            }
+        }
+
+        protected Object get(final Object obj) throws Throwable { // NOPMD -- MethodHandle API
+            return getter == null ? obj : (Object) getter.invokeExact(obj);
+        }
+    }
+}
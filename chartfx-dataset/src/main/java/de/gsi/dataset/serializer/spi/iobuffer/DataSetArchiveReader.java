@@ -0,0 +1,549 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.serializer.spi.BinarySerialiser;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.FieldHeader;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.SoftHashMap;
+
+/**
+ * Random-access reader for archives written by {@link DataSetArchiveWriter}. On opening (and on {@link #refresh()}),
+ * only the fixed-size record headers are read to build the chunk index -- i.e. the per-chunk x-range, sample count and
+ * y min/max summary. Chunks are decompressed only if their samples are requested via {@link #read(double, double)}.
+ * {@link #readOverview(double, double, int)} is computed purely from the chunk summaries and thus allows to display the
+ * full history of multi-GB archives.
+ * <p>
+ * The axis names and units are taken from the last archive header record (or, for archives written without, from the
+ * first chunk). Incomplete trailing records (e.g. written concurrently or after a crash of the writer) are ignored until the next
+ * {@link #refresh()}.
+ *
+ * @see DataSetArchiveWriter
+ * @author rstein
+ */
+public class DataSetArchiveReader implements Closeable {
+    private static final int CACHED_CHUNKS = 16;
+    private final Path file;
+    private final FileChannel channel;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final Map<Integer, DataSet> chunkCache = new SoftHashMap<>(CACHED_CHUNKS);
+    private final String name;
+    private final int chunkSize;
+    private long indexedPosition;
+    private long dataCount;
+    private String[] axisNames;
+    private String[] axisUnits;
+
+    /**
+     * @param file archive file to be opened (read-only)
+     * @throws IOException in case the file cannot be opened or is not a valid archive
+     */
+    public DataSetArchiveReader(final Path file) throws IOException {
+        AssertUtils.notNull("file", file);
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            final Chunk header = readRecord(channel, 0, channel.size());
+            if (header == null || header.type != DataSetArchiveWriter.HEADER_RECORD) {
+                throw new IOException("'" + file + "' is not a valid DataSet archive");
+            }
+            final FastByteBuffer buffer = FastByteBuffer.wrap(readPayload(channel, header));
+            final List<FieldHeader> fields = BinarySerialiser.parseIoStream(buffer).getChildren().get(0).getChildren();
+            name = getString(buffer, fields, DataSetArchiveWriter.ARCHIVE_NAME).orElse(file.getFileName().toString());
+            chunkSize = getInt(buffer, fields, DataSetArchiveWriter.CHUNK_SIZE).orElse(DataSetArchiveWriter.DEFAULT_CHUNK_SIZE);
+            parseAxisInfo(buffer, fields);
+            indexedPosition = header.getRecordEnd();
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return number of chunks (including partial chunks written by {@link DataSetArchiveWriter#flush()})
+     */
+    public synchronized int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return read-only list of the indexed chunks
+     */
+    public synchronized List<Chunk> getChunks() {
+        return Collections.unmodifiableList(new ArrayList<>(chunks));
+    }
+
+    /**
+     * @return nominal number of samples per chunk
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return total number of samples in the archive
+     */
+    public synchronized long getDataCount() {
+        return dataCount;
+    }
+
+    /**
+     * @return the archive file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return archive name (used as name for the returned data sets)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return smallest x value of the archive, or {@code NaN} if empty
+     */
+    public synchronized double getXMin() {
+        return chunks.isEmpty() ? Double.NaN : chunks.get(0).xMin;
+    }
+
+    /**
+     * @return largest x value of the archive, or {@code NaN} if empty
+     */
+    public synchronized double getXMax() {
+        return chunks.isEmpty() ? Double.NaN : chunks.get(chunks.size() - 1).xMax;
+    }
+
+    /**
+     * materialises all samples within the given x-range. Only the chunks overlapping the range are decompressed.
+     *
+     * @param xMin lower bound of the x-range (inclusive)
+     * @param xMax upper bound of the x-range (inclusive)
+     * @return new data set containing the samples
+     * @throws IOException in case the chunk data cannot be read or is corrupt
+     */
+    public DataSet read(final double xMin, final double xMax) throws IOException {
+        final DoubleErrorDataSet result = new DoubleErrorDataSet(name);
+        final List<Chunk> overlapping = getChunks(xMin, xMax);
+        for (final Chunk chunk : overlapping) {
+            final DataSet data = readChunk(chunk);
+            final int nData = data.getDataCount(DIM_X);
+            final double[] x = data.getValues(DIM_X, 0, nData, null);
+            final int fromIndex = lowerBound(x, nData, xMin);
+            final int toIndex = upperBound(x, nData, xMax);
+            if (toIndex <= fromIndex) {
+                continue;
+            }
+            final double[] y = data.getValues(DIM_Y, 0, nData, null);
+            final DataSetError errorData = (DataSetError) data;
+            result.add(Arrays.copyOfRange(x, fromIndex, toIndex), Arrays.copyOfRange(y, fromIndex, toIndex),
+                    errorData.getErrorsNegative(DIM_Y, fromIndex, toIndex, null),
+                    errorData.getErrorsPositive(DIM_Y, fromIndex, toIndex, null));
+        }
+        applyAxisInfo(result);
+        return result;
+    }
+
+    /**
+     * decimated overview of the given x-range computed from the chunk min/max summaries only, i.e. without
+     * decompressing the chunk data (apart from the axis names and units, which are read once from the first chunk). Each
+     * point spans one or more consecutive chunks: the x coordinate is the centre of
+     * their x-range and the y value and negative/positive errors describe the y min/max envelope.
+     *
+     * @param xMin lower bound of the x-range (inclusive)
+     * @param xMax upper bound of the x-range (inclusive)
+     * @param maxPoints maximum number of points in the returned data set
+     * @return new data set containing the overview
+     */
+    public DataSet readOverview(final double xMin, final double xMax, final int maxPoints) {
+        AssertUtils.gtThanZero("maxPoints", maxPoints);
+        final List<Chunk> overlapping = getChunks(xMin, xMax);
+        final int nChunks = overlapping.size();
+        final int group = (nChunks + maxPoints - 1) / maxPoints;
+        final int nPoints = group == 0 ? 0 : (nChunks + group - 1) / group;
+        final double[] x = new double[nPoints];
+        final double[] y = new double[nPoints];
+        final double[] eyn = new double[nPoints];
+        final double[] eyp = new double[nPoints];
+        for (int i = 0; i < nPoints; i++) {
+            final int first = i * group;
+            final int last = Math.min(first + group, nChunks) - 1;
+            double yMin = Double.POSITIVE_INFINITY;
+            double yMax = Double.NEGATIVE_INFINITY;
+            for (int k = first; k <= last; k++) {
+                yMin = Math.min(yMin, overlapping.get(k).yMin);
+                yMax = Math.max(yMax, overlapping.get(k).yMax);
+            }
+            x[i] = 0.5 * (overlapping.get(first).xMin + overlapping.get(last).xMax);
+            y[i] = 0.5 * (yMin + yMax);
+            eyn[i] = y[i] - yMin;
+            eyp[i] = yMax - y[i];
+        }
+        final DoubleErrorDataSet result = new DoubleErrorDataSet(name, x, y, eyn, eyp, nPoints, false);
+        applyAxisInfo(result);
+        return result;
+    }
+
+    /**
+     * indexes chunks that have been appended since the archive has been opened or last refreshed
+     *
+     * @return number of newly indexed chunks
+     * @throws IOException in case the file cannot be read
+     */
+    public synchronized int refresh() throws IOException {
+        final long fileSize = channel.size();
+        int nNew = 0;
+        Chunk chunk;
+        while ((chunk = readRecord(channel, indexedPosition, fileSize)) != null) {
+            if (chunk.type == DataSetArchiveWriter.HEADER_RECORD) {
+                if (!isChecksumValid(channel, chunk)) {
+                    break; // corrupt header update -- treated like an incomplete trailing record
+                }
+                final FastByteBuffer buffer = FastByteBuffer.wrap(readPayload(channel, chunk));
+                parseAxisInfo(buffer, BinarySerialiser.parseIoStream(buffer).getChildren().get(0).getChildren());
+            } else if (chunk.type == DataSetArchiveWriter.CHUNK_RECORD) {
+                chunk.index = chunks.size();
+                chunks.add(chunk);
+                dataCount += chunk.dataCount;
+                nNew++;
+            }
+            indexedPosition = chunk.getRecordEnd();
+        }
+        return nNew;
+    }
+
+    /**
+     * @return {axis names, axis units} of the archive or {@code null} if unknown
+     */
+    protected synchronized String[][] getAxisInfo() {
+        if (axisNames == null && !chunks.isEmpty()) {
+            try {
+                readChunk(chunks.get(0)); // N.B. axis names and units are also stored with the chunk data
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return axisNames == null ? null : new String[][] { axisNames.clone(), axisUnits.clone() };
+    }
+
+    private void applyAxisInfo(final DataSet dataSet) {
+        final String[][] axisInfo = getAxisInfo();
+        if (axisInfo == null) {
+            return;
+        }
+        for (int dim = 0; dim < 2; dim++) {
+            dataSet.getAxisDescription(dim).set(axisInfo[0][dim], axisInfo[1][dim]);
+        }
+    }
+
+    private void parseAxisInfo(final FastByteBuffer buffer, final List<FieldHeader> fields) {
+        final String[] names = new String[2];
+        final String[] units = new String[2];
+        for (int dim = 0; dim < 2; dim++) {
+            final Optional<String> axisName = getString(buffer, fields, DataSetArchiveWriter.AXIS_NAME + dim);
+            final Optional<String> axisUnit = getString(buffer, fields, DataSetArchiveWriter.AXIS_UNIT + dim);
+            if (axisName.isEmpty() || axisUnit.isEmpty()) {
+                return; // archive header written without axis information
+            }
+            names[dim] = axisName.get();
+            units[dim] = axisUnit.get();
+        }
+        synchronized (this) {
+            axisNames = names;
+            axisUnits = units;
+        }
+    }
+
+    private synchronized List<Chunk> getChunks(final double xMin, final double xMax) {
+        // chunks are sorted by x -> find first chunk that may contain xMin
+        int low = 0;
+        int high = chunks.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (chunks.get(mid).xMax < xMin) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        final List<Chunk> result = new ArrayList<>();
+        for (int i = low; i < chunks.size() && chunks.get(i).xMin <= xMax; i++) {
+            result.add(chunks.get(i));
+        }
+        return result;
+    }
+
+    private DataSet readChunk(final Chunk chunk) throws IOException {
+        final Integer key = chunk.index;
+        DataSet data = chunkCache.get(key);
+        if (data != null) {
+            return data;
+        }
+        data = DataSetSerialiser.readDataSetFromByteArray(FastByteBuffer.wrap(readPayload(channel, chunk)));
+        if (data.getDataCount(DIM_X) != chunk.dataCount || !(data instanceof DataSetError)) {
+            throw new IOException("corrupt chunk #" + chunk.index + " in '" + file + "'");
+        }
+        synchronized (this) {
+            if (axisNames == null) { // N.B. fall-back for archive headers without axis information
+                axisNames = new String[] { data.getAxisDescription(DIM_X).getName(), data.getAxisDescription(DIM_Y).getName() };
+                axisUnits = new String[] { data.getAxisDescription(DIM_X).getUnit(), data.getAxisDescription(DIM_Y).getUnit() };
+            }
+        }
+        chunkCache.put(key, data);
+        return data;
+    }
+
+    private static Optional<Integer> getInt(final FastByteBuffer buffer, final List<FieldHeader> fields, final String fieldName) {
+        final Optional<FieldHeader> field = FieldHeader.findHeaderFor(fields, fieldName);
+        field.ifPresent(f -> buffer.position(f.getDataBufferPosition()));
+        return field.map(f -> BinarySerialiser.getInteger(buffer));
+    }
+
+    private static Optional<String> getString(final FastByteBuffer buffer, final List<FieldHeader> fields, final String fieldName) {
+        final Optional<FieldHeader> field = FieldHeader.findHeaderFor(fields, fieldName);
+        field.ifPresent(f -> buffer.position(f.getDataBufferPosition()));
+        return field.map(f -> BinarySerialiser.getString(buffer));
+    }
+
+    private static int lowerBound(final double[] x, final int length, final double value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (x[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(final double[] x, final int length, final double value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (x[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * reads and decompresses the payload of the given record
+     *
+     * @param channel archive file channel
+     * @param record record descriptor
+     * @return decompressed payload
+     * @throws IOException if the payload cannot be read or does not match its checksum
+     */
+    protected static byte[] readPayload(final FileChannel channel, final Chunk record) throws IOException {
+        final ByteBuffer stored = readStored(channel, record);
+        if (!isChecksumValid(record, stored)) {
+            throw new IOException("checksum mismatch for record at position " + record.position);
+        }
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored.array(), 0, record.storedLength);
+            final byte[] raw = new byte[record.rawLength];
+            int nBytes = 0;
+            while (nBytes < raw.length && !inflater.finished()) {
+                final int n = inflater.inflate(raw, nBytes, raw.length - nBytes);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                nBytes += n;
+            }
+            if (nBytes != raw.length) {
+                throw new IOException("truncated payload for record at position " + record.position);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt payload for record at position " + record.position, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * verifies the checksum of the given record without decompressing its payload
+     *
+     * @param channel archive file channel
+     * @param record record descriptor
+     * @return {@code true} if the record matches its checksum
+     * @throws IOException in case the file cannot be read
+     */
+    protected static boolean isChecksumValid(final FileChannel channel, final Chunk record) throws IOException {
+        return isChecksumValid(record, readStored(channel, record));
+    }
+
+    /**
+     * reads the fixed-size record header at the given position
+     *
+     * @param channel archive file channel
+     * @param position file position of the record
+     * @param fileSize current size of the file
+     * @return record descriptor or {@code null} if there is no complete record at this position
+     * @throws IOException in case the file cannot be read
+     */
+    protected static Chunk readRecord(final FileChannel channel, final long position, final long fileSize) throws IOException {
+        if (position + DataSetArchiveWriter.RECORD_HEADER_SIZE > fileSize) {
+            return null;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(DataSetArchiveWriter.RECORD_HEADER_SIZE);
+        readFully(channel, header, position);
+        header.flip();
+        if (header.getInt() != DataSetArchiveWriter.RECORD_MAGIC) {
+            return null;
+        }
+        final byte[] summary = new byte[DataSetArchiveWriter.RECORD_SUMMARY_SIZE];
+        header.get(summary);
+        final int crc = header.getInt();
+        final ByteBuffer fields = ByteBuffer.wrap(summary);
+        final Chunk record = new Chunk(fields.get(), position, fields.getInt(), fields.getInt(), fields.getInt(),
+                fields.getDouble(), fields.getDouble(), fields.getDouble(), fields.getDouble());
+        if ((record.type != DataSetArchiveWriter.HEADER_RECORD && record.type != DataSetArchiveWriter.CHUNK_RECORD)
+                || record.storedLength < 0 || record.rawLength < 0 || record.dataCount < 0
+                || record.getRecordEnd() > fileSize) {
+            return null; // incomplete or invalid record
+        }
+        record.summary = summary;
+        record.crc = crc;
+        return record;
+    }
+
+    private static boolean isChecksumValid(final Chunk record, final ByteBuffer stored) {
+        final CRC32 crc = new CRC32();
+        crc.update(record.summary);
+        crc.update(stored.array(), 0, record.storedLength);
+        return (int) crc.getValue() == record.crc;
+    }
+
+    private static ByteBuffer readStored(final FileChannel channel, final Chunk record) throws IOException {
+        final ByteBuffer stored = ByteBuffer.allocate(record.storedLength);
+        readFully(channel, stored, record.position + DataSetArchiveWriter.RECORD_HEADER_SIZE);
+        return stored;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer target, final long position) throws IOException {
+        long filePosition = position;
+        while (target.hasRemaining()) {
+            final int n = channel.read(target, filePosition);
+            if (n < 0) {
+                throw new IOException("unexpected end of file at position " + filePosition);
+            }
+            filePosition += n;
+        }
+    }
+
+    /**
+     * index entry describing one archive chunk, i.e. its location in the file, its number of samples and its x-range and
+     * y min/max summary
+     */
+    public static class Chunk {
+        private final byte type;
+        private final long position;
+        private final int storedLength;
+        private final int rawLength;
+        private final int dataCount;
+        private final double xMin;
+        private final double xMax;
+        private final double yMin;
+        private final double yMax;
+        private int index;
+        private byte[] summary;
+        private int crc;
+
+        protected Chunk(final byte type, final long position, final int storedLength, final int rawLength, final int dataCount,
+                final double xMin, final double xMax, final double yMin, final double yMax) {
+            this.type = type;
+            this.position = position;
+            this.storedLength = storedLength;
+            this.rawLength = rawLength;
+            this.dataCount = dataCount;
+            this.xMin = xMin;
+            this.xMax = xMax;
+            this.yMin = yMin;
+            this.yMax = yMax;
+        }
+
+        /**
+         * @return number of samples in this chunk
+         */
+        public int getDataCount() {
+            return dataCount;
+        }
+
+        /**
+         * @return file position of the chunk record
+         */
+        public long getPosition() {
+            return position;
+        }
+
+        /**
+         * @return compressed size of the chunk data in bytes
+         */
+        public int getStoredLength() {
+            return storedLength;
+        }
+
+        public double getXMax() {
+            return xMax;
+        }
+
+        public double getXMin() {
+            return xMin;
+        }
+
+        public double getYMax() {
+            return yMax;
+        }
+
+        public double getYMin() {
+            return yMin;
+        }
+
+        protected long getRecordEnd() {
+            return position + DataSetArchiveWriter.RECORD_HEADER_SIZE + storedLength;
+        }
+
+        @Override
+        public String toString() {
+            return "Chunk [position=" + position + ", dataCount=" + dataCount + ", x=[" + xMin + ", " + xMax + "], y=["
+                    + yMin + ", " + yMax + "]]";
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.serializer.spi.BinarySerialiser;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Append-only, chunked on-disk archive for long two-dimensional DataSet histories (e.g. time series). Samples are
+ * buffered and written as chunks of {@link #getChunkSize()} samples, each serialised via {@link DataSetSerialiser} and
+ * deflate-compressed. Every chunk record carries an uncompressed summary -- its number of samples, x-range and y
+ * min/max -- that acts as sparse x/time index and allows {@link DataSetArchiveReader} to locate chunks and to compute
+ * decimated overviews without scanning or decompressing the whole file.
+ * <p>
+ * Record layout (big-endian): {@code [int magic][byte type][int storedLength][int rawLength][int nSamples][double
+ * xMin][double xMax][double yMin][double yMax][int crc32][storedLength bytes of compressed payload]}. The first record
+ * is the archive header (name, chunk size, format version, axis names and units). An updated header record is appended
+ * if the axis names and units are set by the first appended data set.
+ * <p>
+ * Appends are crash-safe: each record is written with a single positional write at the end of the file, is protected
+ * by a CRC32 checksum and every chunk is forced to the storage device once written. When re-opening an existing archive,
+ * the checksums are verified from the start of the file, the first corrupt or torn record and everything following it
+ * are truncated, and appending continues after the last valid chunk. {@link #flush()} writes out the pending (partial)
+ * chunk. The x coordinates must be non-decreasing.
+ *
+ * @see DataSetArchiveReader
+ * @author rstein
+ */
+public class DataSetArchiveWriter implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSetArchiveWriter.class);
+    public static final int DEFAULT_CHUNK_SIZE = 65_536;
+    protected static final int FORMAT_VERSION = 1;
+    protected static final int RECORD_MAGIC = 0x43464152; // 'CFAR'
+    protected static final byte HEADER_RECORD = 0;
+    protected static final byte CHUNK_RECORD = 1;
+    protected static final int RECORD_SUMMARY_SIZE = 1 + 3 * Integer.BYTES + 4 * Double.BYTES;
+    protected static final int RECORD_HEADER_SIZE = RECORD_SUMMARY_SIZE + 2 * Integer.BYTES;
+    protected static final String ARCHIVE_NAME = "archiveName";
+    protected static final String CHUNK_SIZE = "chunkSize";
+    protected static final String VERSION = "formatVersion";
+    protected static final String AXIS_NAME = "axisName";
+    protected static final String AXIS_UNIT = "axisUnit";
+    private final Path file;
+    private final FileChannel channel;
+    private final String name;
+    private final int chunkSize;
+    private final boolean asFloat;
+    private final double[] xValues;
+    private final double[] yValues;
+    private final double[] yErrorsNeg;
+    private final double[] yErrorsPos;
+    private final String[] axisNames = { "x-Axis", "y-Axis" };
+    private final String[] axisUnits = { "a.u.", "a.u." };
+    private final FastByteBuffer byteBuffer = new FastByteBuffer();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32 crc = new CRC32();
+    private byte[] compressed = new byte[0];
+    private int nPending;
+    private long writePosition;
+    private long dataCount;
+    private int chunkCount;
+    private double lastX = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Opens or creates an archive. If the file exists, its name, chunk size, axis names and units are retained and new
+     * samples are appended after the last valid chunk.
+     *
+     * @param file archive file
+     * @param name archive name (used as name for the data sets returned by the reader)
+     * @param chunkSize number of samples per chunk (N.B. ignored for existing archives)
+     * @param asFloat {@code true}: store values as binary floats (smaller size), or {@code false} as double (better
+     *            precision)
+     * @throws IOException in case the file cannot be opened, is not an archive or cannot be written
+     */
+    public DataSetArchiveWriter(final Path file, final String name, final int chunkSize, final boolean asFloat)
+            throws IOException {
+        AssertUtils.notNull("file", file);
+        AssertUtils.notNull("name", name);
+        AssertUtils.gtThanZero("chunkSize", chunkSize);
+        this.file = file;
+        this.asFloat = asFloat;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                this.name = name;
+                this.chunkSize = chunkSize;
+                writeHeader();
+            } else {
+                try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+                    this.name = reader.getName();
+                    this.chunkSize = reader.getChunkSize();
+                    final String[][] axisInfo = reader.getAxisInfo();
+                    if (axisInfo != null) {
+                        System.arraycopy(axisInfo[0], 0, axisNames, 0, 2);
+                        System.arraycopy(axisInfo[1], 0, axisUnits, 0, 2);
+                    }
+                    recover(reader);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        xValues = new double[this.chunkSize];
+        yValues = new double[this.chunkSize];
+        yErrorsNeg = new double[this.chunkSize];
+        yErrorsPos = new double[this.chunkSize];
+    }
+
+    /**
+     * appends a sample
+     *
+     * @param x the new x coordinate (must be larger or equal to the previous one)
+     * @param y the new y coordinate
+     * @param yErrorNeg the -dy error
+     * @param yErrorPos the +dy error
+     * @return itself (fluent design)
+     * @throws IOException in case a completed chunk could not be written (N.B. the write of a completed chunk is
+     *             retried with the next sample)
+     */
+    public synchronized DataSetArchiveWriter add(final double x, final double y, final double yErrorNeg,
+            final double yErrorPos) throws IOException {
+        if (!(x >= lastX)) { // NOPMD - also catches NaN
+            throw new IllegalArgumentException("x = " + x + " must not be smaller than the previous x = " + lastX);
+        }
+        if (nPending == chunkSize) {
+            writeChunk(); // previous write of the completed chunk failed -> retry
+        }
+        lastX = x;
+        xValues[nPending] = x;
+        yValues[nPending] = y;
+        yErrorsNeg[nPending] = yErrorNeg;
+        yErrorsPos[nPending] = yErrorPos;
+        nPending++;
+        if (nPending == chunkSize) {
+            writeChunk();
+        }
+        return this;
+    }
+
+    /**
+     * appends all samples of the given data set. The axis names and units of the first appended data set are stored in
+     * the archive header.
+     *
+     * @param dataSet two-dimensional data set with non-decreasing x coordinates (errors are stored if available)
+     * @return itself (fluent design)
+     * @throws IOException in case a completed chunk could not be written
+     */
+    public DataSetArchiveWriter add(final DataSet dataSet) throws IOException {
+        AssertUtils.notNull("dataSet", dataSet);
+        if (dataSet.getDimension() != 2) {
+            throw new IllegalArgumentException("only two-dimensional data sets are supported, dimension = " + dataSet.getDimension());
+        }
+        final IOException[] exception = new IOException[1];
+        dataSet.lock().readLockGuard(() -> {
+            synchronized (this) {
+                final DataSetError errorDataSet = dataSet instanceof DataSetError ? (DataSetError) dataSet : null;
+                final int nData = dataSet.getDataCount(DIM_X);
+                try {
+                    if (dataCount == 0 && nPending == 0) {
+                        updateAxisInfo(dataSet);
+                    }
+                    for (int i = 0; i < nData; i++) {
+                        add(dataSet.get(DIM_X, i), dataSet.get(DIM_Y, i),
+                                errorDataSet == null ? 0.0 : errorDataSet.getErrorNegative(DIM_Y, i),
+                                errorDataSet == null ? 0.0 : errorDataSet.getErrorPositive(DIM_Y, i));
+                    }
+                } catch (IOException e) {
+                    exception[0] = e;
+                }
+            }
+        });
+        if (exception[0] != null) {
+            throw exception[0];
+        }
+        return this;
+    }
+
+    /**
+     * writes the pending samples, flushes and closes the archive
+     *
+     * @throws IOException in case the archive could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    /**
+     * writes the pending samples as (partial) chunk and forces it to the storage device
+     *
+     * @throws IOException in case the archive could not be written
+     */
+    public synchronized void flush() throws IOException {
+        if (nPending > 0) {
+            writeChunk();
+        }
+    }
+
+    /**
+     * @return number of chunks written to the archive
+     */
+    public synchronized int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * @return number of samples per chunk
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return number of samples in the archive, including the pending ones that have not been written yet
+     */
+    public synchronized long getDataCount() {
+        return dataCount + nPending;
+    }
+
+    /**
+     * @return the archive file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return archive name
+     */
+    public String getName() {
+        return name;
+    }
+
+    private void recover(final DataSetArchiveReader reader) throws IOException {
+        final long fileSize = channel.size();
+        long position = 0;
+        DataSetArchiveReader.Chunk record;
+        while ((record = DataSetArchiveReader.readRecord(channel, position, fileSize)) != null) {
+            // N.B. records are strictly appended -> nothing following a corrupt record can be trusted
+            if (!DataSetArchiveReader.isChecksumValid(channel, record)) {
+                LOGGER.atWarn().addArgument(file).addArgument(record).log("dropping corrupt record of '{}' and all following: {}");
+                break;
+            }
+            position = record.getRecordEnd();
+        }
+        if (position < fileSize) {
+            LOGGER.atWarn().addArgument(file).addArgument(fileSize - position).log("truncating '{}' by {} bytes of incomplete data");
+            channel.truncate(position);
+        }
+        writePosition = position;
+        for (final DataSetArchiveReader.Chunk chunk : reader.getChunks()) {
+            if (chunk.getPosition() < position) {
+                dataCount += chunk.getDataCount();
+                chunkCount++;
+                lastX = chunk.getXMax();
+            }
+        }
+    }
+
+    private void writeChunk() throws IOException {
+        double yMin = Double.POSITIVE_INFINITY;
+        double yMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < nPending; i++) {
+            if (Double.isFinite(yValues[i])) { // N.B. non-finite values would invalidate the chunk summary
+                yMin = Math.min(yMin, yValues[i]);
+                yMax = Math.max(yMax, yValues[i]);
+            }
+        }
+        final DoubleErrorDataSet chunk = new DoubleErrorDataSet(name, xValues, yValues, yErrorsNeg, yErrorsPos, nPending, false);
+        for (int dim = 0; dim < 2; dim++) {
+            chunk.getAxisDescription(dim).set(axisNames[dim], axisUnits[dim]);
+        }
+        byteBuffer.reset();
+        DataSetSerialiser.writeDataSetToByteArray(chunk, byteBuffer, asFloat);
+        writeRecord(CHUNK_RECORD, nPending, xValues[0], xValues[nPending - 1], yMin, yMax);
+        channel.force(false);
+        dataCount += nPending;
+        chunkCount++;
+        nPending = 0;
+    }
+
+    private void writeHeader() throws IOException {
+        byteBuffer.reset();
+        BinarySerialiser.putHeaderInfo(byteBuffer);
+        BinarySerialiser.put(byteBuffer, ARCHIVE_NAME, name);
+        BinarySerialiser.put(byteBuffer, CHUNK_SIZE, chunkSize);
+        BinarySerialiser.put(byteBuffer, VERSION, FORMAT_VERSION);
+        for (int dim = 0; dim < 2; dim++) {
+            BinarySerialiser.put(byteBuffer, AXIS_NAME + dim, axisNames[dim]);
+            BinarySerialiser.put(byteBuffer, AXIS_UNIT + dim, axisUnits[dim]);
+        }
+        BinarySerialiser.putEndMarker(byteBuffer, "OBJ_ROOT_END");
+        writeRecord(HEADER_RECORD, 0, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        channel.force(false);
+    }
+
+    private void updateAxisInfo(final DataSet dataSet) throws IOException {
+        boolean changed = false;
+        for (int dim = 0; dim < 2; dim++) {
+            final String axisName = dataSet.getAxisDescription(dim).getName();
+            final String axisUnit = dataSet.getAxisDescription(dim).getUnit();
+            changed |= !Objects.equals(axisName, axisNames[dim]) || !Objects.equals(axisUnit, axisUnits[dim]);
+            axisNames[dim] = axisName;
+            axisUnits[dim] = axisUnit;
+        }
+        if (changed) {
+            writeHeader(); // N.B. appended -- the last header record takes precedence
+        }
+    }
+
+    /**
+     * compresses the content of 'byteBuffer' and appends it as a record to the file
+     */
+    private void writeRecord(final byte type, final int nSamples, final double xMin, final double xMax,
+            final double yMin, final double yMax) throws IOException {
+        final int rawLength = (int) byteBuffer.position();
+        deflater.reset();
+        deflater.setInput(byteBuffer.elements(), 0, rawLength);
+        deflater.finish();
+        int storedLength = 0;
+        while (!deflater.finished()) {
+            if (storedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, Math.max(1024, 2 * compressed.length));
+            }
+            storedLength += deflater.deflate(compressed, storedLength, compressed.length - storedLength);
+        }
+
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + storedLength);
+        record.putInt(RECORD_MAGIC);
+        record.put(type).putInt(storedLength).putInt(rawLength).putInt(nSamples);
+        record.putDouble(xMin).putDouble(xMax).putDouble(yMin).putDouble(yMax);
+        crc.reset();
+        crc.update(record.array(), Integer.BYTES, RECORD_SUMMARY_SIZE);
+        crc.update(compressed, 0, storedLength);
+        record.putInt((int) crc.getValue());
+        record.put(compressed, 0, storedLength);
+        record.flip();
+
+        // single positional write at the end of the file -- readers ignore the record until it is complete
+        long position = writePosition;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        writePosition = position;
+    }
+}
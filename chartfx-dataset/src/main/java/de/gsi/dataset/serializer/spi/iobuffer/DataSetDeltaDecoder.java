@@ -0,0 +1,278 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.APPEND_PREFIX;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.DATA_COUNT;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.DELTA_FRAME;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.DROPPED;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.EYN;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.EYP;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.FRAME_TYPE;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.KEY_FRAME;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.SEQUENCE;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.UPDATE_INDEX;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.UPDATE_PREFIX;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.X;
+import static de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder.Y;
+
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.serializer.DataType;
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.serializer.spi.BinarySerialiser;
+import de.gsi.dataset.serializer.spi.FieldHeader;
+import de.gsi.dataset.spi.CircularDoubleErrorDataSet;
+import de.gsi.dataset.spi.DataSetBuilder;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.spi.RingBufferDoubleErrorDataSet;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Stateful decoder for the key and delta frames written by {@link DataSetDeltaEncoder}. The frames are applied in
+ * place to the target data set, which may be either a {@link DoubleErrorDataSet} (exact replica of the sender's data
+ * set) or a circular data set ({@link CircularDoubleErrorDataSet}, {@link RingBufferDoubleErrorDataSet}) that retains
+ * the latest samples according to its own capacity.
+ * <p>
+ * Delta frames are only applied if they directly follow the previously applied frame. Otherwise (lost frame, decoder
+ * started mid-stream, or -- for circular targets -- in-place updates of existing samples) {@link #read} returns
+ * {@code false} and the receiver should request a key-frame from the sender (see
+ * {@link DataSetDeltaEncoder#requestKeyFrame()}). Subsequent delta frames are rejected until a key-frame has been
+ * received.
+ *
+ * @see DataSetDeltaEncoder
+ * @author rstein
+ */
+public class DataSetDeltaDecoder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSetDeltaDecoder.class);
+    private final DataSet dataSet;
+    private long sequence = -1; // '-1' awaiting key-frame
+
+    /**
+     * @param dataSet target data set the received frames are applied to
+     */
+    public DataSetDeltaDecoder(final DataSet dataSet) {
+        AssertUtils.notNull("dataSet", dataSet);
+        if (!(dataSet instanceof DoubleErrorDataSet) && !isCircular(dataSet)) {
+            throw new IllegalArgumentException("unsupported target data set type: " + dataSet.getClass().getName());
+        }
+        this.dataSet = dataSet;
+    }
+
+    /**
+     * @return the target data set
+     */
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * @return sequence number of the last applied frame or '-1' if the decoder awaits a key-frame
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return {@code true} if the decoder awaits a key-frame
+     */
+    public boolean isKeyFrameRequired() {
+        return sequence < 0;
+    }
+
+    /**
+     * Reads the next frame from the buffer and applies it to the target data set.
+     *
+     * @param readBuffer IoBuffer (encapsulates byte array) positioned at the start of the frame
+     * @return {@code true} if the frame has been applied, {@code false} if it has been rejected and a key-frame is
+     *         required
+     */
+    public boolean read(final IoBuffer readBuffer) {
+        AssertUtils.notNull("readBuffer", readBuffer);
+        final FieldHeader fieldRoot = BinarySerialiser.parseIoStream(readBuffer).getChildren().get(0);
+        final List<FieldHeader> fields = fieldRoot.getChildren();
+
+        final int frameType = getInteger(readBuffer, fields, FRAME_TYPE);
+        final long frameSequence = getLong(readBuffer, fields, SEQUENCE);
+        final int dataCount = getInteger(readBuffer, fields, DATA_COUNT);
+
+        if (frameType == KEY_FRAME) {
+            final DataSetBuilder builder = new DataSetBuilder();
+            DataSetSerialiser.parseHeaders(readBuffer, builder, fields);
+            if (DataSetSerialiser.isMetaDataSerialised()) {
+                DataSetSerialiser.parseMetaData(readBuffer, builder, fields);
+            }
+            if (DataSetSerialiser.isDataLablesSerialised()) {
+                DataSetSerialiser.parseDataLabels(readBuffer, builder, fields);
+            }
+            DataSetSerialiser.parseNumericData(readBuffer, builder, fields);
+            applyKeyFrame(builder.build());
+            sequence = frameSequence;
+            return true;
+        }
+
+        if (frameType != DELTA_FRAME) {
+            throw new InputMismatchException("unknown frame type " + frameType);
+        }
+        if (sequence < 0 || frameSequence != sequence + 1) {
+            LOGGER.atDebug().addArgument(sequence).addArgument(frameSequence).log("out-of-sequence delta frame: last = {} vs. received = {}");
+            sequence = -1;
+            return false;
+        }
+
+        final int dropped = getInteger(readBuffer, fields, DROPPED);
+        final double[][] update = getArrays(readBuffer, fields, UPDATE_PREFIX);
+        final int updateIndex = update == null ? 0 : getInteger(readBuffer, fields, UPDATE_INDEX);
+        final double[][] append = getArrays(readBuffer, fields, APPEND_PREFIX);
+
+        if (!applyDelta(dataCount, dropped, updateIndex, update, append)) {
+            sequence = -1;
+            return false;
+        }
+        sequence = frameSequence;
+        return true;
+    }
+
+    private void applyKeyFrame(final DataSet received) {
+        if (dataSet instanceof DoubleErrorDataSet) {
+            final boolean notify = dataSet.autoNotification().getAndSet(false);
+            try {
+                ((DoubleErrorDataSet) dataSet).set(received);
+            } finally {
+                dataSet.autoNotification().set(notify);
+            }
+            dataSet.invokeListener(new UpdatedDataEvent(dataSet, "key-frame"));
+            return;
+        }
+
+        final int count = received.getDataCount(DIM_X);
+        final double[] x = received.getValues(DIM_X, 0, count, null);
+        final double[] y = received.getValues(DIM_Y, 0, count, null);
+        final double[] eyn = received instanceof DataSetError ? ((DataSetError) received).getErrorsNegative(DIM_Y, 0, count, null) : new double[count];
+        final double[] eyp = received instanceof DataSetError ? ((DataSetError) received).getErrorsPositive(DIM_Y, 0, count, null) : new double[count];
+        final boolean notify = dataSet.autoNotification().getAndSet(false);
+        try {
+            if (dataSet instanceof CircularDoubleErrorDataSet) {
+                ((CircularDoubleErrorDataSet) dataSet).reset().add(x, y, eyn, eyp);
+            } else {
+                ((RingBufferDoubleErrorDataSet) dataSet).reset().add(x, y, eyn, eyp);
+            }
+        } finally {
+            dataSet.autoNotification().set(notify);
+        }
+        dataSet.invokeListener(new UpdatedDataEvent(dataSet, "key-frame"));
+    }
+
+    private boolean applyDelta(final int dataCount, final int dropped, final int updateIndex, final double[][] update,
+            final double[][] append) {
+        final int nAppended = append == null ? 0 : append[0].length;
+        if (isCircular(dataSet)) {
+            if (update != null) {
+                // circular data sets retain samples according to their own capacity -> no in-place updates
+                return false;
+            }
+            if (nAppended == 0) {
+                return true;
+            }
+            final boolean notify = dataSet.autoNotification().getAndSet(false);
+            try {
+                if (dataSet instanceof CircularDoubleErrorDataSet) {
+                    ((CircularDoubleErrorDataSet) dataSet).add(append[0], append[1], append[2], append[3]);
+                } else {
+                    ((RingBufferDoubleErrorDataSet) dataSet).add(append[0], append[1], append[2], append[3]);
+                }
+            } finally {
+                dataSet.autoNotification().set(notify);
+            }
+            final int count = dataSet.getDataCount(DIM_X);
+            dataSet.invokeListener(new AddedDataEvent(dataSet, "delta", Math.max(0, count - nAppended), count));
+            return true;
+        }
+
+        final DoubleErrorDataSet target = (DoubleErrorDataSet) dataSet;
+        // N.B. suppress the individual remove/set/add events in favour of the single delta event below
+        final boolean notify = target.autoNotification().getAndSet(false);
+        final boolean consistent;
+        try {
+            consistent = target.lock().writeLockGuard(() -> {
+                if (target.getDataCount(DIM_X) - dropped + nAppended != dataCount) {
+                    return false;
+                }
+                if (dropped > 0) {
+                    target.remove(0, dropped);
+                }
+                if (update != null) {
+                    target.set(updateIndex, update[0], update[1], update[2], update[3]);
+                }
+                if (nAppended > 0) {
+                    target.add(append[0], append[1], append[2], append[3]);
+                }
+                return true;
+            });
+        } finally {
+            target.autoNotification().set(notify);
+        }
+        if (!consistent) {
+            return false;
+        }
+
+        final UpdateEvent event;
+        if (update == null) {
+            event = new AddedDataEvent(target, "delta", dataCount - nAppended, dataCount);
+        } else if (dropped == 0 && nAppended == 0) {
+            event = new UpdatedDataEvent(target, "delta", updateIndex, updateIndex + update[0].length);
+        } else {
+            event = new UpdatedDataEvent(target, "delta");
+        }
+        target.invokeListener(event);
+        return true;
+    }
+
+    private static double[][] getArrays(final IoBuffer readBuffer, final List<FieldHeader> fields, final String prefix) {
+        final double[] x = getArray(readBuffer, fields, prefix + X);
+        if (x == null) {
+            return null; // NOPMD -- null denotes 'no such range'
+        }
+        final double[] y = getArray(readBuffer, fields, prefix + Y);
+        final double[] eyn = getArray(readBuffer, fields, prefix + EYN);
+        final double[] eyp = getArray(readBuffer, fields, prefix + EYP);
+        if (y == null || y.length != x.length) {
+            throw new InputMismatchException("inconsistent '" + prefix + "' range");
+        }
+        return new double[][] { x, y, eyn == null ? new double[x.length] : eyn, eyp == null ? new double[x.length] : eyp };
+    }
+
+    private static double[] getArray(final IoBuffer readBuffer, final List<FieldHeader> fields, final String fieldName) {
+        final Optional<FieldHeader> header = DataSetSerialiser.checkFieldCompatibility(readBuffer, fields, fieldName,
+                DataType.DOUBLE_ARRAY, DataType.FLOAT_ARRAY);
+        return header.isPresent() ? BinarySerialiser.getDoubleArray(readBuffer, header.get().getDataType()) : null;
+    }
+
+    private static int getInteger(final IoBuffer readBuffer, final List<FieldHeader> fields, final String fieldName) {
+        if (!DataSetSerialiser.checkFieldCompatibility(readBuffer, fields, fieldName, DataType.INT).isPresent()) {
+            throw new InputMismatchException("missing field '" + fieldName + "' -- not a delta-encoded data set frame");
+        }
+        return BinarySerialiser.getInteger(readBuffer);
+    }
+
+    private static long getLong(final IoBuffer readBuffer, final List<FieldHeader> fields, final String fieldName) {
+        if (!DataSetSerialiser.checkFieldCompatibility(readBuffer, fields, fieldName, DataType.LONG).isPresent()) {
+            throw new InputMismatchException("missing field '" + fieldName + "' -- not a delta-encoded data set frame");
+        }
+        return BinarySerialiser.getLong(readBuffer);
+    }
+
+    private static boolean isCircular(final DataSet dataSet) {
+        return dataSet instanceof CircularDoubleErrorDataSet || dataSet instanceof RingBufferDoubleErrorDataSet;
+    }
+}
@@ -0,0 +1,281 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.AxisChangeEvent;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.serializer.IoBuffer;
+import de.gsi.dataset.serializer.spi.BinarySerialiser;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Stateful encoder that streams a two-dimensional DataSet as a sequence of key and delta frames. After a key-frame,
+ * which contains the same information as {@link DataSetSerialiser#writeDataSetToByteArray}, only the appended and
+ * modified index ranges -- as reported by the data set's {@link AddedDataEvent}s and {@link UpdatedDataEvent}s -- are
+ * transmitted. This is primarily aimed at rolling buffers where a few hundred new samples are added to a large data
+ * set between two updates.
+ * <p>
+ * The frame types and sequence numbers are checked by the {@link DataSetDeltaDecoder} on the receiving side. If the
+ * decoder reports a lost or inconsistent frame, the receiver should ask the sender (via the application's back channel)
+ * to call {@link #requestKeyFrame()}. Key-frames are also sent automatically whenever the data set modification could
+ * not be expressed as a delta (e.g. a data set reset or non-indexed update events).
+ * <p>
+ * N.B. {@link #write} should be called after the data set's update events have been delivered, e.g. from within an
+ * update listener. Frames written while events are still in flight are detected (via the previous frame's last sample)
+ * and sent as key-frames.
+ * <p>
+ * Usage:
+ *
+ * <pre>
+ * {@code
+ * final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder(dataSet, false);
+ * // ... on every update
+ * buffer.reset();
+ * encoder.write(buffer);
+ * // send buffer ...
+ * }
+ * </pre>
+ *
+ * @see DataSetDeltaDecoder
+ * @author rstein
+ */
+public class DataSetDeltaEncoder implements EventListener {
+    protected static final int KEY_FRAME = 0;
+    protected static final int DELTA_FRAME = 1;
+    protected static final String FRAME_TYPE = "deltaFrameType";
+    protected static final String SEQUENCE = "deltaSequence";
+    protected static final String DATA_COUNT = "deltaDataCount";
+    protected static final String DROPPED = "deltaDropped";
+    protected static final String UPDATE_INDEX = "updateIndex";
+    protected static final String UPDATE_PREFIX = "update.";
+    protected static final String APPEND_PREFIX = "append.";
+    protected static final String X = "x";
+    protected static final String Y = "y";
+    protected static final String EYN = "eyn";
+    protected static final String EYP = "eyp";
+    private final DataSet dataSet;
+    private final boolean asFloat;
+    private final Object frameLock = new Object(); // guards the frame state below
+    private long sequence;
+    private int lastDataCount;
+    private double lastX; // last sample of the previous frame -- used to verify the event book-keeping
+    private double lastY;
+    private double[] doubleBuffer = new double[0];
+    private float[] floatBuffer = new float[0];
+    // pending modifications reported by the data set since the last frame (guarded by 'this')
+    private boolean keyFrameRequired = true;
+    private int pendingAppended;
+    private int pendingDirtyMin = Integer.MAX_VALUE;
+    private int pendingDirtyMax = -1;
+
+    /**
+     * @param dataSet two-dimensional data set to be streamed (N.B. the encoder registers itself as listener)
+     * @param asFloat {@code true}: encode data as binary floats (smaller size, performance), or {@code false} as double
+     *            (better precision)
+     */
+    public DataSetDeltaEncoder(final DataSet dataSet, final boolean asFloat) {
+        AssertUtils.notNull("dataSet", dataSet);
+        if (dataSet.getDimension() != 2) {
+            throw new IllegalArgumentException("only two-dimensional data sets are supported, dimension = " + dataSet.getDimension());
+        }
+        this.dataSet = dataSet;
+        this.asFloat = asFloat;
+        dataSet.addListener(this);
+    }
+
+    /**
+     * @return the data set that is encoded
+     */
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * @return sequence number of the last written frame ('0' if no frame has been written yet)
+     */
+    public long getSequence() {
+        synchronized (frameLock) {
+            return sequence;
+        }
+    }
+
+    @Override
+    public synchronized void handle(final UpdateEvent event) {
+        if (event instanceof AxisChangeEvent) {
+            // data set limits only -- data points are unchanged
+            return;
+        }
+        if (!(event instanceof UpdatedDataEvent) || !((UpdatedDataEvent) event).hasIndexRange()
+                || event instanceof RemovedDataEvent) {
+            keyFrameRequired = true;
+            return;
+        }
+        final UpdatedDataEvent dataEvent = (UpdatedDataEvent) event;
+        if (event instanceof AddedDataEvent) {
+            // appended data points -- the number of points dropped at the front is derived from the data count
+            pendingAppended += dataEvent.getToIndex() - dataEvent.getFromIndex();
+        } else {
+            pendingDirtyMin = Math.min(pendingDirtyMin, dataEvent.getFromIndex());
+            pendingDirtyMax = Math.max(pendingDirtyMax, dataEvent.getToIndex());
+        }
+    }
+
+    /**
+     * @return {@code true} if the next frame written is a key-frame
+     */
+    public synchronized boolean isKeyFrameRequired() {
+        return keyFrameRequired;
+    }
+
+    /**
+     * forces the next frame to be a key-frame (e.g. after a new receiver connected or lost a frame)
+     */
+    public synchronized void requestKeyFrame() {
+        keyFrameRequired = true;
+    }
+
+    /**
+     * releases the encoder, ie. detaches it from the data set
+     */
+    public void release() {
+        dataSet.removeListener(this);
+    }
+
+    /**
+     * Writes the next key or delta frame into the buffer.
+     *
+     * @param buffer byte output buffer (N.B. keep caching this object)
+     * @return {@code true} if a key-frame has been written
+     */
+    public boolean write(final IoBuffer buffer) {
+        AssertUtils.notNull("buffer", buffer);
+        return dataSet.lock().readLockGuard(() -> {
+            synchronized (frameLock) {
+                // N.B. the pending state is copied so that events triggered while writing (e.g. by lazily recomputed
+                // axis ranges on other threads) do not block on this encoder
+                final boolean keyFrameRequested;
+                final int pendingAppendedCopy;
+                final int dirtyMin;
+                final int pendingDirtyMaxCopy;
+                synchronized (this) {
+                    keyFrameRequested = keyFrameRequired;
+                    pendingAppendedCopy = pendingAppended;
+                    dirtyMin = pendingDirtyMin;
+                    pendingDirtyMaxCopy = pendingDirtyMax;
+                    keyFrameRequired = false;
+                    pendingAppended = 0;
+                    pendingDirtyMin = Integer.MAX_VALUE;
+                    pendingDirtyMax = -1;
+                }
+
+                final int nData = dataSet.getDataCount(DIM_X);
+                final int appended = Math.min(pendingAppendedCopy, nData);
+                final int dropped = lastDataCount + appended - nData;
+                final int dirtyMax = Math.min(pendingDirtyMaxCopy, nData - appended);
+                // updated indices refer to the data set state before front samples were dropped -> key-frame
+                final boolean sendKeyFrame = keyFrameRequested || dropped < 0 || (dropped > 0 && dirtyMax > dirtyMin)
+                                             || !isConsistent(nData - appended - 1, dirtyMin, dirtyMax);
+
+                sequence++;
+                BinarySerialiser.putHeaderInfo(buffer);
+                BinarySerialiser.put(buffer, FRAME_TYPE, sendKeyFrame ? KEY_FRAME : DELTA_FRAME);
+                BinarySerialiser.put(buffer, SEQUENCE, sequence);
+                BinarySerialiser.put(buffer, DATA_COUNT, nData);
+                if (sendKeyFrame) {
+                    writeKeyFrame(buffer);
+                } else {
+                    BinarySerialiser.put(buffer, DROPPED, dropped);
+                    if (dirtyMax > dirtyMin) {
+                        BinarySerialiser.put(buffer, UPDATE_INDEX, dirtyMin);
+                        writeRange(buffer, UPDATE_PREFIX, dirtyMin, dirtyMax);
+                    }
+                    writeRange(buffer, APPEND_PREFIX, nData - appended, nData);
+                }
+                BinarySerialiser.putEndMarker(buffer, "OBJ_ROOT_END");
+
+                lastDataCount = nData;
+                lastX = nData > 0 ? dataSet.get(DIM_X, nData - 1) : Double.NaN;
+                lastY = nData > 0 ? dataSet.get(DIM_Y, nData - 1) : Double.NaN;
+                return sendKeyFrame;
+            }
+        });
+    }
+
+    /**
+     * checks whether the last sample of the previous frame is found at the expected index. This catches frames that
+     * are written while the modification events of the data set are still in flight.
+     *
+     * @param index expected index of the previous frame's last sample
+     * @param dirtyMin first index (inclusive) of the updated samples
+     * @param dirtyMax last index (exclusive) of the updated samples
+     * @return {@code true} if the appended/dropped book-keeping is consistent with the data set
+     */
+    private boolean isConsistent(final int index, final int dirtyMin, final int dirtyMax) {
+        if (lastDataCount == 0 || index < 0) {
+            return lastDataCount == 0 && index < 0;
+        }
+        if (index >= dirtyMin && index < dirtyMax) {
+            return true; // sample has been legitimately modified
+        }
+        return Double.compare(dataSet.get(DIM_X, index), lastX) == 0 && Double.compare(dataSet.get(DIM_Y, index), lastY) == 0;
+    }
+
+    private void writeKeyFrame(final IoBuffer buffer) {
+        DataSetSerialiser.writeHeaderDataToStream(buffer, dataSet);
+        if (DataSetSerialiser.isMetaDataSerialised()) {
+            DataSetSerialiser.writeMetaDataToStream(buffer, dataSet);
+        }
+        if (DataSetSerialiser.isDataLablesSerialised()) {
+            DataSetSerialiser.writeDataLabelsToStream(buffer, dataSet);
+        }
+        if (asFloat) {
+            DataSetSerialiser.writeNumericBinaryDataToBufferFloat(buffer, dataSet);
+        } else {
+            DataSetSerialiser.writeNumericBinaryDataToBufferDouble(buffer, dataSet);
+        }
+    }
+
+    private void writeArray(final IoBuffer buffer, final String fieldName, final int length) {
+        final int[] dims = { length };
+        if (!asFloat) {
+            BinarySerialiser.put(buffer, fieldName, doubleBuffer, dims);
+            return;
+        }
+        if (floatBuffer.length < length) {
+            floatBuffer = new float[length];
+        }
+        for (int i = 0; i < length; i++) {
+            floatBuffer[i] = (float) doubleBuffer[i];
+        }
+        BinarySerialiser.put(buffer, fieldName, floatBuffer, dims);
+    }
+
+    private void writeRange(final IoBuffer buffer, final String prefix, final int fromIndex, final int toIndex) {
+        final int length = toIndex - fromIndex;
+        if (length <= 0) {
+            return;
+        }
+        if (doubleBuffer.length < length) {
+            doubleBuffer = new double[length];
+        }
+        dataSet.getValues(DIM_X, fromIndex, toIndex, doubleBuffer);
+        writeArray(buffer, prefix + X, length);
+        dataSet.getValues(DIM_Y, fromIndex, toIndex, doubleBuffer);
+        writeArray(buffer, prefix + Y, length);
+        if (!(dataSet instanceof DataSetError)) {
+            return; // data set does not have any error definition
+        }
+        final DataSetError ds = (DataSetError) dataSet;
+        ds.getErrorsNegative(DIM_Y, fromIndex, toIndex, doubleBuffer);
+        writeArray(buffer, prefix + EYN, length);
+        ds.getErrorsPositive(DIM_Y, fromIndex, toIndex, doubleBuffer);
+        writeArray(buffer, prefix + EYP, length);
+    }
+}
@@ -1,6 +1,7 @@
 package de.gsi.dataset.serializer.spi.iobuffer;
 
 import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
 
 import java.util.Arrays;
 import java.util.InputMismatchException;
@@ -21,6 +22,7 @@ import de.gsi.dataset.serializer.IoBuffer;
 import de.gsi.dataset.serializer.spi.BinarySerialiser;
 import de.gsi.dataset.serializer.spi.BinarySerialiser.HeaderInfo;
 import de.gsi.dataset.serializer.spi.FieldHeader;
+import de.gsi.dataset.serializer.spi.MappedFileBuffer;
 import de.gsi.dataset.spi.DataSetBuilder;
 import de.gsi.dataset.utils.AssertUtils;
 
@@ -32,6 +34,9 @@ import de.gsi.dataset.utils.AssertUtils;
  * <li>via {@link #setDataLablesSerialised(boolean)} (default: false) to control whether data labels and styles shall be
  * processed</li>
  * <li>via {@link #setMetaDataSerialised(boolean)} (default: true) to control whether meta data shall be processed</li>
+ * <li>via {@link #setLazyColumnViews(boolean)} (default: false) to control whether DataSets read from a
+ * {@link MappedFileBuffer} are returned as lazy {@link MappedDataSet} views into the mapped file rather than being
+ * copied</li>
  * </ul>
  *
  * @author rstein
@@ -56,6 +61,7 @@ public class DataSetSerialiser { // NOPMD
     private static final String DATA_LABELS = "dataLabels";
     private static boolean transmitDataLabels = true;
     private static boolean transmitMetaData = true;
+    private static boolean lazyColumnViews;
 
     private DataSetSerialiser() {
         // utility class
@@ -92,6 +98,10 @@ public class DataSetSerialiser { // NOPMD
         return transmitDataLabels;
     }
 
+    public static boolean isLazyColumnViews() {
+        return lazyColumnViews;
+    }
+
     public static boolean isMetaDataSerialised() {
         return transmitMetaData;
     }
@@ -257,15 +267,78 @@ public class DataSetSerialiser { // NOPMD
             parseDataLabels(readBuffer, builder, fieldRoot.getChildren());
         }
 
+        if (isLazyColumnViews() && readBuffer instanceof MappedFileBuffer) {
+            final Optional<DataSet> lazyDataSet = createMappedDataSet((MappedFileBuffer) readBuffer, builder, fieldRoot.getChildren());
+            if (lazyDataSet.isPresent()) {
+                return lazyDataSet.get();
+            }
+        }
+
         parseNumericData(readBuffer, builder, fieldRoot.getChildren());
 
         return builder.build();
     }
 
+    /**
+     * creates a lazy DataSet with column views into the mapped file (only two-dimensional double or float arrays are
+     * supported, other data sets are copied as usual)
+     */
+    private static Optional<DataSet> createMappedDataSet(final MappedFileBuffer readBuffer,
+            final DataSetBuilder builder, final List<FieldHeader> fieldHeaderList) {
+        final Optional<FieldHeader> dimensions = FieldHeader.findHeaderFor(fieldHeaderList, DIMENSIONS);
+        if (dimensions.isPresent() && readBuffer.getInt(dimensions.get().getDataBufferPosition()) != 2) {
+            return Optional.empty(); // not a two-dimensional data set
+        }
+        final MappedDataSet.MappedColumn[] values = new MappedDataSet.MappedColumn[2];
+        final MappedDataSet.MappedColumn[] errorsNeg = new MappedDataSet.MappedColumn[2];
+        final MappedDataSet.MappedColumn[] errorsPos = new MappedDataSet.MappedColumn[2];
+        for (final FieldHeader fieldHeader : fieldHeaderList) {
+            final String fieldName = fieldHeader.getFieldName();
+            if (fieldName == null || (fieldHeader.getDataType() != DataType.DOUBLE_ARRAY && fieldHeader.getDataType() != DataType.FLOAT_ARRAY)) {
+                continue;
+            }
+            final MappedDataSet.MappedColumn[] columns;
+            final String prefix;
+            if (fieldName.startsWith(ARRAY_PREFIX)) {
+                columns = values;
+                prefix = ARRAY_PREFIX;
+            } else if (fieldName.startsWith(EP_PREFIX)) {
+                columns = errorsPos;
+                prefix = EP_PREFIX;
+            } else if (fieldName.startsWith(EN_PREFIX)) {
+                columns = errorsNeg;
+                prefix = EN_PREFIX;
+            } else {
+                continue;
+            }
+            final int dimIndex = getDimIndex(fieldName, prefix);
+            if (dimIndex < 0 || dimIndex >= columns.length) {
+                return Optional.empty(); // not a two-dimensional data set
+            }
+            // the array data is preceded by the number of elements
+            final long arrayStart = fieldHeader.getDataBufferPosition();
+            final int nElements = readBuffer.getInt(arrayStart);
+            columns[dimIndex] = new MappedDataSet.MappedColumn(arrayStart + Integer.BYTES, nElements, fieldHeader.getDataType());
+        }
+        if (values[DIM_X] == null || values[DIM_Y] == null) {
+            return Optional.empty();
+        }
+        final DataSet header = builder.build();
+        return Optional.of(new MappedDataSet(readBuffer, header, values, errorsNeg, errorsPos));
+    }
+
     public static void setDataLablesSerialised(final boolean state) {
         transmitDataLabels = state;
     }
 
+    /**
+     * @param state {@code true}: DataSets read from a {@link MappedFileBuffer} are returned as lazy
+     *            {@link MappedDataSet} views into the mapped file (N.B. valid only while the buffer is open)
+     */
+    public static void setLazyColumnViews(final boolean state) {
+        lazyColumnViews = state;
+    }
+
     public static void setMetaDataSerialised(final boolean state) {
         transmitMetaData = state;
     }
@@ -8,6 +8,7 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +31,9 @@ import de.gsi.dataset.serializer.spi.FieldSerialiser.FieldSerialiserFunction;
 public class IoBufferSerialiser extends AbstractSerialiser {
     private static final Logger LOGGER = LoggerFactory.getLogger(IoBufferSerialiser.class);
     private final Map<Integer, WeakHashMap<String, ClassFieldDescription>> fieldToClassFieldDescription = new HashMap<>();
+    private final Map<Class<?>, CompiledClassSerialiser> compiledClassSerialisers = new ConcurrentHashMap<>();
     private final IoBuffer ioBuffer;
+    private boolean useCompiledSerialisers;
 
     /**
      * Initialises new IoBuffer-backed object serialiser
@@ -96,6 +99,13 @@ public class IoBufferSerialiser extends AbstractSerialiser {
         // addClassDefinition(null, StringHashMapList.class);
     }
 
+    @Override
+    public void addClassDefinition(final FieldSerialiser serialiser) {
+        super.addClassDefinition(serialiser);
+        // N.B. compiled serialisers are bound to the field serialisers known at compile time
+        compiledClassSerialisers.clear();
+    }
+
     protected void deserialise(final Object obj, final FieldHeader fieldRoot, final ClassFieldDescription classFieldDescription, final int recursionDepth) throws IllegalAccessException {
         final String ioName = fieldRoot.getFieldName();
 
@@ -166,6 +176,11 @@ public class IoBufferSerialiser extends AbstractSerialiser {
 
         ioBuffer.position(startPosition);
         final FieldHeader fieldRoot = BinarySerialiser.parseIoStream(ioBuffer);
+        if (useCompiledSerialisers) {
+            getCompiledClassSerialiser(obj.getClass()).deserialise(obj, fieldRoot);
+            return obj;
+        }
+
         // deserialise into object
         for (final FieldHeader child : fieldRoot.getChildren()) {
             deserialise(obj, child, classFieldDescription, 0);
@@ -178,12 +193,41 @@ public class IoBufferSerialiser extends AbstractSerialiser {
         return ioBuffer;
     }
 
+    /**
+     * @param clazz class for which the pre-compiled serialiser should be returned
+     * @return pre-compiled serialiser for the given class (generated on first use and cached)
+     */
+    public CompiledClassSerialiser getCompiledClassSerialiser(final Class<?> clazz) {
+        return compiledClassSerialisers.computeIfAbsent(clazz, key -> new CompiledClassSerialiser(this, key));
+    }
+
+    /**
+     * @return {@code true} if objects are (de-)serialised via pre-compiled class-specific {@link CompiledClassSerialiser}s
+     *         rather than reflective traversal of the {@link ClassFieldDescription} tree
+     */
+    public boolean isUseCompiledSerialisers() {
+        return useCompiledSerialisers;
+    }
+
     @Override
     public void serialiseObject(final Object obj) throws IllegalAccessException {
         BinarySerialiser.putHeaderInfo(ioBuffer);
 
-        super.serialiseObject(obj);
+        if (useCompiledSerialisers) {
+            getCompiledClassSerialiser(obj.getClass()).serialise(obj);
+        } else {
+            super.serialiseObject(obj);
+        }
 
         BinarySerialiser.putEndMarker(ioBuffer, "OBJ_ROOT_END");
     }
+
+    /**
+     * @param state {@code true}: (de-)serialise objects via pre-compiled class-specific {@link CompiledClassSerialiser}s
+     *        (N.B. identical wire-format); {@code false}: use reflective traversal of the {@link ClassFieldDescription}
+     *        tree (default)
+     */
+    public void setUseCompiledSerialisers(final boolean state) {
+        useCompiledSerialisers = state;
+    }
 }
@@ -0,0 +1,168 @@
+package de.gsi.dataset.serializer.spi.iobuffer;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetMetaData;
+import de.gsi.dataset.serializer.DataType;
+import de.gsi.dataset.serializer.spi.MappedFileBuffer;
+import de.gsi.dataset.spi.AbstractDataSet;
+import de.gsi.dataset.spi.AbstractErrorDataSet;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Read-only, lazy two-dimensional DataSet whose columns are views into the region of a {@link MappedFileBuffer}, i.e.
+ * the data is neither de-serialised nor copied on construction but read from the (OS-cached) mapped file on access.
+ * Instances are created by {@link DataSetSerialiser#readDataSetFromByteArray} when
+ * {@link DataSetSerialiser#setLazyColumnViews(boolean) lazy column views} are enabled.
+ * <p>
+ * N.B. the data set is valid only as long as the underlying {@link MappedFileBuffer} is open. Use
+ * {@link de.gsi.dataset.spi.DoubleErrorDataSet#DoubleErrorDataSet(DataSet) copy constructors} to detach the data.
+ *
+ * @author rstein
+ */
+public class MappedDataSet extends AbstractErrorDataSet<MappedDataSet> implements DataSet2D {
+    private static final long serialVersionUID = -2016350286213476813L;
+    private final transient MappedFileBuffer buffer;
+    private final transient MappedColumn[] values;
+    private final transient MappedColumn[] errorsNeg;
+    private final transient MappedColumn[] errorsPos;
+
+    /**
+     * @param buffer mapped file buffer containing the column data
+     * @param header de-serialised header information (name, axis descriptions, meta data, labels)
+     * @param values value columns for each dimension
+     * @param errorsNeg negative error columns for each dimension (entries may be {@code null})
+     * @param errorsPos positive error columns for each dimension (entries may be {@code null})
+     */
+    protected MappedDataSet(final MappedFileBuffer buffer, final DataSet header, final MappedColumn[] values,
+            final MappedColumn[] errorsNeg, final MappedColumn[] errorsPos) {
+        super(header.getName(), 2, getErrorType(errorsNeg[DIM_X], errorsPos[DIM_X]), getErrorType(errorsNeg[DIM_Y], errorsPos[DIM_Y]));
+        AssertUtils.notNull("buffer", buffer);
+        this.buffer = buffer;
+        this.values = values.clone();
+        this.errorsNeg = errorsNeg.clone();
+        this.errorsPos = errorsPos.clone();
+        for (int dim = 0; dim < 2; dim++) {
+            AssertUtils.notNull("values[" + dim + "]", values[dim]);
+            if (this.errorsNeg[dim] == null) {
+                // symmetric errors are stored in the positive error column only
+                this.errorsNeg[dim] = this.errorsPos[dim];
+            }
+            getAxisDescription(dim).set(header.getAxisDescription(dim));
+        }
+        if (header instanceof DataSetMetaData) {
+            final DataSetMetaData metaData = (DataSetMetaData) header;
+            getInfoList().addAll(metaData.getInfoList());
+            getWarningList().addAll(metaData.getWarningList());
+            getErrorList().addAll(metaData.getErrorList());
+            getMetaInfo().putAll(metaData.getMetaInfo());
+        }
+        if (header instanceof AbstractDataSet) {
+            getDataLabelMap().putAll(((AbstractDataSet<?>) header).getDataLabelMap());
+            getDataStyleMap().putAll(((AbstractDataSet<?>) header).getDataStyleMap());
+        }
+    }
+
+    @Override
+    public double get(final int dimIndex, final int index) {
+        return values[dimIndex].get(buffer, index);
+    }
+
+    /**
+     * @return the mapped file buffer backing this data set
+     */
+    public MappedFileBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return values[dimIndex].count;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        return errorsNeg[dimIndex] == null ? 0.0 : errorsNeg[dimIndex].get(buffer, index);
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        return errorsPos[dimIndex] == null ? 0.0 : errorsPos[dimIndex].get(buffer, index);
+    }
+
+    @Override
+    public double[] getErrorsNegative(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        return MappedColumn.getValues(buffer, errorsNeg[dimIndex], fromIndex, toIndex, target);
+    }
+
+    @Override
+    public double[] getErrorsPositive(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        return MappedColumn.getValues(buffer, errorsPos[dimIndex], fromIndex, toIndex, target);
+    }
+
+    @Override
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        return MappedColumn.getValues(buffer, values[dimIndex], fromIndex, toIndex, target);
+    }
+
+    private static ErrorType getErrorType(final MappedColumn errorNeg, final MappedColumn errorPos) {
+        if (errorPos == null) {
+            return ErrorType.NO_ERROR;
+        }
+        return errorNeg == null ? ErrorType.SYMMETRIC : ErrorType.ASYMMETRIC;
+    }
+
+    /**
+     * location and type of a serialised double or float array within the mapped file
+     */
+    protected static class MappedColumn {
+        private final long position;
+        private final int count;
+        private final boolean isFloat;
+
+        /**
+         * @param position absolute file position of the first array element
+         * @param count number of array elements
+         * @param dataType {@link DataType#DOUBLE_ARRAY} or {@link DataType#FLOAT_ARRAY}
+         */
+        protected MappedColumn(final long position, final int count, final DataType dataType) {
+            if (dataType != DataType.DOUBLE_ARRAY && dataType != DataType.FLOAT_ARRAY) {
+                throw new IllegalArgumentException("unsupported column data type: " + dataType);
+            }
+            this.position = position;
+            this.count = count;
+            this.isFloat = dataType == DataType.FLOAT_ARRAY;
+        }
+
+        protected double get(final MappedFileBuffer buffer, final int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("index " + index + " out of range [0, " + count + ")");
+            }
+            return isFloat ? buffer.getFloat(position + index * MappedFileBuffer.SIZE_OF_FLOAT)
+                           : buffer.getDouble(position + index * MappedFileBuffer.SIZE_OF_DOUBLE);
+        }
+
+        protected static double[] getValues(final MappedFileBuffer buffer, final MappedColumn column, final int fromIndex,
+                final int toIndex, final double[] target) {
+            final int length = toIndex - fromIndex;
+            final double[] result = target == null || target.length < length ? new double[length] : target;
+            if (column == null) {
+                Arrays.fill(result, 0, length, 0.0);
+                return result;
+            }
+            if (fromIndex < 0 || toIndex > column.count || length < 0) {
+                throw new IndexOutOfBoundsException("range [" + fromIndex + ", " + toIndex + ") out of [0, " + column.count + ")");
+            }
+            if (!column.isFloat) {
+                buffer.getDoubles(column.position + fromIndex * MappedFileBuffer.SIZE_OF_DOUBLE, result, 0, length);
+                return result;
+            }
+            for (int i = 0; i < length; i++) {
+                result[i] = buffer.getFloat(column.position + (fromIndex + i) * MappedFileBuffer.SIZE_OF_FLOAT);
+            }
+            return result;
+        }
+    }
+}
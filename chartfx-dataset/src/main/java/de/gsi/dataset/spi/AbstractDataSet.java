@@ -1,8 +1,6 @@
 package de.gsi.dataset.spi;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,6 +16,7 @@ import de.gsi.dataset.DataSetMetaData;
 import de.gsi.dataset.EditConstraints;
 import de.gsi.dataset.EditableDataSet;
 import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.EventListenerList;
 import de.gsi.dataset.event.UpdateEvent;
 import de.gsi.dataset.event.UpdatedMetaDataEvent;
 import de.gsi.dataset.locks.DataSetLock;
@@ -51,7 +50,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     private String name;
     private int dimension;
     private final List<AxisDescription> axesDescriptions = new ArrayList<>();
-    private final transient List<EventListener> updateListeners = Collections.synchronizedList(new LinkedList<>());
+    private final transient List<EventListener> updateListeners = new EventListenerList();
     private final transient DataSetLock<? extends DataSet> lock = new DefaultDataSetLock<>(this);
     private StringHashMapList dataLabels = new StringHashMapList();
     private StringHashMapList dataStyles = new StringHashMapList();
@@ -644,7 +643,7 @@ public abstract class AbstractDataSet<D extends AbstractStylable<D>> extends Abs
     }
 
     @Override
-    public synchronized List<EventListener> updateEventListener() {
+    public List<EventListener> updateEventListener() {
         return updateListeners;
     }
 }
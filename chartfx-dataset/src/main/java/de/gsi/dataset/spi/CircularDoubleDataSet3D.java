@@ -0,0 +1,168 @@
+package de.gsi.dataset.spi;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Ring-buffered 3D data set with a fixed horizontal (DIM_X) binning and a history of up to 'capacity' rows (DIM_Y),
+ * e.g. for waterfall displays and spectrograms, compatible with the {@code ContourDataSetRenderer}.
+ * <p>
+ * New rows are scrolled in via {@link #add(double[], double[], int)} by overwriting the oldest row storage, ie. without
+ * moving the existing data. The row index '0' (ie. first index get(DIM_Z, 0)) refers to the oldest, the row index
+ * 'getDataCount(DIM_Y) - 1' to the most recent row. The z-values are exposed as row-major ordered matrix
+ * {@code get(DIM_Z, yIndex * nX + xIndex) == getZ(xIndex, yIndex)}.
+ *
+ * @author rstein
+ */
+public class CircularDoubleDataSet3D extends AbstractDataSet3D<CircularDoubleDataSet3D> {
+    private static final long serialVersionUID = -3361946326473462263L;
+    private final int nX;
+    private final int capacity;
+    private final double[] xValues;
+    private final double[] yValues; // circular
+    private final double[] zValues; // circular, row-major
+    private int writeRow; // physical index of the next row to be written
+    private int nRows; // number of valid rows
+
+    /**
+     * @param name of data set
+     * @param nX horizontal binning dimension, initialised to an equidistant [0, nX - 1] model
+     * @param capacity maximum number of rows kept in the history
+     */
+    public CircularDoubleDataSet3D(final String name, final int nX, final int capacity) {
+        super(name);
+        AssertUtils.gtThanZero("nX", nX);
+        AssertUtils.gtThanZero("capacity", capacity);
+        this.nX = nX;
+        this.capacity = capacity;
+        xValues = new double[nX];
+        yValues = new double[capacity];
+        zValues = new double[nX * capacity];
+        for (int x = 0; x < nX; x++) {
+            xValues[x] = x;
+        }
+    }
+
+    /**
+     * scrolls in a single new row
+     *
+     * @param y the new row's Y coordinate (e.g. time-stamp)
+     * @param zRow the new row's Z coordinates (at least nX values)
+     * @return itself (fluent design)
+     */
+    public CircularDoubleDataSet3D add(final double y, final double[] zRow) {
+        return add(new double[] { y }, zRow, 1);
+    }
+
+    /**
+     * scrolls in new rows. If more rows than the capacity are added, only the most recent ones are kept.
+     *
+     * @param y the new rows' Y coordinates (e.g. time-stamps)
+     * @param z the new rows' Z coordinates as row-major ordered matrix (at least nNewRows * nX values)
+     * @param nNewRows number of rows to be added
+     * @return itself (fluent design)
+     */
+    public CircularDoubleDataSet3D add(final double[] y, final double[] z, final int nNewRows) {
+        AssertUtils.notNull("y", y);
+        AssertUtils.notNull("z", z);
+        AssertUtils.gtEqThanZero("nNewRows", nNewRows);
+        AssertUtils.gtOrEqual("y.length", nNewRows, y.length);
+        AssertUtils.gtOrEqual("z.length", nNewRows * nX, z.length);
+        if (nNewRows == 0) {
+            return getThis();
+        }
+        lock().writeLockGuard(() -> {
+            final int skip = Math.max(0, nNewRows - capacity);
+            for (int row = skip; row < nNewRows; row++) {
+                yValues[writeRow] = y[row];
+                System.arraycopy(z, row * nX, zValues, writeRow * nX, nX);
+                writeRow = (writeRow + 1) % capacity;
+            }
+            nRows = Math.min(capacity, nRows + nNewRows);
+            getAxisDescription(DIM_Y).clear();
+            getAxisDescription(DIM_Z).clear();
+        });
+        return fireInvalidated(new AddedDataEvent(this, "added rows", Math.max(0, nRows - nNewRows) * nX, nRows * nX));
+    }
+
+    /**
+     * clears all rows
+     *
+     * @return itself (fluent design)
+     */
+    public CircularDoubleDataSet3D clearData() {
+        lock().writeLockGuard(() -> {
+            writeRow = 0;
+            nRows = 0;
+            Arrays.fill(zValues, 0.0);
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        switch (dimIndex) {
+        case DIM_X:
+            return xValues[index];
+        case DIM_Y:
+            return yValues[getRow(index)];
+        case DIM_Z:
+            return zValues[getRow(index / nX) * nX + index % nX];
+        default:
+            throw new IndexOutOfBoundsException("dimIndex must be in [0, 2]: " + dimIndex);
+        }
+    }
+
+    /**
+     * @return maximum number of rows kept in the history
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        if (dimIndex == DIM_X) {
+            return nX;
+        } else if (dimIndex == DIM_Y) {
+            return nRows;
+        }
+        return nX * nRows;
+    }
+
+    @Override
+    public String getStyle(final int index) {
+        return null;
+    }
+
+    @Override
+    public double getZ(final int xIndex, final int yIndex) {
+        return zValues[getRow(yIndex) * nX + xIndex];
+    }
+
+    /**
+     * @param xValues new X coordinates (e.g. frequency axis) of length nX
+     * @return itself (fluent design)
+     */
+    public CircularDoubleDataSet3D setX(final double[] xValues) {
+        AssertUtils.notNull("xValues", xValues);
+        AssertUtils.gtOrEqual("xValues.length", nX, xValues.length);
+        lock().writeLockGuard(() -> {
+            System.arraycopy(xValues, 0, this.xValues, 0, nX);
+            getAxisDescription(DIM_X).clear();
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "setX()"));
+    }
+
+    private int getRow(final int yIndex) {
+        // N.B. oldest row is located at (writeRow - nRows) modulo capacity
+        final int row = writeRow - nRows + yIndex;
+        return row < 0 ? row + capacity : row;
+    }
+}
@@ -83,7 +83,7 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
      */
     public CircularDoubleErrorDataSet add(final double x, final double y, final double yErrorNeg,
             final double yErrorPos, final String label, final String style) {
-        lock().writeLockGuard(() -> {
+        final int dataCount = lock().writeLockGuard(() -> {
             xValues.put(x);
             yValues.put(y);
             yErrorsPos.put(yErrorPos);
@@ -93,9 +93,11 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
 
             // invalidate ranges
             getAxisDescriptions().forEach(AxisDescription::clear);
+            return xValues.available();
         });
 
-        return fireInvalidated(new AddedDataEvent(this));
+        // N.B. the oldest sample may have been dropped -- the new sample is always the last one
+        return fireInvalidated(new AddedDataEvent(this, "add", dataCount - 1, dataCount));
     }
 
     /**
@@ -120,7 +122,7 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
         AssertUtils.equalDoubleArrays(xVals, yErrNeg);
         AssertUtils.equalDoubleArrays(xVals, yErrPos);
 
-        lock().writeLockGuard(() -> {
+        final int dataCount = lock().writeLockGuard(() -> {
             this.xValues.put(xVals, xVals.length);
             this.yValues.put(yVals, yVals.length);
             this.yErrorsNeg.put(yErrNeg, yErrNeg.length);
@@ -133,9 +135,11 @@ public class CircularDoubleErrorDataSet extends AbstractErrorDataSet<CircularDou
                 getAxisDescription(DIM_Y).add(yVals[i] + yErrPos[i]);
                 getAxisDescription(DIM_Y).add(yVals[i] - yErrNeg[i]);
             }
+            return xValues.available();
         });
 
-        return fireInvalidated(new AddedDataEvent(this));
+        final int nAdded = Math.min(xVals.length, dataCount);
+        return fireInvalidated(new AddedDataEvent(this, "add", dataCount - nAdded, dataCount));
     }
 
     @Override
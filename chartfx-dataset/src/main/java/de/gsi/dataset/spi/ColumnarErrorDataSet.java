@@ -0,0 +1,499 @@
+package de.gsi.dataset.spi;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.utils.DataColumn;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Columnar implementation of the <code>DataSetError</code> interface with a selectable storage type per column (x, y,
+ * negative and positive y errors), for example:
+ *
+ * <pre>
+ * // 12-bit digitiser history: equidistant x, raw int16 samples, constant errors -> 2 bytes/sample
+ * new ColumnarErrorDataSet("ADC", DataColumn.linear(t0, dt), DataColumn.ofScaledShort(n, 0.0, 1.0 / 4096),
+ *         DataColumn.constant(0.5 / 4096), DataColumn.constant(0.5 / 4096));
+ * </pre>
+ *
+ * compared to the 32 bytes/sample of {@link DoubleErrorDataSet}. Values written to implicit columns (constant or
+ * linear) are ignored.
+ * <p>
+ * With a finite {@link #setMaxDataCount(int) maximum data count} the data set keeps a bounded history: the oldest data
+ * points are dropped when new ones are added. Dropped points are skipped in place and the column storage is compacted
+ * only once its spare capacity is used up, ie. the amortised cost per added point is independent of the history length.
+ * <p>
+ * {@link #transformValues} and {@link #transformErrorBounds} apply an affine transform (e.g. data to screen
+ * coordinates) directly on the typed column storage without widening to a temporary double array.
+ *
+ * @see DataColumn for the available column storage types
+ * @author rstein
+ */
+public class ColumnarErrorDataSet extends AbstractErrorDataSet<ColumnarErrorDataSet>
+        implements DataSet2D, DataSetError {
+    private static final long serialVersionUID = 4230167359442117398L;
+    private static final String X_COORDINATES = "X coordinates";
+    private static final String Y_COORDINATES = "Y coordinates";
+    protected final DataColumn xValues;
+    protected final DataColumn yValues;
+    protected final DataColumn yErrorsNeg;
+    protected final DataColumn yErrorsPos;
+    protected int dataCount;
+    protected int maxDataCount = Integer.MAX_VALUE;
+    // storage index of the first data point (ie. number of dropped but not yet compacted history points)
+    private int head;
+
+    /**
+     * Creates a new instance of <code>ColumnarErrorDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @param xValues storage of the x coordinates
+     * @param yValues storage of the y coordinates
+     * @param yErrorsNeg storage of the negative y errors
+     * @param yErrorsPos storage of the positive y errors
+     */
+    public ColumnarErrorDataSet(final String name, final DataColumn xValues, final DataColumn yValues,
+            final DataColumn yErrorsNeg, final DataColumn yErrorsPos) {
+        super(name, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+        AssertUtils.notNull("xValues", xValues);
+        AssertUtils.notNull("yValues", yValues);
+        AssertUtils.notNull("yErrorsNeg", yErrorsNeg);
+        AssertUtils.notNull("yErrorsPos", yErrorsPos);
+        this.xValues = xValues;
+        this.yValues = yValues;
+        this.yErrorsNeg = yErrorsNeg;
+        this.yErrorsPos = yErrorsPos;
+    }
+
+    /**
+     * Add point to the data set.
+     *
+     * @param x the new x coordinate (ignored for implicit columns)
+     * @param y the new y coordinate
+     * @param yErrorNeg the -dy error (ignored for implicit columns)
+     * @param yErrorPos the +dy error (ignored for implicit columns)
+     * @return itself (fluent design)
+     */
+    public ColumnarErrorDataSet add(final double x, final double y, final double yErrorNeg, final double yErrorPos) {
+        final int newCount = lock().writeLockGuard(() -> append(1, storageIndex -> {
+            xValues.set(storageIndex, x);
+            yValues.set(storageIndex, y);
+            yErrorsNeg.set(storageIndex, yErrorNeg);
+            yErrorsPos.set(storageIndex, yErrorPos);
+        }));
+        return fireInvalidated(new AddedDataEvent(this, "add", newCount - 1, newCount));
+    }
+
+    /**
+     * Add array vectors to data set.
+     *
+     * @param xValuesNew X coordinates (may be {@code null} for implicit columns)
+     * @param yValuesNew Y coordinates
+     * @param yErrorsNegNew the -dy errors (may be {@code null} for implicit columns)
+     * @param yErrorsPosNew the +dy errors (may be {@code null} for implicit columns)
+     * @return itself (fluent design)
+     */
+    public ColumnarErrorDataSet add(final double[] xValuesNew, final double[] yValuesNew,
+            final double[] yErrorsNegNew, final double[] yErrorsPosNew) {
+        AssertUtils.notNull(Y_COORDINATES, yValuesNew);
+        final int newElements = yValuesNew.length;
+        checkInput(X_COORDINATES, xValues, xValuesNew == null ? -1 : xValuesNew.length, newElements);
+        checkInput("Y error neg", yErrorsNeg, yErrorsNegNew == null ? -1 : yErrorsNegNew.length, newElements);
+        checkInput("Y error pos", yErrorsPos, yErrorsPosNew == null ? -1 : yErrorsPosNew.length, newElements);
+
+        final int newCount = lock().writeLockGuard(() -> append(newElements, storageIndex -> {
+            if (xValuesNew != null) {
+                xValues.set(storageIndex, xValuesNew, 0, newElements);
+            }
+            yValues.set(storageIndex, yValuesNew, 0, newElements);
+            if (yErrorsNegNew != null) {
+                yErrorsNeg.set(storageIndex, yErrorsNegNew, 0, newElements);
+            }
+            if (yErrorsPosNew != null) {
+                yErrorsPos.set(storageIndex, yErrorsPosNew, 0, newElements);
+            }
+        }));
+        return fireInvalidated(new AddedDataEvent(this, "add", newCount - Math.min(newElements, newCount), newCount));
+    }
+
+    /**
+     * Add typed float array vectors to data set (N.B. copied without conversion into float columns).
+     *
+     * @param xValuesNew X coordinates (may be {@code null} for implicit columns)
+     * @param yValuesNew Y coordinates
+     * @param yErrorsNegNew the -dy errors (may be {@code null} for implicit columns)
+     * @param yErrorsPosNew the +dy errors (may be {@code null} for implicit columns)
+     * @return itself (fluent design)
+     */
+    public ColumnarErrorDataSet add(final float[] xValuesNew, final float[] yValuesNew, final float[] yErrorsNegNew,
+            final float[] yErrorsPosNew) {
+        AssertUtils.notNull(Y_COORDINATES, yValuesNew);
+        final int newElements = yValuesNew.length;
+        checkInput(X_COORDINATES, xValues, xValuesNew == null ? -1 : xValuesNew.length, newElements);
+        checkInput("Y error neg", yErrorsNeg, yErrorsNegNew == null ? -1 : yErrorsNegNew.length, newElements);
+        checkInput("Y error pos", yErrorsPos, yErrorsPosNew == null ? -1 : yErrorsPosNew.length, newElements);
+
+        final int newCount = lock().writeLockGuard(() -> append(newElements, storageIndex -> {
+            if (xValuesNew != null) {
+                xValues.set(storageIndex, xValuesNew, 0, newElements);
+            }
+            yValues.set(storageIndex, yValuesNew, 0, newElements);
+            if (yErrorsNegNew != null) {
+                yErrorsNeg.set(storageIndex, yErrorsNegNew, 0, newElements);
+            }
+            if (yErrorsPosNew != null) {
+                yErrorsPos.set(storageIndex, yErrorsPosNew, 0, newElements);
+            }
+        }));
+        return fireInvalidated(new AddedDataEvent(this, "add", newCount - Math.min(newElements, newCount), newCount));
+    }
+
+    /**
+     * Add raw 16-bit integer samples to the y column of a data set whose x and error columns are implicit.
+     *
+     * @param yRawValuesNew raw y values
+     * @return itself (fluent design)
+     * @throws IllegalArgumentException if the x or error columns are not implicit
+     * @see #addRaw(double[], short[], double[], double[])
+     */
+    public ColumnarErrorDataSet addRaw(final short[] yRawValuesNew) {
+        return addRaw(null, yRawValuesNew, null, null);
+    }
+
+    /**
+     * Add raw 16-bit integer samples to the y column, e.g. ADC samples (N.B. copied without conversion into scaled
+     * int16 columns).
+     *
+     * @param xValuesNew X coordinates (may be {@code null} for implicit columns)
+     * @param yRawValuesNew raw y values
+     * @param yErrorsNegNew the -dy errors (may be {@code null} for implicit columns)
+     * @param yErrorsPosNew the +dy errors (may be {@code null} for implicit columns)
+     * @return itself (fluent design)
+     * @see DataColumn#setRaw(int, short[], int, int)
+     */
+    public ColumnarErrorDataSet addRaw(final double[] xValuesNew, final short[] yRawValuesNew,
+            final double[] yErrorsNegNew, final double[] yErrorsPosNew) {
+        AssertUtils.notNull(Y_COORDINATES, yRawValuesNew);
+        final int newElements = yRawValuesNew.length;
+        checkInput(X_COORDINATES, xValues, xValuesNew == null ? -1 : xValuesNew.length, newElements);
+        checkInput("Y error neg", yErrorsNeg, yErrorsNegNew == null ? -1 : yErrorsNegNew.length, newElements);
+        checkInput("Y error pos", yErrorsPos, yErrorsPosNew == null ? -1 : yErrorsPosNew.length, newElements);
+
+        final int newCount = lock().writeLockGuard(() -> append(newElements, storageIndex -> {
+            if (xValuesNew != null) {
+                xValues.set(storageIndex, xValuesNew, 0, newElements);
+            }
+            yValues.setRaw(storageIndex, yRawValuesNew, 0, newElements);
+            if (yErrorsNegNew != null) {
+                yErrorsNeg.set(storageIndex, yErrorsNegNew, 0, newElements);
+            }
+            if (yErrorsPosNew != null) {
+                yErrorsPos.set(storageIndex, yErrorsPosNew, 0, newElements);
+            }
+        }));
+        return fireInvalidated(new AddedDataEvent(this, "add", newCount - Math.min(newElements, newCount), newCount));
+    }
+
+    /**
+     * clears all data
+     *
+     * @return itself (fluent design)
+     */
+    public ColumnarErrorDataSet clearData() {
+        lock().writeLockGuard(() -> {
+            dataCount = 0;
+            head = 0;
+            getDataLabelMap().clear();
+            getDataStyleMap().clear();
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new RemovedDataEvent(this, "clearData()"));
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        return getColumn(dimIndex).get(head + index);
+    }
+
+    /**
+     * @return number of bytes used per data point by the column storage
+     */
+    public int getBytesPerSample() {
+        return xValues.getBytesPerSample() + yValues.getBytesPerSample() + yErrorsNeg.getBytesPerSample()
+                + yErrorsPos.getBytesPerSample();
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        return dataCount;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? 0.0 : yErrorsNeg.get(head + index);
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        return dimIndex == DIM_X ? 0.0 : yErrorsPos.get(head + index);
+    }
+
+    @Override
+    public double[] getErrorsNegative(final int dimIndex, final int fromIndex, final int toIndex,
+            final double[] target) {
+        return copyColumn(dimIndex == DIM_X ? null : yErrorsNeg, head + fromIndex, head + toIndex, target);
+    }
+
+    @Override
+    public double[] getErrorsPositive(final int dimIndex, final int fromIndex, final int toIndex,
+            final double[] target) {
+        return copyColumn(dimIndex == DIM_X ? null : yErrorsPos, head + fromIndex, head + toIndex, target);
+    }
+
+    @Override
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        return copyColumn(getColumn(dimIndex), head + fromIndex, head + toIndex, target);
+    }
+
+    /**
+     * @return maximum number of data points kept before the oldest ones are dropped
+     */
+    public int getMaxDataCount() {
+        return maxDataCount;
+    }
+
+    /**
+     * remove sub-range of data points
+     *
+     * @param fromIndex start index
+     * @param toIndex stop index
+     * @return itself (fluent design)
+     * @see DataColumn#remove(int, int, int) for the values of implicit linear columns after the removal
+     */
+    public ColumnarErrorDataSet remove(final int fromIndex, final int toIndex) {
+        final int clampedToIndex = lock().writeLockGuard(() -> {
+            AssertUtils.indexInBounds(fromIndex, getDataCount(), "fromIndex");
+            AssertUtils.indexOrder(fromIndex, "fromIndex", toIndex, "toIndex");
+            final int clampedTo = Math.min(toIndex, dataCount);
+            if (fromIndex == 0) {
+                // N.B. drop at the front -- compacted lazily
+                head += clampedTo;
+            } else {
+                removeStorage(head + fromIndex, head + clampedTo);
+            }
+            dataCount -= clampedTo - fromIndex;
+
+            // remove old label and style keys
+            getDataLabelMap().remove(fromIndex, clampedTo);
+            getDataStyleMap().remove(fromIndex, clampedTo);
+
+            // invalidate ranges
+            getAxisDescriptions().forEach(AxisDescription::clear);
+            return clampedTo;
+        });
+        return fireInvalidated(new RemovedDataEvent(this, "remove", fromIndex, clampedToIndex));
+    }
+
+    /**
+     * replaces point coordinate of existing data point
+     *
+     * @param index the index of the data point
+     * @param x new horizontal coordinate (ignored for implicit columns)
+     * @param y new vertical coordinate
+     * @param yErrorNeg new vertical negative error of y (ignored for implicit columns)
+     * @param yErrorPos new vertical positive error of y (ignored for implicit columns)
+     * @return itself (fluent design)
+     */
+    public ColumnarErrorDataSet set(final int index, final double x, final double y, final double yErrorNeg,
+            final double yErrorPos) {
+        lock().writeLockGuard(() -> {
+            AssertUtils.indexInBounds(index, getDataCount(), "index");
+            xValues.set(head + index, x);
+            yValues.set(head + index, y);
+            yErrorsNeg.set(head + index, yErrorNeg);
+            yErrorsPos.set(head + index, yErrorPos);
+            getDataLabelMap().remove(index);
+            getDataStyleMap().remove(index);
+
+            // invalidate ranges
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        });
+        return fireInvalidated(new UpdatedDataEvent(this, "set - single", index, index + 1));
+    }
+
+    /**
+     * @param maxDataCount maximum number of data points before the oldest ones are dropped
+     * @return itself (fluent design)
+     */
+    public ColumnarErrorDataSet setMaxDataCount(final int maxDataCount) {
+        AssertUtils.gtThanZero("maxDataCount", maxDataCount);
+        final int dropped = lock().writeLockGuard(() -> {
+            this.maxDataCount = maxDataCount;
+            final int excess = Math.max(0, dataCount - maxDataCount);
+            if (excess > 0) {
+                dropFront(excess);
+            }
+            return excess;
+        });
+        if (dropped > 0) {
+            fireInvalidated(new RemovedDataEvent(this, "setMaxDataCount", 0, dropped));
+        }
+        return getThis();
+    }
+
+    /**
+     * Affine transform of the lower and upper error bounds in [fromIndex, toIndex), ie. 'offset + scale * (value -
+     * errorNeg)' and 'offset + scale * (value + errorPos)', applied directly on the column storage. The transformed
+     * values 'offset + scale * value' are taken from a preceding {@link #transformValues} call rather than being
+     * recomputed.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex index of the first data point (inclusive)
+     * @param toIndex index of the last data point (exclusive)
+     * @param scale scale of the affine transform
+     * @param values the values transformed by {@link #transformValues} starting at targetIndex
+     * @param targetNeg array receiving the transformed lower error bounds
+     * @param targetPos array receiving the transformed upper error bounds
+     * @param targetIndex index of the first value to be read in values and written in the target arrays
+     */
+    public void transformErrorBounds(final int dimIndex, final int fromIndex, final int toIndex, final double scale,
+            final double[] values, final double[] targetNeg, final double[] targetPos, final int targetIndex) {
+        final int length = toIndex - fromIndex;
+        System.arraycopy(values, targetIndex, targetNeg, targetIndex, length);
+        System.arraycopy(values, targetIndex, targetPos, targetIndex, length);
+        if (dimIndex == DIM_X) {
+            return;
+        }
+        yErrorsNeg.transformAdd(head + fromIndex, head + toIndex, 0.0, -scale, targetNeg, targetIndex);
+        yErrorsPos.transformAdd(head + fromIndex, head + toIndex, 0.0, scale, targetPos, targetIndex);
+    }
+
+    /**
+     * Affine transform 'offset + scale * value' of the values in [fromIndex, toIndex), applied directly on the column
+     * storage, e.g. to compute screen coordinates.
+     *
+     * @param dimIndex the dimension index (ie. '0' equals 'X', '1' equals 'Y')
+     * @param fromIndex index of the first data point (inclusive)
+     * @param toIndex index of the last data point (exclusive)
+     * @param offset offset of the affine transform
+     * @param scale scale of the affine transform
+     * @param target array receiving the transformed values
+     * @param targetIndex index of the first value to be written in target
+     */
+    public void transformValues(final int dimIndex, final int fromIndex, final int toIndex, final double offset,
+            final double scale, final double[] target, final int targetIndex) {
+        getColumn(dimIndex).transform(head + fromIndex, head + toIndex, offset, scale, target, targetIndex);
+    }
+
+    /**
+     * appends new data points (N.B. to be called with the write lock held) and drops the oldest ones beyond the
+     * maximum data count
+     *
+     * @param newElements number of new data points
+     * @param writer writes the new data points starting at the given storage index
+     * @return the new number of data points
+     */
+    private int append(final int newElements, final IntConsumer writer) {
+        ensureCapacity(dataCount + newElements);
+        writer.accept(head + dataCount);
+        dataCount += newElements;
+        final int excess = dataCount - maxDataCount;
+        if (excess > 0) {
+            dropFront(excess);
+        } else {
+            updateAxisDescriptions(dataCount - newElements, dataCount);
+        }
+        return dataCount;
+    }
+
+    private void dropFront(final int nDropped) {
+        head += nDropped;
+        dataCount -= nDropped;
+        getDataLabelMap().remove(0, nDropped);
+        getDataStyleMap().remove(0, nDropped);
+        getAxisDescriptions().forEach(AxisDescription::clear);
+    }
+
+    private void ensureCapacity(final int capacity) {
+        final int storageCapacity = Math.min(Math.min(xValues.getCapacity(), yValues.getCapacity()),
+                Math.min(yErrorsNeg.getCapacity(), yErrorsPos.getCapacity()));
+        if (head + capacity <= storageCapacity) {
+            return;
+        }
+        int required = capacity;
+        if (head > 0) {
+            // compact dropped history points and reserve spare capacity for the next ones to be dropped
+            removeStorage(0, head);
+            head = 0;
+            required = (int) Math.min(Integer.MAX_VALUE - 8L, capacity + (capacity >> 1) + 1L);
+        }
+        xValues.ensureCapacity(required);
+        yValues.ensureCapacity(required);
+        yErrorsNeg.ensureCapacity(required);
+        yErrorsPos.ensureCapacity(required);
+    }
+
+    private void removeStorage(final int fromStorageIndex, final int toStorageIndex) {
+        final int size = head + dataCount;
+        xValues.remove(fromStorageIndex, toStorageIndex, size);
+        yValues.remove(fromStorageIndex, toStorageIndex, size);
+        yErrorsNeg.remove(fromStorageIndex, toStorageIndex, size);
+        yErrorsPos.remove(fromStorageIndex, toStorageIndex, size);
+    }
+
+    private DataColumn getColumn(final int dimIndex) {
+        return dimIndex == DataSet.DIM_X ? xValues : yValues;
+    }
+
+    private void updateAxisDescriptions(final int fromIndex, final int toIndex) {
+        // N.B. accumulate locally first to notify at most one range change per bound
+        final DataRange xRange = new DataRange();
+        final DataRange yRange = new DataRange();
+        for (int i = head + fromIndex; i < head + toIndex; i++) {
+            final double y = yValues.get(i);
+            xRange.add(xValues.get(i));
+            yRange.add(y - yErrorsNeg.get(i));
+            yRange.add(y + yErrorsPos.get(i));
+        }
+        if (xRange.isDefined()) {
+            getAxisDescription(DIM_X).add(xRange.getMin());
+            getAxisDescription(DIM_X).add(xRange.getMax());
+        }
+        if (yRange.isDefined()) {
+            getAxisDescription(DIM_Y).add(yRange.getMin());
+            getAxisDescription(DIM_Y).add(yRange.getMax());
+        }
+    }
+
+    private static void checkInput(final String name, final DataColumn column, final int length,
+            final int expectedLength) {
+        if (length < 0) {
+            if (!column.isImplicit()) {
+                throw new IllegalArgumentException(name + " must not be null for non-implicit column types");
+            }
+            return;
+        }
+        if (length != expectedLength) {
+            throw new IllegalArgumentException(name + " length " + length + " does not match " + expectedLength);
+        }
+    }
+
+    private static double[] copyColumn(final DataColumn column, final int fromIndex, final int toIndex,
+            final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        if (column == null) {
+            Arrays.fill(retValues, 0, length, 0.0);
+        } else {
+            column.getValues(fromIndex, toIndex, retValues, 0);
+        }
+        return retValues;
+    }
+}
@@ -99,7 +99,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
      * @return itself (fluent design)
      */
     public DoubleDataSet add(final double x, final double y, final String label) {
-        lock().writeLockGuard(() -> {
+        final int dataCount = lock().writeLockGuard(() -> {
             xValues.add(x);
             yValues.add(y);
 
@@ -109,8 +109,9 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
 
             getAxisDescription(DIM_X).add(x);
             getAxisDescription(DIM_Y).add(y);
+            return xValues.size();
         });
-        return fireInvalidated(new UpdatedDataEvent(this, "add"));
+        return fireInvalidated(new AddedDataEvent(this, "add", dataCount - 1, dataCount));
     }
 
     /**
@@ -125,18 +126,19 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         AssertUtils.notNull("Y coordinates", yValuesNew);
         AssertUtils.equalDoubleArrays(xValuesNew, yValuesNew);
 
-        lock().writeLockGuard(() -> {
-            final int addAt = xValues.size();
-            final int newElements = Math.min(xValuesNew.length, yValuesNew.length);
-            resize(addAt + newElements);
-            xValues.setElements(addAt, xValuesNew);
-            yValues.setElements(addAt, yValuesNew);
+        final int newElements = Math.min(xValuesNew.length, yValuesNew.length);
+        final int addAt = lock().writeLockGuard(() -> {
+            final int oldCount = xValues.size();
+            resize(oldCount + newElements);
+            xValues.setElements(oldCount, xValuesNew);
+            yValues.setElements(oldCount, yValuesNew);
 
             getAxisDescription(DIM_X).add(xValuesNew);
             getAxisDescription(DIM_Y).add(yValuesNew);
+            return oldCount;
         });
 
-        return fireInvalidated(new AddedDataEvent(this));
+        return fireInvalidated(new AddedDataEvent(this, "add", addAt, addAt + newElements));
     }
 
     /**
@@ -173,7 +175,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
      * @return itself (fluent design)
      */
     public DoubleDataSet add(final int index, final double x, final double y, final String label) {
-        lock().writeLockGuard(() -> {
+        final int addedAt = lock().writeLockGuard(() -> {
             final int indexAt = Math.max(0, Math.min(index, getDataCount() + 1));
 
             xValues.add(indexAt, x);
@@ -182,8 +184,9 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             getDataStyleMap().shiftKeys(indexAt, xValues.size());
             getAxisDescription(DIM_X).add(x);
             getAxisDescription(DIM_Y).add(y);
+            return indexAt;
         });
-        return fireInvalidated(new AddedDataEvent(this));
+        return fireInvalidated(new AddedDataEvent(this, "add", addedAt, addedAt + 1));
     }
 
     /**
@@ -252,6 +255,15 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
         return dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements();
     }
 
+    @Override
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        System.arraycopy(dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements(), fromIndex, retValues, 0,
+                length);
+        return retValues;
+    }
+
     /**
      * @param amount storage capacity increase
      * @return itself (fluent design)
@@ -462,7 +474,7 @@ public class DoubleDataSet extends AbstractDataSet<DoubleDataSet> implements Edi
             // invalidate ranges
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
-        return fireInvalidated(new UpdatedDataEvent(this, "set - single"));
+        return fireInvalidated(new UpdatedDataEvent(this, "set - single", index, index + 1));
     }
 
     public DoubleDataSet set(final int index, final double[] x, final double[] y) {
@@ -1,5 +1,7 @@
 package de.gsi.dataset.spi;
 
+import java.util.Arrays;
+
 import de.gsi.dataset.AxisDescription;
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.DataSet2D;
@@ -125,7 +127,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
      */
     public DoubleErrorDataSet add(final double x, final double y, final double yErrorNeg, final double yErrorPos,
             final String label) {
-        lock().writeLockGuard(() -> {
+        final int dataCount = lock().writeLockGuard(() -> {
             xValues.add(x);
             yValues.add(y);
             yErrorsNeg.add(yErrorNeg);
@@ -138,8 +140,9 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             getAxisDescription(DIM_X).add(x);
             getAxisDescription(DIM_Y).add(y - yErrorNeg);
             getAxisDescription(DIM_Y).add(y + yErrorPos);
+            return xValues.size();
         });
-        return fireInvalidated(new UpdatedDataEvent(this, "add"));
+        return fireInvalidated(new AddedDataEvent(this, "add", dataCount - 1, dataCount));
     }
 
     /**
@@ -159,21 +162,22 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         AssertUtils.notNull("Y error coordinates", yErrorsPosNew);
         AssertUtils.equalDoubleArrays(xValuesNew, yValuesNew);
 
-        lock().writeLockGuard(() -> {
-            final int addAt = xValues.size();
-            final int newElements = Math.min(Math.min(xValuesNew.length, yValuesNew.length),
-                    Math.min(yErrorsNegNew.length, yErrorsPosNew.length));
-            this.resize(addAt + newElements);
+        final int newElements = Math.min(Math.min(xValuesNew.length, yValuesNew.length),
+                Math.min(yErrorsNegNew.length, yErrorsPosNew.length));
+        final int addAt = lock().writeLockGuard(() -> {
+            final int oldCount = xValues.size();
+            this.resize(oldCount + newElements);
 
-            xValues.setElements(addAt, xValuesNew, 0, newElements);
-            yValues.setElements(addAt, yValuesNew, 0, newElements);
-            yErrorsNeg.setElements(addAt, yErrorsNegNew, 0, newElements);
-            yErrorsPos.setElements(addAt, yErrorsPosNew, 0, newElements);
+            xValues.setElements(oldCount, xValuesNew, 0, newElements);
+            yValues.setElements(oldCount, yValuesNew, 0, newElements);
+            yErrorsNeg.setElements(oldCount, yErrorsNegNew, 0, newElements);
+            yErrorsPos.setElements(oldCount, yErrorsPosNew, 0, newElements);
 
             getAxisDescription(DIM_X).add(xValuesNew);
             getAxisDescription(DIM_Y).add(yValuesNew);
+            return oldCount;
         });
-        return fireInvalidated(new AddedDataEvent(this));
+        return fireInvalidated(new AddedDataEvent(this, "add", addAt, addAt + newElements));
     }
 
     /**
@@ -346,6 +350,27 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         return dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements();
     }
 
+    @Override
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        System.arraycopy(dimIndex == DataSet.DIM_X ? xValues.elements() : yValues.elements(), fromIndex, retValues, 0,
+                length);
+        return retValues;
+    }
+
+    @Override
+    public double[] getErrorsNegative(final int dimIndex, final int fromIndex, final int toIndex,
+            final double[] target) {
+        return copyErrors(dimIndex == DIM_X ? null : yErrorsNeg.elements(), fromIndex, toIndex, target);
+    }
+
+    @Override
+    public double[] getErrorsPositive(final int dimIndex, final int fromIndex, final int toIndex,
+            final double[] target) {
+        return copyErrors(dimIndex == DIM_X ? null : yErrorsPos.elements(), fromIndex, toIndex, target);
+    }
+
     @Override
     public double getX(final int index) {
         return xValues.elements()[index];
@@ -631,7 +656,7 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
             getAxisDescriptions().forEach(AxisDescription::clear);
         });
 
-        return fireInvalidated(new UpdatedDataEvent(this, "set - single"));
+        return fireInvalidated(new UpdatedDataEvent(this, "set - single", index, index + 1));
     }
 
     public DoubleErrorDataSet set(final int index, final double[] x, final double[] y, final double[] yErrorNeg,
@@ -666,4 +691,17 @@ public class DoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorDataSet>
         });
         return fireInvalidated(new UpdatedDataEvent(this, "increaseCapacity()"));
     }
+
+    private static double[] copyErrors(final double[] source, final int fromIndex, final int toIndex,
+            final double[] target) {
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        if (source == null) {
+            // no errors along this dimension
+            Arrays.fill(retValues, 0, length, 0.0);
+        } else {
+            System.arraycopy(source, fromIndex, retValues, 0, length);
+        }
+        return retValues;
+    }
 }
@@ -95,7 +95,7 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
      */
     public FifoDoubleErrorDataSet add(final double x, final double y, final double yErrorNeg, final double yErrorPos,
             final String tag, final String style) {
-        lock().writeLockGuard(() -> {
+        final int dataCount = lock().writeLockGuard(() -> {
             data.add(new DataBlob(x, y, yErrorNeg, yErrorPos, tag, style));
             this.getAxisDescription(DIM_X).add(x);
             this.getAxisDescription(DIM_Y).add(y - yErrorNeg);
@@ -103,8 +103,11 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
 
             // remove old fields if necessary
             expire(x);
+            return data.size();
         });
-        fireInvalidated(new AddedDataEvent(this));
+        // N.B. non-finite samples are expired immediately, ie. their index is not known
+        fireInvalidated(Double.isFinite(x) ? new AddedDataEvent(this, "add", dataCount - 1, dataCount)
+                                           : new AddedDataEvent(this));
 
         return this;
     }
@@ -140,14 +143,18 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
      * @return number of items that have been removed
      */
     public int expire(final double now) {
+        final boolean[] expiredOnlyAtFront = { true };
         final int dataPointsToRemove = lock().writeLockGuard(() -> {
             final List<DataBlob> toRemoveList = new ArrayList<>(SAFE_BET);
+            int index = 0;
             for (final DataBlob blob : data) {
                 final double x = blob.getX();
 
                 if (!Double.isFinite(x) || Math.abs(now - x) > maxDistance) {
+                    expiredOnlyAtFront[0] &= index == toRemoveList.size();
                     toRemoveList.add(blob);
                 }
+                index++;
             }
 
             if (toRemoveList.size() > 0) {
@@ -158,7 +165,8 @@ public class FifoDoubleErrorDataSet extends AbstractErrorDataSet<DoubleErrorData
             return toRemoveList.size();
         });
         if (dataPointsToRemove != 0) {
-            fireInvalidated(new RemovedDataEvent(this, "expired data"));
+            fireInvalidated(expiredOnlyAtFront[0] ? new RemovedDataEvent(this, "expired data", 0, dataPointsToRemove)
+                                                  : new RemovedDataEvent(this, "expired data"));
         }
         return dataPointsToRemove;
     }
@@ -0,0 +1,499 @@
+package de.gsi.dataset.spi;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSet2D;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.locks.DataSetLock;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Lock-free ring-buffer DataSet for the single-producer (e.g. acquisition thread) multiple-reader (e.g. render thread)
+ * case.
+ * <p>
+ * Contrary to {@link CircularDoubleErrorDataSet}, the producer never waits for readers: samples are written into the ring buffer
+ * and published via a sequence counter (seqlock). Readers obtain a consistent, wrap-aware snapshot of the published
+ * samples for the duration of a {@code lock().readLockGuard(..)} section. Samples that are being overwritten by the
+ * producer while a snapshot is taken are trimmed from the beginning of the snapshot rather than blocking or retrying.
+ * Unguarded accessors read the live buffer on a best-effort basis. Snapshot buffers are reference-counted and recycled
+ * once the last reader released them, i.e. continuous streaming at steady state does not allocate new snapshot arrays.
+ * <p>
+ * N.B. the data modifying functions ({@code add(..)}, {@link #reset()}) must be called by one producer thread only.
+ * Writing samples is lock-free; the subsequent (short) axis range update is guarded by the write lock.
+ * Labels and styles of individual data points are not supported.
+ *
+ * @author rstein
+ */
+public class RingBufferDoubleErrorDataSet extends AbstractErrorDataSet<RingBufferDoubleErrorDataSet>
+        implements DataSet2D, DataSetError {
+    private static final long serialVersionUID = -3279433658733587285L;
+    private final int capacity;
+    private final double[] xValues;
+    private final double[] yValues;
+    private final double[] yErrorsNeg;
+    private final double[] yErrorsPos;
+    /** total number of samples published to the readers (ie. fully written) */
+    private final AtomicLong published = new AtomicLong();
+    /** total number of samples claimed by the producer (ie. published or in the process of being written) */
+    private final AtomicLong claimed = new AtomicLong();
+    /** total sample index of the first sample after the last {@link #reset()} */
+    private volatile long resetIndex;
+    private final transient AtomicReference<Snapshot> lastSnapshot = new AtomicReference<>();
+    /** released snapshot whose buffers are recycled by the next {@link #takeSnapshot()} */
+    private final transient AtomicReference<Snapshot> spareSnapshot = new AtomicReference<>();
+    private final transient ThreadLocal<ReaderState> readerState = ThreadLocal.withInitial(ReaderState::new);
+    private final transient SnapshotLock snapshotLock = new SnapshotLock();
+
+    /**
+     * Creates a new instance of <code>RingBufferDoubleErrorDataSet</code>.
+     *
+     * @param name name of this DataSet.
+     * @param capacity maximum ring buffer capacity
+     * @throws IllegalArgumentException if <code>name</code> is <code>null</code>
+     */
+    public RingBufferDoubleErrorDataSet(final String name, final int capacity) {
+        super(name, 2, ErrorType.NO_ERROR, ErrorType.ASYMMETRIC);
+        AssertUtils.gtThanZero("capacity", capacity);
+        this.capacity = capacity;
+        xValues = new double[capacity];
+        yValues = new double[capacity];
+        yErrorsNeg = new double[capacity];
+        yErrorsPos = new double[capacity];
+    }
+
+    /**
+     * Adds a single sample. N.B. to be called by the producer thread only.
+     *
+     * @param x the new x coordinate
+     * @param y the new y coordinate
+     * @param yErrorNeg the -dy error
+     * @param yErrorPos the +dy error
+     * @return itself
+     */
+    public RingBufferDoubleErrorDataSet add(final double x, final double y, final double yErrorNeg,
+            final double yErrorPos) {
+        final long head = published.get();
+        claimed.set(head + 1);
+        // N.B. prevents the sample writes below from becoming visible before the claim
+        VarHandle.storeStoreFence();
+        final int slot = (int) (head % capacity);
+        xValues[slot] = x;
+        yValues[slot] = y;
+        yErrorsNeg[slot] = yErrorNeg;
+        yErrorsPos[slot] = yErrorPos;
+        published.set(head + 1);
+
+        // N.B. range changes are implied by the AddedDataEvent below
+        snapshotLock.writeLock.lock();
+        final boolean oldState = autoNotification().getAndSet(false);
+        try {
+            if (head - resetIndex >= capacity) {
+                // the oldest sample has been dropped -> invalidate ranges
+                getAxisDescriptions().forEach(AxisDescription::clear);
+            } else {
+                getAxisDescription(DIM_X).add(x);
+                getAxisDescription(DIM_Y).add(y - yErrorNeg);
+                getAxisDescription(DIM_Y).add(y + yErrorPos);
+            }
+        } finally {
+            autoNotification().set(oldState);
+            snapshotLock.writeLock.unlock();
+        }
+
+        final int dataCount = getLiveDataCount();
+        // N.B. the oldest sample may have been dropped -- the new sample is always the last one
+        return fireInvalidated(new AddedDataEvent(this, "add", dataCount - 1, dataCount));
+    }
+
+    /**
+     * Adds a batch of samples emitting a single {@link AddedDataEvent}. If the batch exceeds the capacity, only the
+     * last 'capacity' samples are retained. N.B. to be called by the producer thread only.
+     *
+     * @param xVals the new x coordinates
+     * @param yVals the new y coordinates
+     * @param yErrNeg the -dy errors
+     * @param yErrPos the +dy errors
+     * @return itself
+     */
+    public RingBufferDoubleErrorDataSet add(final double[] xVals, final double[] yVals, final double[] yErrNeg,
+            final double[] yErrPos) {
+        AssertUtils.notNull("X coordinates", xVals);
+        AssertUtils.notNull("Y coordinates", yVals);
+        AssertUtils.notNull("Y error neg", yErrNeg);
+        AssertUtils.notNull("Y error pos", yErrPos);
+        AssertUtils.equalDoubleArrays(xVals, yVals);
+        AssertUtils.equalDoubleArrays(xVals, yErrNeg);
+        AssertUtils.equalDoubleArrays(xVals, yErrPos);
+        final int nSamples = xVals.length;
+        if (nSamples == 0) {
+            return getThis();
+        }
+
+        final long head = published.get();
+        claimed.set(head + nSamples);
+        // N.B. prevents the sample writes below from becoming visible before the claim
+        VarHandle.storeStoreFence();
+        final int nWrite = Math.min(nSamples, capacity);
+        final int srcOffset = nSamples - nWrite;
+        final int slot = (int) ((head + srcOffset) % capacity);
+        final int nFirst = Math.min(nWrite, capacity - slot);
+        copyWrapped(xVals, srcOffset, xValues, slot, nFirst, nWrite);
+        copyWrapped(yVals, srcOffset, yValues, slot, nFirst, nWrite);
+        copyWrapped(yErrNeg, srcOffset, yErrorsNeg, slot, nFirst, nWrite);
+        copyWrapped(yErrPos, srcOffset, yErrorsPos, slot, nFirst, nWrite);
+        published.set(head + nSamples);
+
+        // N.B. range changes are implied by the single AddedDataEvent below
+        snapshotLock.writeLock.lock();
+        final boolean oldState = autoNotification().getAndSet(false);
+        try {
+            if (head + nSamples - resetIndex > capacity) {
+                // the oldest samples have been dropped -> invalidate ranges
+                getAxisDescriptions().forEach(AxisDescription::clear);
+            } else {
+                getAxisDescription(DIM_X).add(xVals);
+                for (int i = 0; i < nSamples; i++) {
+                    getAxisDescription(DIM_Y).add(yVals[i] - yErrNeg[i]);
+                    getAxisDescription(DIM_Y).add(yVals[i] + yErrPos[i]);
+                }
+            }
+        } finally {
+            autoNotification().set(oldState);
+            snapshotLock.writeLock.unlock();
+        }
+
+        final int dataCount = getLiveDataCount();
+        final int nAdded = Math.min(nSamples, dataCount);
+        return fireInvalidated(new AddedDataEvent(this, "add", dataCount - nAdded, dataCount));
+    }
+
+    @Override
+    public String addDataLabel(final int index, final String label) {
+        throw new UnsupportedOperationException("Data labels are not supported for this type of DataSet");
+    }
+
+    @Override
+    public String addDataStyle(final int index, final String style) {
+        throw new UnsupportedOperationException("Data styles are not supported for this type of DataSet");
+    }
+
+    @Override
+    public final double get(final int dimIndex, final int index) {
+        final Snapshot snapshot = readerState.get().snapshot;
+        if (snapshot != null) {
+            return dimIndex == DataSet.DIM_X ? snapshot.xValues[snapshot.offset + index] : snapshot.yValues[snapshot.offset + index];
+        }
+        return dimIndex == DataSet.DIM_X ? xValues[getLiveSlot(index)] : yValues[getLiveSlot(index)];
+    }
+
+    /**
+     * @return the maximum number of samples retained by the ring buffer
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getDataCount(final int dimIndex) {
+        final Snapshot snapshot = readerState.get().snapshot;
+        return snapshot == null ? getLiveDataCount() : snapshot.count;
+    }
+
+    @Override
+    public double getErrorNegative(final int dimIndex, final int index) {
+        if (dimIndex == DIM_X) {
+            return 0.0;
+        }
+        final Snapshot snapshot = readerState.get().snapshot;
+        return snapshot == null ? yErrorsNeg[getLiveSlot(index)] : snapshot.yErrorsNeg[snapshot.offset + index];
+    }
+
+    @Override
+    public double getErrorPositive(final int dimIndex, final int index) {
+        if (dimIndex == DIM_X) {
+            return 0.0;
+        }
+        final Snapshot snapshot = readerState.get().snapshot;
+        return snapshot == null ? yErrorsPos[getLiveSlot(index)] : snapshot.yErrorsPos[snapshot.offset + index];
+    }
+
+    @Override
+    public double[] getValues(final int dimIndex, final int fromIndex, final int toIndex, final double[] target) {
+        final Snapshot snapshot = readerState.get().snapshot;
+        if (snapshot == null) {
+            return DataSet2D.super.getValues(dimIndex, fromIndex, toIndex, target);
+        }
+        final int length = toIndex - fromIndex;
+        final double[] retValues = target == null || target.length < length ? new double[length] : target;
+        System.arraycopy(dimIndex == DataSet.DIM_X ? snapshot.xValues : snapshot.yValues, snapshot.offset + fromIndex, retValues, 0, length);
+        return retValues;
+    }
+
+    /**
+     * N.B. the read lock does not block the producer but pins a consistent snapshot of the published samples for the
+     * calling thread until the (outermost) read lock is released. The write lock serialises meta-data modifications
+     * (e.g. name, range recomputation) and likewise pins a snapshot. Neither lock is required for calling the
+     * producer's {@code add(..)} functions, which take the write lock internally for updating the axis ranges only.
+     *
+     * @return the snapshot-based lock of this DataSet
+     */
+    @Override
+    public DataSetLock<RingBufferDoubleErrorDataSet> lock() {
+        return snapshotLock;
+    }
+
+    @Override
+    public RingBufferDoubleErrorDataSet recomputeLimits(final int dimIndex) {
+        // N.B. serialised with the producer's axis range updates
+        return lock().writeLockGuard(() -> super.recomputeLimits(dimIndex));
+    }
+
+    @Override
+    public String removeDataLabel(final int index) {
+        throw new UnsupportedOperationException("Data labels are not supported for this type of DataSet");
+    }
+
+    @Override
+    public String removeStyle(final int index) {
+        throw new UnsupportedOperationException("Data styles are not supported for this type of DataSet");
+    }
+
+    /**
+     * resets all data. N.B. to be called by the producer thread only.
+     *
+     * @return itself (fluent design)
+     */
+    public RingBufferDoubleErrorDataSet reset() {
+        resetIndex = published.get();
+        snapshotLock.writeLock.lock();
+        try {
+            getAxisDescriptions().forEach(AxisDescription::clear);
+        } finally {
+            snapshotLock.writeLock.unlock();
+        }
+        return fireInvalidated(new RemovedDataEvent(this));
+    }
+
+    private int getLiveDataCount() {
+        final long head = published.get();
+        return (int) (head - Math.max(resetIndex, head - capacity));
+    }
+
+    private int getLiveSlot(final int index) {
+        final long head = published.get();
+        return (int) ((Math.max(resetIndex, head - capacity) + index) % capacity);
+    }
+
+    /**
+     * @return consistent copy of the published samples (shared between readers as long as no new samples are added),
+     *         N.B. to be released via {@link #releaseSnapshot(Snapshot)}
+     */
+    private Snapshot takeSnapshot() {
+        final Snapshot cached = lastSnapshot.get();
+        final long head = published.get();
+        final long first = Math.max(resetIndex, head - capacity);
+        if (cached != null && cached.head == head && cached.first == first && cached.acquire()) {
+            // N.B. re-check after acquiring in case the buffers have been recycled in the meantime
+            if (cached.head == head && cached.first == first) {
+                return cached;
+            }
+            releaseSnapshot(cached);
+        }
+
+        final int count = (int) (head - first);
+        final int slot = (int) (first % capacity);
+        final int nFirst = Math.min(count, capacity - slot);
+        final Snapshot spare = spareSnapshot.getAndSet(null);
+        final int spareLength = spare == null ? 0 : spare.xValues.length;
+        // N.B. grow geometrically while the ring buffer is being filled
+        final Snapshot snapshot = spare == null || spareLength < count ? new Snapshot(Math.max(count, Math.min(capacity, 2 * spareLength))) : spare;
+        copyUnwrapped(xValues, slot, nFirst, count, snapshot.xValues);
+        copyUnwrapped(yValues, slot, nFirst, count, snapshot.yValues);
+        copyUnwrapped(yErrorsNeg, slot, nFirst, count, snapshot.yErrorsNeg);
+        copyUnwrapped(yErrorsPos, slot, nFirst, count, snapshot.yErrorsPos);
+
+        // N.B. orders the buffer reads above before the claim check below (seqlock validation)
+        VarHandle.loadLoadFence();
+        // samples before 'claimed - capacity' may have been (partially) overwritten while copying
+        final int nTorn = (int) Math.min(count, Math.max(0, claimed.get() - capacity - first));
+        snapshot.publish(head, first + nTorn, nTorn, count - nTorn);
+        if (nTorn == 0 && snapshot.acquire()) {
+            // additional reference held by the shared 'lastSnapshot' cache
+            final Snapshot previous = lastSnapshot.getAndSet(snapshot);
+            if (previous != null) {
+                releaseSnapshot(previous);
+            }
+        }
+        return snapshot;
+    }
+
+    private void releaseSnapshot(final Snapshot snapshot) {
+        if (snapshot.holders.decrementAndGet() == 0) {
+            // N.B. no reader references the snapshot anymore -> recycle its buffers
+            spareSnapshot.set(snapshot);
+        }
+    }
+
+    private static void copyWrapped(final double[] src, final int srcOffset, final double[] ring, final int slot,
+            final int nFirst, final int length) {
+        System.arraycopy(src, srcOffset, ring, slot, nFirst);
+        System.arraycopy(src, srcOffset + nFirst, ring, 0, length - nFirst);
+    }
+
+    private static void copyUnwrapped(final double[] ring, final int slot, final int nFirst, final int length,
+            final double[] target) {
+        System.arraycopy(ring, slot, target, 0, nFirst);
+        System.arraycopy(ring, 0, target, nFirst, length - nFirst);
+    }
+
+    private static class ReaderState {
+        private int depth;
+        private Snapshot snapshot;
+    }
+
+    /**
+     * reference-counted copy of the published samples in the total sample index range [first, head), stored at
+     * [offset, offset + count) of the (recycled) buffers
+     */
+    private static class Snapshot {
+        /** number of readers (and caches) referencing this snapshot, zero while being (re-)filled or recycled */
+        private final AtomicInteger holders = new AtomicInteger();
+        private final double[] xValues;
+        private final double[] yValues;
+        private final double[] yErrorsNeg;
+        private final double[] yErrorsPos;
+        private long head;
+        private long first;
+        private int offset;
+        private int count;
+
+        private Snapshot(final int capacity) {
+            xValues = new double[capacity];
+            yValues = new double[capacity];
+            yErrorsNeg = new double[capacity];
+            yErrorsPos = new double[capacity];
+        }
+
+        private boolean acquire() {
+            int nHolders;
+            do {
+                nHolders = holders.get();
+                if (nHolders == 0) {
+                    return false;
+                }
+            } while (!holders.compareAndSet(nHolders, nHolders + 1));
+            return true;
+        }
+
+        private void publish(final long head, final long first, final int offset, final int count) {
+            this.head = head;
+            this.first = first;
+            this.offset = offset;
+            this.count = count;
+            // N.B. volatile write publishes the fields and buffer contents above
+            holders.set(1);
+        }
+    }
+
+    @SuppressWarnings({ "PMD.DoNotUseThreads" }) // Runnable used as functional interface
+    private class SnapshotLock implements DataSetLock<RingBufferDoubleErrorDataSet> {
+        private static final long serialVersionUID = 2206356929433493212L;
+        private final transient ReentrantLock writeLock = new ReentrantLock();
+
+        @Override
+        public RingBufferDoubleErrorDataSet readLock() {
+            final ReaderState state = readerState.get();
+            if (state.depth++ == 0) {
+                state.snapshot = takeSnapshot();
+            }
+            return getThis();
+        }
+
+        @Override
+        public RingBufferDoubleErrorDataSet readLockGuard(final Runnable reading) {
+            readLock();
+            try {
+                reading.run();
+            } finally {
+                readUnLock();
+            }
+            return getThis();
+        }
+
+        @Override
+        public <R> R readLockGuard(final Supplier<R> reading) {
+            readLock();
+            try {
+                return reading.get();
+            } finally {
+                readUnLock();
+            }
+        }
+
+        @Override
+        public RingBufferDoubleErrorDataSet readLockGuardOptimistic(final Runnable reading) {
+            return readLockGuard(reading);
+        }
+
+        @Override
+        public <R> R readLockGuardOptimistic(final Supplier<R> reading) {
+            return readLockGuard(reading);
+        }
+
+        @Override
+        public RingBufferDoubleErrorDataSet readUnLock() {
+            final ReaderState state = readerState.get();
+            if (state.depth <= 0) {
+                throw new IllegalStateException("readUnLock() called without prior readLock()");
+            }
+            if (--state.depth == 0) {
+                releaseSnapshot(state.snapshot);
+                state.snapshot = null; // NOPMD -- release snapshot for recycling
+            }
+            return getThis();
+        }
+
+        @Override
+        public RingBufferDoubleErrorDataSet writeLock() {
+            writeLock.lock();
+            return readLock();
+        }
+
+        @Override
+        public RingBufferDoubleErrorDataSet writeLockGuard(final Runnable writing) {
+            writeLock();
+            try {
+                writing.run();
+            } finally {
+                writeUnLock();
+            }
+            return getThis();
+        }
+
+        @Override
+        public <R> R writeLockGuard(final Supplier<R> writing) {
+            writeLock();
+            try {
+                return writing.get();
+            } finally {
+                writeUnLock();
+            }
+        }
+
+        @Override
+        public RingBufferDoubleErrorDataSet writeUnLock() {
+            readUnLock();
+            writeLock.unlock();
+            return getThis();
+        }
+    }
+}
@@ -0,0 +1,612 @@
+package de.gsi.dataset.spi.utils;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Typed storage of one data column (e.g. x, y or error values) for columnar data sets such as
+ * {@link de.gsi.dataset.spi.ColumnarErrorDataSet}. The following storage types are available:
+ * <ul>
+ * <li>{@link #ofDouble(int)}: 64-bit floating point values (8 bytes/sample)</li>
+ * <li>{@link #ofFloat(int)}: 32-bit floating point values (4 bytes/sample)</li>
+ * <li>{@link #ofScaledShort(int, double, double)}: 16-bit integers with 'value = offset + gain * raw' (2
+ * bytes/sample), e.g. for raw ADC samples</li>
+ * <li>{@link #constant(double)}: implicit constant value, e.g. for constant errors (no storage)</li>
+ * <li>{@link #linear(double, double)}: implicit 'value = start + step * index', e.g. for equidistant x coordinates (no
+ * storage)</li>
+ * </ul>
+ * N.B. columns are not thread-safe and are meant to be guarded by the lock of the data set they belong to.
+ *
+ * @author rstein
+ */
+public abstract class DataColumn implements Serializable {
+    private static final long serialVersionUID = -1849360911474592683L;
+
+    /**
+     * @param index sample index
+     * @return value at the given index
+     */
+    public abstract double get(final int index);
+
+    /**
+     * @return number of samples that can be stored without re-allocation ({@link Integer#MAX_VALUE} for implicit
+     *         columns)
+     */
+    public abstract int getCapacity();
+
+    /**
+     * @return number of bytes used per stored sample ('0' for implicit columns)
+     */
+    public abstract int getBytesPerSample();
+
+    /**
+     * Bulk read of the values in the index range [fromIndex, toIndex).
+     *
+     * @param fromIndex index of the first sample (inclusive)
+     * @param toIndex index of the last sample (exclusive)
+     * @param target array receiving the values
+     * @param targetIndex index of the first value to be written in target
+     */
+    public void getValues(final int fromIndex, final int toIndex, final double[] target, final int targetIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            target[targetIndex + i - fromIndex] = get(i);
+        }
+    }
+
+    /**
+     * @return {@code true} if the values are computed rather than stored (ie. writes are ignored)
+     */
+    public boolean isImplicit() {
+        return false;
+    }
+
+    /**
+     * grows the storage (if necessary) to hold at least the given number of samples
+     *
+     * @param capacity minimum capacity
+     */
+    public abstract void ensureCapacity(final int capacity);
+
+    /**
+     * @param index sample index
+     * @param value new value (N.B. ignored for implicit columns)
+     */
+    public abstract void set(final int index, final double value);
+
+    /**
+     * Bulk write of double values.
+     *
+     * @param index index of the first sample to be written
+     * @param values source values
+     * @param fromIndex index of the first source value
+     * @param length number of values to be written
+     */
+    public void set(final int index, final double[] values, final int fromIndex, final int length) {
+        for (int i = 0; i < length; i++) {
+            set(index + i, values[fromIndex + i]);
+        }
+    }
+
+    /**
+     * Bulk write of float values.
+     *
+     * @param index index of the first sample to be written
+     * @param values source values
+     * @param fromIndex index of the first source value
+     * @param length number of values to be written
+     */
+    public void set(final int index, final float[] values, final int fromIndex, final int length) {
+        for (int i = 0; i < length; i++) {
+            set(index + i, values[fromIndex + i]);
+        }
+    }
+
+    /**
+     * Removes the samples in [fromIndex, toIndex) and shifts the samples in [toIndex, size) towards the front.
+     *
+     * @param fromIndex index of the first sample to be removed (inclusive)
+     * @param toIndex index of the last sample to be removed (exclusive)
+     * @param size number of samples currently in use
+     */
+    public abstract void remove(final int fromIndex, final int toIndex, final int size);
+
+    /**
+     * Bulk write of raw 16-bit integer values. Scaled int16 columns store the raw values as-is, floating point columns
+     * store their numeric value and implicit columns ignore them.
+     *
+     * @param index index of the first sample to be written
+     * @param rawValues source raw values
+     * @param fromIndex index of the first source value
+     * @param length number of values to be written
+     */
+    public void setRaw(final int index, final short[] rawValues, final int fromIndex, final int length) {
+        for (int i = 0; i < length; i++) {
+            set(index + i, rawValues[fromIndex + i]);
+        }
+    }
+
+    /**
+     * Affine transform of the values in [fromIndex, toIndex) without intermediate widening to a temporary array, e.g.
+     * to compute screen coordinates: 'target[targetIndex + i - fromIndex] = offset + scale * get(i)'
+     *
+     * @param fromIndex index of the first sample (inclusive)
+     * @param toIndex index of the last sample (exclusive)
+     * @param offset offset of the affine transform
+     * @param scale scale of the affine transform
+     * @param target array receiving the transformed values
+     * @param targetIndex index of the first value to be written in target
+     */
+    public void transform(final int fromIndex, final int toIndex, final double offset, final double scale,
+            final double[] target, final int targetIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            target[targetIndex + i - fromIndex] = offset + scale * get(i);
+        }
+    }
+
+    /**
+     * Same as {@link #transform(int, int, double, double, double[], int)} but adding the transformed values to target,
+     * e.g. to compute error bounds: 'target[targetIndex + i - fromIndex] += offset + scale * get(i)'
+     *
+     * @param fromIndex index of the first sample (inclusive)
+     * @param toIndex index of the last sample (exclusive)
+     * @param offset offset of the affine transform
+     * @param scale scale of the affine transform
+     * @param target array the transformed values are added to
+     * @param targetIndex index of the first value to be updated in target
+     */
+    public void transformAdd(final int fromIndex, final int toIndex, final double offset, final double scale,
+            final double[] target, final int targetIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            target[targetIndex + i - fromIndex] += offset + scale * get(i);
+        }
+    }
+
+    /**
+     * @param value the constant value
+     * @return implicit column returning the same value for all indices
+     */
+    public static DataColumn constant(final double value) {
+        return new ConstantColumn(value);
+    }
+
+    /**
+     * @param start value at index '0'
+     * @param step increment between adjacent samples
+     * @return implicit column with 'value = start + step * index'
+     */
+    public static DataColumn linear(final double start, final double step) {
+        return new LinearColumn(start, step);
+    }
+
+    /**
+     * @param initialCapacity initial capacity
+     * @return 64-bit floating point column
+     */
+    public static DataColumn ofDouble(final int initialCapacity) {
+        return new DoubleColumn(initialCapacity);
+    }
+
+    /**
+     * @param initialCapacity initial capacity
+     * @return 32-bit floating point column
+     */
+    public static DataColumn ofFloat(final int initialCapacity) {
+        return new FloatColumn(initialCapacity);
+    }
+
+    /**
+     * @param initialCapacity initial capacity
+     * @param offset value corresponding to raw value '0'
+     * @param gain value increment per raw value LSB
+     * @return 16-bit integer column with 'value = offset + gain * raw'
+     */
+    public static DataColumn ofScaledShort(final int initialCapacity, final double offset, final double gain) {
+        return new ScaledShortColumn(initialCapacity, offset, gain);
+    }
+
+    protected static int grow(final int oldCapacity, final int minCapacity) {
+        // N.B. similar growth strategy as ArrayList
+        return (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(minCapacity, oldCapacity + (oldCapacity >> 1) + 1L));
+    }
+
+    public static class ConstantColumn extends DataColumn {
+        private static final long serialVersionUID = 3092385419372546561L;
+        private final double value;
+
+        protected ConstantColumn(final double value) {
+            super();
+            this.value = value;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            // implicit column -- no storage
+        }
+
+        @Override
+        public double get(final int index) {
+            return value;
+        }
+
+        @Override
+        public int getBytesPerSample() {
+            return 0;
+        }
+
+        @Override
+        public int getCapacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void getValues(final int fromIndex, final int toIndex, final double[] target, final int targetIndex) {
+            Arrays.fill(target, targetIndex, targetIndex + toIndex - fromIndex, value);
+        }
+
+        @Override
+        public boolean isImplicit() {
+            return true;
+        }
+
+        @Override
+        public void remove(final int fromIndex, final int toIndex, final int size) {
+            // implicit column -- no storage
+        }
+
+        @Override
+        public void set(final int index, final double newValue) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void set(final int index, final double[] values, final int fromIndex, final int length) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void set(final int index, final float[] values, final int fromIndex, final int length) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void setRaw(final int index, final short[] rawValues, final int fromIndex, final int length) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void transform(final int fromIndex, final int toIndex, final double offset, final double scale,
+                final double[] target, final int targetIndex) {
+            Arrays.fill(target, targetIndex, targetIndex + toIndex - fromIndex, offset + scale * value);
+        }
+
+        @Override
+        public void transformAdd(final int fromIndex, final int toIndex, final double offset, final double scale,
+                final double[] target, final int targetIndex) {
+            final double transformed = offset + scale * value;
+            for (int i = targetIndex; i < targetIndex + toIndex - fromIndex; i++) {
+                target[i] += transformed;
+            }
+        }
+    }
+
+    public static class DoubleColumn extends DataColumn {
+        private static final long serialVersionUID = 5512498470612356380L;
+        private double[] values;
+
+        protected DoubleColumn(final int initialCapacity) {
+            super();
+            AssertUtils.gtEqThanZero("initialCapacity", initialCapacity);
+            values = new double[initialCapacity];
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        public double get(final int index) {
+            return values[index];
+        }
+
+        @Override
+        public int getBytesPerSample() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public int getCapacity() {
+            return values.length;
+        }
+
+        @Override
+        public void getValues(final int fromIndex, final int toIndex, final double[] target, final int targetIndex) {
+            System.arraycopy(values, fromIndex, target, targetIndex, toIndex - fromIndex);
+        }
+
+        @Override
+        public void remove(final int fromIndex, final int toIndex, final int size) {
+            System.arraycopy(values, toIndex, values, fromIndex, size - toIndex);
+        }
+
+        @Override
+        public void set(final int index, final double value) {
+            values[index] = value;
+        }
+
+        @Override
+        public void set(final int index, final double[] newValues, final int fromIndex, final int length) {
+            System.arraycopy(newValues, fromIndex, values, index, length);
+        }
+
+        @Override
+        public void transform(final int fromIndex, final int toIndex, final double offset, final double scale,
+                final double[] target, final int targetIndex) {
+            final double[] local = values;
+            for (int i = fromIndex; i < toIndex; i++) {
+                target[targetIndex + i - fromIndex] = offset + scale * local[i];
+            }
+        }
+
+        @Override
+        public void transformAdd(final int fromIndex, final int toIndex, final double offset, final double scale,
+                final double[] target, final int targetIndex) {
+            final double[] local = values;
+            for (int i = fromIndex; i < toIndex; i++) {
+                target[targetIndex + i - fromIndex] += offset + scale * local[i];
+            }
+        }
+    }
+
+    public static class FloatColumn extends DataColumn {
+        private static final long serialVersionUID = -7380128286337587620L;
+        private float[] values;
+
+        protected FloatColumn(final int initialCapacity) {
+            super();
+            AssertUtils.gtEqThanZero("initialCapacity", initialCapacity);
+            values = new float[initialCapacity];
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        public double get(final int index) {
+            return values[index];
+        }
+
+        @Override
+        public int getBytesPerSample() {
+            return Float.BYTES;
+        }
+
+        @Override
+        public int getCapacity() {
+            return values.length;
+        }
+
+        @Override
+        public void remove(final int fromIndex, final int toIndex, final int size) {
+            System.arraycopy(values, toIndex, values, fromIndex, size - toIndex);
+        }
+
+        @Override
+        public void set(final int index, final double value) {
+            values[index] = (float) value;
+        }
+
+        @Override
+        public void set(final int index, final float[] newValues, final int fromIndex, final int length) {
+            System.arraycopy(newValues, fromIndex, values, index, length);
+        }
+
+        @Override
+        public void transform(final int fromIndex, final int toIndex, final double offset, final double scale,
+                final double[] target, final int targetIndex) {
+            final float[] local = values;
+            for (int i = fromIndex; i < toIndex; i++) {
+                target[targetIndex + i - fromIndex] = offset + scale * local[i];
+            }
+        }
+
+        @Override
+        public void transformAdd(final int fromIndex, final int toIndex, final double offset, final double scale,
+                final double[] target, final int targetIndex) {
+            final float[] local = values;
+            for (int i = fromIndex; i < toIndex; i++) {
+                target[targetIndex + i - fromIndex] += offset + scale * local[i];
+            }
+        }
+    }
+
+    public static class LinearColumn extends DataColumn {
+        private static final long serialVersionUID = -2263740618049633797L;
+        private final double step;
+        private double start;
+
+        protected LinearColumn(final double start, final double step) {
+            super();
+            this.start = start;
+            this.step = step;
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            // implicit column -- no storage
+        }
+
+        @Override
+        public double get(final int index) {
+            return start + step * index;
+        }
+
+        @Override
+        public int getBytesPerSample() {
+            return 0;
+        }
+
+        @Override
+        public int getCapacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public boolean isImplicit() {
+            return true;
+        }
+
+        /**
+         * Removal at the front (fromIndex = 0) retains the values of the remaining samples. Removal further within
+         * re-indexes the subsequent samples, ie. their values continue the linear sequence from 'fromIndex'.
+         */
+        @Override
+        public void remove(final int fromIndex, final int toIndex, final int size) {
+            if (fromIndex == 0) {
+                start += step * toIndex;
+            }
+        }
+
+        @Override
+        public void set(final int index, final double value) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void set(final int index, final double[] values, final int fromIndex, final int length) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void set(final int index, final float[] values, final int fromIndex, final int length) {
+            // implicit column -- writes are ignored
+        }
+
+        @Override
+        public void setRaw(final int index, final short[] rawValues, final int fromIndex, final int length) {
+            // implicit column -- writes are ignored
+        }
+    }
+
+    /**
+     * 16-bit integer column with 'value = offset + gain * raw'. Values outside the representable range are clamped,
+     * NaN is represented by the raw value {@link Short#MIN_VALUE}.
+     */
+    public static class ScaledShortColumn extends DataColumn {
+        public static final short RAW_NAN = Short.MIN_VALUE;
+        private static final long serialVersionUID = 8469436211428127367L;
+        private final double offset;
+        private final double gain;
+        private short[] values;
+
+        protected ScaledShortColumn(final int initialCapacity, final double offset, final double gain) {
+            super();
+            AssertUtils.gtEqThanZero("initialCapacity", initialCapacity);
+            if (!Double.isFinite(offset) || !Double.isFinite(gain) || gain == 0.0) {
+                throw new IllegalArgumentException("offset and gain must be finite and gain non-zero: offset = "
+                                                   + offset + " gain = " + gain);
+            }
+            this.offset = offset;
+            this.gain = gain;
+            values = new short[initialCapacity];
+        }
+
+        @Override
+        public void ensureCapacity(final int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length, capacity));
+            }
+        }
+
+        @Override
+        public double get(final int index) {
+            final short raw = values[index];
+            return raw == RAW_NAN ? Double.NaN : offset + gain * raw;
+        }
+
+        @Override
+        public int getBytesPerSample() {
+            return Short.BYTES;
+        }
+
+        @Override
+        public int getCapacity() {
+            return values.length;
+        }
+
+        /**
+         * @return value increment per raw value LSB
+         */
+        public double getGain() {
+            return gain;
+        }
+
+        /**
+         * @return value corresponding to raw value '0'
+         */
+        public double getOffset() {
+            return offset;
+        }
+
+        /**
+         * @param index sample index
+         * @return raw value at the given index
+         */
+        public short getRaw(final int index) {
+            return values[index];
+        }
+
+        @Override
+        public void remove(final int fromIndex, final int toIndex, final int size) {
+            System.arraycopy(values, toIndex, values, fromIndex, size - toIndex);
+        }
+
+        @Override
+        public void set(final int index, final double value) {
+            if (Double.isNaN(value)) {
+                values[index] = RAW_NAN;
+                return;
+            }
+            final double raw = Math.rint((value - offset) / gain);
+            values[index] = (short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, raw));
+        }
+
+        @Override
+        public void setRaw(final int index, final short[] rawValues, final int fromIndex, final int length) {
+            System.arraycopy(rawValues, fromIndex, values, index, length);
+        }
+
+        @Override
+        public void transform(final int fromIndex, final int toIndex, final double transformOffset,
+                final double scale, final double[] target, final int targetIndex) {
+            // N.B. fold the column gain/offset into the affine transform
+            final double localOffset = transformOffset + scale * offset;
+            final double localScale = scale * gain;
+            final short[] local = values;
+            for (int i = fromIndex; i < toIndex; i++) {
+                final short raw = local[i];
+                target[targetIndex + i - fromIndex] = raw == RAW_NAN ? Double.NaN : localOffset + localScale * raw;
+            }
+        }
+
+        @Override
+        public void transformAdd(final int fromIndex, final int toIndex, final double transformOffset,
+                final double scale, final double[] target, final int targetIndex) {
+            final double localOffset = transformOffset + scale * offset;
+            final double localScale = scale * gain;
+            final short[] local = values;
+            for (int i = fromIndex; i < toIndex; i++) {
+                final short raw = local[i];
+                target[targetIndex + i - fromIndex] += raw == RAW_NAN ? Double.NaN : localOffset + localScale * raw;
+            }
+        }
+    }
+}
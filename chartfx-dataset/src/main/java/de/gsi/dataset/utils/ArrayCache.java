@@ -1,6 +1,5 @@
 package de.gsi.dataset.utils;
 
-import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -20,20 +19,21 @@ import java.util.concurrent.ConcurrentHashMap;
  * ArrayCache.release(UNIQUE_IDENTIFIER, 100);
  * </pre>
  * 
- * N.B. for other simple caching needs see @see Cache
+ * N.B. each array name is backed by its own size-class bucketed and thread-local {@link ArrayPool}. For other simple
+ * caching needs see @see Cache
  * 
  * @author rstein
  *
  */
 public final class ArrayCache { // NOPMD nomen est omen
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, boolean[]>> booleanArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, byte[]>> byteArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, double[]>> doubleArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, float[]>> floatArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, int[]>> intArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, long[]>> longArrayCache = new ConcurrentHashMap<>();
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, short[]>> shortArrayCache = new ConcurrentHashMap<>(); // NOPMD
-    private static ConcurrentHashMap<String, WeakHashMap<Integer, String[]>> stringArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<boolean[]>> booleanArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<byte[]>> byteArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<double[]>> doubleArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<float[]>> floatArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<int[]>> intArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<long[]>> longArrayCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ArrayPool<short[]>> shortArrayCache = new ConcurrentHashMap<>(); // NOPMD
+    private static final ConcurrentHashMap<String, ArrayPool<String[]>> stringArrayCache = new ConcurrentHashMap<>();
 
     private ArrayCache() {
         // static helper class
@@ -48,20 +48,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static boolean[] getCachedBooleanArray(final String arrayName, final int size) {
-        synchronized (booleanArrayCache) {
-            final WeakHashMap<Integer, boolean[]> nameHashMap = booleanArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            boolean[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new boolean[size];
-            } else {
-                booleanArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return booleanArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(boolean[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -73,20 +64,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static byte[] getCachedByteArray(final String arrayName, final int size) {
-        synchronized (byteArrayCache) {
-            final WeakHashMap<Integer, byte[]> nameHashMap = byteArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            byte[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new byte[size];
-            } else {
-                byteArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return byteArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(byte[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -98,20 +80,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static double[] getCachedDoubleArray(final String arrayName, final int size) {
-        synchronized (doubleArrayCache) {
-            final WeakHashMap<Integer, double[]> nameHashMap = doubleArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            double[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new double[size];
-            } else {
-                doubleArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return doubleArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(double[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -123,20 +96,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static float[] getCachedFloatArray(final String arrayName, final int size) {
-        synchronized (floatArrayCache) {
-            final WeakHashMap<Integer, float[]> nameHashMap = floatArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            float[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new float[size];
-            } else {
-                floatArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return floatArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(float[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -148,20 +112,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static int[] getCachedIntArray(final String arrayName, final int size) {
-        synchronized (intArrayCache) {
-            final WeakHashMap<Integer, int[]> nameHashMap = intArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            int[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new int[size];
-            } else {
-                intArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return intArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(int[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -173,20 +128,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static long[] getCachedLongArray(final String arrayName, final int size) {
-        synchronized (longArrayCache) {
-            final WeakHashMap<Integer, long[]> nameHashMap = longArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            long[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new long[size];
-            } else {
-                longArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return longArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(long[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -198,20 +144,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static short[] getCachedShortArray(final String arrayName, final int size) {
-        synchronized (shortArrayCache) {
-            final WeakHashMap<Integer, short[]> nameHashMap = shortArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            short[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new short[size];
-            } else {
-                shortArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return shortArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(short[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -223,20 +160,11 @@ public final class ArrayCache { // NOPMD nomen est omen
      * 
      * @param arrayName unique array name
      * @param size requested array size
-     * @return cached copy (N.B. removed from internal HashMap)
+     * @return cached copy (N.B. removed from internal pool)
      */
     public static String[] getCachedStringArray(final String arrayName, final int size) {
-        synchronized (stringArrayCache) {
-            final WeakHashMap<Integer, String[]> nameHashMap = stringArrayCache.computeIfAbsent(arrayName,
-                    key -> new WeakHashMap<>());
-            String[] cachedArray = nameHashMap.get(size);
-            if (cachedArray == null) {
-                cachedArray = new String[size];
-            } else {
-                stringArrayCache.get(arrayName).remove(size);
-            }
-            return cachedArray;
-        }
+        return stringArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(String[]::new, a -> a.length))
+                .getArrayExact(size);
     }
 
     /**
@@ -249,7 +177,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        booleanArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        booleanArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(boolean[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -262,7 +191,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        byteArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        byteArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(byte[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -275,7 +205,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        doubleArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        doubleArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(double[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -288,7 +219,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        floatArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        floatArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(float[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -301,7 +233,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        intArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        intArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(int[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -314,7 +247,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        longArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        longArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(long[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -327,7 +261,8 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        shortArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        shortArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(short[]::new, a -> a.length))
+                .add(cachedArray);
     }
 
     /**
@@ -340,6 +275,7 @@ public final class ArrayCache { // NOPMD nomen est omen
         if (cachedArray == null) {
             return;
         }
-        stringArrayCache.get(arrayName).put(cachedArray.length, cachedArray);
+        stringArrayCache.computeIfAbsent(arrayName, key -> new ArrayPool<>(String[]::new, a -> a.length))
+                .add(cachedArray);
     }
 }
@@ -0,0 +1,498 @@
+package de.gsi.dataset.utils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Size-class bucketed pool of recurring (primitive) arrays.
+ * <p>
+ * Released arrays are first kept in a small per-thread 'magazine' that is accessed without any locking. Arrays that do
+ * not fit into the magazine spill over to a lock-free shared tier that is bucketed into power-of-two size classes,
+ * i.e. size class 'k' holds arrays with a length within ]2^(k-1), 2^k]. A best-fit look-up thus only needs to inspect
+ * the thread's magazine, the size class of the requested length and -- if nothing fits there -- the first non-empty
+ * larger size class rather than all cached arrays.
+ * <p>
+ * Pooled arrays are additionally tracked by identity in a concurrent hash map so that {@link #add}, {@link #contains}
+ * and {@link #remove} are O(1). Entries that are taken out of the pool are only marked as claimed and unlinked lazily
+ * by the next traversal of their magazine or size class.
+ * <p>
+ * Similar to {@link CacheCollection}, cached arrays are held via {@link SoftReference}s and may be reclaimed by the
+ * garbage collector in case of memory shortage. Hit, miss and eviction (i.e. reclaimed by the GC) counters can be
+ * used to verify that a given code path is allocation-free at steady state.
+ * <p>
+ * N.B. returned arrays keep their original length (i.e. are not rounded-up to the size class) and are not cleared.
+ * Adding the same array concurrently from different threads is not guarded against.
+ *
+ * @author rstein
+ *
+ * @param <T> generic for the array type to be cached
+ */
+public class ArrayPool<T> extends CacheCollection<T> {
+    protected static final int MAGAZINE_CAPACITY = 4;
+    private static final int N_SIZE_CLASSES = Integer.SIZE;
+    private final IntFunction<T> allocator;
+    private final ToIntFunction<T> lengthFunction;
+    private final List<ConcurrentLinkedDeque<Entry<T>>> sharedTier = new ArrayList<>(N_SIZE_CLASSES);
+    private final Queue<Magazine<T>> magazines = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Magazine<T>> localMagazine = ThreadLocal.withInitial(this::newMagazine);
+    private final ConcurrentHashMap<IdentityKey, Entry<T>> pooled = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> reclaimedQueue = new ReferenceQueue<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param allocator generator for new arrays of a given length, e.g. {@code double[]::new}
+     * @param lengthFunction returns the length of a given array, e.g. {@code a -> a.length}
+     */
+    public ArrayPool(final IntFunction<T> allocator, final ToIntFunction<T> lengthFunction) {
+        super();
+        AssertUtils.notNull("allocator", allocator);
+        AssertUtils.notNull("lengthFunction", lengthFunction);
+        this.allocator = allocator;
+        this.lengthFunction = lengthFunction;
+        for (int i = 0; i < N_SIZE_CLASSES; i++) {
+            sharedTier.add(new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    @Override
+    public boolean add(final T recoveredObject) {
+        if (recoveredObject == null) {
+            return false;
+        }
+        expungeReclaimedEntries();
+        final Entry<T> entry = new Entry<>(recoveredObject, reclaimedQueue);
+        if (pooled.putIfAbsent(entry.key, entry) != null) {
+            // array is already pooled
+            return false;
+        }
+        final Magazine<T> magazine = localMagazine.get();
+        for (int i = 0; i < MAGAZINE_CAPACITY; i++) {
+            final Entry<T> current = magazine.slots.get(i);
+            if ((current == null || current.isClaimed()) && magazine.slots.compareAndSet(i, current, entry)) {
+                return true;
+            }
+        }
+        // magazine full -- keep the most recently released array local and spill over the oldest one
+        final int oldest = magazine.cursor;
+        magazine.cursor = (oldest + 1) % MAGAZINE_CAPACITY;
+        final Entry<T> spilled = magazine.slots.getAndSet(oldest, entry);
+        if (spilled != null && !spilled.isClaimed()) {
+            addToSharedTier(spilled);
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (final Entry<T> entry : pooled.values()) {
+            if (entry.claim()) {
+                pooled.remove(entry.key, entry);
+            }
+        }
+        for (final Magazine<T> magazine : magazines) {
+            for (int i = 0; i < MAGAZINE_CAPACITY; i++) {
+                magazine.slots.set(i, null);
+            }
+        }
+        for (final ConcurrentLinkedDeque<Entry<T>> sizeClass : sharedTier) {
+            sizeClass.clear();
+        }
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        if (object == null) {
+            return false;
+        }
+        final Entry<T> entry = pooled.get(new IdentityKey(object));
+        return entry != null && !entry.isClaimed();
+    }
+
+    /**
+     * @param requiredSize the minimum required array length
+     * @return cached array with the closest length equal or larger than 'requiredSize' or a newly allocated array
+     */
+    public T getArray(final int requiredSize) {
+        return getArray(requiredSize, false);
+    }
+
+    /**
+     * @param requiredSize the required array length
+     * @return cached array with exactly the given length or a newly allocated array
+     */
+    public T getArrayExact(final int requiredSize) {
+        return getArray(requiredSize, true);
+    }
+
+    /**
+     * @return number of arrays that have been reclaimed by the garbage collector while being cached
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return number of requests that have been served by a cached array
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return number of requests that required a new array to be allocated
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        final List<T> snapshot = new ArrayList<>();
+        for (final Entry<T> entry : pooled.values()) {
+            final T array = entry.get();
+            if (array != null && !entry.isClaimed()) {
+                snapshot.add(array);
+            }
+        }
+        return new SnapshotIterator(snapshot.iterator());
+    }
+
+    @Override
+    public boolean remove(final Object object) {
+        if (object == null) {
+            return false;
+        }
+        final Entry<T> entry = pooled.get(new IdentityKey(object));
+        // N.B. the stale magazine slot or size-class node is unlinked lazily
+        return entry != null && take(entry);
+    }
+
+    /**
+     * resets the hit, miss and eviction counters
+     */
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    @Override
+    public int size() {
+        cleanup();
+        int count = 0;
+        for (final Entry<T> entry : pooled.values()) {
+            if (!entry.isClaimed()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected void cleanup() {
+        expungeReclaimedEntries();
+        for (final Magazine<T> magazine : magazines) {
+            final boolean orphaned = magazine.owner.get() == null || !magazine.owner.get().isAlive();
+            for (int i = 0; i < MAGAZINE_CAPACITY; i++) {
+                final Entry<T> entry = magazine.slots.get(i);
+                if (entry == null) {
+                    continue;
+                }
+                if (entry.isClaimed() || entry.get() == null) {
+                    if (magazine.slots.compareAndSet(i, entry, null)) {
+                        evict(entry);
+                    }
+                } else if (orphaned && magazine.slots.compareAndSet(i, entry, null)) {
+                    // hand over arrays of terminated threads to the shared tier
+                    addToSharedTier(entry);
+                }
+            }
+            if (orphaned) {
+                magazines.remove(magazine);
+            }
+        }
+        for (final ConcurrentLinkedDeque<Entry<T>> sizeClass : sharedTier) {
+            final Iterator<Entry<T>> iterator = sizeClass.iterator();
+            while (iterator.hasNext()) {
+                final Entry<T> entry = iterator.next();
+                if (entry.isClaimed() || entry.get() == null) {
+                    evict(entry);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void addToSharedTier(final Entry<T> entry) {
+        final T array = entry.get();
+        if (array == null) {
+            evict(entry);
+            return;
+        }
+        sharedTier.get(getSizeClass(lengthFunction.applyAsInt(array))).addFirst(entry);
+    }
+
+    /**
+     * removes an entry whose array has been reclaimed by the garbage collector (no-op for already claimed entries)
+     *
+     * @param entry pool entry
+     */
+    private void evict(final Entry<?> entry) {
+        if (entry.get() == null && entry.claim()) {
+            pooled.remove(entry.key, entry);
+            evictionCount.increment();
+        }
+    }
+
+    private void expungeReclaimedEntries() {
+        Reference<? extends T> reference;
+        while ((reference = reclaimedQueue.poll()) != null) {
+            evict((Entry<?>) reference);
+        }
+    }
+
+    private T getArray(final int requiredSize, final boolean exact) {
+        // 1. thread-local magazine (no contention, most recently released arrays)
+        final Magazine<T> magazine = localMagazine.get();
+        int magazineBestFit = -1;
+        int magazineBestFitSize = Integer.MAX_VALUE;
+        for (int i = 0; i < MAGAZINE_CAPACITY; i++) {
+            final Entry<T> entry = magazine.slots.get(i);
+            if (entry == null) {
+                continue;
+            }
+            final T array = entry.get();
+            if (array == null || entry.isClaimed()) {
+                if (magazine.slots.compareAndSet(i, entry, null)) {
+                    evict(entry);
+                }
+                continue;
+            }
+            final int sizeDiff = lengthFunction.applyAsInt(array) - requiredSize;
+            if (sizeDiff == 0 && take(entry)) {
+                magazine.slots.compareAndSet(i, entry, null);
+                hitCount.increment();
+                return array;
+            }
+            if (sizeDiff > 0 && sizeDiff < magazineBestFitSize && !exact) {
+                magazineBestFitSize = sizeDiff;
+                magazineBestFit = i;
+            }
+        }
+
+        // 2. lock-free shared tier -- size class of the requested length and (if required) the next larger ones
+        final int sizeClass = getSizeClass(requiredSize);
+        final int maxSizeClass = exact ? sizeClass : N_SIZE_CLASSES - 1;
+        for (int k = sizeClass; k <= maxSizeClass; k++) {
+            final ConcurrentLinkedDeque<Entry<T>> bucket = sharedTier.get(k);
+            Entry<T> bestFit;
+            do {
+                bestFit = null;
+                T bestFitArray = null;
+                int bestFitSize = magazineBestFitSize;
+                final Iterator<Entry<T>> iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    final Entry<T> entry = iterator.next();
+                    final T array = entry.get();
+                    if (array == null || entry.isClaimed()) {
+                        // N.B. iterator-based unlinking is O(1)
+                        evict(entry);
+                        iterator.remove();
+                        continue;
+                    }
+                    final int sizeDiff = lengthFunction.applyAsInt(array) - requiredSize;
+                    if (sizeDiff == 0) {
+                        iterator.remove();
+                        if (take(entry)) {
+                            hitCount.increment();
+                            return array;
+                        }
+                        continue;
+                    }
+                    if (sizeDiff > 0 && sizeDiff < bestFitSize && !exact) {
+                        bestFitSize = sizeDiff;
+                        bestFit = entry;
+                        bestFitArray = array;
+                    }
+                }
+                if (bestFit != null && take(bestFit)) {
+                    // N.B. the claimed node is unlinked by the next traversal of this size class
+                    hitCount.increment();
+                    return bestFitArray;
+                }
+                // N.B. repeat search in case the candidate has been concurrently taken by another thread
+            } while (bestFit != null);
+
+            if (magazineBestFit >= 0 && k >= getSizeClass(requiredSize + magazineBestFitSize)) {
+                // arrays in larger size classes cannot fit better than the magazine's candidate
+                break;
+            }
+        }
+
+        // 3. magazine's best (non-exact) fit
+        if (magazineBestFit >= 0) {
+            final Entry<T> entry = magazine.slots.getAndSet(magazineBestFit, null);
+            final T array = entry == null ? null : entry.get();
+            if (array != null && take(entry)) {
+                hitCount.increment();
+                return array;
+            }
+        }
+
+        // could not find any cached, return newly allocated array
+        missCount.increment();
+        return allocator.apply(requiredSize);
+    }
+
+    private Magazine<T> newMagazine() {
+        final Magazine<T> magazine = new Magazine<>(Thread.currentThread());
+        magazines.add(magazine);
+        return magazine;
+    }
+
+    /**
+     * claims the entry for being handed out or removed from the pool
+     *
+     * @param entry pool entry
+     * @return {@code true} if this call claimed the entry, {@code false} if it has been claimed before
+     */
+    private boolean take(final Entry<T> entry) {
+        if (!entry.claim()) {
+            return false;
+        }
+        pooled.remove(entry.key, entry);
+        return true;
+    }
+
+    /**
+     * @param length array length
+     * @return power-of-two size class index, i.e. the smallest 'k' with 2^k &gt;= length
+     */
+    protected static int getSizeClass(final int length) {
+        return length <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(length - 1);
+    }
+
+    /**
+     * pooled array reference that is claimed exactly once, either when handed out, removed or evicted
+     *
+     * @param <T> generic for the array type
+     */
+    private static class Entry<T> extends SoftReference<T> {
+        private final IdentityKey key;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Entry(final T array, final ReferenceQueue<? super T> queue) {
+            super(array, queue);
+            key = new IdentityKey(array, this);
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private boolean isClaimed() {
+            return claimed.get();
+        }
+    }
+
+    /**
+     * identity-based hash key, either wrapping a strongly referenced look-up object or a pooled (soft) reference
+     */
+    private static class IdentityKey {
+        private final int hash;
+        private final Object object;
+        private final Reference<?> reference;
+
+        private IdentityKey(final Object object) {
+            this.hash = System.identityHashCode(object);
+            this.object = object;
+            this.reference = null;
+        }
+
+        private IdentityKey(final Object object, final Reference<?> reference) {
+            this.hash = System.identityHashCode(object);
+            this.object = null;
+            this.reference = reference;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof IdentityKey)) {
+                return false;
+            }
+            final Object referent = get();
+            return referent != null && referent == ((IdentityKey) obj).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private Object get() {
+            return reference == null ? object : reference.get();
+        }
+    }
+
+    private static class Magazine<T> {
+        private final AtomicReferenceArray<Entry<T>> slots = new AtomicReferenceArray<>(MAGAZINE_CAPACITY);
+        private final WeakReference<Thread> owner;
+        private int cursor; // next slot to be spilled over (accessed by the owning thread only)
+
+        private Magazine(final Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+    }
+
+    private class SnapshotIterator implements Iterator<T> {
+        private final Iterator<T> iterator;
+        private T last;
+
+        private SnapshotIterator(final Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!iterator.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = iterator.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException("next() has not been called");
+            }
+            ArrayPool.this.remove(last);
+            last = null;
+        }
+    }
+}
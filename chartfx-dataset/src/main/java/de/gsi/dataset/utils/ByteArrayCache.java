@@ -1,7 +1,5 @@
 package de.gsi.dataset.utils;
 
-import java.lang.ref.Reference;
-
 /**
  * Implements byte-array (byte[]) cache collection to minimise memory re-allocation.
  *  
@@ -30,53 +28,27 @@ import java.lang.ref.Reference;
  *      }
  *  }
  * </pre>
+ * <p>
+ * N.B. the look-up is backed by the size-class bucketed and thread-local {@link ArrayPool}.
  *  
  * @author rstein
  *
  */
-public class ByteArrayCache extends CacheCollection<byte[]> {
+public class ByteArrayCache extends ArrayPool<byte[]> {
     private static final ByteArrayCache SELF = new ByteArrayCache();
 
-    public byte[] getArray(final int requiredSize) {
-        return getArray(requiredSize, false);
+    public ByteArrayCache() {
+        super(byte[]::new, array -> array.length);
     }
 
-    public byte[] getArrayExact(final int requiredSize) {
-        return getArray(requiredSize, true);
+    @Override
+    public byte[] getArray(final int requiredSize) {
+        return super.getArray(requiredSize);
     }
 
-    private byte[] getArray(final int requiredSize, final boolean exact) {
-        synchronized (contents) {
-            byte[] bestFit = null;
-            int bestFitSize = Integer.MAX_VALUE;
-
-            for (final Reference<byte[]> candidate : contents) {
-                final byte[] localRef = candidate.get();
-                if (localRef == null) {
-                    continue;
-                }
-
-                final int sizeDiff = localRef.length - requiredSize;
-                if (sizeDiff == 0) {
-                    bestFit = localRef;
-                    break;
-                }
-
-                if (sizeDiff > 0 && sizeDiff < bestFitSize && !exact) {
-                    bestFitSize = sizeDiff;
-                    bestFit = localRef;
-                }
-            }
-
-            if (bestFit == null) {
-                // could not find any cached, return new byte[]
-                bestFit = new byte[requiredSize];
-                return bestFit;
-            }
-
-            remove(bestFit);
-            return bestFit;
-        }
+    @Override
+    public byte[] getArrayExact(final int requiredSize) {
+        return super.getArrayExact(requiredSize);
     }
 
     public static ByteArrayCache getInstance() {
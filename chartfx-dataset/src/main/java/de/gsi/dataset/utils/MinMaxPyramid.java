@@ -0,0 +1,492 @@
+package de.gsi.dataset.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.AxisChangeEvent;
+import de.gsi.dataset.event.EventListener;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.DataRange;
+
+/**
+ * Multi-resolution min/max pyramid (level-of-detail index) for one dimension of a {@link DataSet}.
+ * <p>
+ * Level '0' partitions the data set into buckets of {@code bucketSize} consecutive samples, each higher level merges
+ * {@code fanOut} buckets of the level below until a single bucket remains. Every bucket keeps the indices of its
+ * minimum and maximum value (the first and last index are implicit), which is sufficient to draw a visually
+ * loss-less (M4-type) poly-line of a sorted data set using only a few points per pixel column. Queries thus scale with
+ * the number of pixels rather than the number of samples. The same hierarchy serves as segment tree for min/max range
+ * queries over arbitrary index ranges in O(log n) (see {@link #getRange(int, int)}).
+ * <p>
+ * The pyramid attaches itself as listener to the data set and is kept up to date incrementally: appended data points
+ * (detected via the data count) and modified index ranges (as notified by {@link UpdatedDataEvent#hasIndexRange()})
+ * only update the affected buckets on all levels, while removals or notifications without index information cause a
+ * full re-computation on the next query.
+ * <p>
+ * Users that index the same data set dimension with the default parameters (e.g. a renderer's level-of-detail
+ * drawing and the chart's visible-range auto-ranging) should share one reference-counted pyramid via
+ * {@link #acquire(DataSet, int)} rather than building a pyramid each.
+ * <p>
+ * N.B. queries need to be issued while holding the data set's read-lock. NaN values are ignored for the min/max
+ * computation.
+ *
+ * @author rstein
+ */
+public class MinMaxPyramid implements EventListener {
+    public static final int DEFAULT_BUCKET_SIZE = 64;
+    public static final int DEFAULT_FAN_OUT = 4;
+    private static final int BUCKETS_PER_READ = 64; // number of level '0' buckets read per bulk data set access
+    private static final Object SHARED_LOCK = new Object();
+    private final DataSet dataSet;
+    private final int dimIndex;
+    private final int bucketSize;
+    private final int fanOut;
+    private final List<Level> levels = new ArrayList<>();
+    private final boolean shared;
+    private int references = 1; // guarded by SHARED_LOCK
+    private double[] buffer;
+    private int dataCount; // number of data points covered by the pyramid
+    // pending modifications reported by the data set since the last query (guarded by 'this')
+    private boolean pendingInvalidate = true;
+    private int pendingDirtyMin = Integer.MAX_VALUE;
+    private int pendingDirtyMax = Integer.MIN_VALUE;
+
+    /**
+     * @param dataSet the data set to be indexed along its 'Y' dimension
+     */
+    public MinMaxPyramid(final DataSet dataSet) {
+        this(dataSet, DataSet.DIM_Y, DEFAULT_BUCKET_SIZE, DEFAULT_FAN_OUT);
+    }
+
+    /**
+     * @param dataSet the data set to be indexed
+     * @param dimIndex the dimension for which the min/max values are computed (usually 'Y')
+     * @param bucketSize number of samples per level '0' bucket
+     * @param fanOut number of buckets merged into one bucket of the next coarser level
+     */
+    public MinMaxPyramid(final DataSet dataSet, final int dimIndex, final int bucketSize, final int fanOut) {
+        this(dataSet, dimIndex, bucketSize, fanOut, false);
+    }
+
+    private MinMaxPyramid(final DataSet dataSet, final int dimIndex, final int bucketSize, final int fanOut,
+            final boolean shared) {
+        AssertUtils.notNull("dataSet", dataSet);
+        AssertUtils.gtThanZero("bucketSize", bucketSize);
+        if (fanOut < 2) {
+            throw new IllegalArgumentException("fanOut must be larger than 1: " + fanOut);
+        }
+        this.dataSet = dataSet;
+        this.dimIndex = dimIndex;
+        this.bucketSize = bucketSize;
+        this.fanOut = fanOut;
+        this.shared = shared;
+        dataSet.addListener(this);
+    }
+
+    /**
+     * Returns the pyramid with default bucket size and fan-out that is shared by all users of the given data set
+     * dimension, creating and attaching a new one if there is none. Each call needs to be balanced by a
+     * {@link #release()}, the pyramid is detached from the data set once the last user released it.
+     *
+     * @param dataSet the data set to be indexed
+     * @param dimIndex the dimension for which the min/max values are computed (usually 'Y')
+     * @return the shared pyramid
+     */
+    public static MinMaxPyramid acquire(final DataSet dataSet, final int dimIndex) {
+        AssertUtils.notNull("dataSet", dataSet);
+        final List<EventListener> listeners = dataSet.updateEventListener();
+        synchronized (SHARED_LOCK) {
+            synchronized (listeners) {
+                // N.B. looked up via the listener list rather than a map: DataSet hash codes depend on their content
+                for (final EventListener listener : listeners) {
+                    if (listener instanceof MinMaxPyramid) {
+                        final MinMaxPyramid pyramid = (MinMaxPyramid) listener;
+                        if (pyramid.shared && pyramid.dataSet == dataSet && pyramid.dimIndex == dimIndex) {
+                            pyramid.references++;
+                            return pyramid;
+                        }
+                    }
+                }
+                return new MinMaxPyramid(dataSet, dimIndex, DEFAULT_BUCKET_SIZE, DEFAULT_FAN_OUT, true);
+            }
+        }
+    }
+
+    /**
+     * @param level pyramid level
+     * @return number of buckets on the given level
+     */
+    public synchronized int getBucketCount(final int level) {
+        return levels.get(level).nBuckets;
+    }
+
+    /**
+     * @param level pyramid level
+     * @return number of samples per bucket on the given level
+     */
+    public int getBucketSize(final int level) {
+        int size = bucketSize;
+        for (int i = 0; i < level; i++) {
+            size *= fanOut;
+        }
+        return size;
+    }
+
+    /**
+     * @return the indexed data set
+     */
+    public DataSet getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * Returns the sorted indices of the data points needed to draw the index range [fromIndex, toIndex) with at least
+     * {@code minBuckets} buckets, ie. the first, minimum, maximum and last data point of each bucket on the coarsest
+     * level that still provides at least {@code minBuckets} buckets for the range. The partial buckets at both ends of
+     * the range are resolved on successively finer levels and, below level '0', by the raw data points.
+     *
+     * @param fromIndex first index (inclusive)
+     * @param toIndex last index (exclusive)
+     * @param minBuckets minimum number of buckets (e.g. number of pixel columns)
+     * @return sorted data point indices or {@code null} if the range is too short to benefit from the pyramid (ie.
+     *         fewer than {@code minBuckets} level '0' buckets)
+     */
+    public synchronized int[] getIndices(final int fromIndex, final int toIndex, final int minBuckets) {
+        update();
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(toIndex, dataCount);
+        final int level = getLevel(from, to, minBuckets);
+        if (level < 0) {
+            return null; // NOPMD -- null denotes 'use the raw data'
+        }
+        final int maxLength = 4 * ((to - from) / getBucketSize(level) + 2 * (fanOut - 1) * level + 2) + 2 * bucketSize;
+        final IndexCollector collector = new IndexCollector(maxLength);
+        collect(level, from, to, collector);
+        return Arrays.copyOf(collector.indices, collector.length);
+    }
+
+    /**
+     * Returns the min/max range of the index range [fromIndex, toIndex), composed of the largest buckets fully
+     * contained in the range and the raw data points of the partial level '0' buckets at both ends.
+     *
+     * @param fromIndex first index (inclusive)
+     * @param toIndex last index (exclusive)
+     * @return min/max range of the finite values within the index range (undefined if there are none)
+     */
+    public synchronized DataRange getRange(final int fromIndex, final int toIndex) {
+        update();
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(toIndex, dataCount);
+        final RangeCollector collector = new RangeCollector();
+        collect(getLevel(from, to, 1), from, to, collector);
+        return collector.range;
+    }
+
+    /**
+     * @param fromIndex first index (inclusive)
+     * @param toIndex last index (exclusive)
+     * @param minBuckets minimum number of buckets (e.g. number of pixel columns)
+     * @return the coarsest level that provides at least {@code minBuckets} buckets for the given index range, or '-1'
+     *         if even level '0' is too coarse
+     */
+    public synchronized int getLevel(final int fromIndex, final int toIndex, final int minBuckets) {
+        final int length = toIndex - fromIndex;
+        int level = -1;
+        long size = bucketSize;
+        while (level + 1 < levels.size() && length / size >= Math.max(1, minBuckets)) {
+            level++;
+            size *= fanOut;
+        }
+        return level;
+    }
+
+    /**
+     * @return number of levels of the pyramid (level '0' being the finest)
+     */
+    public synchronized int getLevelCount() {
+        return levels.size();
+    }
+
+    /**
+     * @param level pyramid level
+     * @param bucket bucket index on the given level
+     * @return index of the maximum data point within the bucket or '-1' if the bucket contains only NaN values
+     */
+    public synchronized int getMaximumIndex(final int level, final int bucket) {
+        return levels.get(level).maxIndex[bucket];
+    }
+
+    /**
+     * @param level pyramid level
+     * @param bucket bucket index on the given level
+     * @return index of the minimum data point within the bucket or '-1' if the bucket contains only NaN values
+     */
+    public synchronized int getMinimumIndex(final int level, final int bucket) {
+        return levels.get(level).minIndex[bucket];
+    }
+
+    @Override
+    public synchronized void handle(final UpdateEvent event) {
+        if (event instanceof AxisChangeEvent) {
+            // data set limits only -- data points are unchanged
+            return;
+        }
+        if (event instanceof RemovedDataEvent || !(event instanceof UpdatedDataEvent)
+                || !((UpdatedDataEvent) event).hasIndexRange()) {
+            // removals shift the indices of all following data points
+            pendingInvalidate = true;
+            return;
+        }
+        final UpdatedDataEvent dataEvent = (UpdatedDataEvent) event;
+        pendingDirtyMin = Math.min(pendingDirtyMin, dataEvent.getFromIndex());
+        // insertions shift the indices of all following data points, appended points are detected via the data count
+        pendingDirtyMax = event instanceof AddedDataEvent ? Integer.MAX_VALUE
+                                                          : Math.max(pendingDirtyMax, dataEvent.getToIndex());
+    }
+
+    /**
+     * detaches the pyramid from the data set, or -- for pyramids obtained via {@link #acquire(DataSet, int)} -- once
+     * all users released it
+     */
+    public void release() {
+        synchronized (SHARED_LOCK) {
+            if (references <= 0 || --references > 0) {
+                return;
+            }
+            dataSet.removeListener(this);
+        }
+    }
+
+    /**
+     * updates the buckets affected by the data set modifications since the last update.
+     * <p>
+     * N.B. needs to be called while holding the data set's read-lock (implicitly invoked by {@link #getIndices})
+     */
+    public synchronized void update() {
+        final int nData = dataSet.getDataCount(dimIndex);
+        final boolean invalidate = pendingInvalidate || nData < dataCount;
+        int dirtyMin = invalidate ? 0 : Math.max(0, pendingDirtyMin);
+        int dirtyMax = invalidate ? nData : pendingDirtyMax;
+        pendingInvalidate = false;
+        pendingDirtyMin = Integer.MAX_VALUE;
+        pendingDirtyMax = Integer.MIN_VALUE;
+
+        if (nData > dataCount) {
+            // appended data points
+            dirtyMin = Math.min(dirtyMin, dataCount);
+            dirtyMax = nData;
+        }
+        dirtyMax = Math.min(dirtyMax, nData);
+        dataCount = nData;
+        if (nData == 0) {
+            levels.clear();
+            return;
+        }
+        if (dirtyMin >= dirtyMax) {
+            return;
+        }
+
+        // finest level: scan raw data
+        int nBuckets = ceilDiv(nData, bucketSize);
+        int bucketMin = dirtyMin / bucketSize;
+        int bucketMax = ceilDiv(dirtyMax, bucketSize);
+        updateLevelZero(getOrCreateLevel(0, nBuckets), bucketMin, bucketMax);
+
+        // coarser levels: merge the affected buckets of the level below
+        int level = 0;
+        while (nBuckets > 1) {
+            final Level children = levels.get(level);
+            level++;
+            nBuckets = ceilDiv(nBuckets, fanOut);
+            bucketMin /= fanOut;
+            bucketMax = ceilDiv(bucketMax, fanOut);
+            mergeBuckets(children, getOrCreateLevel(level, nBuckets), bucketMin, bucketMax);
+        }
+        while (levels.size() > level + 1) {
+            levels.remove(levels.size() - 1);
+        }
+    }
+
+    private void collect(final int level, final int fromIndex, final int toIndex, final Collector collector) {
+        if (fromIndex >= toIndex) {
+            return;
+        }
+        if (level < 0) {
+            // finer than the finest level -> raw data points
+            for (int index = fromIndex; index < toIndex; index++) {
+                collector.addIndex(index);
+            }
+            return;
+        }
+        final Level current = levels.get(level);
+        final int firstBucket = ceilDiv(fromIndex, current.bucketSize);
+        final int lastBucket = toIndex / current.bucketSize; // exclusive
+        if (firstBucket >= lastBucket) {
+            collect(level - 1, fromIndex, toIndex, collector);
+            return;
+        }
+        collect(level - 1, fromIndex, firstBucket * current.bucketSize, collector);
+        for (int bucket = firstBucket; bucket < lastBucket; bucket++) {
+            collector.addBucket(current, bucket);
+        }
+        collect(level - 1, lastBucket * current.bucketSize, toIndex, collector);
+    }
+
+    private Level getOrCreateLevel(final int level, final int nBuckets) {
+        if (level == levels.size()) {
+            levels.add(new Level(getBucketSize(level)));
+        }
+        final Level ret = levels.get(level);
+        ret.setBucketCount(nBuckets);
+        return ret;
+    }
+
+    private void mergeBuckets(final Level children, final Level parents, final int bucketMin, final int bucketMax) {
+        for (int bucket = bucketMin; bucket < bucketMax; bucket++) {
+            int minIndex = -1;
+            int maxIndex = -1;
+            double min = Double.NaN;
+            double max = Double.NaN;
+            final int childEnd = Math.min((bucket + 1) * fanOut, children.nBuckets);
+            for (int child = bucket * fanOut; child < childEnd; child++) {
+                final int childMinIndex = children.minIndex[child];
+                if (childMinIndex < 0) {
+                    continue;
+                }
+                final int childMaxIndex = children.maxIndex[child];
+                final double childMin = dataSet.get(dimIndex, childMinIndex);
+                final double childMax = dataSet.get(dimIndex, childMaxIndex);
+                if (minIndex < 0 || childMin < min) {
+                    min = childMin;
+                    minIndex = childMinIndex;
+                }
+                if (maxIndex < 0 || childMax > max) {
+                    max = childMax;
+                    maxIndex = childMaxIndex;
+                }
+            }
+            parents.minIndex[bucket] = minIndex;
+            parents.maxIndex[bucket] = maxIndex;
+        }
+    }
+
+    private void updateLevelZero(final Level level, final int bucketMin, final int bucketMax) {
+        final int chunkSize = BUCKETS_PER_READ * bucketSize;
+        if (buffer == null) {
+            buffer = new double[chunkSize];
+        }
+        for (int chunkBucket = bucketMin; chunkBucket < bucketMax; chunkBucket += BUCKETS_PER_READ) {
+            final int chunkStart = chunkBucket * bucketSize;
+            final int chunkEnd = Math.min(chunkStart + chunkSize, dataCount);
+            final double[] values = dataSet.getValues(dimIndex, chunkStart, chunkEnd, buffer);
+            final int lastBucket = Math.min(chunkBucket + BUCKETS_PER_READ, bucketMax);
+            for (int bucket = chunkBucket; bucket < lastBucket; bucket++) {
+                final int start = bucket * bucketSize;
+                final int end = Math.min(start + bucketSize, dataCount);
+                int minIndex = -1;
+                int maxIndex = -1;
+                double min = Double.NaN;
+                double max = Double.NaN;
+                for (int index = start; index < end; index++) {
+                    final double value = values[index - chunkStart];
+                    if (Double.isNaN(value)) {
+                        continue;
+                    }
+                    if (minIndex < 0 || value < min) {
+                        min = value;
+                        minIndex = index;
+                    }
+                    if (maxIndex < 0 || value > max) {
+                        max = value;
+                        maxIndex = index;
+                    }
+                }
+                level.minIndex[bucket] = minIndex;
+                level.maxIndex[bucket] = maxIndex;
+            }
+        }
+    }
+
+    private static int ceilDiv(final int value, final int divisor) {
+        return (int) ((value + (long) divisor - 1) / divisor);
+    }
+
+    private interface Collector {
+        void addBucket(Level level, int bucket);
+
+        void addIndex(int index);
+    }
+
+    private class IndexCollector implements Collector {
+        protected final int[] indices;
+        protected int length;
+
+        protected IndexCollector(final int capacity) {
+            indices = new int[capacity];
+        }
+
+        @Override
+        public void addBucket(final Level level, final int bucket) {
+            final int first = bucket * level.bucketSize;
+            final int minIndex = level.minIndex[bucket];
+            final int maxIndex = level.maxIndex[bucket];
+            addIndex(first);
+            if (minIndex >= 0) {
+                addIndex(Math.min(minIndex, maxIndex));
+                addIndex(Math.max(minIndex, maxIndex));
+            }
+            addIndex(Math.min(first + level.bucketSize, dataCount) - 1);
+        }
+
+        @Override
+        public void addIndex(final int index) {
+            // indices are collected in ascending order -> duplicates are adjacent
+            if (length == 0 || indices[length - 1] != index) {
+                indices[length++] = index;
+            }
+        }
+    }
+
+    private class RangeCollector implements Collector {
+        protected final DataRange range = new DataRange();
+
+        @Override
+        public void addBucket(final Level level, final int bucket) {
+            final int minIndex = level.minIndex[bucket];
+            if (minIndex >= 0) {
+                range.add(dataSet.get(dimIndex, minIndex));
+                range.add(dataSet.get(dimIndex, level.maxIndex[bucket]));
+            }
+        }
+
+        @Override
+        public void addIndex(final int index) {
+            range.add(dataSet.get(dimIndex, index));
+        }
+    }
+
+    private static class Level {
+        protected final int bucketSize;
+        protected int nBuckets;
+        protected int[] minIndex = new int[0];
+        protected int[] maxIndex = new int[0];
+
+        protected Level(final int bucketSize) {
+            this.bucketSize = bucketSize;
+        }
+
+        protected void setBucketCount(final int nBuckets) {
+            if (nBuckets > minIndex.length) {
+                final int capacity = Math.max(nBuckets, minIndex.length + (minIndex.length >> 1));
+                minIndex = Arrays.copyOf(minIndex, capacity);
+                maxIndex = Arrays.copyOf(maxIndex, capacity);
+            }
+            this.nBuckets = nBuckets;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package de.gsi.dataset.event;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -66,6 +68,27 @@ public class EventAndHelperClassTests {
         assertEquals(payload, instance3.getPayLoad(), "payload equality");
     }
 
+    @DisplayName("UpdatedDataEvent index range constructors")
+    @ParameterizedTest(name = "event class - {0}")
+    @ValueSource(classes = { AddedDataEvent.class, RemovedDataEvent.class, UpdatedDataEvent.class })
+    public void testIndexRangeConstructors(final Class<? extends UpdatedDataEvent> eventClass) //
+            throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+        final UpdatedDataEvent noRange = eventClass.getConstructor(EventSource.class, String.class).newInstance(testEventSource, "test1");
+        assertFalse(noRange.hasIndexRange(), "default: no index range");
+        assertEquals(-1, noRange.getFromIndex(), "default fromIndex");
+        assertEquals(-1, noRange.getToIndex(), "default toIndex");
+
+        Constructor<? extends UpdatedDataEvent> constructor = eventClass.getConstructor(EventSource.class, String.class, int.class, int.class);
+        assertNotNull(constructor);
+        final UpdatedDataEvent instance = constructor.newInstance(testEventSource, "test2", 3, 7);
+        assertEquals(testEventSource, instance.getSource(), "event source equality");
+        assertEquals("test2", instance.getMessage(), "event message equality");
+        assertNull(instance.getPayLoad(), "payload equality");
+        assertTrue(instance.hasIndexRange(), "index range");
+        assertEquals(3, instance.getFromIndex(), "fromIndex");
+        assertEquals(7, instance.getToIndex(), "toIndex");
+    }
+
     @DisplayName("UpdateAxisEvent class constructors")
     @ParameterizedTest(name = "event class - {0}")
     @ValueSource(classes = { AxisChangeEvent.class, AxisNameChangeEvent.class, AxisRangeChangeEvent.class })
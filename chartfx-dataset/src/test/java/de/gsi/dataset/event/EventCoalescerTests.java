@@ -0,0 +1,105 @@
+package de.gsi.dataset.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link EventCoalescer}
+ *
+ * @author rstein
+ */
+public class EventCoalescerTests {
+    @Test
+    public void testFrameDrivenMerging() {
+        final List<UpdateEvent> received = new CopyOnWriteArrayList<>();
+        final EventCoalescer coalescer = new EventCoalescer(received::add, 0, TimeUnit.MILLISECONDS);
+        final TestEventSource source1 = new TestEventSource();
+        final TestEventSource source2 = new TestEventSource();
+        source1.addListener(coalescer);
+        source2.addListener(coalescer);
+
+        assertEquals(0, coalescer.flush());
+        for (int i = 0; i < 1000; i++) {
+            source1.invokeListener(new AddedDataEvent(source1, "add", i, i + 1), false);
+            source2.invokeListener(new AxisChangeEvent(source2, "axis", i % 2), false);
+        }
+        source1.invokeListener(new RemovedDataEvent(source1, "remove", 5, 10), false);
+        source1.invokeListener(new InvalidatedEvent(source1, "first"), false);
+        source1.invokeListener(new InvalidatedEvent(source1, "second"), false);
+        source2.invokeListener(new UpdatedDataEvent(source2, "ranged", 3, 4), false);
+        source2.invokeListener(new UpdatedDataEvent(source2, "full"), false);
+        source2.invokeListener(new UpdatedDataEvent(source2, "ranged", 5, 6), false);
+        source2.invokeListener(null, false);
+        assertEquals(2007, coalescer.getReceivedCount());
+        assertEquals(6, coalescer.getPendingCount());
+        assertTrue(received.isEmpty(), "nothing delivered before flush");
+
+        assertEquals(6, coalescer.flush());
+        assertEquals(6, coalescer.getDeliveredCount());
+        assertEquals(0, coalescer.getPendingCount());
+        assertEquals(6, received.size());
+
+        // order of first occurrence
+        final AddedDataEvent added = (AddedDataEvent) received.get(0);
+        assertSame(source1, added.getSource());
+        assertEquals(0, added.getFromIndex());
+        assertEquals(1000, added.getToIndex());
+        final AxisChangeEvent axis = (AxisChangeEvent) received.get(1);
+        assertEquals(-1, axis.getDimension(), "different dimensions merged");
+        final RemovedDataEvent removed = (RemovedDataEvent) received.get(2);
+        assertEquals(5, removed.getFromIndex());
+        assertEquals(10, removed.getToIndex());
+        assertEquals("second", received.get(3).getMessage(), "latest event supersedes");
+        final UpdatedDataEvent updated = (UpdatedDataEvent) received.get(4);
+        assertFalse(updated.hasIndexRange(), "full update dominates index ranges");
+        assertNull(received.get(5));
+
+        assertEquals(0, coalescer.flush());
+    }
+
+    @Test
+    public void testPeriodicDelivery() throws InterruptedException {
+        final AtomicInteger nNotifications = new AtomicInteger();
+        final AtomicInteger nExecutions = new AtomicInteger();
+        final Executor executor = command -> {
+            nExecutions.incrementAndGet();
+            command.run();
+        };
+        final long period = 50;
+        final EventCoalescer coalescer = new EventCoalescer(evt -> nNotifications.incrementAndGet(), period, TimeUnit.MILLISECONDS, executor);
+        final TestEventSource source = new TestEventSource();
+        source.addListener(coalescer);
+
+        // 200 Hz producer for about 500 ms
+        final long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            source.invokeListener(new AddedDataEvent(source, "add", i, i + 1), false);
+            Thread.sleep(5);
+        }
+        final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Thread.sleep(3 * period);
+
+        assertEquals(100, coalescer.getReceivedCount());
+        assertEquals(0, coalescer.getPendingCount());
+        assertEquals(nNotifications.get(), coalescer.getDeliveredCount());
+        assertEquals(nExecutions.get(), nNotifications.get(), "one consolidated event per period");
+        assertTrue(nNotifications.get() >= 2, "periodic notification");
+        assertTrue(nNotifications.get() <= duration / period + 2, "rate limited: " + nNotifications.get() + " for " + duration + " ms");
+
+        assertThrows(IllegalArgumentException.class, () -> new EventCoalescer(null, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new EventCoalescer(evt -> {}, -1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new EventCoalescer(evt -> {}, 1, null));
+    }
+}
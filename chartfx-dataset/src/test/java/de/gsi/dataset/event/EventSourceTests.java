@@ -1,7 +1,10 @@
 package de.gsi.dataset.event;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
@@ -123,6 +126,74 @@ public class EventSourceTests {
         evtSource.invokeListener(updateEvent, false);
     }
 
+    @Test
+    public void copyOnWriteListenerTests() {
+        final TestEventSource evtSource = new TestEventSource();
+        final EventListenerList listenerList = new EventListenerList();
+        evtSource.eventListener = listenerList;
+        final AtomicInteger updateCount = new AtomicInteger();
+
+        // empty invoke listener
+        evtSource.invokeListener(null, false);
+        evtSource.invokeListener(null, true);
+        assertEquals(0, listenerList.getListeners().length);
+
+        final EventListener listener1 = evt -> updateCount.incrementAndGet();
+        final EventListener listener2 = new EventListener() {
+            @Override
+            public void handle(final UpdateEvent event) {
+                updateCount.addAndGet(10);
+                evtSource.removeListener(this); // one-shot listener -- modification during dispatch
+            }
+        };
+        evtSource.addListener(listener1);
+        evtSource.addListener(listener2);
+        evtSource.addListener(listener1);
+        assertEquals(2, listenerList.size(), "duplicate listener");
+        final EventListener[] snapshot = listenerList.getListeners();
+        assertArrayEquals(new EventListener[] { listener1, listener2 }, snapshot);
+
+        evtSource.invokeListener(null, false);
+        assertEquals(11, updateCount.get());
+        assertEquals(1, listenerList.size(), "one-shot listener removed");
+        assertArrayEquals(new EventListener[] { listener1, listener2 }, snapshot, "snapshots are immutable");
+        evtSource.invokeListener(null, true);
+        assertEquals(12, updateCount.get());
+
+        evtSource.autoNotification.set(false);
+        evtSource.invokeListener(null, false);
+        assertEquals(12, updateCount.get());
+        evtSource.autoNotification.set(true);
+
+        // list semantics
+        listenerList.add(0, listener2);
+        assertEquals(listener2, listenerList.get(0));
+        assertEquals(listener2, listenerList.set(0, listener1));
+        assertEquals(listener1, listenerList.remove(1));
+        assertFalse(listenerList.remove(listener2));
+        assertThrows(NullPointerException.class, () -> listenerList.add(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> listenerList.add(5, listener1));
+        for (final EventListener listener : listenerList) {
+            listenerList.add(listener2); // iteration over snapshot
+        }
+        assertEquals(2, listenerList.size());
+        listenerList.clear();
+        assertEquals(0, listenerList.getListeners().length);
+
+        // exception aggregation
+        evtSource.addListener(evt -> {
+            throw new IllegalStateException("bad bad exception #1");
+        });
+        evtSource.addListener(evt -> exceptionThrowingFunctionA());
+        evtSource.addListener(listener1);
+        final AggregateException nonParallel = assertThrows(AggregateException.class, () -> evtSource.invokeListener(null, false));
+        assertEquals(2, nonParallel.getThrowableList().size());
+        final AggregateException parallel = assertThrows(AggregateException.class, () -> evtSource.invokeListener(null, true));
+        assertEquals(2, parallel.getThrowableList().size());
+        assertTrue(parallel.getThrowableList().get(0) instanceof IllegalStateException);
+        assertEquals(14, updateCount.get());
+    }
+
     protected void exceptionThrowingFunctionA() {
         throw new IllegalStateException("bad bad exception #2");
     }
@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static de.gsi.dataset.DataSet.DIM_X;
 
@@ -129,6 +132,43 @@ public class IoSerialiserTests {
         assertEquals(inputObject, outputObject);
     }
 
+    @DisplayName("compiled POJO serialiser wire-format and identity")
+    @ParameterizedTest(name = "IoBuffer class - {0} recursion level {1}")
+    @ArgumentsSource(IoBufferHierarchyArgumentProvider.class)
+    public void testCompiledSerialiserIdentity(final Class<? extends IoBuffer> bufferClass, final int hierarchyLevel) throws IllegalAccessException, InstantiationException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+        final IoBuffer reflectiveBuffer = bufferClass.getConstructor(int.class).newInstance(BUFFER_SIZE);
+        final IoBuffer compiledBuffer = bufferClass.getConstructor(int.class).newInstance(BUFFER_SIZE);
+        final IoBufferSerialiser reflectiveSerialiser = new IoBufferSerialiser(reflectiveBuffer);
+        final IoBufferSerialiser compiledSerialiser = new IoBufferSerialiser(compiledBuffer);
+        compiledSerialiser.setUseCompiledSerialisers(true);
+        assertTrue(compiledSerialiser.isUseCompiledSerialisers());
+        final TestDataClass inputObject = new TestDataClass(10, 100, hierarchyLevel);
+
+        reflectiveBuffer.reset();
+        reflectiveSerialiser.serialiseObject(inputObject);
+        compiledBuffer.reset();
+        compiledSerialiser.serialiseObject(inputObject);
+
+        // identical wire-format
+        final long nBytes = reflectiveBuffer.position();
+        assertEquals(nBytes, compiledBuffer.position(), "serialised byte count");
+        reflectiveBuffer.reset();
+        compiledBuffer.reset();
+        for (long i = 0; i < nBytes; i++) {
+            assertEquals(reflectiveBuffer.getByte(), compiledBuffer.getByte(), "byte at " + i);
+        }
+
+        final TestDataClass outputObject = new TestDataClass(-1, -1, 0);
+        compiledBuffer.reset();
+        compiledSerialiser.deserialiseObject(outputObject);
+        assertArrayEquals(inputObject.stringArray, outputObject.stringArray);
+        assertEquals(inputObject, outputObject, "TestDataClass input-output equality");
+
+        // re-use of the cached serialiser
+        assertSame(compiledSerialiser.getCompiledClassSerialiser(TestDataClass.class), compiledSerialiser.getCompiledClassSerialiser(TestDataClass.class));
+        assertThrows(IllegalArgumentException.class, () -> compiledSerialiser.getCompiledClassSerialiser(TestDataClass.class).serialise(new Object()));
+    }
+
     @DisplayName("basic POJO serialisation/deserialisation identity")
     @ParameterizedTest(name = "IoBuffer class - {0} recursion level {1}")
     @ArgumentsSource(IoBufferHierarchyArgumentProvider.class)
@@ -0,0 +1,83 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.DataSet.DIM_Z;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+
+/**
+ * Tests the {@link CircularDoubleDataSet3D}
+ *
+ * @author rstein
+ */
+public class CircularDoubleDataSet3DTests {
+    @Test
+    public void testRingBuffer() {
+        final int nX = 3;
+        final int capacity = 4;
+        final CircularDoubleDataSet3D dataSet = new CircularDoubleDataSet3D("test", nX, capacity);
+        final AtomicInteger nEvents = new AtomicInteger();
+        final AtomicInteger lastFromIndex = new AtomicInteger();
+        dataSet.addListener(evt -> {
+            nEvents.incrementAndGet();
+            if (evt instanceof AddedDataEvent) {
+                lastFromIndex.set(((UpdatedDataEvent) evt).getFromIndex());
+            }
+        });
+        assertEquals(capacity, dataSet.getCapacity());
+        assertEquals(nX, dataSet.getDataCount(DIM_X));
+        assertEquals(0, dataSet.getDataCount(DIM_Y));
+        assertEquals(0, dataSet.getDataCount(DIM_Z));
+        assertEquals(2.0, dataSet.get(DIM_X, 2));
+
+        dataSet.add(0.0, new double[] { 0, 1, 2 });
+        assertEquals(1, dataSet.getDataCount(DIM_Y));
+        assertEquals(1, nEvents.get());
+
+        // bulk add of 2 rows (y = 1, 2)
+        dataSet.add(new double[] { 1.0, 2.0 }, new double[] { 10, 11, 12, 20, 21, 22 }, 2);
+        assertEquals(3, dataSet.getDataCount(DIM_Y));
+        assertEquals(9, dataSet.getDataCount());
+        assertEquals(2, nEvents.get());
+        assertEquals(nX, lastFromIndex.get());
+
+        // wrap around: rows 3..6 -> oldest rows 0..2 are overwritten
+        dataSet.add(new double[] { 3, 4, 5, 6 }, new double[] { 30, 31, 32, 40, 41, 42, 50, 51, 52, 60, 61, 62 }, 4);
+        assertEquals(capacity, dataSet.getDataCount(DIM_Y));
+        assertEquals(0, lastFromIndex.get());
+        for (int y = 0; y < capacity; y++) {
+            assertEquals(3.0 + y, dataSet.get(DIM_Y, y), "row " + y);
+            for (int x = 0; x < nX; x++) {
+                final double expected = 10 * (3 + y) + x;
+                assertEquals(expected, dataSet.getZ(x, y));
+                assertEquals(expected, dataSet.get(DIM_Z, y * nX + x));
+            }
+        }
+        assertEquals(30.0, dataSet.getAxisDescription(DIM_Z).getMin());
+        assertEquals(62.0, dataSet.getAxisDescription(DIM_Z).getMax());
+
+        dataSet.setX(new double[] { -1, 0, 1 });
+        assertEquals(-1.0, dataSet.get(DIM_X, 0));
+
+        dataSet.clearData();
+        assertEquals(0, dataSet.getDataCount(DIM_Y));
+        dataSet.add(7.0, new double[] { 70, 71, 72 });
+        assertEquals(7.0, dataSet.get(DIM_Y, 0));
+        assertEquals(72.0, dataSet.getZ(2, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> new CircularDoubleDataSet3D("test", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircularDoubleDataSet3D("test", 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> dataSet.add(1.0, new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> dataSet.setX(new double[2]));
+        assertThrows(IndexOutOfBoundsException.class, () -> dataSet.get(3, 0));
+    }
+}
@@ -3,12 +3,18 @@ package de.gsi.dataset.spi;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static de.gsi.dataset.DataSet.DIM_X;
 import static de.gsi.dataset.DataSet.DIM_Y;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.Test;
 
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+
 /**
  * Checks for CircularDoubleDataSet interfaces and constructors.
  * TODO: add tests for Listeners
@@ -76,4 +82,33 @@ public class CircularDoubleErrorDataSetTests {
         assertThrows(UnsupportedOperationException.class, () -> dataSet.addDataLabel(0, "addedLabel"));
         assertThrows(UnsupportedOperationException.class, () -> dataSet.addDataStyle(0, "color:green"));
     }
+
+    @Test
+    public void addedDataEventIndexRangeTests() {
+        final CircularDoubleErrorDataSet dataSet = new CircularDoubleErrorDataSet("test", 5);
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        dataSet.addListener(lastEvent::set);
+
+        dataSet.add(1.0, 2.0, 0.1, 0.1);
+        checkAddedRange(lastEvent.get(), 0, 1);
+
+        dataSet.add(new double[] { 2.0, 3.0, 4.0 }, new double[3], new double[3], new double[3]);
+        checkAddedRange(lastEvent.get(), 1, 4);
+
+        // buffer full: oldest samples are dropped and the new ones are always at the end
+        dataSet.add(new double[] { 5.0, 6.0, 7.0 }, new double[3], new double[3], new double[3]);
+        checkAddedRange(lastEvent.get(), 2, 5);
+        dataSet.add(8.0, 2.0, 0.1, 0.1);
+        checkAddedRange(lastEvent.get(), 4, 5);
+
+        // more samples than capacity
+        dataSet.add(new double[7], new double[7], new double[7], new double[7]);
+        checkAddedRange(lastEvent.get(), 0, 5);
+    }
+
+    private static void checkAddedRange(final UpdateEvent event, final int fromIndex, final int toIndex) {
+        assertTrue(event instanceof AddedDataEvent, "event type");
+        assertEquals(fromIndex, ((AddedDataEvent) event).getFromIndex(), "fromIndex");
+        assertEquals(toIndex, ((AddedDataEvent) event).getToIndex(), "toIndex");
+    }
 }
@@ -0,0 +1,318 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.utils.DataColumn;
+import de.gsi.dataset.spi.utils.DataColumn.ScaledShortColumn;
+
+/**
+ * Checks for {@link ColumnarErrorDataSet} and the {@link DataColumn} storage types.
+ *
+ * @author rstein
+ */
+public class ColumnarErrorDataSetTests {
+    private static final double[] X_VALUES = { 0.0, 1.0, 2.0, 3.0, 4.0 };
+    private static final double[] Y_VALUES = { 1.0, -2.5, 3.25, 0.5, 10.0 };
+    private static final double[] EYN_VALUES = { 0.1, 0.2, 0.3, 0.4, 0.5 };
+    private static final double[] EYP_VALUES = { 0.5, 0.4, 0.3, 0.2, 0.1 };
+
+    @Test
+    public void columnTests() {
+        final DataColumn constant = DataColumn.constant(2.0);
+        assertTrue(constant.isImplicit());
+        assertEquals(0, constant.getBytesPerSample());
+        constant.set(3, 5.0);
+        assertEquals(2.0, constant.get(3));
+
+        final DataColumn linear = DataColumn.linear(1.0, 0.5);
+        assertTrue(linear.isImplicit());
+        assertEquals(2.0, linear.get(2));
+        final double[] linearValues = new double[3];
+        linear.getValues(1, 4, linearValues, 0);
+        assertArrayEquals(new double[] { 1.5, 2.0, 2.5 }, linearValues);
+
+        final DataColumn floatColumn = DataColumn.ofFloat(2);
+        assertEquals(4, floatColumn.getBytesPerSample());
+        floatColumn.ensureCapacity(4);
+        assertTrue(floatColumn.getCapacity() >= 4);
+        floatColumn.set(3, 0.1);
+        assertEquals((float) 0.1, floatColumn.get(3));
+
+        final ScaledShortColumn shortColumn = (ScaledShortColumn) DataColumn.ofScaledShort(4, 10.0, 0.01);
+        assertEquals(2, shortColumn.getBytesPerSample());
+        assertEquals(10.0, shortColumn.getOffset());
+        assertEquals(0.01, shortColumn.getGain());
+        shortColumn.set(0, 10.123);
+        assertEquals(12, shortColumn.getRaw(0));
+        assertEquals(10.12, shortColumn.get(0), 1e-12);
+        shortColumn.set(1, Double.NaN);
+        assertEquals(ScaledShortColumn.RAW_NAN, shortColumn.getRaw(1));
+        assertTrue(Double.isNaN(shortColumn.get(1)));
+        shortColumn.set(2, 1e9); // clamped to the representable range
+        assertEquals(Short.MAX_VALUE, shortColumn.getRaw(2));
+        shortColumn.setRaw(2, new short[] { 100, 200 }, 0, 2);
+        final double[] shortValues = new double[2];
+        shortColumn.getValues(2, 4, shortValues, 0);
+        assertArrayEquals(new double[] { 11.0, 12.0 }, shortValues, 1e-12);
+        shortColumn.remove(0, 2, 4);
+        assertEquals(100, shortColumn.getRaw(0));
+        assertEquals(200, shortColumn.getRaw(1));
+
+        // raw values are stored by their numeric value in floating point columns
+        final DataColumn doubleColumn = DataColumn.ofDouble(4);
+        doubleColumn.setRaw(0, new short[] { -3, 7 }, 0, 2);
+        assertEquals(-3.0, doubleColumn.get(0));
+        floatColumn.setRaw(0, new short[] { 42 }, 0, 1);
+        assertEquals(42.0, floatColumn.get(0));
+
+        // front removal retains the values of linear columns
+        linear.remove(0, 2, 10);
+        assertEquals(2.0, linear.get(0));
+    }
+
+    @Test
+    public void historyTests() {
+        final int maxDataCount = 10;
+        final ColumnarErrorDataSet dataSet = new ColumnarErrorDataSet("history", DataColumn.ofDouble(2),
+                DataColumn.ofFloat(2), DataColumn.constant(0.1), DataColumn.constant(0.2)) //
+                                                     .setMaxDataCount(maxDataCount);
+        assertEquals(maxDataCount, dataSet.getMaxDataCount());
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        dataSet.addListener(evt -> {
+            if (evt instanceof UpdatedDataEvent) {
+                lastEvent.set(evt);
+            }
+        });
+
+        for (int i = 0; i < 5 * maxDataCount; i++) {
+            dataSet.add(i, 2.0 * i, 0.0, 0.0);
+            assertEquals(Math.min(i + 1, maxDataCount), dataSet.getDataCount());
+            final int first = Math.max(0, i + 1 - maxDataCount);
+            for (int index = 0; index < dataSet.getDataCount(); index++) {
+                assertEquals(first + index, dataSet.get(DIM_X, index));
+                assertEquals(2.0 * (first + index), dataSet.get(DIM_Y, index));
+            }
+            assertEquals(first, dataSet.getAxisDescription(DIM_X).getMin());
+            assertEquals(i, dataSet.getAxisDescription(DIM_X).getMax());
+        }
+        final AddedDataEvent added = (AddedDataEvent) lastEvent.get();
+        assertEquals(maxDataCount - 1, added.getFromIndex());
+        assertEquals(maxDataCount, added.getToIndex());
+
+        // bulk add exceeding the history length keeps only the latest data points
+        final double[] xNew = new double[2 * maxDataCount];
+        final double[] yNew = new double[2 * maxDataCount];
+        for (int i = 0; i < xNew.length; i++) {
+            xNew[i] = 100 + i;
+            yNew[i] = -i;
+        }
+        dataSet.add(xNew, yNew, null, null);
+        assertEquals(maxDataCount, dataSet.getDataCount());
+        assertArrayEquals(Arrays.copyOfRange(xNew, maxDataCount, xNew.length), dataSet.getValues(DIM_X, 0, maxDataCount, null));
+        assertArrayEquals(new double[] { 0.1, 0.1 }, dataSet.getErrorsNegative(DIM_Y, 0, 2, null));
+
+        // implicit linear x: dropped history points retain the time-stamps of the remaining ones
+        final ColumnarErrorDataSet digitiser = new ColumnarErrorDataSet("digitiser", DataColumn.linear(0.0, 1e-3),
+                DataColumn.ofScaledShort(4, 0.0, 1e-3), DataColumn.constant(0.0), DataColumn.constant(0.0));
+        digitiser.setMaxDataCount(maxDataCount);
+        for (int i = 0; i < 5; i++) {
+            digitiser.addRaw(new short[] { 1, 2, 3, 4, 5, 6, 7 });
+        }
+        assertEquals(maxDataCount, digitiser.getDataCount());
+        assertEquals(25e-3, digitiser.get(DIM_X, 0), 1e-12);
+        assertEquals(34e-3, digitiser.get(DIM_X, maxDataCount - 1), 1e-12);
+        assertEquals(5e-3, digitiser.get(DIM_Y, 0), 1e-12);
+
+        // shrinking the history drops the oldest points
+        digitiser.setMaxDataCount(3);
+        assertEquals(3, digitiser.getDataCount());
+        assertEquals(32e-3, digitiser.get(DIM_X, 0), 1e-12);
+        assertEquals(5e-3, digitiser.get(DIM_Y, 0), 1e-12);
+    }
+
+    @Test
+    public void removeAndSetTests() {
+        final ColumnarErrorDataSet dataSet = new ColumnarErrorDataSet("test", DataColumn.ofDouble(2),
+                DataColumn.ofScaledShort(2, 0.0, 0.25), DataColumn.ofFloat(2), DataColumn.constant(0.5));
+        dataSet.add(X_VALUES, Y_VALUES, EYN_VALUES, null);
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        dataSet.addListener(evt -> {
+            if (evt instanceof UpdatedDataEvent) {
+                lastEvent.set(evt);
+            }
+        });
+
+        dataSet.set(2, 20.0, 5.0, 1.0, 123.0);
+        assertEquals(20.0, dataSet.get(DIM_X, 2));
+        assertEquals(5.0, dataSet.get(DIM_Y, 2));
+        assertEquals(1.0, dataSet.getErrorNegative(DIM_Y, 2));
+        assertEquals(0.5, dataSet.getErrorPositive(DIM_Y, 2));
+        assertEquals(20.0, dataSet.getAxisDescription(DIM_X).getMax());
+        assertEquals(2, ((UpdatedDataEvent) lastEvent.get()).getFromIndex());
+
+        // removal within the data set
+        dataSet.remove(1, 3);
+        assertTrue(lastEvent.get() instanceof RemovedDataEvent);
+        assertEquals(3, dataSet.getDataCount());
+        assertArrayEquals(new double[] { 0.0, 3.0, 4.0 }, dataSet.getValues(DIM_X, 0, 3, null));
+        assertArrayEquals(new double[] { 1.0, 0.5, 10.0 }, dataSet.getValues(DIM_Y, 0, 3, null));
+        assertEquals(4.0, dataSet.getAxisDescription(DIM_X).getMax());
+
+        // removal at the front followed by an append
+        dataSet.remove(0, 1);
+        dataSet.add(5.0, 6.0, 0.25, 0.0);
+        assertArrayEquals(new double[] { 3.0, 4.0, 5.0 }, dataSet.getValues(DIM_X, 0, 3, null));
+        assertArrayEquals(new double[] { 0.5, 10.0, 6.0 }, dataSet.getValues(DIM_Y, 0, 3, null));
+        assertArrayEquals(new double[] { 0.4, 0.5, 0.25 }, dataSet.getErrorsNegative(DIM_Y, 0, 3, null), 1e-6);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> dataSet.set(3, 0.0, 0.0, 0.0, 0.0));
+    }
+
+    @Test
+    public void rawInputTests() {
+        // explicit x and error columns require their values
+        final ColumnarErrorDataSet dataSet = new ColumnarErrorDataSet("test", DataColumn.ofDouble(2),
+                DataColumn.ofScaledShort(2, 1.0, 0.5), DataColumn.ofFloat(2), DataColumn.constant(0.5));
+        assertThrows(IllegalArgumentException.class, () -> dataSet.addRaw(new short[] { 1, 2 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> dataSet.addRaw(new double[] { 1.0, 2.0 }, new short[] { 1, 2 }, null, null));
+        assertEquals(0, dataSet.getDataCount());
+
+        dataSet.addRaw(new double[] { 1.0, 2.0 }, new short[] { 4, -2 }, new double[] { 0.25, 0.5 }, null);
+        assertEquals(2, dataSet.getDataCount());
+        assertArrayEquals(new double[] { 1.0, 2.0 }, dataSet.getValues(DIM_X, 0, 2, null));
+        assertArrayEquals(new double[] { 3.0, 0.0 }, dataSet.getValues(DIM_Y, 0, 2, null), 1e-12);
+        assertArrayEquals(new double[] { 0.25, 0.5 }, dataSet.getErrorsNegative(DIM_Y, 0, 2, null), 1e-6);
+
+        // raw samples into a floating point y column
+        final ColumnarErrorDataSet floatDataSet = new ColumnarErrorDataSet("float", DataColumn.linear(0.0, 1.0),
+                DataColumn.ofFloat(2), DataColumn.constant(0.0), DataColumn.constant(0.0));
+        floatDataSet.addRaw(new short[] { 7, -8 });
+        assertArrayEquals(new double[] { 7.0, -8.0 }, floatDataSet.getValues(DIM_Y, 0, 2, null));
+    }
+
+    @Test
+    public void defaultTests() {
+        final ColumnarErrorDataSet dataSet = new ColumnarErrorDataSet("test", DataColumn.ofDouble(2),
+                DataColumn.ofFloat(2), DataColumn.ofFloat(2), DataColumn.ofFloat(2));
+        assertEquals("test", dataSet.getName());
+        assertEquals(2, dataSet.getDimension());
+        assertEquals(0, dataSet.getDataCount());
+        assertEquals(8 + 3 * 4, dataSet.getBytesPerSample());
+
+        dataSet.add(1.0, 2.0, 0.5, 0.25);
+        dataSet.add(X_VALUES, Y_VALUES, EYN_VALUES, EYP_VALUES);
+        assertEquals(6, dataSet.getDataCount());
+        assertEquals(1.0, dataSet.get(DIM_X, 0));
+        assertEquals(2.0, dataSet.get(DIM_Y, 0));
+        assertEquals(0.5, dataSet.getErrorNegative(DIM_Y, 0));
+        assertEquals(0.25, dataSet.getErrorPositive(DIM_Y, 0));
+        assertEquals(0.0, dataSet.getErrorNegative(DIM_X, 0));
+        assertEquals(0.0, dataSet.getErrorPositive(DIM_X, 0));
+        assertArrayEquals(X_VALUES, dataSet.getValues(DIM_X, 1, 6, null));
+        assertArrayEquals(Y_VALUES, dataSet.getValues(DIM_Y, 1, 6, null), 1e-6);
+        assertArrayEquals(EYN_VALUES, dataSet.getErrorsNegative(DIM_Y, 1, 6, null), 1e-6);
+        assertArrayEquals(EYP_VALUES, dataSet.getErrorsPositive(DIM_Y, 1, 6, null), 1e-6);
+        assertEquals(-2.5 - 0.2, dataSet.getAxisDescription(DIM_Y).getMin(), 1e-6);
+        assertEquals(10.1, dataSet.getAxisDescription(DIM_Y).getMax(), 1e-6);
+
+        dataSet.add(new float[] { 5.0f }, new float[] { 1.0f }, new float[1], new float[1]);
+        assertEquals(7, dataSet.getDataCount());
+        assertEquals(5.0, dataSet.get(DIM_X, 6));
+
+        // input checks
+        assertThrows(IllegalArgumentException.class, () -> dataSet.add(null, Y_VALUES, EYN_VALUES, EYP_VALUES));
+        assertThrows(IllegalArgumentException.class,
+                () -> dataSet.add(X_VALUES, new double[2], EYN_VALUES, EYP_VALUES));
+
+        dataSet.clearData();
+        assertEquals(0, dataSet.getDataCount());
+    }
+
+    @Test
+    public void implicitColumnTests() {
+        // typical digitiser acquisition: implicit time axis, scaled int16 samples and a constant error
+        final ColumnarErrorDataSet dataSet = new ColumnarErrorDataSet("digitiser", DataColumn.linear(0.0, 1e-3),
+                DataColumn.ofScaledShort(8, 0.0, 1e-3), DataColumn.constant(0.01), DataColumn.constant(0.02));
+        assertEquals(2, dataSet.getBytesPerSample());
+
+        dataSet.addRaw(new short[] { 1000, ScaledShortColumn.RAW_NAN, -500 });
+        dataSet.add(null, new double[] { 0.25 }, null, null);
+        assertEquals(4, dataSet.getDataCount());
+        assertArrayEquals(new double[] { 0.0, 1e-3, 2e-3, 3e-3 }, dataSet.getValues(DIM_X, 0, 4, null), 1e-12);
+        assertEquals(1.0, dataSet.get(DIM_Y, 0), 1e-12);
+        assertTrue(Double.isNaN(dataSet.get(DIM_Y, 1)));
+        assertEquals(-0.5, dataSet.get(DIM_Y, 2), 1e-12);
+        assertEquals(0.25, dataSet.get(DIM_Y, 3), 1e-12);
+        assertEquals(0.01, dataSet.getErrorNegative(DIM_Y, 3));
+        assertEquals(0.02, dataSet.getErrorPositive(DIM_Y, 3));
+        assertEquals(3e-3, dataSet.getAxisDescription(DIM_X).getMax(), 1e-12);
+    }
+
+    @Test
+    public void transformTests() {
+        final ColumnarErrorDataSet reference = new ColumnarErrorDataSet("reference", DataColumn.ofDouble(5),
+                DataColumn.ofDouble(5), DataColumn.ofDouble(5), DataColumn.ofDouble(5));
+        final ColumnarErrorDataSet typed = new ColumnarErrorDataSet("typed", DataColumn.linear(0.0, 1.0),
+                DataColumn.ofScaledShort(5, 0.0, 0.25), DataColumn.ofFloat(5), DataColumn.constant(0.5));
+        reference.add(X_VALUES, Y_VALUES, EYN_VALUES, new double[] { 0.5, 0.5, 0.5, 0.5, 0.5 });
+        typed.add(null, Y_VALUES, EYN_VALUES, null);
+
+        final double offset = 400.0;
+        final double scale = -20.0;
+        for (final int dim : new int[] { DIM_X, DIM_Y }) {
+            final double[] expected = new double[7];
+            final double[] expectedNeg = new double[7];
+            final double[] expectedPos = new double[7];
+            for (int i = 1; i < 4; i++) {
+                final double value = reference.get(dim, i);
+                expected[i + 2] = offset + scale * value;
+                expectedNeg[i + 2] = offset + scale * (value - reference.getErrorNegative(dim, i));
+                expectedPos[i + 2] = offset + scale * (value + reference.getErrorPositive(dim, i));
+            }
+
+            final double[] values = new double[7];
+            final double[] valuesNeg = new double[7];
+            final double[] valuesPos = new double[7];
+            typed.transformValues(dim, 1, 4, offset, scale, values, 3);
+            typed.transformErrorBounds(dim, 1, 4, scale, values, valuesNeg, valuesPos, 3);
+            assertArrayEquals(expected, values, 1e-4);
+            assertArrayEquals(expectedNeg, valuesNeg, 1e-4);
+            assertArrayEquals(expectedPos, valuesPos, 1e-4);
+        }
+    }
+
+    @Test
+    public void eventTests() {
+        final ColumnarErrorDataSet dataSet = new ColumnarErrorDataSet("test", DataColumn.ofDouble(2),
+                DataColumn.ofFloat(2), DataColumn.ofFloat(2), DataColumn.ofFloat(2));
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        final AtomicInteger nEvents = new AtomicInteger();
+        dataSet.addListener(evt -> {
+            lastEvent.set(evt);
+            nEvents.incrementAndGet();
+        });
+
+        dataSet.add(X_VALUES, Y_VALUES, EYN_VALUES, EYP_VALUES);
+        assertEquals(1, nEvents.get());
+        assertTrue(lastEvent.get() instanceof AddedDataEvent);
+        dataSet.add(X_VALUES, Y_VALUES, EYN_VALUES, EYP_VALUES);
+        assertEquals(2, nEvents.get());
+    }
+}
@@ -1,5 +1,6 @@
 package de.gsi.dataset.spi;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -191,6 +192,15 @@ public class DoubleErrorDataSetTests extends EditableDataSetTests {
                     assertEquals(testEYP[i], errorsPos[i], "test4b(" + dimIndex + ", " + i + ")");
                 }
             }
+
+            // bulk range reads are offset to index '0' of the target array
+            final double[] buffer = new double[n];
+            assertArrayEquals(Arrays.copyOfRange(values, 1, n),
+                    Arrays.copyOf(dataSet.getValues(dimIndex, 1, n, buffer), n - 1), "range values");
+            assertArrayEquals(Arrays.copyOfRange(errorsNeg, 1, n),
+                    Arrays.copyOf(dataSet.getErrorsNegative(dimIndex, 1, n, buffer), n - 1), "range negative errors");
+            assertArrayEquals(Arrays.copyOfRange(errorsPos, 1, n),
+                    Arrays.copyOf(dataSet.getErrorsPositive(dimIndex, 1, n, null), n - 1), "range positive errors");
         }
     }
 
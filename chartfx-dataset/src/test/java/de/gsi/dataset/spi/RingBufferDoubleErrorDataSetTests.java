@@ -0,0 +1,243 @@
+package de.gsi.dataset.spi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+
+/**
+ * Checks for {@link RingBufferDoubleErrorDataSet} interfaces, events and snapshot consistency.
+ *
+ * @author rstein
+ */
+public class RingBufferDoubleErrorDataSetTests {
+    @Test
+    public void defaultTests() {
+        final RingBufferDoubleErrorDataSet dataSet = new RingBufferDoubleErrorDataSet("test", 5);
+        assertEquals("test", dataSet.getName());
+        assertEquals(2, dataSet.getDimension());
+        assertEquals(5, dataSet.getCapacity());
+        assertEquals(0, dataSet.getDataCount());
+
+        dataSet.add(1.0, 2.0, 3.0, 2.2);
+        assertEquals(1, dataSet.getDataCount());
+        assertEquals(1.0, dataSet.get(DIM_X, 0));
+        assertEquals(2.0, dataSet.get(DIM_Y, 0));
+        assertEquals(3.0, dataSet.getErrorNegative(DIM_Y, 0));
+        assertEquals(2.2, dataSet.getErrorPositive(DIM_Y, 0));
+        assertEquals(0.0, dataSet.getErrorNegative(DIM_X, 0));
+        assertEquals(0.0, dataSet.getErrorPositive(DIM_X, 0));
+        assertEquals(1.0, dataSet.getAxisDescription(DIM_X).getMin());
+        assertEquals(-1.0, dataSet.getAxisDescription(DIM_Y).getMin());
+        assertEquals(4.2, dataSet.getAxisDescription(DIM_Y).getMax());
+
+        // wrap-around
+        dataSet.add(new double[] { 2.0, 3.0, 4.0, 5.0, 6.0, 7.0 }, new double[] { 1, 2, 3, 4, 5, 6 }, new double[6],
+                new double[6]);
+        assertEquals(5, dataSet.getDataCount());
+        assertArrayEquals(new double[] { 3.0, 4.0, 5.0, 6.0, 7.0 }, dataSet.getValues(DIM_X));
+        assertArrayEquals(new double[] { 2, 3, 4, 5, 6 }, dataSet.getValues(DIM_Y));
+        assertFalse(dataSet.getAxisDescription(DIM_X).isDefined(), "ranges invalidated after dropping samples");
+        dataSet.recomputeLimits(DIM_X);
+        assertEquals(3.0, dataSet.getAxisDescription(DIM_X).getMin());
+        assertEquals(7.0, dataSet.getAxisDescription(DIM_X).getMax());
+
+        // guarded bulk read
+        final double[] target = dataSet.lock().readLockGuard(() -> dataSet.getValues(DIM_X, 1, 4, null));
+        assertArrayEquals(new double[] { 4.0, 5.0, 6.0 }, target);
+
+        // reset data set
+        dataSet.reset();
+        assertEquals(0, dataSet.getDataCount());
+        dataSet.add(8.0, 1.0, 0.0, 0.0);
+        assertEquals(1, dataSet.getDataCount());
+        assertEquals(8.0, dataSet.get(DIM_X, 0));
+
+        // check unsupported operations
+        assertThrows(UnsupportedOperationException.class, () -> dataSet.removeStyle(0));
+        assertThrows(UnsupportedOperationException.class, () -> dataSet.removeDataLabel(0));
+        assertThrows(UnsupportedOperationException.class, () -> dataSet.addDataLabel(0, "addedLabel"));
+        assertThrows(UnsupportedOperationException.class, () -> dataSet.addDataStyle(0, "color:green"));
+        assertThrows(IllegalStateException.class, () -> dataSet.lock().readUnLock());
+    }
+
+    @Test
+    public void eventTests() {
+        final RingBufferDoubleErrorDataSet dataSet = new RingBufferDoubleErrorDataSet("test", 5);
+        final AtomicReference<UpdateEvent> lastEvent = new AtomicReference<>();
+        final AtomicInteger nEvents = new AtomicInteger();
+        dataSet.addListener(evt -> {
+            lastEvent.set(evt);
+            nEvents.incrementAndGet();
+        });
+
+        dataSet.add(1.0, 2.0, 0.1, 0.1);
+        checkAddedRange(lastEvent.get(), 0, 1);
+
+        // one event per batch
+        dataSet.add(new double[] { 2.0, 3.0, 4.0 }, new double[3], new double[3], new double[3]);
+        checkAddedRange(lastEvent.get(), 1, 4);
+        assertEquals(2, nEvents.get());
+
+        // buffer full: oldest samples are dropped and the new ones are always at the end
+        dataSet.add(new double[] { 5.0, 6.0, 7.0 }, new double[3], new double[3], new double[3]);
+        checkAddedRange(lastEvent.get(), 2, 5);
+        dataSet.add(8.0, 2.0, 0.1, 0.1);
+        checkAddedRange(lastEvent.get(), 4, 5);
+
+        // more samples than capacity
+        dataSet.add(new double[7], new double[7], new double[7], new double[7]);
+        checkAddedRange(lastEvent.get(), 0, 5);
+
+        // empty batch
+        dataSet.add(new double[0], new double[0], new double[0], new double[0]);
+        assertEquals(5, nEvents.get());
+
+        dataSet.reset();
+        assertTrue(lastEvent.get() instanceof RemovedDataEvent);
+    }
+
+    @Test
+    public void snapshotTests() throws InterruptedException {
+        final int capacity = 1000;
+        final RingBufferDoubleErrorDataSet dataSet = new RingBufferDoubleErrorDataSet("test", capacity);
+        dataSet.autoNotification().set(false);
+        for (int i = 0; i < capacity / 2; i++) {
+            dataSet.add(i, 2.0 * i, i, i);
+        }
+
+        // snapshot is pinned for the duration of the read lock, the producer is not blocked
+        dataSet.lock().readLockGuard(() -> {
+            assertEquals(capacity / 2, dataSet.getDataCount());
+            final Thread producer = new Thread(() -> dataSet.add(-1.0, -1.0, 0.0, 0.0));
+            producer.start();
+            assertTrue(joinQuietly(producer), "producer must not block");
+            assertEquals(capacity / 2, dataSet.getDataCount());
+            assertEquals(capacity / 2 - 1.0, dataSet.get(DIM_X, capacity / 2 - 1));
+            // nested read locks share the outer snapshot
+            dataSet.lock().readLockGuard(() -> assertEquals(capacity / 2, dataSet.getDataCount()));
+        });
+        assertEquals(capacity / 2 + 1, dataSet.getDataCount());
+
+        // concurrent producer: guarded readers always see contiguous and internally consistent samples
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<String> error = new AtomicReference<>();
+        dataSet.reset();
+        final Thread producer = new Thread(() -> {
+            final double[] x = new double[7];
+            final double[] y = new double[7];
+            long counter = 0;
+            while (running.get()) {
+                if (counter % 3 == 0) {
+                    for (int i = 0; i < x.length; i++) {
+                        x[i] = counter;
+                        y[i] = 2.0 * counter++;
+                    }
+                    dataSet.add(x, y, x, x);
+                } else {
+                    dataSet.add(counter, 2.0 * counter, counter, counter++);
+                }
+            }
+        });
+        producer.start();
+        for (int iteration = 0; iteration < 2000 && error.get() == null; iteration++) {
+            dataSet.lock().readLockGuard(() -> {
+                final int count = dataSet.getDataCount();
+                for (int i = 0; i < count; i++) {
+                    final double x = dataSet.get(DIM_X, i);
+                    if (dataSet.get(DIM_Y, i) != 2.0 * x || dataSet.getErrorNegative(DIM_Y, i) != x
+                            || dataSet.getErrorPositive(DIM_Y, i) != x
+                            || (i > 0 && dataSet.get(DIM_X, i - 1) != x - 1)) {
+                        error.set("inconsistent sample at index " + i + " of " + count);
+                        return;
+                    }
+                }
+            });
+        }
+        // make sure the producer had a chance to fill the buffer (reader loop may finish early on a loaded machine)
+        final long timeOut = System.currentTimeMillis() + 5000;
+        while (dataSet.getDataCount() < capacity && System.currentTimeMillis() < timeOut) {
+            Thread.yield();
+        }
+        running.set(false);
+        producer.join();
+        assertEquals(null, error.get());
+        assertEquals(capacity, dataSet.getDataCount());
+    }
+
+    @Test
+    public void snapshotRecyclingTests() throws InterruptedException {
+        final RingBufferDoubleErrorDataSet dataSet = new RingBufferDoubleErrorDataSet("test", 8);
+        for (int i = 0; i < 4; i++) {
+            dataSet.add(i, i, 0.0, 0.0);
+        }
+
+        // snapshot held by this thread must not be recycled while other readers cycle through newer snapshots
+        dataSet.lock().readLockGuard(() -> {
+            final double[] pinned = dataSet.getValues(DIM_X);
+            final AtomicInteger nErrors = new AtomicInteger();
+            final Thread other = new Thread(() -> {
+                for (int i = 4; i < 20; i++) {
+                    dataSet.add(i, i, 0.0, 0.0);
+                    final int expected = Math.min(8, i + 1);
+                    final double last = i;
+                    dataSet.lock().readLockGuard(() -> {
+                        if (dataSet.getDataCount() != expected || dataSet.get(DIM_X, expected - 1) != last) {
+                            nErrors.incrementAndGet();
+                        }
+                    });
+                }
+            });
+            other.start();
+            assertTrue(joinQuietly(other));
+            assertEquals(0, nErrors.get(), "concurrent reader saw stale or recycled samples");
+            assertArrayEquals(pinned, dataSet.getValues(DIM_X));
+            assertArrayEquals(new double[] { 0, 1, 2, 3 }, dataSet.getValues(DIM_X));
+        });
+
+        // recycled buffers deliver the latest samples
+        for (int i = 20; i < 23; i++) {
+            dataSet.add(i, i, 0.0, 0.0);
+            final double expected = i;
+            dataSet.lock().readLockGuard(() -> {
+                assertEquals(8, dataSet.getDataCount());
+                assertEquals(expected, dataSet.get(DIM_X, 7));
+                assertEquals(expected - 7, dataSet.get(DIM_X, 0));
+            });
+        }
+
+        // axis ranges and limits recomputation are serialised with the producer
+        dataSet.recomputeLimits(DIM_X);
+        assertEquals(15.0, dataSet.getAxisDescription(DIM_X).getMin());
+        assertEquals(22.0, dataSet.getAxisDescription(DIM_X).getMax());
+    }
+
+    private static boolean joinQuietly(final Thread thread) {
+        try {
+            thread.join(5000);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !thread.isAlive();
+    }
+
+    private static void checkAddedRange(final UpdateEvent event, final int fromIndex, final int toIndex) {
+        assertTrue(event instanceof AddedDataEvent, "event type");
+        assertEquals(fromIndex, ((AddedDataEvent) event).getFromIndex(), "fromIndex");
+        assertEquals(toIndex, ((AddedDataEvent) event).getToIndex(), "toIndex");
+    }
+}
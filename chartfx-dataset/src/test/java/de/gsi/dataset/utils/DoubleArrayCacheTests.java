@@ -3,6 +3,7 @@ package de.gsi.dataset.utils;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -100,6 +101,88 @@ public class DoubleArrayCacheTests {
         assertEquals(N_INITIAL_CACHE_OBJECTS, count);
     }
 
+    @Test
+    public void testStatisticsAndSizeClasses() throws InterruptedException {
+        final DoubleArrayCache cache = new DoubleArrayCache();
+        assertEquals(0, ArrayPool.getSizeClass(0));
+        assertEquals(0, ArrayPool.getSizeClass(1));
+        assertEquals(1, ArrayPool.getSizeClass(2));
+        assertEquals(10, ArrayPool.getSizeClass(1024));
+        assertEquals(11, ArrayPool.getSizeClass(1025));
+        assertEquals(31, ArrayPool.getSizeClass(Integer.MAX_VALUE));
+
+        // steady state: allocate once, re-use afterwards
+        for (int i = 0; i < 10; i++) {
+            cache.add(cache.getArray(1000));
+        }
+        assertEquals(1, cache.getMissCount(), "miss count");
+        assertEquals(9, cache.getHitCount(), "hit count");
+        assertEquals(0, cache.getEvictionCount(), "eviction count");
+        cache.resetStatistics();
+        assertEquals(0, cache.getHitCount(), "hit count after reset");
+        assertEquals(0, cache.getMissCount(), "miss count after reset");
+
+        // more arrays than fit into the thread-local magazine -> spill-over to the shared size-class tier
+        cache.clear();
+        final int nArrays = 2 * ArrayPool.MAGAZINE_CAPACITY + 1;
+        for (int i = 0; i < nArrays; i++) {
+            assertTrue(cache.add(new double[100 * (i + 1)]));
+        }
+        assertEquals(nArrays, cache.size());
+        assertEquals(500, cache.getArray(401).length, "best fit across magazine and shared tier");
+        assertEquals(100 * nArrays, cache.getArray(100 * nArrays).length, "exact match in shared tier");
+        assertEquals(1000, cache.getArrayExact(1000).length);
+        assertEquals(nArrays - 2, cache.size());
+
+        // arrays released by other threads are available via the shared view
+        final double[] foreignArray = new double[12_345];
+        final Thread thread = new Thread(() -> cache.add(foreignArray));
+        thread.start();
+        thread.join();
+        assertTrue(cache.contains(foreignArray));
+        // N.B. size() hands over magazines of terminated threads to the shared tier
+        assertEquals(nArrays - 1, cache.size());
+        assertSame(foreignArray, cache.getArray(12_000), "array released by terminated thread");
+    }
+
+    @Test
+    public void testIdentityTracking() {
+        final DoubleArrayCache cache = new DoubleArrayCache();
+        final double[] array1 = new double[100];
+        final double[] array2 = new double[100];
+        assertTrue(cache.add(array1));
+        assertTrue(cache.add(array2), "equal but distinct arrays are pooled separately");
+        assertFalse(cache.add(array1), "double release");
+        assertEquals(2, cache.size());
+
+        assertTrue(cache.remove(array1));
+        assertFalse(cache.contains(array1));
+        assertFalse(cache.remove(array1));
+        assertTrue(cache.add(array1), "re-adding a removed array");
+        assertEquals(2, cache.size());
+
+        // arrays taken out of the pool are no longer tracked
+        final double[] taken = cache.getArrayExact(100);
+        assertFalse(cache.contains(taken));
+        assertEquals(1, cache.size());
+        assertTrue(cache.add(taken));
+
+        // stale nodes of removed entries in the shared tier must not be handed out
+        cache.clear();
+        final int nArrays = 3 * ArrayPool.MAGAZINE_CAPACITY;
+        final List<double[]> arrays = new ArrayList<>();
+        for (int i = 0; i < nArrays; i++) {
+            arrays.add(new double[200]);
+            assertTrue(cache.add(arrays.get(i)));
+        }
+        for (int i = 0; i < nArrays - 1; i++) {
+            assertTrue(cache.remove(arrays.get(i)));
+        }
+        assertEquals(1, cache.size());
+        assertSame(arrays.get(nArrays - 1), cache.getArrayExact(200));
+        assertEquals(0, cache.size());
+    }
+
     private static void forceMemoryShortage() {
         boolean run = true;
         List<double[]> strongReference = Collections.synchronizedList(new ArrayList<>(100000));
@@ -0,0 +1,259 @@
+package de.gsi.dataset.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.RemovedDataEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.DataRange;
+import de.gsi.dataset.spi.DoubleDataSet;
+
+/**
+ * Tests the incremental updates and level-of-detail queries of the {@link MinMaxPyramid}
+ *
+ * @author rstein
+ */
+public class MinMaxPyramidTests {
+    private static final int BUCKET_SIZE = 8;
+    private static final int FAN_OUT = 4;
+
+    @Test
+    public void basicTests() {
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxPyramid(null));
+        final DoubleDataSet dataSet = createDataSet(0);
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxPyramid(dataSet, DataSet.DIM_Y, 0, FAN_OUT));
+        assertThrows(IllegalArgumentException.class, () -> new MinMaxPyramid(dataSet, DataSet.DIM_Y, BUCKET_SIZE, 1));
+
+        final MinMaxPyramid pyramid = new MinMaxPyramid(dataSet, DataSet.DIM_Y, BUCKET_SIZE, FAN_OUT);
+        assertEquals(dataSet, pyramid.getDataSet());
+        assertEquals(BUCKET_SIZE, pyramid.getBucketSize(0));
+        assertEquals(BUCKET_SIZE * FAN_OUT * FAN_OUT, pyramid.getBucketSize(2));
+        assertDoesNotThrow(pyramid::update);
+        assertEquals(0, pyramid.getLevelCount());
+        assertNull(pyramid.getIndices(0, 0, 1));
+
+        pyramid.release();
+        assertTrue(dataSet.updateEventListener().isEmpty());
+    }
+
+    @Test
+    public void testSharedPyramid() {
+        final DoubleDataSet dataSet = createDataSet(1000);
+        final MinMaxPyramid first = MinMaxPyramid.acquire(dataSet, DataSet.DIM_Y);
+        final MinMaxPyramid second = MinMaxPyramid.acquire(dataSet, DataSet.DIM_Y);
+        assertSame(first, second, "one shared pyramid per data set dimension");
+        assertNotSame(first, MinMaxPyramid.acquire(dataSet, DataSet.DIM_X));
+        assertNotSame(first, MinMaxPyramid.acquire(createDataSet(1000), DataSet.DIM_Y), "identical content, distinct data set");
+        final MinMaxPyramid unshared = new MinMaxPyramid(dataSet);
+        assertNotSame(unshared, MinMaxPyramid.acquire(dataSet, DataSet.DIM_Y));
+        assertEquals(3, dataSet.updateEventListener().size());
+
+        // detached once all users released it
+        unshared.release();
+        first.release();
+        first.release();
+        assertEquals(2, dataSet.updateEventListener().size());
+        second.release();
+        assertEquals(1, dataSet.updateEventListener().size());
+        assertNotSame(first, MinMaxPyramid.acquire(dataSet, DataSet.DIM_Y));
+    }
+
+    @Test
+    public void testPyramidStructure() {
+        final DoubleDataSet dataSet = createDataSet(1000);
+        final MinMaxPyramid pyramid = new MinMaxPyramid(dataSet, DataSet.DIM_Y, BUCKET_SIZE, FAN_OUT);
+        pyramid.update();
+        // 1000 samples -> 125, 32, 8, 2, 1 buckets
+        assertEquals(5, pyramid.getLevelCount());
+        assertEquals(125, pyramid.getBucketCount(0));
+        assertEquals(1, pyramid.getBucketCount(4));
+        assertPyramid(pyramid, dataSet);
+
+        assertEquals(-1, pyramid.getLevel(0, 1000, 200));
+        assertEquals(0, pyramid.getLevel(0, 1000, 100));
+        assertEquals(1, pyramid.getLevel(0, 1000, 20));
+        assertEquals(3, pyramid.getLevel(0, 1000, 1), "top-level bucket (2048 samples) exceeds range");
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        final DoubleDataSet dataSet = createDataSet(300);
+        dataSet.autoNotification().set(false); // events are injected manually for deterministic tests
+        final MinMaxPyramid pyramid = new MinMaxPyramid(dataSet, DataSet.DIM_Y, BUCKET_SIZE, FAN_OUT);
+        pyramid.update();
+        assertPyramid(pyramid, dataSet);
+
+        // appended data points are detected via the data count
+        final Random rnd = new Random(42);
+        for (int i = 0; i < 700; i++) {
+            dataSet.add(dataSet.getDataCount(), rnd.nextGaussian());
+            if (i % 97 == 0) {
+                pyramid.update();
+                assertPyramid(pyramid, dataSet);
+            }
+        }
+        pyramid.update();
+        assertPyramid(pyramid, dataSet);
+
+        // modified data points with index range
+        dataSet.set(500, 500, 100.0);
+        dataSet.set(10, 10, -100.0);
+        pyramid.handle(new UpdatedDataEvent(dataSet, "set", 500, 501));
+        pyramid.handle(new UpdatedDataEvent(dataSet, "set", 10, 11));
+        pyramid.update();
+        assertPyramid(pyramid, dataSet);
+        assertEquals(500, pyramid.getMaximumIndex(pyramid.getLevelCount() - 1, 0));
+        assertEquals(10, pyramid.getMinimumIndex(pyramid.getLevelCount() - 1, 0));
+
+        // removal -> full re-computation
+        dataSet.remove(0, 200);
+        pyramid.handle(new RemovedDataEvent(dataSet));
+        pyramid.update();
+        assertPyramid(pyramid, dataSet);
+
+        // NaN-only buckets
+        for (int i = 0; i < BUCKET_SIZE; i++) {
+            dataSet.set(i, i, Double.NaN);
+        }
+        pyramid.handle(new UpdatedDataEvent(dataSet, "set", 0, BUCKET_SIZE));
+        pyramid.update();
+        assertPyramid(pyramid, dataSet);
+        assertEquals(-1, pyramid.getMinimumIndex(0, 0));
+    }
+
+    @Test
+    public void testIndices() {
+        final int nSamples = 10_000;
+        final DoubleDataSet dataSet = createDataSet(nSamples);
+        final MinMaxPyramid pyramid = new MinMaxPyramid(dataSet, DataSet.DIM_Y, BUCKET_SIZE, FAN_OUT);
+
+        // range too short -> raw data
+        assertNull(pyramid.getIndices(100, 200, 50));
+
+        final int[][] ranges = { { 0, nSamples }, { 13, 9_871 }, { 1_001, 1_999 }, { 5, 10_500 } };
+        for (final int[] range : ranges) {
+            final int columns = 20;
+            final int[] indices = pyramid.getIndices(range[0], range[1], columns);
+            assertNotNull(indices);
+            final int from = range[0];
+            final int to = Math.min(range[1], nSamples);
+            assertEquals(from, indices[0], "first index");
+            assertEquals(to - 1, indices[indices.length - 1], "last index");
+            for (int i = 1; i < indices.length; i++) {
+                assertTrue(indices[i] > indices[i - 1], "strictly increasing indices");
+            }
+            assertTrue(indices.length <= 4 * FAN_OUT * columns + 2 * BUCKET_SIZE + 8 * FAN_OUT * pyramid.getLevelCount(),
+                    "number of returned points is independent of the number of samples");
+
+            // the extrema of the range are contained in the selection
+            int minIndex = from;
+            int maxIndex = from;
+            for (int i = from; i < to; i++) {
+                minIndex = dataSet.getY(i) < dataSet.getY(minIndex) ? i : minIndex;
+                maxIndex = dataSet.getY(i) > dataSet.getY(maxIndex) ? i : maxIndex;
+            }
+            assertTrue(contains(indices, minIndex), "global minimum");
+            assertTrue(contains(indices, maxIndex), "global maximum");
+        }
+
+        // exact range -> same indices as the buckets of the selected level
+        final int[] indices = pyramid.getIndices(0, 4 * BUCKET_SIZE, 4);
+        final int[] expected = new int[16];
+        for (int bucket = 0; bucket < 4; bucket++) {
+            final int min = pyramid.getMinimumIndex(0, bucket);
+            final int max = pyramid.getMaximumIndex(0, bucket);
+            expected[4 * bucket] = bucket * BUCKET_SIZE;
+            expected[4 * bucket + 1] = Math.min(min, max);
+            expected[4 * bucket + 2] = Math.max(min, max);
+            expected[4 * bucket + 3] = (bucket + 1) * BUCKET_SIZE - 1;
+        }
+        assertArrayEquals(Arrays.stream(expected).distinct().toArray(), indices);
+    }
+
+    @Test
+    public void testRange() {
+        final int nSamples = 5_000;
+        final DoubleDataSet dataSet = createDataSet(nSamples);
+        dataSet.autoNotification().set(false);
+        dataSet.set(1234, 1234, Double.NaN);
+        final MinMaxPyramid pyramid = new MinMaxPyramid(dataSet, DataSet.DIM_Y, BUCKET_SIZE, FAN_OUT);
+
+        final Random rnd = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            final int from = rnd.nextInt(nSamples);
+            final int to = from + rnd.nextInt(nSamples - from + 1);
+            final DataRange range = pyramid.getRange(from, to);
+            final DataRange expected = new DataRange();
+            for (int index = from; index < to; index++) {
+                expected.add(dataSet.getY(index));
+            }
+            assertEquals(expected, range, "range [" + from + ", " + to + ")");
+        }
+        assertFalse(pyramid.getRange(10, 10).isDefined(), "empty range");
+        assertFalse(pyramid.getRange(1234, 1235).isDefined(), "NaN only");
+
+        // incremental update
+        dataSet.add(nSamples, 42.0);
+        assertEquals(42.0, pyramid.getRange(0, nSamples + 1).getMax());
+        dataSet.set(17, 17, -42.0);
+        pyramid.handle(new UpdatedDataEvent(dataSet, "set", 17, 18));
+        assertEquals(-42.0, pyramid.getRange(10, 20).getMin());
+        assertEquals(-42.0, pyramid.getRange(0, nSamples + 1).getMin());
+    }
+
+    private static void assertPyramid(final MinMaxPyramid pyramid, final DataSet dataSet) {
+        final int nData = dataSet.getDataCount();
+        for (int level = 0; level < pyramid.getLevelCount(); level++) {
+            final int size = pyramid.getBucketSize(level);
+            assertEquals((nData + size - 1) / size, pyramid.getBucketCount(level), "bucket count on level " + level);
+            for (int bucket = 0; bucket < pyramid.getBucketCount(level); bucket++) {
+                int minIndex = -1;
+                int maxIndex = -1;
+                for (int i = bucket * size; i < Math.min(nData, (bucket + 1) * size); i++) {
+                    final double value = dataSet.get(DataSet.DIM_Y, i);
+                    if (Double.isNaN(value)) {
+                        continue;
+                    }
+                    minIndex = minIndex < 0 || value < dataSet.get(DataSet.DIM_Y, minIndex) ? i : minIndex;
+                    maxIndex = maxIndex < 0 || value > dataSet.get(DataSet.DIM_Y, maxIndex) ? i : maxIndex;
+                }
+                final String msg = "level " + level + " bucket " + bucket;
+                assertEquals(minIndex, pyramid.getMinimumIndex(level, bucket), msg);
+                assertEquals(maxIndex, pyramid.getMaximumIndex(level, bucket), msg);
+            }
+        }
+        assertEquals(1, pyramid.getBucketCount(pyramid.getLevelCount() - 1), "single top-level bucket");
+    }
+
+    private static boolean contains(final int[] array, final int value) {
+        for (final int element : array) {
+            if (element == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DoubleDataSet createDataSet(final int nSamples) {
+        final DoubleDataSet dataSet = new DoubleDataSet("test", nSamples);
+        final Random rnd = new Random(1234);
+        for (int i = 0; i < nSamples; i++) {
+            dataSet.add(i, rnd.nextGaussian());
+        }
+        return dataSet;
+    }
+}
@@ -0,0 +1,269 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetArchiveReader;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetArchiveWriter;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Checks for {@link DataSetArchiveWriter} and {@link DataSetArchiveReader}.
+ *
+ * @author rstein
+ */
+public class DataSetArchiveTests {
+    private static final int CHUNK_SIZE = 100;
+    @TempDir
+    protected Path tempDir;
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final Path file = tempDir.resolve("history.archive");
+        final DoubleErrorDataSet template = new DoubleErrorDataSet("template");
+        template.getAxisDescription(DIM_X).set("time", "s");
+        template.getAxisDescription(DIM_Y).set("current", "A");
+        for (int i = 0; i < 550; i++) {
+            template.add(i, value(i), 0.1, 0.2);
+        }
+
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "history", CHUNK_SIZE, false)) {
+            writer.add(template);
+            for (int i = 550; i < 1050; i++) {
+                writer.add(i, value(i), 0.1, 0.2);
+            }
+            assertEquals(10, writer.getChunkCount());
+            assertEquals(1050, writer.getDataCount());
+            assertThrows(IllegalArgumentException.class, () -> writer.add(10, 0.0, 0.0, 0.0));
+        }
+
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            assertEquals("history", reader.getName());
+            assertEquals(CHUNK_SIZE, reader.getChunkSize());
+            assertEquals(11, reader.getChunkCount(), "10 full and one partial chunk");
+            assertEquals(1050, reader.getDataCount());
+            assertEquals(0.0, reader.getXMin());
+            assertEquals(1049.0, reader.getXMax());
+            for (final DataSetArchiveReader.Chunk chunk : reader.getChunks()) {
+                assertTrue(chunk.getStoredLength() < chunk.getDataCount() * 4 * Double.BYTES, "compressed chunk");
+            }
+
+            // random access across chunk boundaries
+            final DataSet range = reader.read(195.5, 420.0);
+            assertEquals("history", range.getName());
+            assertEquals("time", range.getAxisDescription(DIM_X).getName());
+            assertEquals("A", range.getAxisDescription(DIM_Y).getUnit());
+            assertEquals(420 - 196 + 1, range.getDataCount(DIM_X));
+            for (int i = 0; i < range.getDataCount(DIM_X); i++) {
+                assertEquals(196 + i, range.get(DIM_X, i));
+                assertEquals(value(196 + i), range.get(DIM_Y, i));
+                assertEquals(0.1, ((DataSetError) range).getErrorNegative(DIM_Y, i));
+                assertEquals(0.2, ((DataSetError) range).getErrorPositive(DIM_Y, i));
+            }
+            assertEquals(1050, reader.read(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).getDataCount(DIM_X));
+            assertEquals(0, reader.read(2000, 3000).getDataCount(DIM_X));
+
+            // overview from chunk summaries
+            final DataSet overview = reader.readOverview(0, 1049, 4);
+            assertEquals(4, overview.getDataCount(DIM_X)); // 11 chunks in groups of 3
+            for (int i = 0; i < overview.getDataCount(DIM_X); i++) {
+                final DataSet group = reader.read(i * 300, Math.min(i * 300 + 299, 1049));
+                double yMin = Double.POSITIVE_INFINITY;
+                double yMax = Double.NEGATIVE_INFINITY;
+                for (final double y : group.getValues(DIM_Y)) {
+                    yMin = Math.min(yMin, y);
+                    yMax = Math.max(yMax, y);
+                }
+                final double y = overview.get(DIM_Y, i);
+                assertEquals(yMin, y - ((DataSetError) overview).getErrorNegative(DIM_Y, i), 1e-12);
+                assertEquals(yMax, y + ((DataSetError) overview).getErrorPositive(DIM_Y, i), 1e-12);
+            }
+            assertEquals(11, reader.readOverview(0, 1049, 100).getDataCount(DIM_X));
+        }
+    }
+
+    @Test
+    public void testCrashRecovery() throws IOException {
+        final Path file = tempDir.resolve("crash.archive");
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "crash", CHUNK_SIZE, true)) {
+            for (int i = 0; i < 300; i++) {
+                writer.add(i, value(i), 0.0, 0.0);
+            }
+        }
+        final long validSize = Files.size(file);
+
+        // torn record: incomplete header and payload appended
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "crash", CHUNK_SIZE, true)) {
+            for (int i = 300; i < 400; i++) {
+                writer.add(i, value(i), 0.0, 0.0);
+            }
+        }
+        final long fullSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 10);
+        }
+
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            assertEquals(3, reader.getChunkCount(), "torn record is ignored");
+            assertEquals(300, reader.getDataCount());
+        }
+
+        // re-open for appending: torn record is truncated
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "ignored", 42, true)) {
+            assertEquals(validSize, Files.size(file));
+            assertEquals("crash", writer.getName());
+            assertEquals(CHUNK_SIZE, writer.getChunkSize());
+            assertEquals(300, writer.getDataCount());
+            assertThrows(IllegalArgumentException.class, () -> writer.add(298.0, 0.0, 0.0, 0.0));
+            for (int i = 300; i < 350; i++) {
+                writer.add(i, value(i), 0.0, 0.0);
+            }
+        }
+
+        // corrupt payload of last chunk -> dropped by the writer on re-opening
+        final long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x11, 0x22, 0x33 }), size - 5);
+        }
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            assertEquals(4, reader.getChunkCount());
+            assertThrows(IOException.class, () -> reader.read(320, 330));
+            final DataSet valid = reader.read(0, 299);
+            assertEquals(300, valid.getDataCount(DIM_X));
+            assertArrayEquals(new double[] { value(42) }, new double[] { valid.get(DIM_Y, 42) }, 1e-6);
+        }
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "crash", CHUNK_SIZE, true)) {
+            assertEquals(300, writer.getDataCount());
+        }
+
+        // live tail: reader picks up chunks appended after opening
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file);
+                DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "crash", CHUNK_SIZE, true)) {
+            assertEquals(3, reader.getChunkCount());
+            for (int i = 300; i < 500; i++) {
+                writer.add(i, value(i), 0.0, 0.0);
+            }
+            assertEquals(2, reader.refresh());
+            assertEquals(500, reader.getDataCount());
+        }
+
+        // corrupt payload of a chunk followed by valid ones -> it and all following records are dropped
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            final DataSetArchiveReader.Chunk second = reader.getChunks().get(1);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] { 0x11, 0x22, 0x33 }), second.getPosition() + 70);
+            }
+            try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "crash", CHUNK_SIZE, true)) {
+                assertEquals(second.getPosition(), Files.size(file));
+                assertEquals(1, writer.getChunkCount());
+                assertEquals(100, writer.getDataCount());
+            }
+        }
+
+        Files.write(tempDir.resolve("invalid.archive"), new byte[] { 1, 2, 3 });
+        assertThrows(IOException.class, () -> new DataSetArchiveReader(tempDir.resolve("invalid.archive")));
+    }
+
+    @Test
+    public void testAxisInfo() throws IOException {
+        final Path file = tempDir.resolve("axis.archive");
+        final DoubleErrorDataSet template = new DoubleErrorDataSet("template");
+        template.getAxisDescription(DIM_X).set("time", "s");
+        template.getAxisDescription(DIM_Y).set("current", "A");
+        for (int i = 0; i < 150; i++) {
+            template.add(i, value(i), 0.0, 0.0);
+        }
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "axis", CHUNK_SIZE, false)) {
+            writer.add(template);
+        }
+
+        // re-opened archive retains the axis information of the first data set
+        final DoubleErrorDataSet other = new DoubleErrorDataSet("other");
+        other.getAxisDescription(DIM_X).set("index", "");
+        other.add(1000, 0.0, 0.0, 0.0);
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "axis", CHUNK_SIZE, false)) {
+            writer.add(other);
+            for (int i = 1001; i < 1200; i++) {
+                writer.add(i, value(i), 0.0, 0.0);
+            }
+        }
+
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            assertEquals(4, reader.getChunkCount());
+            for (final DataSet range : new DataSet[] { reader.read(1050, 1199), reader.readOverview(0, 1199, 10) }) {
+                assertEquals("time", range.getAxisDescription(DIM_X).getName());
+                assertEquals("s", range.getAxisDescription(DIM_X).getUnit());
+                assertEquals("current", range.getAxisDescription(DIM_Y).getName());
+                assertEquals("A", range.getAxisDescription(DIM_Y).getUnit());
+            }
+
+            // axis information is read from the header, i.e. without decompressing the (corrupted) first chunk
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] { 0x11, 0x22, 0x33 }), reader.getChunks().get(0).getPosition() + 70);
+            }
+        }
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            assertThrows(IOException.class, () -> reader.read(0, 10));
+            assertEquals("current", reader.readOverview(0, 1199, 10).getAxisDescription(DIM_Y).getName());
+        }
+    }
+
+    @Test
+    public void testNonFiniteValuesAndWriteFailure() throws IOException {
+        final Path file = tempDir.resolve("failure.archive");
+        try (DataSetArchiveWriter writer = new DataSetArchiveWriter(file, "failure", CHUNK_SIZE, false)) {
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                writer.add(i, i % 10 == 0 ? Double.NaN : value(i), 0.0, 0.0);
+            }
+            writer.add(CHUNK_SIZE, Double.POSITIVE_INFINITY, 0.0, 0.0);
+
+            // failing write of a completed chunk is reported (and retried) on each following sample
+            Thread.currentThread().interrupt(); // N.B. closes the file channel on the next I/O operation
+            for (int i = CHUNK_SIZE + 1; i < 2 * CHUNK_SIZE - 1; i++) {
+                writer.add(i, value(i), 0.0, 0.0);
+            }
+            assertThrows(IOException.class, () -> writer.add(2 * CHUNK_SIZE - 1, 0.0, 0.0, 0.0));
+            assertTrue(Thread.interrupted());
+            assertEquals(2 * CHUNK_SIZE, writer.getDataCount());
+            assertThrows(IOException.class, () -> writer.add(2 * CHUNK_SIZE, 0.0, 0.0, 0.0));
+            assertEquals(2 * CHUNK_SIZE, writer.getDataCount());
+        }
+
+        try (DataSetArchiveReader reader = new DataSetArchiveReader(file)) {
+            assertEquals(1, reader.getChunkCount());
+            final DataSetArchiveReader.Chunk chunk = reader.getChunks().get(0);
+            double yMin = Double.POSITIVE_INFINITY;
+            double yMax = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                if (i % 10 != 0) {
+                    yMin = Math.min(yMin, value(i));
+                    yMax = Math.max(yMax, value(i));
+                }
+            }
+            assertEquals(yMin, chunk.getYMin());
+            assertEquals(yMax, chunk.getYMax());
+            assertTrue(Double.isNaN(reader.read(0, 10).get(DIM_Y, 0)));
+        }
+    }
+
+    private static double value(final int index) {
+        return Math.sin(0.05 * index) + 0.001 * index;
+    }
+}
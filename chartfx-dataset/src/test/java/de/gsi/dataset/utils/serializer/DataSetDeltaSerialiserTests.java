@@ -0,0 +1,208 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.event.AddedDataEvent;
+import de.gsi.dataset.event.UpdateEvent;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaDecoder;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetDeltaEncoder;
+import de.gsi.dataset.spi.CircularDoubleErrorDataSet;
+import de.gsi.dataset.spi.DoubleDataSet3D;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.dataset.spi.RingBufferDoubleErrorDataSet;
+
+/**
+ * Checks for {@link DataSetDeltaEncoder} and {@link DataSetDeltaDecoder}.
+ *
+ * @author rstein
+ */
+public class DataSetDeltaSerialiserTests {
+    private static final int N_SAMPLES = 1000;
+
+    @Test
+    public void testAppendAndUpdate() {
+        final DoubleErrorDataSet source = new DoubleErrorDataSet("source");
+        for (int i = 0; i < N_SAMPLES; i++) {
+            source.add(i, Math.sin(0.01 * i), 0.1, 0.2);
+        }
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder(source, false);
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder(new DoubleErrorDataSet("replica"));
+        final FastByteBuffer buffer = new FastByteBuffer();
+        assertTrue(decoder.isKeyFrameRequired());
+
+        // initial key-frame
+        assertTrue(transmit(encoder, decoder, buffer));
+        final long keyFrameSize = buffer.position();
+        assertEqualDataSets(source, decoder.getDataSet());
+        assertEquals(1, decoder.getSequence());
+
+        // appended samples
+        source.add(new double[] { 1000, 1001, 1002 }, new double[] { 1, 2, 3 }, new double[] { 0.1, 0.2, 0.3 },
+                new double[] { 0.4, 0.5, 0.6 });
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertTrue(buffer.position() < keyFrameSize / 10, "delta frame size");
+        assertEqualDataSets(source, decoder.getDataSet());
+
+        // in-place update and append
+        source.set(10, 10.0, -5.0, 1.0, 2.0);
+        source.add(1003, 4.0, 0.0, 0.0);
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertEqualDataSets(source, decoder.getDataSet());
+
+        // empty delta
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertEqualDataSets(source, decoder.getDataSet());
+
+        // modifications without index range -> key-frame
+        source.remove(0, 10);
+        assertTrue(transmit(encoder, decoder, buffer));
+        assertEqualDataSets(source, decoder.getDataSet());
+        assertEquals(5, decoder.getSequence());
+
+        encoder.release();
+        assertThrows(IllegalArgumentException.class, () -> new DataSetDeltaEncoder(new DoubleDataSet3D("3D"), false));
+        assertThrows(IllegalArgumentException.class, () -> new DataSetDeltaDecoder(new DoubleDataSet3D("3D")));
+    }
+
+    @Test
+    public void testLostFrame() {
+        final DoubleErrorDataSet source = new DoubleErrorDataSet("source");
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder(source, true);
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder(new DoubleErrorDataSet("replica"));
+        final FastByteBuffer buffer = new FastByteBuffer();
+
+        // delta frame before key-frame
+        source.add(1.0, 2.0, 0.0, 0.0);
+        buffer.reset();
+        assertTrue(encoder.write(buffer));
+        source.add(2.0, 3.0, 0.0, 0.0);
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertTrue(decoder.isKeyFrameRequired());
+
+        // lost frame
+        encoder.requestKeyFrame();
+        assertTrue(transmit(encoder, decoder, buffer));
+        source.add(3.0, 4.0, 0.0, 0.0);
+        buffer.reset();
+        assertFalse(encoder.write(buffer)); // not transmitted
+        source.add(4.0, 5.0, 0.0, 0.0);
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertTrue(decoder.isKeyFrameRequired(), "out-of-sequence frame rejected");
+        assertEquals(2, decoder.getDataSet().getDataCount(DIM_X));
+
+        // re-synchronisation
+        encoder.requestKeyFrame();
+        assertTrue(encoder.isKeyFrameRequired());
+        assertTrue(transmit(encoder, decoder, buffer));
+        assertFalse(decoder.isKeyFrameRequired());
+        assertEqualDataSets(source, decoder.getDataSet());
+    }
+
+    @Test
+    public void testRollingBuffer() {
+        final int capacity = 100;
+        final CircularDoubleErrorDataSet source = new CircularDoubleErrorDataSet("source", capacity);
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder(source, false);
+        final DataSetDeltaDecoder linearDecoder = new DataSetDeltaDecoder(new DoubleErrorDataSet("linear"));
+        final DataSetDeltaDecoder circularDecoder = new DataSetDeltaDecoder(new CircularDoubleErrorDataSet("circular", capacity));
+        final DataSetDeltaDecoder ringDecoder = new DataSetDeltaDecoder(new RingBufferDoubleErrorDataSet("ring", capacity));
+        final FastByteBuffer buffer = new FastByteBuffer();
+
+        int counter = 0;
+        for (int frame = 0; frame < 20; frame++) {
+            final double[] x = new double[17];
+            final double[] y = new double[17];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = counter;
+                y[i] = 2.0 * counter++;
+            }
+            source.add(x, y, new double[x.length], y);
+
+            buffer.reset();
+            assertEquals(frame == 0, encoder.write(buffer));
+            for (final DataSetDeltaDecoder decoder : new DataSetDeltaDecoder[] { linearDecoder, circularDecoder, ringDecoder }) {
+                buffer.reset();
+                assertTrue(decoder.read(buffer));
+                assertEqualDataSets(source, decoder.getDataSet());
+            }
+        }
+        assertEquals(capacity, linearDecoder.getDataSet().getDataCount(DIM_X));
+    }
+
+    @Test
+    public void testSingleEventPerDelta() {
+        final DoubleErrorDataSet source = new DoubleErrorDataSet("source");
+        for (int i = 0; i < 100; i++) {
+            source.add(i, i, 0.0, 0.0);
+        }
+        final DataSetDeltaEncoder encoder = new DataSetDeltaEncoder(source, false);
+        final DataSetDeltaDecoder decoder = new DataSetDeltaDecoder(new DoubleErrorDataSet("replica"));
+        final FastByteBuffer buffer = new FastByteBuffer();
+        final List<UpdateEvent> events = new ArrayList<>();
+        decoder.getDataSet().addListener(events::add);
+
+        assertTrue(transmit(encoder, decoder, buffer));
+        assertEquals(1, events.size(), "key-frame events");
+
+        // append only
+        events.clear();
+        source.add(100, 100, 0.0, 0.0);
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertEquals(1, events.size(), "append delta events");
+        assertTrue(events.get(0) instanceof AddedDataEvent);
+
+        // in-place update only
+        events.clear();
+        source.set(5, 5.0, -5.0, 0.0, 0.0);
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertEquals(1, events.size(), "update delta events");
+        assertTrue(events.get(0) instanceof UpdatedDataEvent);
+
+        // update and append
+        events.clear();
+        source.set(7, 7.0, -7.0, 0.0, 0.0);
+        source.add(101, 101, 0.0, 0.0);
+        assertFalse(transmit(encoder, decoder, buffer));
+        assertEquals(1, events.size(), "update+append delta events");
+        assertEqualDataSets(source, decoder.getDataSet());
+        assertTrue(decoder.getDataSet().autoNotification().get(), "auto-notification restored");
+    }
+
+    private static boolean transmit(final DataSetDeltaEncoder encoder, final DataSetDeltaDecoder decoder,
+            final FastByteBuffer buffer) {
+        buffer.reset();
+        final boolean keyFrame = encoder.write(buffer);
+        final long size = buffer.position();
+        buffer.reset();
+        decoder.read(buffer);
+        buffer.position(size);
+        return keyFrame;
+    }
+
+    private static void assertEqualDataSets(final DataSet expected, final DataSet actual) {
+        final int count = expected.getDataCount(DIM_X);
+        assertEquals(count, actual.getDataCount(DIM_X), "data count");
+        assertArrayEquals(expected.getValues(DIM_X, 0, count, null), actual.getValues(DIM_X, 0, count, null), 1e-5);
+        assertArrayEquals(expected.getValues(DIM_Y, 0, count, null), actual.getValues(DIM_Y, 0, count, null), 1e-5);
+        assertArrayEquals(((DataSetError) expected).getErrorsNegative(DIM_Y, 0, count, null),
+                ((DataSetError) actual).getErrorsNegative(DIM_Y, 0, count, null), 1e-5);
+        assertArrayEquals(((DataSetError) expected).getErrorsPositive(DIM_Y, 0, count, null),
+                ((DataSetError) actual).getErrorsPositive(DIM_Y, 0, count, null), 1e-5);
+    }
+}
@@ -0,0 +1,221 @@
+package de.gsi.dataset.utils.serializer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.DataSetError.ErrorType;
+import de.gsi.dataset.serializer.spi.FastByteBuffer;
+import de.gsi.dataset.serializer.spi.MappedFileBuffer;
+import de.gsi.dataset.serializer.spi.iobuffer.DataSetSerialiser;
+import de.gsi.dataset.serializer.spi.iobuffer.MappedDataSet;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+
+/**
+ * Checks for {@link MappedFileBuffer} and the lazy {@link MappedDataSet} read mode of {@link DataSetSerialiser}.
+ *
+ * @author rstein
+ */
+public class MappedFileBufferTests {
+    private static final int SEGMENT_SIZE = 64; // small segments to exercise values straddling segment boundaries
+    @TempDir
+    protected Path tempDir;
+
+    @Test
+    public void testPrimitives() throws IOException {
+        final Path file = tempDir.resolve("primitives.bin");
+        final double[] doubles = { 1.0, -2.5, Math.PI, Double.NaN, 1e300, 7.0, 8.0, 9.0, 10.0, 11.0, 12.0, 13.0 };
+        final float[] floats = { 1.5f, -2.5f, 3.25f, 4.0f, 5.0f, 6.0f, 7.0f, 8.0f, 9.0f, 10.0f, 11.0f, 12.0f, 13.0f };
+        final int[] ints = { 1, -2, 3, Integer.MAX_VALUE, Integer.MIN_VALUE, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17 };
+        final long[] longs = { 1L, -2L, Long.MAX_VALUE, Long.MIN_VALUE, 5L, 6L, 7L, 8L, 9L };
+        final short[] shorts = { 1, -2, 3, Short.MAX_VALUE, Short.MIN_VALUE, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 }; // NOPMD
+        final char[] chars = { 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p' };
+        final byte[] bytes = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23 };
+        final boolean[] booleans = { true, false, true, true, false };
+        final String[] strings = { "Hello", "", "World!" };
+
+        long size;
+        try (MappedFileBuffer buffer = new MappedFileBuffer(file, false, SEGMENT_SIZE)) {
+            assertFalse(buffer.isReadOnly());
+            buffer.putByte((byte) 42);
+            buffer.putDouble(Math.E); // straddles the first segment boundary ...
+            for (int i = 0; i < 20; i++) {
+                buffer.putInt(i).putLong(-i).putShort((short) i).putChar((char) ('A' + i)).putFloat(i).putBoolean(i % 2 == 0); // NOPMD
+            }
+            buffer.putDoubleArray(doubles).putFloatArray(floats).putIntArray(ints).putLongArray(longs);
+            buffer.putShortArray(shorts).putCharArray(chars).putByteArray(bytes).putBooleanArray(booleans);
+            buffer.putString("Test String").putStringArray(strings);
+            size = buffer.position();
+            assertEquals(size, buffer.size());
+            assertTrue(buffer.capacity() >= size);
+        }
+        assertEquals(size, Files.size(file), "file truncated to written size");
+
+        try (MappedFileBuffer buffer = new MappedFileBuffer(file, true, SEGMENT_SIZE)) {
+            assertTrue(buffer.isReadOnly());
+            assertEquals(size, buffer.limit());
+            assertEquals(42, buffer.getByte());
+            assertEquals(Math.E, buffer.getDouble(1)); // absolute access
+            assertEquals(Math.E, buffer.getDouble());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, buffer.getInt());
+                assertEquals(-i, buffer.getLong());
+                assertEquals(i, buffer.getShort());
+                assertEquals('A' + i, buffer.getChar());
+                assertEquals(i, buffer.getFloat());
+                assertEquals(i % 2 == 0, buffer.getBoolean());
+            }
+            assertArrayEquals(doubles, buffer.getDoubleArray());
+            assertArrayEquals(floats, buffer.getFloatArray());
+            assertArrayEquals(ints, buffer.getIntArray());
+            assertArrayEquals(longs, buffer.getLongArray());
+            assertArrayEquals(shorts, buffer.getShortArray());
+            assertArrayEquals(chars, buffer.getCharArray());
+            assertArrayEquals(bytes, buffer.getByteArray());
+            assertArrayEquals(booleans, buffer.getBooleanArray());
+            assertEquals("Test String", buffer.getString());
+            assertArrayEquals(strings, buffer.getStringArray());
+            assertFalse(buffer.hasRemaining());
+            assertEquals(0, buffer.remaining());
+
+            assertThrows(IllegalStateException.class, () -> buffer.putInt(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.getDouble(size - 4));
+            assertThrows(IllegalArgumentException.class, () -> buffer.position(size + 1));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new MappedFileBuffer(file, true, 100));
+    }
+
+    @Test
+    public void testDataSetReplay() throws IOException {
+        final Path file = tempDir.resolve("dataSets.bin");
+        final DoubleErrorDataSet[] dataSets = new DoubleErrorDataSet[5];
+        for (int k = 0; k < dataSets.length; k++) {
+            dataSets[k] = new DoubleErrorDataSet("dataSet" + k);
+            final double errorNeg = k == 4 ? 0.2 * k : 0.1 * k; // last data set has symmetric errors
+            for (int i = 0; i < 100 * (k + 1); i++) {
+                dataSets[k].add(i, Math.sin(0.1 * i + k), errorNeg, 0.2 * k);
+            }
+            dataSets[k].getMetaInfo().put("index", Integer.toString(k));
+        }
+        dataSets[4].setErrorType(DIM_Y, ErrorType.SYMMETRIC);
+
+        // persist sequence of data sets, odd ones as float
+        final long[] positions = new long[dataSets.length];
+        try (MappedFileBuffer buffer = new MappedFileBuffer(file, false, SEGMENT_SIZE)) {
+            for (int k = 0; k < dataSets.length; k++) {
+                positions[k] = buffer.position();
+                DataSetSerialiser.writeDataSetToByteArray(dataSets[k], buffer, k % 2 == 1);
+            }
+        }
+
+        // binary compatibility with FastByteBuffer
+        final FastByteBuffer reference = new FastByteBuffer();
+        DataSetSerialiser.writeDataSetToByteArray(dataSets[0], reference, false);
+        final byte[] fileContent = Files.readAllBytes(file);
+        for (int i = 0; i < reference.position(); i++) {
+            assertEquals(reference.elements()[i], fileContent[i], "byte at " + i);
+        }
+
+        try (MappedFileBuffer buffer = new MappedFileBuffer(file, true, SEGMENT_SIZE)) {
+            // eager read
+            for (int k = 0; k < dataSets.length; k++) {
+                buffer.position(positions[k]);
+                final DataSet restored = DataSetSerialiser.readDataSetFromByteArray(buffer);
+                assertFalse(restored instanceof MappedDataSet);
+                assertEqualDataSets(dataSets[k], restored, k % 2 == 1 ? 1e-6 : 0.0);
+            }
+
+            // lazy read
+            DataSetSerialiser.setLazyColumnViews(true);
+            try {
+                assertTrue(DataSetSerialiser.isLazyColumnViews());
+                for (int k = dataSets.length - 1; k >= 0; k--) {
+                    buffer.position(positions[k]);
+                    final DataSet restored = DataSetSerialiser.readDataSetFromByteArray(buffer);
+                    assertTrue(restored instanceof MappedDataSet);
+                    assertEquals(dataSets[k].getName(), restored.getName());
+                    assertEquals(Integer.toString(k), ((MappedDataSet) restored).getMetaInfo().get("index"));
+                    assertEquals(k == 4 ? ErrorType.SYMMETRIC : ErrorType.ASYMMETRIC, ((MappedDataSet) restored).getErrorType(DIM_Y));
+                    assertEqualDataSets(dataSets[k], restored, k % 2 == 1 ? 1e-6 : 0.0);
+                    assertEquals(dataSets[k].get(DIM_Y, 42), restored.get(DIM_Y, 42), 1e-6);
+                    assertEquals(dataSets[k].getErrorPositive(DIM_Y, 42), ((DataSetError) restored).getErrorPositive(DIM_Y, 42), 1e-6);
+                    assertThrows(IndexOutOfBoundsException.class, () -> restored.get(DIM_X, restored.getDataCount()));
+                }
+            } finally {
+                DataSetSerialiser.setLazyColumnViews(false);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentReadGrowAndClose() throws IOException, InterruptedException {
+        final Path file = tempDir.resolve("concurrent.bin");
+        final int nValues = 64;
+        final MappedFileBuffer buffer = new MappedFileBuffer(file, false, SEGMENT_SIZE);
+        for (int i = 0; i < nValues; i++) {
+            buffer.putDouble(i);
+        }
+
+        // readers of the written region while the writer grows (re-maps) the file and finally closes it
+        final AtomicInteger nErrors = new AtomicInteger();
+        final AtomicInteger nClosed = new AtomicInteger();
+        final Thread[] readers = new Thread[2];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                final double[] values = new double[nValues];
+                while (true) {
+                    try {
+                        buffer.getDoubles(0, values, 0, nValues);
+                        for (int i = 0; i < nValues; i++) {
+                            if (values[i] != i || buffer.getDouble(i * Double.BYTES) != i) {
+                                nErrors.incrementAndGet();
+                            }
+                        }
+                    } catch (final IllegalStateException e) {
+                        nClosed.incrementAndGet();
+                        return;
+                    }
+                }
+            });
+            readers[t].start();
+        }
+        for (int i = 0; i < 200_000; i++) {
+            buffer.putDouble(-i);
+        }
+        buffer.close();
+        for (final Thread reader : readers) {
+            reader.join(5000);
+            assertFalse(reader.isAlive());
+        }
+        assertEquals(0, nErrors.get(), "inconsistent concurrent reads");
+        assertEquals(readers.length, nClosed.get(), "reads after close() rejected");
+        assertThrows(IllegalStateException.class, () -> buffer.getDouble(0));
+    }
+
+    private static void assertEqualDataSets(final DataSetError expected, final DataSet actual, final double delta) {
+        final int count = expected.getDataCount(DIM_X);
+        assertEquals(count, actual.getDataCount(DIM_X), "data count");
+        assertArrayEquals(expected.getValues(DIM_X, 0, count, null), actual.getValues(DIM_X, 0, count, null), delta);
+        assertArrayEquals(expected.getValues(DIM_Y, 0, count, null), actual.getValues(DIM_Y, 0, count, null), delta);
+        assertArrayEquals(expected.getErrorsNegative(DIM_Y, 0, count, null),
+                ((DataSetError) actual).getErrorsNegative(DIM_Y, 0, count, null), delta);
+        assertArrayEquals(expected.getErrorsPositive(DIM_Y, 0, count, null),
+                ((DataSetError) actual).getErrorsPositive(DIM_Y, 0, count, null), delta);
+    }
+}
@@ -382,15 +382,33 @@ public final class DataSetMath { // NOPMD - nomen est omen
             final AxisDescription refAxisDescription = function.getAxisDescription(dim);
             filteredFunction.getAxisDescription(dim).set(refAxisDescription.getName(), refAxisDescription.getUnit());
         }
-        final double[] subArrayY = new double[n];
-        final double[] subArrayYn = new double[n];
-        final double[] subArrayYp = new double[n];
-
         final double[] xValues = values(DIM_X, function);
         final double[] yValues = values(DIM_Y, function);
         final double[] yen = errors(function, EYN);
-        final double[] yep = errors(function, EYN);
+        final double[] yep = errors(function, EYP);
+
+        if (width >= 0 && SlidingWindowFilter.isSortedAndFinite(xValues, n)) {
+            // sorted abscissa: contiguous window that can be updated incrementally -- O(n) or O(n log n)
+            final int[] windowMin = new int[n];
+            final int[] windowMax = new int[n];
+            SlidingWindowFilter.getWindowBounds(xValues, n, width, windowMin, windowMax);
+            final double[] filteredY = SlidingWindowFilter.filter(yValues, windowMin, windowMax, n, filterType);
+            final double[] filteredYn = SlidingWindowFilter.filter(yen, windowMin, windowMax, n, filterType);
+            final double[] filteredYp = SlidingWindowFilter.filter(yep, windowMin, windowMax, n, filterType);
+            if (filterType == Filter.MEAN) {
+                for (int i = 0; i < n; i++) {
+                    final double norm = 1.0 / Math.sqrt(windowMax[i] - windowMin[i]);
+                    filteredYn[i] *= norm;
+                    filteredYp[i] *= norm;
+                }
+            }
+            return filteredFunction.set(xValues, filteredY, filteredYn, filteredYp, n, true);
+        }
 
+        // unsorted or non-finite abscissa: brute-force O(n^2) neighbour search
+        final double[] subArrayY = new double[n];
+        final double[] subArrayYn = new double[n];
+        final double[] subArrayYp = new double[n];
         for (int i = 0; i < n; i++) {
             final double time0 = xValues[i];
 
@@ -494,7 +512,7 @@ public final class DataSetMath { // NOPMD - nomen est omen
         final double[] xValues = values(DIM_X, function);
         final double[] yValues = values(DIM_Y, function);
         final double[] yen = errors(function, EYN);
-        final double[] yep = errors(function, EYN);
+        final double[] yep = errors(function, EYP);
 
         final double[] yUp = new double[n];
         final double[] yDown = new double[n];
@@ -0,0 +1,329 @@
+package de.gsi.math;
+
+import java.util.Arrays;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.DataSetMath.Filter;
+
+/**
+ * Streaming sliding-window estimators for data with sorted (non-decreasing) abscissa values.
+ * <p>
+ * For sorted x values, the samples within '|x[i] - x[j]| &lt;= width' of a given sample 'i' form a contiguous index
+ * range [windowMin[i], windowMax[i]) whose limits are both non-decreasing in 'i'. This permits to update the
+ * estimates incrementally while the window slides along the data rather than re-scanning all samples for each output
+ * sample:
+ * <ul>
+ * <li>MIN, MAX, P2P: monotonic index deques -- O(n)</li>
+ * <li>MEAN, RMS, GEOMMEAN: compensated running sums -- O(n)</li>
+ * <li>MEDIAN: rank-indexed Fenwick tree order statistics -- O(n log n)</li>
+ * </ul>
+ * The estimates follow the definitions and corner-cases (e.g. empty windows, NaN and infinite values) of
+ * {@link TMath#Minimum(double[], int)}, {@link TMath#Maximum(double[], int)}, {@link TMath#PeakToPeak(double[], int)},
+ * {@link TMath#Mean(double[], int)}, {@link TMath#RMS(double[], int)}, {@link TMath#GeometricMean(double[], int)} and
+ * {@link TMath#Median(double[], int)} up to floating-point rounding.
+ *
+ * @author rstein
+ */
+public final class SlidingWindowFilter { // NOPMD name is as is (ie. no Helper/Utils ending
+
+    private SlidingWindowFilter() {
+        // this is a static class
+    }
+
+    /**
+     * @param values input values
+     * @param windowMin first index (inclusive) of the window for each sample
+     * @param windowMax last index (exclusive) of the window for each sample
+     * @param length number of samples
+     * @param filterType the estimator to be applied
+     * @return filtered values (N.B. MEAN returns the plain average)
+     */
+    public static double[] filter(final double[] values, final int[] windowMin, final int[] windowMax,
+            final int length, final Filter filterType) {
+        AssertUtils.notNull("values", values);
+        AssertUtils.notNull("windowMin", windowMin);
+        AssertUtils.notNull("windowMax", windowMax);
+        AssertUtils.notNull("filterType", filterType);
+        final double[] result = new double[length];
+        switch (filterType) {
+        case MEDIAN:
+            median(values, windowMin, windowMax, length, result);
+            break;
+        case MIN:
+            extremum(values, windowMin, windowMax, length, false, result);
+            for (int i = 0; i < length; i++) {
+                result[i] = Math.min(Double.MAX_VALUE, result[i]);
+            }
+            break;
+        case MAX:
+            extremum(values, windowMin, windowMax, length, true, result);
+            for (int i = 0; i < length; i++) {
+                result[i] = Math.max(-Double.MAX_VALUE, result[i]);
+            }
+            break;
+        case P2P:
+            final double[] minimum = new double[length];
+            extremum(values, windowMin, windowMax, length, false, minimum);
+            extremum(values, windowMin, windowMax, length, true, result);
+            for (int i = 0; i < length; i++) {
+                result[i] = Math.abs(Math.max(-Double.MAX_VALUE, result[i]) - Math.min(Double.MAX_VALUE, minimum[i]));
+            }
+            break;
+        case RMS:
+        case GEOMMEAN:
+        case MEAN:
+        default:
+            runningSum(values, windowMin, windowMax, length, filterType, result);
+            break;
+        }
+        return result;
+    }
+
+    /**
+     * computes the window index ranges for '|x[i] - x[j]| &lt;= width'
+     *
+     * @param xValues sorted (non-decreasing) and finite abscissa values
+     * @param length number of samples
+     * @param width maximum abscissa distance between the sample and its neighbours
+     * @param windowMin first index (inclusive) of the window for each sample (output)
+     * @param windowMax last index (exclusive) of the window for each sample (output)
+     */
+    public static void getWindowBounds(final double[] xValues, final int length, final double width,
+            final int[] windowMin, final int[] windowMax) {
+        AssertUtils.notNull("xValues", xValues);
+        AssertUtils.notNull("windowMin", windowMin);
+        AssertUtils.notNull("windowMax", windowMax);
+        int min = 0;
+        int max = 0;
+        for (int i = 0; i < length; i++) {
+            final double x0 = xValues[i];
+            while (min < i && !(Math.abs(x0 - xValues[min]) <= width)) {
+                min++;
+            }
+            max = Math.max(max, i);
+            while (max < length && Math.abs(x0 - xValues[max]) <= width) {
+                max++;
+            }
+            windowMin[i] = min;
+            windowMax[i] = max;
+        }
+    }
+
+    /**
+     * @param xValues abscissa values
+     * @param length number of samples
+     * @return {@code true} if the values are finite and non-decreasing, i.e. the requirement for the streaming
+     *         estimators
+     */
+    public static boolean isSortedAndFinite(final double[] xValues, final int length) {
+        for (int i = 0; i < length; i++) {
+            if (!Double.isFinite(xValues[i]) || (i > 0 && xValues[i] < xValues[i - 1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * monotonic deque sliding minimum/maximum following the {@link Math#min(double, double)} and
+     * {@link Math#max(double, double)} semantics (ie. NaN dominates, -0.0 &lt; 0.0)
+     */
+    private static void extremum(final double[] values, final int[] windowMin, final int[] windowMax,
+            final int length, final boolean isMax, final double[] result) {
+        final int[] deque = new int[length];
+        int head = 0;
+        int tail = 0;
+        int next = 0;
+        for (int i = 0; i < length; i++) {
+            for (; next < windowMax[i]; next++) {
+                final double value = values[next];
+                while (tail > head && dominates(value, values[deque[tail - 1]], isMax)) {
+                    tail--;
+                }
+                deque[tail++] = next;
+            }
+            while (tail > head && deque[head] < windowMin[i]) {
+                head++;
+            }
+            result[i] = tail > head ? values[deque[head]] : isMax ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private static boolean dominates(final double value, final double reference, final boolean isMax) {
+        if (Double.isNaN(value)) {
+            return true;
+        }
+        final int compare = Double.compare(value, reference);
+        return isMax ? compare >= 0 : compare <= 0 && !Double.isNaN(reference);
+    }
+
+    private static void median(final double[] values, final int[] windowMin, final int[] windowMax, final int length,
+            final double[] result) {
+        // N.B. Arrays.sort and Arrays.binarySearch share the same total order (incl. NaN and -0.0) as TMath.Sort
+        final double[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        final int[] rank = new int[length];
+        for (int i = 0; i < length; i++) {
+            rank[i] = Arrays.binarySearch(sorted, values[i]);
+        }
+        final RankTree tree = new RankTree(length);
+        int min = 0;
+        int max = 0;
+        for (int i = 0; i < length; i++) {
+            for (; max < windowMax[i]; max++) {
+                tree.update(rank[max], +1);
+            }
+            for (; min < windowMin[i]; min++) {
+                tree.update(rank[min], -1);
+            }
+            final int count = max - min;
+            if (count <= 0) {
+                result[i] = Double.NaN;
+            } else if (count % 2 == 0) {
+                result[i] = 0.5 * (sorted[tree.select(count / 2)] + sorted[tree.select(count / 2 + 1)]);
+            } else {
+                result[i] = sorted[tree.select(count / 2 + 1)];
+            }
+        }
+    }
+
+    private static void runningSum(final double[] values, final int[] windowMin, final int[] windowMax,
+            final int length, final Filter filterType, final double[] result) {
+        final RunningSum sum = new RunningSum();
+        final RunningSum sum2 = new RunningSum();
+        int nZeros = 0;
+        int min = 0;
+        int max = 0;
+        for (int i = 0; i < length; i++) {
+            for (; max < windowMax[i]; max++) {
+                final double value = values[max];
+                if (filterType == Filter.GEOMMEAN) {
+                    nZeros += value == 0 ? 1 : 0;
+                    sum.add(Math.log(Math.abs(value)));
+                } else {
+                    sum.add(value);
+                    sum2.add(value * value);
+                }
+            }
+            for (; min < windowMin[i]; min++) {
+                final double value = values[min];
+                if (filterType == Filter.GEOMMEAN) {
+                    nZeros -= value == 0 ? 1 : 0;
+                    sum.remove(Math.log(Math.abs(value)));
+                } else {
+                    sum.remove(value);
+                    sum2.remove(value * value);
+                }
+            }
+            final int count = max - min;
+            switch (filterType) {
+            case RMS:
+                if (count <= 0) {
+                    result[i] = -1;
+                } else {
+                    final double mean = sum.get() / count;
+                    result[i] = Math.sqrt(Math.abs(sum2.get() / count - mean * mean));
+                }
+                break;
+            case GEOMMEAN:
+                result[i] = nZeros > 0 ? 0.0 : Math.exp(sum.get() / count);
+                break;
+            case MEAN:
+            default:
+                result[i] = count > 0 ? sum.get() / count : 0.0;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Fenwick tree counting the number of window samples per rank
+     */
+    private static class RankTree {
+        private final int[] tree;
+        private final int highestBit;
+
+        private RankTree(final int length) {
+            tree = new int[length + 1];
+            highestBit = length == 0 ? 0 : Integer.highestOneBit(length);
+        }
+
+        private void update(final int rank, final int delta) {
+            for (int index = rank + 1; index < tree.length; index += index & -index) {
+                tree[index] += delta;
+            }
+        }
+
+        /**
+         * @param k 1-based order statistic
+         * @return 0-based rank of the k-th smallest element
+         */
+        private int select(final int k) {
+            int position = 0;
+            int remainder = k;
+            for (int step = highestBit; step > 0; step >>= 1) {
+                final int next = position + step;
+                if (next < tree.length && tree[next] < remainder) {
+                    position = next;
+                    remainder -= tree[next];
+                }
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Neumaier-compensated running sum that tracks non-finite contributions separately so that these can be removed
+     * again from the window
+     */
+    private static class RunningSum {
+        private double sum;
+        private double compensation;
+        private int nNaN;
+        private int nPositiveInfinity;
+        private int nNegativeInfinity;
+
+        private void add(final double value) {
+            if (Double.isFinite(value)) {
+                final double newSum = sum + value;
+                if (Math.abs(sum) >= Math.abs(value)) {
+                    compensation += (sum - newSum) + value;
+                } else {
+                    compensation += (value - newSum) + sum;
+                }
+                sum = newSum;
+            } else if (Double.isNaN(value)) {
+                nNaN++;
+            } else if (value > 0) {
+                nPositiveInfinity++;
+            } else {
+                nNegativeInfinity++;
+            }
+        }
+
+        private double get() {
+            if (nNaN > 0 || (nPositiveInfinity > 0 && nNegativeInfinity > 0)) {
+                return Double.NaN;
+            }
+            if (nPositiveInfinity > 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            if (nNegativeInfinity > 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            return sum + compensation;
+        }
+
+        private void remove(final double value) {
+            if (Double.isFinite(value)) {
+                add(-value);
+            } else if (Double.isNaN(value)) {
+                nNaN--;
+            } else if (value > 0) {
+                nPositiveInfinity--;
+            } else {
+                nNegativeInfinity--;
+            }
+        }
+    }
+}
@@ -3346,10 +3346,13 @@ public class TMath extends TMathConstants {
      * @return median value of vector element
      */
     public static double Median(double[] data, int length) {
+        if (length <= 0) {
+            return Double.NaN;
+        }
         final double[] temp = Sort(data, length, false);
 
         if (length % 2 == 0) {
-            return 0.5 * (temp[length / 2] + temp[length / 2 + 1]);
+            return 0.5 * (temp[length / 2 - 1] + temp[length / 2]);
         } else {
             return temp[length / 2];
         }
@@ -3365,11 +3368,14 @@ public class TMath extends TMathConstants {
      * @return median value of vector element
      */
     public static float Median(float[] data, int length) {
+        if (length <= 0) {
+            return Float.NaN;
+        }
         final float[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return 0.5f * (temp[length / 2] + temp[length / 2 + 1]);
+            return 0.5f * (temp[length / 2 - 1] + temp[length / 2]);
         } else {
-            return data[length / 2];
+            return temp[length / 2];
         }
     }
 
@@ -3385,7 +3391,7 @@ public class TMath extends TMathConstants {
     public static int Median(int[] data, int length) {
         final int[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return (int) (0.5 * (temp[length / 2] + temp[length / 2 + 1]));
+            return (int) (0.5 * (temp[length / 2 - 1] + temp[length / 2]));
         } else {
             return temp[length / 2];
         }
@@ -3406,7 +3412,7 @@ public class TMath extends TMathConstants {
     public static long Median(long[] data, int length) {
         final long[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return (long) (0.5 * (temp[length / 2] + data[length / 2 + 1]));
+            return (long) (0.5 * (temp[length / 2 - 1] + temp[length / 2]));
         } else {
             return temp[length / 2];
         }
@@ -3424,7 +3430,7 @@ public class TMath extends TMathConstants {
     public static short Median(short[] data, int length) {
         final short[] temp = Sort(data, length, false);
         if (length % 2 == 0) {
-            return (short) (0.5 * (temp[length / 2] + temp[length / 2 + 1]));
+            return (short) (0.5 * (temp[length / 2 - 1] + temp[length / 2]));
         } else {
             return temp[length / 2];
         }
@@ -21,14 +21,33 @@
 
 package de.gsi.math.filter.iir;
 
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
 import org.apache.commons.math3.complex.Complex;
 import org.apache.commons.math3.complex.ComplexUtils;
 
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.DoubleArrayCache;
+import de.gsi.math.utils.ConcurrencyUtils;
+
 /**
  * The mother of all filters. It contains the coefficients of all filter stages as a sequence of 2nd order filters and
  * the states of the 2nd order filters which also imply if it's direct form I or II
+ * <p>
+ * Besides the sample-by-sample {@link #filter(double)}, the cascade provides block-processing variants that operate
+ * on a flattened second-order-sections (SOS) coefficient array, process one stage at a time over the whole block and
+ * keep the filter state in pre-allocated primitive arrays. Zero-phase forward-backward filtering is available via
+ * {@link #filtfilt(double[], double[], int, int)} and several channels may be filtered in parallel via
+ * {@link #filter(double[][], double[][], int, int)}.
  */
 public class Cascade {
+    /** number of coefficients per second-order section: b0, b1, b2, a0, a1, a2 (N.B. a0 = 1 after normalisation) */
+    public static final int SOS_STRIDE = 6;
+    private static final int STATE_STRIDE = 4;
+    private static final int FLOAT_BLOCK_SIZE = 1024;
+
     // coefficients
     private Biquad[] mBiquads;
 
@@ -38,6 +57,16 @@ public class Cascade {
     // number of biquads in the system
     private int mNumBiquads;
 
+    private int mDirectFormType = DirectFormAbstract.DIRECT_FORM_II;
+    // flattened, normalised SOS coefficients used by the block-processing routines
+    private double[] mSos = new double[0];
+    // flattened state of the single-channel block processing (synchronised with mStates)
+    private double[] mBlockState = new double[0];
+    // state for the zero-phase forward-backward filter
+    private double[] mZeroPhaseState = new double[0];
+    // independent per-channel states for the multi-channel filter
+    private double[][] mChannelStates = new double[0][];
+
     public Cascade() {
         mNumBiquads = 0;
     }
@@ -60,6 +89,153 @@ public class Cascade {
         return out;
     }
 
+    /**
+     * filters a block of samples and continues the state of the sample-by-sample {@link #filter(double)}, ie. both
+     * methods may be mixed on the same data stream and yield identical results. The input and output array may be the
+     * same (in-place filtering).
+     *
+     * @param in input samples
+     * @param out output samples (written to the same indices as the input)
+     * @param from first index to be filtered
+     * @param n number of samples to be filtered
+     */
+    public void filter(final double[] in, final double[] out, final int from, final int n) {
+        checkRange("in", in.length, from, n);
+        checkRange("out", out.length, from, n);
+        if (in != out) {
+            System.arraycopy(in, from, out, from, n);
+        }
+        updateSecondOrderSections();
+        loadState(mBlockState);
+        filterBlock(out, from, n, mSos, mNumBiquads, mBlockState, mDirectFormType);
+        storeState(mBlockState);
+    }
+
+    /**
+     * filters multiple channels with the same filter in parallel. Each channel keeps its own state that is continued
+     * between calls and independent of the single-channel state (N.B. reset via {@link #reset()}).
+     *
+     * @param in input samples [nChannels][nSamples]
+     * @param out output samples [nChannels][nSamples] (written to the same indices as the input, may be 'in')
+     * @param from first index to be filtered
+     * @param n number of samples to be filtered per channel
+     */
+    public void filter(final double[][] in, final double[][] out, final int from, final int n) {
+        checkChannels(in.length, out.length);
+        for (int channel = 0; channel < in.length; channel++) {
+            checkRange("in[" + channel + "]", in[channel].length, from, n);
+            checkRange("out[" + channel + "]", out[channel].length, from, n);
+        }
+        updateSecondOrderSections();
+        final double[][] states = getChannelStates(in.length);
+        processChannels(in.length, channel -> {
+            if (in[channel] != out[channel]) {
+                System.arraycopy(in[channel], from, out[channel], from, n);
+            }
+            filterBlock(out[channel], from, n, mSos, mNumBiquads, states[channel], mDirectFormType);
+        });
+    }
+
+    /**
+     * filters a block of samples, see {@link #filter(double[], double[], int, int)}. N.B. the samples are internally
+     * processed in double precision.
+     *
+     * @param in input samples
+     * @param out output samples (written to the same indices as the input)
+     * @param from first index to be filtered
+     * @param n number of samples to be filtered
+     */
+    public void filter(final float[] in, final float[] out, final int from, final int n) {
+        checkRange("in", in.length, from, n);
+        checkRange("out", out.length, from, n);
+        if (in != out) {
+            System.arraycopy(in, from, out, from, n);
+        }
+        updateSecondOrderSections();
+        loadState(mBlockState);
+        filterBlock(out, from, n, mSos, mNumBiquads, mBlockState, mDirectFormType);
+        storeState(mBlockState);
+    }
+
+    /**
+     * filters multiple channels with the same filter in parallel, see
+     * {@link #filter(double[][], double[][], int, int)}.
+     *
+     * @param in input samples [nChannels][nSamples]
+     * @param out output samples [nChannels][nSamples] (written to the same indices as the input, may be 'in')
+     * @param from first index to be filtered
+     * @param n number of samples to be filtered per channel
+     */
+    public void filter(final float[][] in, final float[][] out, final int from, final int n) {
+        checkChannels(in.length, out.length);
+        for (int channel = 0; channel < in.length; channel++) {
+            checkRange("in[" + channel + "]", in[channel].length, from, n);
+            checkRange("out[" + channel + "]", out[channel].length, from, n);
+        }
+        updateSecondOrderSections();
+        final double[][] states = getChannelStates(in.length);
+        processChannels(in.length, channel -> {
+            if (in[channel] != out[channel]) {
+                System.arraycopy(in[channel], from, out[channel], from, n);
+            }
+            filterBlock(out[channel], from, n, mSos, mNumBiquads, states[channel], mDirectFormType);
+        });
+    }
+
+    /**
+     * zero-phase forward-backward filtering: the data is filtered forward and then backward in time, which cancels the
+     * phase response and squares the magnitude response of the filter. The edges are extended by odd reflection and
+     * the filter states are initialised to their steady-state for the first sample to minimise transients (similar to
+     * 'filtfilt' in other numerical packages). This method is stateless, ie. does not modify the state of the streaming
+     * filter.
+     *
+     * @param in input samples
+     * @param out output samples (written to the same indices as the input, may be 'in')
+     * @param from first index to be filtered
+     * @param n number of samples to be filtered
+     */
+    public void filtfilt(final double[] in, final double[] out, final int from, final int n) {
+        checkRange("in", in.length, from, n);
+        checkRange("out", out.length, from, n);
+        if (n == 0) {
+            return;
+        }
+        final int padLength = getPadLength(n);
+        final int length = n + 2 * padLength;
+        final double[] extended = DoubleArrayCache.getInstance().getArray(length);
+        System.arraycopy(in, from, extended, padLength, n);
+        filtfilt(extended, padLength, n);
+        System.arraycopy(extended, padLength, out, from, n);
+        DoubleArrayCache.getInstance().add(extended);
+    }
+
+    /**
+     * zero-phase forward-backward filtering, see {@link #filtfilt(double[], double[], int, int)}.
+     *
+     * @param in input samples
+     * @param out output samples (written to the same indices as the input, may be 'in')
+     * @param from first index to be filtered
+     * @param n number of samples to be filtered
+     */
+    public void filtfilt(final float[] in, final float[] out, final int from, final int n) {
+        checkRange("in", in.length, from, n);
+        checkRange("out", out.length, from, n);
+        if (n == 0) {
+            return;
+        }
+        final int padLength = getPadLength(n);
+        final int length = n + 2 * padLength;
+        final double[] extended = DoubleArrayCache.getInstance().getArray(length);
+        for (int i = 0; i < n; i++) {
+            extended[padLength + i] = in[from + i];
+        }
+        filtfilt(extended, padLength, n);
+        for (int i = 0; i < n; i++) {
+            out[from + i] = (float) extended[padLength + i];
+        }
+        DoubleArrayCache.getInstance().add(extended);
+    }
+
     public Biquad getBiquad(final int index) {
         return mBiquads[index];
     }
@@ -68,10 +244,22 @@ public class Cascade {
         return mNumBiquads;
     }
 
+    /**
+     * @return copy of the normalised filter coefficients as flattened second-order sections, ie. [b0, b1, b2, a0 = 1,
+     *         a1, a2] for each stage
+     */
+    public double[] getSecondOrderSections() {
+        updateSecondOrderSections();
+        return mSos.clone();
+    }
+
     public void reset() {
         for (int i = 0; i < mNumBiquads; i++) {
             mStates[i].reset();
         }
+        for (final double[] state : mChannelStates) {
+            Arrays.fill(state, 0.0);
+        }
     }
 
     public Complex response(final double normalizedFrequency) {
@@ -101,10 +289,81 @@ public class Cascade {
 
     public void setLayout(final LayoutBase proto, final int filterTypes) {
         final int numPoles = proto.getNumPoles();
-        mNumBiquads = (numPoles + 1) / 2;
+        initStages((numPoles + 1) / 2, filterTypes);
+        for (int i = 0; i < mNumBiquads; ++i) {
+            final PoleZeroPair p = proto.getPair(i);
+            mBiquads[i].setPoleZeroPair(p);
+        }
+        applyScale(proto.getNormalGain() / response(proto.getNormalW() / (2 * Math.PI)).abs());
+    }
+
+    /**
+     * initialises the filter from flattened second-order sections (e.g. designed by an external tool)
+     *
+     * @param sos coefficients [b0, b1, b2, a0, a1, a2] for each stage
+     * @param filterTypes {@link DirectFormAbstract#DIRECT_FORM_I} or {@link DirectFormAbstract#DIRECT_FORM_II}
+     */
+    public void setSecondOrderSections(final double[] sos, final int filterTypes) {
+        AssertUtils.notNull("sos", sos);
+        if (sos.length == 0 || sos.length % SOS_STRIDE != 0) {
+            throw new IllegalArgumentException("sos length " + sos.length + " must be a non-zero multiple of " + SOS_STRIDE);
+        }
+        for (int offset = 0; offset < sos.length; offset += SOS_STRIDE) {
+            if (sos[offset + 3] == 0.0) {
+                throw new IllegalArgumentException("a0 of stage " + offset / SOS_STRIDE + " must not be zero");
+            }
+        }
+        initStages(sos.length / SOS_STRIDE, filterTypes);
+        for (int i = 0; i < mNumBiquads; i++) {
+            final int offset = i * SOS_STRIDE;
+            mBiquads[i].setCoefficients(sos[offset + 3], sos[offset + 4], sos[offset + 5], sos[offset], sos[offset + 1], sos[offset + 2]);
+        }
+    }
+
+    private void filtfilt(final double[] extended, final int padLength, final int n) {
+        final int length = n + 2 * padLength;
+        // odd extension around the first and last sample
+        final double first = extended[padLength];
+        final double last = extended[padLength + n - 1];
+        for (int i = 1; i <= padLength; i++) {
+            extended[padLength - i] = 2.0 * first - extended[padLength + i];
+            extended[padLength + n - 1 + i] = 2.0 * last - extended[padLength + n - 1 - i];
+        }
+
+        updateSecondOrderSections();
+        if (mZeroPhaseState.length != mBlockState.length) {
+            mZeroPhaseState = new double[mBlockState.length];
+        }
+        setSteadyState(extended[0], mZeroPhaseState);
+        filterBlock(extended, 0, length, mSos, mNumBiquads, mZeroPhaseState, mDirectFormType);
+        reverse(extended, length);
+        setSteadyState(extended[0], mZeroPhaseState);
+        filterBlock(extended, 0, length, mSos, mNumBiquads, mZeroPhaseState, mDirectFormType);
+        reverse(extended, length);
+    }
+
+    private double[][] getChannelStates(final int nChannels) {
+        if (mChannelStates.length < nChannels) {
+            mChannelStates = Arrays.copyOf(mChannelStates, nChannels);
+        }
+        for (int channel = 0; channel < nChannels; channel++) {
+            if (mChannelStates[channel] == null || mChannelStates[channel].length != STATE_STRIDE * mNumBiquads) {
+                mChannelStates[channel] = new double[STATE_STRIDE * mNumBiquads];
+            }
+        }
+        return mChannelStates;
+    }
+
+    private int getPadLength(final int n) {
+        return Math.min(3 * (2 * mNumBiquads + 1), n - 1);
+    }
+
+    private void initStages(final int numBiquads, final int filterTypes) {
+        mNumBiquads = numBiquads;
         mBiquads = new Biquad[mNumBiquads];
         switch (filterTypes) {
         case DirectFormAbstract.DIRECT_FORM_I:
+            mDirectFormType = DirectFormAbstract.DIRECT_FORM_I;
             mStates = new DirectFormI[mNumBiquads];
             for (int i = 0; i < mNumBiquads; i++) {
                 mStates[i] = new DirectFormI(); // NOPMD
@@ -112,6 +371,7 @@ public class Cascade {
             break;
         case DirectFormAbstract.DIRECT_FORM_II:
         default:
+            mDirectFormType = DirectFormAbstract.DIRECT_FORM_II;
             mStates = new DirectFormII[mNumBiquads];
             for (int i = 0; i < mNumBiquads; i++) {
                 mStates[i] = new DirectFormII(); // NOPMD
@@ -119,10 +379,280 @@ public class Cascade {
             break;
         }
         for (int i = 0; i < mNumBiquads; ++i) {
-            final PoleZeroPair p = proto.getPair(i);
             mBiquads[i] = new Biquad(); // NOPMD
-            mBiquads[i].setPoleZeroPair(p);
         }
-        applyScale(proto.getNormalGain() / response(proto.getNormalW() / (2 * Math.PI)).abs());
+        mSos = new double[SOS_STRIDE * mNumBiquads];
+        mBlockState = new double[STATE_STRIDE * mNumBiquads];
+        mChannelStates = new double[0][];
+    }
+
+    private void loadState(final double[] state) {
+        for (int i = 0; i < mNumBiquads; i++) {
+            final int offset = i * STATE_STRIDE;
+            if (mStates[i] instanceof DirectFormI) {
+                final DirectFormI form = (DirectFormI) mStates[i];
+                state[offset] = form.mX1;
+                state[offset + 1] = form.mX2;
+                state[offset + 2] = form.mY1;
+                state[offset + 3] = form.mY2;
+            } else if (mStates[i] instanceof DirectFormII) {
+                final DirectFormII form = (DirectFormII) mStates[i];
+                state[offset] = form.mV1;
+                state[offset + 1] = form.mV2;
+            }
+        }
+    }
+
+    private void setSteadyState(final double value, final double[] state) {
+        // state of each stage for a constant input 'value' that extends to -infinity
+        double input = value;
+        for (int i = 0; i < mNumBiquads; i++) {
+            final int offset = i * SOS_STRIDE;
+            final double gain = 1.0 + mSos[offset + 4] + mSos[offset + 5];
+            final double w = Math.abs(gain) > Double.MIN_NORMAL ? input / gain : 0.0;
+            final double output = (mSos[offset] + mSos[offset + 1] + mSos[offset + 2]) * w;
+            final int stateOffset = i * STATE_STRIDE;
+            if (mDirectFormType == DirectFormAbstract.DIRECT_FORM_I) {
+                state[stateOffset] = input;
+                state[stateOffset + 1] = input;
+                state[stateOffset + 2] = output;
+                state[stateOffset + 3] = output;
+            } else {
+                state[stateOffset] = w;
+                state[stateOffset + 1] = w;
+            }
+            input = output;
+        }
+    }
+
+    private void storeState(final double[] state) {
+        for (int i = 0; i < mNumBiquads; i++) {
+            final int offset = i * STATE_STRIDE;
+            if (mStates[i] instanceof DirectFormI) {
+                final DirectFormI form = (DirectFormI) mStates[i];
+                form.mX1 = state[offset];
+                form.mX2 = state[offset + 1];
+                form.mY1 = state[offset + 2];
+                form.mY2 = state[offset + 3];
+            } else if (mStates[i] instanceof DirectFormII) {
+                final DirectFormII form = (DirectFormII) mStates[i];
+                form.mV1 = state[offset];
+                form.mV2 = state[offset + 1];
+            }
+        }
+    }
+
+    private void updateSecondOrderSections() {
+        // N.B. refreshed for every block since the Biquad coefficients are publicly modifiable
+        for (int i = 0; i < mNumBiquads; i++) {
+            final Biquad stage = mBiquads[i];
+            final int offset = i * SOS_STRIDE;
+            mSos[offset] = stage.mB0;
+            mSos[offset + 1] = stage.mB1;
+            mSos[offset + 2] = stage.mB2;
+            mSos[offset + 3] = 1.0;
+            mSos[offset + 4] = stage.mA1;
+            mSos[offset + 5] = stage.mA2;
+        }
+    }
+
+    private static void checkChannels(final int nIn, final int nOut) {
+        if (nIn != nOut) {
+            throw new IllegalArgumentException("number of input channels " + nIn + " != output channels " + nOut);
+        }
+    }
+
+    private static void checkRange(final String name, final int length, final int from, final int n) {
+        AssertUtils.gtEqThanZero("from", from);
+        AssertUtils.gtEqThanZero("n", n);
+        AssertUtils.gtOrEqual(name + ".length", from + n, length);
+    }
+
+    protected static void filterBlock(final double[] data, final int from, final int n, final double[] sos, final int nStages, final double[] state, final int directFormType) {
+        // N.B. two stages are processed per pass: the recursion of each stage is latency-bound, processing them
+        // interleaved allows the CPU to overlap their computation (more stages per pass would exceed the registers)
+        final int to = from + n;
+        int stage = 0;
+        for (; stage + 1 < nStages; stage += 2) {
+            if (directFormType == DirectFormAbstract.DIRECT_FORM_I) {
+                filterSectionPairDirectFormI(data, from, to, sos, stage, state);
+            } else {
+                filterSectionPairDirectFormII(data, from, to, sos, stage, state);
+            }
+        }
+        if (stage < nStages) {
+            if (directFormType == DirectFormAbstract.DIRECT_FORM_I) {
+                filterSectionDirectFormI(data, from, to, sos, stage, state);
+            } else {
+                filterSectionDirectFormII(data, from, to, sos, stage, state);
+            }
+        }
+    }
+
+    protected static void filterBlock(final float[] data, final int from, final int n, final double[] sos, final int nStages, final double[] state, final int directFormType) {
+        // N.B. processed in double precision via a small (cache-resident) buffer, float<->double conversions inside the
+        // recursion would otherwise become part of its critical latency path
+        final int to = from + n;
+        final double[] buffer = DoubleArrayCache.getInstance().getArrayExact(FLOAT_BLOCK_SIZE);
+        for (int offset = from; offset < to; offset += FLOAT_BLOCK_SIZE) {
+            final int length = Math.min(FLOAT_BLOCK_SIZE, to - offset);
+            for (int i = 0; i < length; i++) {
+                buffer[i] = data[offset + i];
+            }
+            filterBlock(buffer, 0, length, sos, nStages, state, directFormType);
+            for (int i = 0; i < length; i++) {
+                data[offset + i] = (float) buffer[i];
+            }
+        }
+        DoubleArrayCache.getInstance().add(buffer);
+    }
+
+    private static void filterSectionPairDirectFormI(final double[] data, final int from, final int to, final double[] sos, final int stage, final double[] state) {
+        final int offset = stage * SOS_STRIDE;
+        final double b0 = sos[offset];
+        final double b1 = sos[offset + 1];
+        final double b2 = sos[offset + 2];
+        final double a1 = sos[offset + 4];
+        final double a2 = sos[offset + 5];
+        final double c0 = sos[offset + 6];
+        final double c1 = sos[offset + 7];
+        final double c2 = sos[offset + 8];
+        final double d1 = sos[offset + 10];
+        final double d2 = sos[offset + 11];
+        final int stateOffset = stage * STATE_STRIDE;
+        double x1 = state[stateOffset];
+        double x2 = state[stateOffset + 1];
+        double y1 = state[stateOffset + 2];
+        double y2 = state[stateOffset + 3];
+        double z1 = state[stateOffset + 6];
+        double z2 = state[stateOffset + 7];
+        for (int i = from; i < to; i++) {
+            final double input = data[i];
+            final double output1 = b0 * input + b1 * x1 + b2 * x2 - a1 * y1 - a2 * y2;
+            final double output2 = c0 * output1 + c1 * y1 + c2 * y2 - d1 * z1 - d2 * z2;
+            x2 = x1;
+            y2 = y1;
+            z2 = z1;
+            x1 = input;
+            y1 = output1;
+            z1 = output2;
+            data[i] = output2;
+        }
+        // N.B. the input history of the second stage is the output history of the first
+        state[stateOffset] = x1;
+        state[stateOffset + 1] = x2;
+        state[stateOffset + 2] = y1;
+        state[stateOffset + 3] = y2;
+        state[stateOffset + 4] = y1;
+        state[stateOffset + 5] = y2;
+        state[stateOffset + 6] = z1;
+        state[stateOffset + 7] = z2;
+    }
+
+    private static void filterSectionDirectFormI(final double[] data, final int from, final int to, final double[] sos, final int stage, final double[] state) {
+        final int offset = stage * SOS_STRIDE;
+        final double b0 = sos[offset];
+        final double b1 = sos[offset + 1];
+        final double b2 = sos[offset + 2];
+        final double a1 = sos[offset + 4];
+        final double a2 = sos[offset + 5];
+        final int stateOffset = stage * STATE_STRIDE;
+        double x1 = state[stateOffset];
+        double x2 = state[stateOffset + 1];
+        double y1 = state[stateOffset + 2];
+        double y2 = state[stateOffset + 3];
+        for (int i = from; i < to; i++) {
+            final double input = data[i];
+            final double output = b0 * input + b1 * x1 + b2 * x2 - a1 * y1 - a2 * y2;
+            x2 = x1;
+            y2 = y1;
+            x1 = input;
+            y1 = output;
+            data[i] = output;
+        }
+        state[stateOffset] = x1;
+        state[stateOffset + 1] = x2;
+        state[stateOffset + 2] = y1;
+        state[stateOffset + 3] = y2;
+    }
+
+    private static void filterSectionPairDirectFormII(final double[] data, final int from, final int to, final double[] sos, final int stage, final double[] state) {
+        final int offset = stage * SOS_STRIDE;
+        final double b0 = sos[offset];
+        final double b1 = sos[offset + 1];
+        final double b2 = sos[offset + 2];
+        final double a1 = sos[offset + 4];
+        final double a2 = sos[offset + 5];
+        final double c0 = sos[offset + 6];
+        final double c1 = sos[offset + 7];
+        final double c2 = sos[offset + 8];
+        final double d1 = sos[offset + 10];
+        final double d2 = sos[offset + 11];
+        final int stateOffset = stage * STATE_STRIDE;
+        double v1 = state[stateOffset];
+        double v2 = state[stateOffset + 1];
+        double u1 = state[stateOffset + 4];
+        double u2 = state[stateOffset + 5];
+        for (int i = from; i < to; i++) {
+            final double w = data[i] - a1 * v1 - a2 * v2;
+            final double u = b0 * w + b1 * v1 + b2 * v2 - d1 * u1 - d2 * u2;
+            data[i] = c0 * u + c1 * u1 + c2 * u2;
+            v2 = v1;
+            v1 = w;
+            u2 = u1;
+            u1 = u;
+        }
+        state[stateOffset] = v1;
+        state[stateOffset + 1] = v2;
+        state[stateOffset + 4] = u1;
+        state[stateOffset + 5] = u2;
+    }
+
+    private static void filterSectionDirectFormII(final double[] data, final int from, final int to, final double[] sos, final int stage, final double[] state) {
+        final int offset = stage * SOS_STRIDE;
+        final double b0 = sos[offset];
+        final double b1 = sos[offset + 1];
+        final double b2 = sos[offset + 2];
+        final double a1 = sos[offset + 4];
+        final double a2 = sos[offset + 5];
+        final int stateOffset = stage * STATE_STRIDE;
+        double v1 = state[stateOffset];
+        double v2 = state[stateOffset + 1];
+        for (int i = from; i < to; i++) {
+            final double w = data[i] - a1 * v1 - a2 * v2;
+            data[i] = b0 * w + b1 * v1 + b2 * v2;
+            v2 = v1;
+            v1 = w;
+        }
+        state[stateOffset] = v1;
+        state[stateOffset + 1] = v2;
+    }
+
+    private static void processChannels(final int nChannels, final IntConsumer task) {
+        final int nThreads = Math.min(nChannels, ConcurrencyUtils.getNumberOfThreads());
+        if (nThreads <= 1) {
+            for (int channel = 0; channel < nChannels; channel++) {
+                task.accept(channel);
+            }
+            return;
+        }
+        final Future<?>[] futures = new Future<?>[nThreads];
+        for (int thread = 0; thread < nThreads; thread++) {
+            final int firstChannel = thread;
+            futures[thread] = ConcurrencyUtils.submit(() -> {
+                for (int channel = firstChannel; channel < nChannels; channel += nThreads) {
+                    task.accept(channel);
+                }
+            });
+        }
+        ConcurrencyUtils.waitForCompletion(futures);
+    }
+
+    private static void reverse(final double[] data, final int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            final double tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
     }
 }
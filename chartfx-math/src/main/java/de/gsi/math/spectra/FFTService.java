@@ -0,0 +1,247 @@
+package de.gsi.math.spectra;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+import org.jtransforms.fft.FloatFFT_1D;
+
+import de.gsi.dataset.AxisDescription;
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.event.UpdatedDataEvent;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.dataset.utils.AssertUtils;
+
+/**
+ * Real-to-complex FFT service for live spectrum computations (e.g. at 25 Hz) that avoids the per-call allocations of
+ * {@link de.gsi.math.DataSetMath#magnitudeSpectrum} and {@link SpectrumTools#computeMagnitudeSpectrum(double[])}:
+ * <ul>
+ * <li>the JTransforms {@link DoubleFFT_1D}/{@link FloatFFT_1D} plans (twiddle factors, bit-reversal tables) are cached
+ * per transform size and shared between threads,
+ * <li>the static {@code computeMagnitudeSpectrum(...)} functions operate in-place on caller-provided buffers: the
+ * input buffer is apodized, transformed and overwritten with the magnitude spectrum in its lower half,
+ * <li>{@link #computeMagnitudeSpectrum(DataSet, Apodization, boolean, boolean, int, DoubleDataSet)} combines window
+ * &rarr; FFT &rarr; magnitude/dB &rarr; peak-preserving decimation and writes the result directly into the backing
+ * arrays of an existing {@link DoubleDataSet}. The instance re-uses its internal work buffer and is thus not
+ * thread-safe, ie. use one instance per (live-)spectrum.
+ * </ul>
+ * The magnitude spectrum conventions are the same as for {@link SpectrumTools#computeMagnitudeSpectrum(double[])}
+ * and {@link SpectrumTools#computeMagnitudeSpectrum_dB(double[], boolean)} with DC and Nyquist frequency bins set to
+ * their adjacent bins.
+ *
+ * <pre>
+ * {@code
+ *  final FFTService fftService = new FFTService();
+ *  final DoubleDataSet spectrum = new DoubleDataSet("spectrum");
+ *  // in the 25 Hz update loop -- no allocation once the buffers reached their final size
+ *  fftService.computeMagnitudeSpectrum(signal, Apodization.Hann, true, false, 2048, spectrum);
+ * }
+ * </pre>
+ *
+ * @author rstein
+ */
+public class FFTService {
+    /** maximum number of cached plans per precision. The cache is cleared if this limit is exceeded */
+    public static final int MAX_CACHED_PLANS = 64;
+    private static final int MIN_SAMPLES = 4;
+    private static final Map<Integer, DoubleFFT_1D> DOUBLE_PLANS = new ConcurrentHashMap<>();
+    private static final Map<Integer, FloatFFT_1D> FLOAT_PLANS = new ConcurrentHashMap<>();
+    private double[] workBuffer = new double[0];
+
+    /**
+     * Computes the magnitude spectrum of the DIM_Y values of the input data set and writes it into the output data
+     * set. N.B. the output data set's backing arrays are re-used and only grown if needed.
+     *
+     * @param input real-valued input signal (DIM_X: time, DIM_Y: signal), at least four samples
+     * @param apodization the apodization window function to use
+     * @param dbScale true: magnitude in [dB], false: linear magnitude
+     * @param normalisedFrequency true: frequency axis scaled to [0, 0.5], false: based on the DIM_X sampling
+     * @param maxPoints maximum number of output points; larger spectra are decimated keeping the maximum (peak) of
+     *            each group of adjacent bins, '0': no decimation
+     * @param output the data set to write the spectrum to
+     * @return the output data set (fluent design)
+     */
+    public DoubleDataSet computeMagnitudeSpectrum(final DataSet input, final Apodization apodization, final boolean dbScale, final boolean normalisedFrequency, final int maxPoints, final DoubleDataSet output) {
+        AssertUtils.notNull("input", input);
+        AssertUtils.notNull("apodization", apodization);
+        AssertUtils.gtEqThanZero("maxPoints", maxPoints);
+        AssertUtils.notNull("output", output);
+
+        final double[] span = new double[1]; // NOPMD -- lambda capture
+        final int n = input.lock().readLockGuard(() -> {
+            final int nSamples = input.getDataCount();
+            AssertUtils.gtOrEqual("input.getDataCount()", MIN_SAMPLES, nSamples);
+            if (workBuffer.length < nSamples) {
+                workBuffer = new double[nSamples];
+            }
+            for (int i = 0; i < nSamples; i++) {
+                workBuffer[i] = input.get(DIM_Y, i);
+            }
+            span[0] = input.get(DIM_X, nSamples - 1) - input.get(DIM_X, 0);
+            return nSamples;
+        });
+        computeMagnitudeSpectrum(workBuffer, n, apodization, dbScale);
+
+        final int nMag = n / 2;
+        final int decimation = maxPoints == 0 || maxPoints >= nMag ? 1 : (nMag + maxPoints - 1) / maxPoints;
+        final int nOut = (nMag + decimation - 1) / decimation;
+        final double fsampling = normalisedFrequency || span[0] <= 0 ? 0.5 / nMag : 1.0 / span[0];
+
+        final boolean oldState = output.autoNotification().getAndSet(false);
+        try {
+            output.lock().writeLockGuard(() -> {
+                output.getDataLabelMap().clear();
+                output.getDataStyleMap().clear();
+                output.resize(nOut);
+                final double[] xValues = output.getValues(DIM_X);
+                final double[] yValues = output.getValues(DIM_Y);
+                for (int i = 0, bin = 0; i < nOut; i++) {
+                    // peak-preserving decimation: keep the maximum and its frequency
+                    int maxBin = bin;
+                    final int end = Math.min(nMag, bin + decimation);
+                    for (bin++; bin < end; bin++) {
+                        if (workBuffer[bin] > workBuffer[maxBin]) {
+                            maxBin = bin;
+                        }
+                    }
+                    xValues[i] = maxBin * fsampling;
+                    yValues[i] = workBuffer[maxBin];
+                }
+                output.getAxisDescriptions().forEach(AxisDescription::clear);
+            });
+        } finally {
+            output.autoNotification().set(oldState);
+        }
+        return output.fireInvalidated(new UpdatedDataEvent(output, "computeMagnitudeSpectrum()"));
+    }
+
+    /**
+     * Computes in-place the magnitude spectrum: the first 'n' samples of 'data' are apodized and Fourier transformed,
+     * and the first 'n/2' samples are overwritten with the magnitude spectrum.
+     *
+     * @param data real-valued input signal, overwritten by the spectrum
+     * @param n number of samples to be transformed (at least four)
+     * @param apodization the apodization window function to use
+     * @param dbScale true: magnitude in [dB], false: linear magnitude
+     * @return the 'data' array (N.B. only the first 'n/2' samples are valid)
+     */
+    public static double[] computeMagnitudeSpectrum(final double[] data, final int n, final Apodization apodization, final boolean dbScale) {
+        AssertUtils.notNull("data", data);
+        AssertUtils.notNull("apodization", apodization);
+        AssertUtils.gtOrEqual("n", MIN_SAMPLES, n);
+        AssertUtils.gtOrEqual("data.length", n, data.length);
+        final double[] window = apodization.getWindow(n);
+        for (int i = 0; i < n; i++) {
+            data[i] *= window[i];
+        }
+        getPlan(n).realForward(data);
+
+        // N.B. in-place: bin 'i' is written after its real/imaginary parts at '2i' and '2i+1' have been read
+        final int n2 = n / 2;
+        if (dbScale) {
+            for (int i = 0; i < n2; i++) {
+                final double re = data[2 * i] / n2;
+                final double im = data[2 * i + 1] / n2;
+                data[i] = 10 * Math.log10(re * re + im * im);
+            }
+        } else {
+            for (int i = 0; i < n2; i++) {
+                final double re = data[2 * i];
+                final double im = data[2 * i + 1];
+                data[i] = Math.sqrt(re * re + im * im) / n2;
+            }
+        }
+        // smooth spectra on both ends to minimise DC/Nyquist frequency artefacts
+        data[0] = data[1];
+        data[n2 - 1] = data[n2 - 2];
+        return data;
+    }
+
+    /**
+     * Computes in-place the magnitude spectrum: the first 'n' samples of 'data' are apodized and Fourier transformed,
+     * and the first 'n/2' samples are overwritten with the magnitude spectrum.
+     *
+     * @param data real-valued input signal, overwritten by the spectrum
+     * @param n number of samples to be transformed (at least four)
+     * @param apodization the apodization window function to use
+     * @param dbScale true: magnitude in [dB], false: linear magnitude
+     * @return the 'data' array (N.B. only the first 'n/2' samples are valid)
+     */
+    public static float[] computeMagnitudeSpectrum(final float[] data, final int n, final Apodization apodization, final boolean dbScale) {
+        AssertUtils.notNull("data", data);
+        AssertUtils.notNull("apodization", apodization);
+        AssertUtils.gtOrEqual("n", MIN_SAMPLES, n);
+        AssertUtils.gtOrEqual("data.length", n, data.length);
+        final double[] window = apodization.getWindow(n);
+        for (int i = 0; i < n; i++) {
+            data[i] *= window[i];
+        }
+        getFloatPlan(n).realForward(data);
+
+        final int n2 = n / 2;
+        if (dbScale) {
+            for (int i = 0; i < n2; i++) {
+                final double re = data[2 * i] / (double) n2;
+                final double im = data[2 * i + 1] / (double) n2;
+                data[i] = (float) (10 * Math.log10(re * re + im * im));
+            }
+        } else {
+            for (int i = 0; i < n2; i++) {
+                final double re = data[2 * i];
+                final double im = data[2 * i + 1];
+                data[i] = (float) (Math.sqrt(re * re + im * im) / n2);
+            }
+        }
+        data[0] = data[1];
+        data[n2 - 1] = data[n2 - 2];
+        return data;
+    }
+
+    /**
+     * clears the cached FFT plans
+     */
+    public static void clearPlanCache() {
+        DOUBLE_PLANS.clear();
+        FLOAT_PLANS.clear();
+    }
+
+    /**
+     * @param n number of samples
+     * @return cached FFT plan for 'float' data of the given size
+     */
+    public static FloatFFT_1D getFloatPlan(final int n) {
+        final FloatFFT_1D plan = FLOAT_PLANS.get(n);
+        if (plan != null) {
+            return plan;
+        }
+        if (FLOAT_PLANS.size() >= MAX_CACHED_PLANS) {
+            FLOAT_PLANS.clear();
+        }
+        return FLOAT_PLANS.computeIfAbsent(n, FloatFFT_1D::new);
+    }
+
+    /**
+     * @param n number of samples
+     * @return cached FFT plan for 'double' data of the given size
+     */
+    public static DoubleFFT_1D getPlan(final int n) {
+        final DoubleFFT_1D plan = DOUBLE_PLANS.get(n);
+        if (plan != null) {
+            return plan;
+        }
+        if (DOUBLE_PLANS.size() >= MAX_CACHED_PLANS) {
+            DOUBLE_PLANS.clear();
+        }
+        return DOUBLE_PLANS.computeIfAbsent(n, DoubleFFT_1D::new);
+    }
+
+    /**
+     * @return number of cached 'double' and 'float' plans
+     */
+    public static int getPlanCacheSize() {
+        return DOUBLE_PLANS.size() + FLOAT_PLANS.size();
+    }
+}
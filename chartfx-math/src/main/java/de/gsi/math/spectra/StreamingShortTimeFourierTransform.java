@@ -0,0 +1,277 @@
+package de.gsi.math.spectra;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.DataSet.DIM_Z;
+
+import java.util.Arrays;
+import java.util.concurrent.Future;
+
+import de.gsi.dataset.spi.CircularDoubleDataSet3D;
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.dataset.utils.DoubleArrayCache;
+import de.gsi.math.spectra.ShortTimeFourierTransform.Padding;
+import de.gsi.math.utils.ConcurrencyUtils;
+
+/**
+ * Stateful, incremental short-time Fourier transform of real-valued data for live spectrograms/waterfall displays.
+ * <p>
+ * In contrast to {@link ShortTimeFourierTransform#real}, which recomputes all spectra of the whole input for every call,
+ * the samples are streamed in chunks via {@link #add(double[], int, int)} and only the spectra of the newly completed
+ * frames (ie. every 'step' samples once 'nFFT' samples are available) are computed -- in parallel if more than one new
+ * frame is available -- and scrolled into the ring-buffered {@link CircularDoubleDataSet3D} returned by
+ * {@link #getDataSet()} (DIM_X: frequency, DIM_Y: time, DIM_Z: magnitude) that can be directly displayed using e.g.
+ * the {@code ContourDataSetRenderer}.
+ * <p>
+ * Since frames are only computed once complete, the {@link Padding} is applied only to the last, incomplete frames on
+ * {@link #flush()}. The spectra of a stream that has been flushed are identical to those computed by
+ * {@link ShortTimeFourierTransform#real(double[], double[], int, int, Apodization, Padding, boolean, boolean)} for the
+ * whole input.
+ *
+ * <pre>
+ * {@code
+ *  final StreamingShortTimeFourierTransform stft = new StreamingShortTimeFourierTransform(1024, 256, 500, 1.0 / samplingRate,
+ *          Apodization.Hann, Padding.ZERO, true, true);
+ *  chart.getDatasets().add(stft.getDataSet());
+ *  // in the acquisition loop
+ *  stft.add(newSamples, 0, newSamples.length);
+ * }
+ * </pre>
+ *
+ * N.B. the processor is intended for a single producer thread, ie. calls to {@code add(...)}, {@code flush()} and
+ * {@code reset()} must not be executed concurrently.
+ *
+ * @author rstein
+ */
+public class StreamingShortTimeFourierTransform {
+    private final int nFFT;
+    private final int step;
+    private final double dt;
+    private final Apodization apodization;
+    private final Padding padding;
+    private final boolean dbScale;
+    private final boolean truncateDCNy;
+    private final CircularDoubleDataSet3D dataSet;
+    private double[] samples; // linear buffer of the not yet fully processed samples
+    private double[] timeScratch = new double[0];
+    private double[] magnitudeScratch = new double[0];
+    private long streamStart; // absolute index of the first sample of the current stream
+    private long bufferStart; // absolute index of samples[0]
+    private int nBuffered;
+    private long nextFrame; // absolute index of the first sample of the next frame
+
+    /**
+     * @param nFFT the number of samples per frame
+     * @param step the time step size in samples between two frames
+     * @param nHistory the number of spectra kept in the data set
+     * @param dt the sampling period [s]
+     * @param apodization function, by default Hann window is used
+     * @param padding how to pad the incomplete frames at the end of the stream: ZERO(default), ZOH or MIRROR
+     * @param dbScale {@code true} to convert the spectrum to dB scale
+     * @param truncateDCNy {@code true} to interpolate the DC- and Nyquist-bins to their respective nearest neighbours
+     */
+    public StreamingShortTimeFourierTransform(final int nFFT, final int step, final int nHistory, final double dt, final Apodization apodization, final Padding padding, final boolean dbScale, final boolean truncateDCNy) {
+        AssertUtils.gtThanZero("nFFT", nFFT);
+        AssertUtils.gtThanZero("step", step);
+        AssertUtils.gtThanZero("nHistory", nHistory);
+        AssertUtils.gtThanZero("dt", dt);
+        this.nFFT = nFFT;
+        this.step = step;
+        this.dt = dt;
+        this.apodization = apodization == null ? Apodization.Hann : apodization;
+        this.padding = padding == null ? Padding.ZERO : padding;
+        this.dbScale = dbScale;
+        this.truncateDCNy = truncateDCNy;
+        samples = new double[2 * nFFT];
+
+        dataSet = new CircularDoubleDataSet3D("STFT", nFFT / 2, nHistory);
+        dataSet.setX(ShortTimeFourierTransform.getFrequencyAxisReal(dt, nFFT, null));
+        dataSet.getAxisDescription(DIM_X).set("Frequency", "Hz");
+        dataSet.getAxisDescription(DIM_Y).set("Time", "s");
+        dataSet.getAxisDescription(DIM_Z).set("Magnitude", dbScale ? "dB" : "");
+        dataSet.getMetaInfo().put("RealSTFT-nFFT", Integer.toString(nFFT));
+        dataSet.getMetaInfo().put("RealSTFT-step", Integer.toString(step));
+    }
+
+    /**
+     * adds new samples to the stream and computes the spectra of all newly completed frames
+     *
+     * @param chunk new samples
+     * @return number of new spectra added to the data set
+     */
+    public int add(final double... chunk) {
+        AssertUtils.notNull("chunk", chunk);
+        return add(chunk, 0, chunk.length);
+    }
+
+    /**
+     * adds new samples to the stream and computes the spectra of all newly completed frames
+     *
+     * @param chunk new samples
+     * @param offset index of the first sample to be read from 'chunk'
+     * @param length number of samples to be read from 'chunk'
+     * @return number of new spectra added to the data set
+     */
+    public int add(final double[] chunk, final int offset, final int length) {
+        AssertUtils.notNull("chunk", chunk);
+        AssertUtils.gtEqThanZero("offset", offset);
+        AssertUtils.gtEqThanZero("length", length);
+        AssertUtils.gtOrEqual("chunk.length", offset + length, chunk.length);
+        append(chunk, offset, length);
+
+        final long nSamples = getSampleCount();
+        if (nSamples < nextFrame + nFFT) {
+            return 0;
+        }
+        final int nFrames = (int) ((nSamples - nFFT - nextFrame) / step) + 1;
+        return computeFrames(nFrames);
+    }
+
+    /**
+     * ends the current stream and computes the spectra of the remaining incomplete frames using the configured
+     * {@link Padding}. Subsequently added samples start a new stream.
+     *
+     * @return number of new spectra added to the data set
+     */
+    public int flush() {
+        final long nSamples = getSampleCount();
+        final int nFrames = nSamples > nextFrame ? (int) ((nSamples - nextFrame + step - 1) / step) : 0;
+        final int nNew = computeFrames(nFrames);
+        streamStart = nSamples;
+        bufferStart = nSamples;
+        nBuffered = 0;
+        nextFrame = nSamples;
+        return nNew;
+    }
+
+    /**
+     * @return the ring-buffered spectrogram (DIM_X: frequency, DIM_Y: time, DIM_Z: magnitude)
+     */
+    public CircularDoubleDataSet3D getDataSet() {
+        return dataSet;
+    }
+
+    /**
+     * @return the number of samples per frame
+     */
+    public int getNFFT() {
+        return nFFT;
+    }
+
+    /**
+     * @return total number of samples received since the construction or last {@link #reset()}
+     */
+    public long getSampleCount() {
+        return bufferStart + nBuffered;
+    }
+
+    /**
+     * @return the time step size in samples between two frames
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * discards all pending samples and clears the spectrogram
+     */
+    public void reset() {
+        streamStart = 0;
+        bufferStart = 0;
+        nBuffered = 0;
+        nextFrame = 0;
+        dataSet.clearData();
+    }
+
+    private void append(final double[] chunk, final int offset, final int length) {
+        // discard samples that are neither needed for the next frame nor for the MIRROR padding of the last frame
+        final long nSamples = getSampleCount() + length;
+        final long keepFrom = Math.max(streamStart, Math.min(nextFrame, nSamples - nFFT));
+        final int discard = (int) Math.min(nBuffered, Math.max(0, keepFrom - bufferStart));
+        if (discard > 0) {
+            System.arraycopy(samples, discard, samples, 0, nBuffered - discard);
+            bufferStart += discard;
+            nBuffered -= discard;
+        }
+        if (nBuffered + length > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(2 * samples.length, nBuffered + length));
+        }
+        System.arraycopy(chunk, offset, samples, nBuffered, length);
+        nBuffered += length;
+    }
+
+    private int computeFrames(final int nFrames) {
+        if (nFrames <= 0) {
+            return 0;
+        }
+        // skip frames that would be immediately overwritten in the ring-buffer
+        final int nSkip = Math.max(0, nFrames - dataSet.getCapacity());
+        final int nNew = nFrames - nSkip;
+        final long firstFrame = nextFrame + (long) nSkip * step;
+        final int nMag = nFFT / 2;
+        if (timeScratch.length < nNew) {
+            timeScratch = new double[nNew];
+            magnitudeScratch = new double[nNew * nMag];
+        }
+
+        final int nThreads = Math.min(ConcurrencyUtils.getNumberOfThreads(), nNew);
+        if (nThreads > 1) {
+            final Future<?>[] futures = new Future<?>[nThreads];
+            final int k = nNew / nThreads;
+            for (int thread = 0; thread < nThreads; thread++) {
+                final int firstIdx = thread * k;
+                final int lastIdx = thread == nThreads - 1 ? nNew : firstIdx + k;
+                futures[thread] = ConcurrencyUtils.submit(() -> computeFrameRange(firstFrame, firstIdx, lastIdx));
+            }
+            ConcurrencyUtils.waitForCompletion(futures);
+        } else {
+            computeFrameRange(firstFrame, 0, nNew);
+        }
+        nextFrame += (long) nFrames * step;
+
+        dataSet.add(timeScratch, magnitudeScratch, nNew);
+        return nNew;
+    }
+
+    private void computeFrameRange(final long firstFrame, final int firstIdx, final int lastIdx) {
+        final int nMag = nFFT / 2;
+        final double[] raw = DoubleArrayCache.getInstance().getArrayExact(nFFT); // array to perform calculations in
+        for (int i = firstIdx; i < lastIdx; i++) {
+            final long frameStart = firstFrame + (long) i * step;
+            fillFrame(raw, frameStart);
+            apodization.apodize(raw);
+            FFTService.getPlan(nFFT).realForward(raw);
+            if (dbScale) {
+                SpectrumTools.computeMagnitudeSpectrum_dB(raw, 0, nFFT, magnitudeScratch, i * nMag, truncateDCNy);
+            } else {
+                SpectrumTools.computeMagnitudeSpectrum(raw, 0, nFFT, magnitudeScratch, i * nMag, truncateDCNy);
+            }
+            timeScratch[i] = dt * frameStart;
+        }
+        DoubleArrayCache.getInstance().add(raw);
+    }
+
+    private void fillFrame(final double[] raw, final long frameStart) {
+        final int start = (int) (frameStart - bufferStart);
+        final int validLength = (int) Math.min(nFFT, getSampleCount() - frameStart);
+        System.arraycopy(samples, start, raw, 0, validLength);
+        if (validLength == nFFT) {
+            return;
+        }
+        // data has to be padded -- same conventions as ShortTimeFourierTransform#real
+        switch (padding) {
+        case MIRROR:
+            for (int j = validLength; j < nFFT; j++) {
+                raw[j] = samples[Math.max(0, nBuffered - j + validLength - 1)];
+            }
+            break;
+        case ZERO:
+            Arrays.fill(raw, validLength, nFFT, 0.0);
+            break;
+        case ZOH:
+        default:
+            Arrays.fill(raw, validLength, nFFT, samples[nBuffered - 1]);
+            break;
+        }
+    }
+}
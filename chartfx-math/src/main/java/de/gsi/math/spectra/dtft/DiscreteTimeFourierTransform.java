@@ -98,12 +98,13 @@ public class DiscreteTimeFourierTransform {
                     }
                 });
             }
+            ConcurrencyUtils.waitForCompletion(futures);
         } else {
 
-            double sum1 = 0.0;
-            double sum2 = 0.0;
             for (int i = 0; i < n; i++) {
                 final double omega = TMathConstants.TwoPi() * testFrequencies[i];
+                double sum1 = 0.0;
+                double sum2 = 0.0;
                 for (int j = 0; j < t.length; j++) {
                     sum1 += val[j] * TMathConstants.Cos(omega * t[j]);
                     sum2 += val[j] * TMathConstants.Sin(omega * t[j]);
@@ -123,4 +124,36 @@ public class DiscreteTimeFourierTransform {
 
         return ret;
     }
+
+    /**
+     * Fast Discrete Time Fourier Transform for equidistant test frequencies of the form (k0 + i) * df (e.g. as provided
+     * by {@link #computeFrequencyRange(double[])}) based on the trigonometric sums computed by the
+     * {@link NonUniformFourierTransform}. Falls back to the exact O(N * nFrequencies) computation
+     * {@link #computeMagnitudeSpectrum(double[], double[], double[])} if the test frequencies are not equidistant or
+     * 'accuracy' is not positive.
+     *
+     * @param t the time indices
+     * @param val the measurement
+     * @param testFrequencies array containing the frequencies for which the spectra is being evaluated
+     * @param accuracy the relative accuracy target w.r.t. sum_j |val[j]|, e.g.
+     *            {@link NonUniformFourierTransform#DEFAULT_ACCURACY}
+     * @return array containing magnitude spectrum
+     */
+    public double[] computeMagnitudeSpectrum(final double[] t, final double[] val, final double[] testFrequencies, final double accuracy) {
+        final double df = NonUniformFourierTransform.getFrequencySpacing(testFrequencies);
+        if (!(accuracy > 0) || Double.isNaN(df)) { // NOPMD -- also catches NaN
+            return computeMagnitudeSpectrum(t, val, testFrequencies);
+        }
+        final int n = testFrequencies.length;
+        final int k0 = (int) Math.rint(testFrequencies[0] / df);
+        final double[] cosSums = new double[k0 + n];
+        final double[] sinSums = new double[k0 + n];
+        NonUniformFourierTransform.computeTrigonometricSums(t, val, df, k0 + n, accuracy, cosSums, sinSums);
+
+        final double[] ret = new double[n];
+        for (int i = 0; i < n; i++) {
+            ret[i] = 2 * TMathConstants.Sqrt(TMathConstants.Sqr(cosSums[k0 + i] / t.length) + TMathConstants.Sqr(sinSums[k0 + i] / t.length));
+        }
+        return ret;
+    }
 }
@@ -0,0 +1,184 @@
+package de.gsi.math.spectra.dtft;
+
+import de.gsi.dataset.utils.AssertUtils;
+import de.gsi.math.spectra.FFTService;
+import de.gsi.math.utils.ConcurrencyUtils;
+
+/**
+ * Fast O(N + M log M) evaluation of the trigonometric sums
+ *
+ * <pre>
+ *  C[k] = sum_j w[j] * cos(2 pi k df t[j])
+ *  S[k] = sum_j w[j] * sin(2 pi k df t[j])   for k = 0, ..., nFrequencies - 1
+ * </pre>
+ *
+ * for non-uniformly sampled data 't[j]' that are the computational core of non-uniform discrete Fourier transforms
+ * and Lomb-type periodograms. Rather than evaluating every frequency against every sample (O(N * nFrequencies)), the
+ * weights are 'extirpolated' (ie. reverse Lagrange-interpolated) onto a regular periodic grid of size M, which is
+ * subsequently Fourier transformed using a (cached) JTransforms FFT. The accuracy is controlled by the extirpolation
+ * order and the grid oversampling.
+ * <p>
+ * reference: W. H. Press and G. B. Rybicki, "Fast Algorithm for Spectral Analysis of Unevenly Sampled Data", in:
+ * Astrophysical Journal, Vol. 338, 1989, pp. 277-280.
+ *
+ * @author rstein
+ */
+public final class NonUniformFourierTransform {
+    /** default relative accuracy target (w.r.t. sum_j |w[j]|) */
+    public static final double DEFAULT_ACCURACY = 1e-6;
+    /** default grid oversampling */
+    public static final int DEFAULT_OVERSAMPLING = 8;
+    private static final int MAX_ORDER = 16;
+    private static final double[][] DENOMINATOR = new double[MAX_ORDER + 1][];
+
+    static {
+        // Lagrange basis denominators for the equidistant nodes 0, ..., order - 1: (-1)^(order-1-l) l! (order-1-l)!
+        for (int order = 1; order <= MAX_ORDER; order++) {
+            DENOMINATOR[order] = new double[order];
+            for (int l = 0; l < order; l++) {
+                DENOMINATOR[order][l] = ((order - 1 - l) % 2 == 0 ? 1.0 : -1.0) * factorial(l) * factorial(order - 1 - l);
+            }
+        }
+    }
+
+    private NonUniformFourierTransform() {
+        // static utility class
+    }
+
+    /**
+     * computes the trigonometric sums C[k] and S[k] (see class description)
+     *
+     * @param t the (non-uniform) sample time-stamps
+     * @param w the sample weights (e.g. measurement values or '1')
+     * @param df the frequency spacing
+     * @param nFrequencies number of frequencies
+     * @param accuracy the relative accuracy target (w.r.t. sum_j |w[j]|), e.g. 1e-6
+     * @param cosSums the output for C[k] (at least nFrequencies long)
+     * @param sinSums the output for S[k] (at least nFrequencies long)
+     */
+    public static void computeTrigonometricSums(final double[] t, final double[] w, final double df, final int nFrequencies, final double accuracy, final double[] cosSums, final double[] sinSums) {
+        computeTrigonometricSums(t, w, df, nFrequencies, getOrder(accuracy), DEFAULT_OVERSAMPLING, cosSums, sinSums);
+    }
+
+    /**
+     * computes the trigonometric sums C[k] and S[k] (see class description)
+     *
+     * @param t the (non-uniform) sample time-stamps
+     * @param w the sample weights (e.g. measurement values or '1')
+     * @param df the frequency spacing
+     * @param nFrequencies number of frequencies
+     * @param order the extirpolation order, ie. number of grid points per sample [1, 16]
+     * @param oversampling the grid oversampling w.r.t. the Nyquist frequency of the highest frequency (&ge; 1)
+     * @param cosSums the output for C[k] (at least nFrequencies long)
+     * @param sinSums the output for S[k] (at least nFrequencies long)
+     */
+    public static void computeTrigonometricSums(final double[] t, final double[] w, final double df, final int nFrequencies, final int order, final int oversampling, final double[] cosSums, final double[] sinSums) {
+        AssertUtils.notNull("t", t);
+        AssertUtils.notNull("w", w);
+        AssertUtils.equalDoubleArrays(t, w);
+        AssertUtils.gtThanZero("df", df);
+        AssertUtils.gtThanZero("nFrequencies", nFrequencies);
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("order " + order + " must be within [1, " + MAX_ORDER + "]");
+        }
+        AssertUtils.gtThanZero("oversampling", oversampling);
+        AssertUtils.notNull("cosSums", cosSums);
+        AssertUtils.notNull("sinSums", sinSums);
+        AssertUtils.gtOrEqual("cosSums.length", nFrequencies, cosSums.length);
+        AssertUtils.gtOrEqual("sinSums.length", nFrequencies, sinSums.length);
+
+        final int nGrid = ConcurrencyUtils.nextPow2(Math.max(2 * oversampling * nFrequencies, 2 * order));
+        final double[] grid = new double[nGrid];
+        for (int j = 0; j < t.length; j++) {
+            // N.B. exp(i 2 pi k df t) is periodic in 'df t' with period 1 for integer k
+            final double phase = df * t[j];
+            extirpolate(w[j], nGrid * (phase - Math.floor(phase)), grid, order);
+        }
+
+        FFTService.getPlan(nGrid).realForward(grid);
+
+        // N.B. JTransforms' forward transform uses the exp(-i...) convention -> S[k] = -Im{X[k]}
+        cosSums[0] = grid[0];
+        sinSums[0] = 0.0;
+        for (int k = 1; k < nFrequencies; k++) {
+            cosSums[k] = grid[2 * k];
+            sinSums[k] = -grid[2 * k + 1];
+        }
+    }
+
+    /**
+     * @param testFrequencies the frequencies to be checked
+     * @return the frequency spacing 'df' if the frequencies are of the form (k0 + i) * df with integer k0 &ge; 0 (ie.
+     *         compatible with the fast evaluation), NaN otherwise
+     */
+    public static double getFrequencySpacing(final double[] testFrequencies) {
+        AssertUtils.notNull("testFrequencies", testFrequencies);
+        final int n = testFrequencies.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        final double df = (testFrequencies[n - 1] - testFrequencies[0]) / (n - 1);
+        if (!(df > 0)) { // NOPMD -- also catches NaN
+            return Double.NaN;
+        }
+        final double k0 = Math.rint(testFrequencies[0] / df);
+        final double tolerance = 1e-9 * Math.abs(testFrequencies[n - 1]);
+        if (k0 < 0 || Math.abs(testFrequencies[0] - k0 * df) > tolerance) {
+            return Double.NaN;
+        }
+        for (int i = 1; i < n; i++) {
+            if (Math.abs(testFrequencies[i] - (k0 + i) * df) > tolerance) {
+                return Double.NaN;
+            }
+        }
+        return df;
+    }
+
+    /**
+     * @param accuracy the relative accuracy target
+     * @return extirpolation order required to reach the given accuracy for the default grid oversampling
+     */
+    public static int getOrder(final double accuracy) {
+        if (!(accuracy > 0) || accuracy >= 1) { // NOPMD -- also catches NaN
+            throw new IllegalArgumentException("accuracy " + accuracy + " must be within ]0, 1[");
+        }
+        // empirical: error approx. 10^(-3.4 - 0.76 * (order - 2)) for an oversampling of 8, +1 for safety margin
+        return Math.min(MAX_ORDER, Math.max(2, (int) Math.ceil((-Math.log10(accuracy) - 2.0) / 0.75) + 1));
+    }
+
+    /**
+     * adds 'y' at the (fractional) position 'x' to the periodic grid such that sum_p grid[p] f(p) = y f(x) for any
+     * polynomial f of degree &lt; order
+     *
+     * @param y the value
+     * @param x the position within [0, grid.length[
+     * @param grid the periodic grid
+     * @param order number of (nearest) grid points the value is distributed to
+     */
+    protected static void extirpolate(final double y, final double x, final double[] grid, final int order) {
+        final int nGrid = grid.length;
+        final int ix = (int) x;
+        if (x == ix) {
+            grid[ix % nGrid] += y;
+            return;
+        }
+        final int first = ix - (order - 1) / 2;
+        double numerator = y;
+        for (int q = 0; q < order; q++) {
+            numerator *= x - (first + q);
+        }
+        final double[] denominator = DENOMINATOR[order];
+        for (int l = 0; l < order; l++) {
+            final int index = Math.floorMod(first + l, nGrid);
+            grid[index] += numerator / ((x - (first + l)) * denominator[l]);
+        }
+    }
+
+    private static double factorial(final int n) {
+        double ret = 1.0;
+        for (int i = 2; i <= n; i++) {
+            ret *= i;
+        }
+        return ret;
+    }
+}
@@ -1,5 +1,6 @@
 package de.gsi.math.spectra.lomb;
 
+import java.util.Arrays;
 import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
@@ -7,6 +8,7 @@ import org.slf4j.LoggerFactory;
 
 import de.gsi.math.TMath;
 import de.gsi.math.TMathConstants;
+import de.gsi.math.spectra.dtft.NonUniformFourierTransform;
 import de.gsi.math.utils.ConcurrencyUtils;
 
 /**
@@ -16,12 +18,17 @@ import de.gsi.math.utils.ConcurrencyUtils;
  * Frequency Analysis of Unequally Spaced Data", in: Astrophysics and Space Science, Vol. 39, 1976, pp. 447–462. V. F.
  * Pisarenko, "The retrieval of harmonics from a covariance function Geophysics", in: Royal Astronomical Society, Vol.
  * 33, 1973, pp. 347–366.
+ * <p>
+ * For equidistant test frequencies, {@link #computePeridodogram(double[], double[], double[], double)} provides a fast
+ * O(N + M log M) approximation with a configurable accuracy based on the extirpolation algorithm by Press and Rybicki
+ * (see {@link NonUniformFourierTransform}).
  *
  * @author rstein
  */
 public class LombPeriodogram {
     private static final Logger LOGGER = LoggerFactory.getLogger(LombPeriodogram.class);
     protected static final int START_THREADS = 256;
+    private static final double MIN_NORM = 1e-12; // relative numerical noise floor of the fast cos^2/sin^2 sums
 
     private LombPeriodogram() {
         // static utilitiy class
@@ -156,4 +163,77 @@ public class LombPeriodogram {
 
         return ret;
     }
+
+    /**
+     * Fast Lomb periodogram computation for equidistant test frequencies of the form (k0 + i) * df (e.g. as provided by
+     * {@link #computeFrequencyRange(double[])}) based on the trigonometric sums computed by the
+     * {@link NonUniformFourierTransform}. Falls back to the exact O(N * nFrequencies) computation
+     * {@link #computePeridodogram(double[], double[], double[])} if the test frequencies are not equidistant or
+     * 'accuracy' is not positive.
+     *
+     * @param t the time indices
+     * @param val the measurement
+     * @param testFrequencies array containing the frequencies for which the spectra is being evaluated
+     * @param accuracy the relative accuracy target of the underlying trigonometric sums, e.g.
+     *            {@link NonUniformFourierTransform#DEFAULT_ACCURACY}
+     * @return vector containing Lomb-type Periodogram
+     */
+    public static double[] computePeridodogram(final double[] t, final double[] val, final double[] testFrequencies, final double accuracy) {
+        final double df = NonUniformFourierTransform.getFrequencySpacing(testFrequencies);
+        if (!(accuracy > 0) || Double.isNaN(df)) { // NOPMD -- also catches NaN
+            return computePeridodogram(t, val, testFrequencies);
+        }
+        final long start = System.nanoTime();
+        final int n = testFrequencies.length;
+        final int k0 = (int) Math.rint(testFrequencies[0] / df);
+        final int nSums = k0 + n;
+        final int nSamples = t.length;
+
+        // tau -- same definition as for the exact computation
+        double sum1 = 0.0;
+        double sum2 = 0.0;
+        for (int i = 0; i < nSamples; i++) {
+            sum1 += TMathConstants.Sin(TMathConstants.TwoPi() * t[i]);
+            sum2 += TMathConstants.Cos(TMathConstants.TwoPi() * t[i]);
+        }
+        final double tau = TMathConstants.ATan2(sum1, sum2) / TMathConstants.TwoPi();
+
+        // sum_j val[j] * cos/sin(omega t[j]) and sum_j cos/sin(2 omega t[j])
+        final double[] cosVal = new double[nSums];
+        final double[] sinVal = new double[nSums];
+        NonUniformFourierTransform.computeTrigonometricSums(t, val, df, nSums, accuracy, cosVal, sinVal);
+        final double[] ones = new double[nSamples];
+        Arrays.fill(ones, 1.0);
+        final double[] cos2 = new double[2 * nSums];
+        final double[] sin2 = new double[2 * nSums];
+        NonUniformFourierTransform.computeTrigonometricSums(t, ones, df, 2 * nSums, accuracy, cos2, sin2);
+
+        final double[] ret = new double[n];
+        for (int i = 0; i < n; i++) {
+            final int k = k0 + i;
+            final double omega = TMathConstants.TwoPi() * k * df;
+            final double cosTau = TMathConstants.Cos(omega * tau);
+            final double sinTau = TMathConstants.Sin(omega * tau);
+            final double cos2Tau = cosTau * cosTau - sinTau * sinTau;
+            final double sin2Tau = 2 * sinTau * cosTau;
+            // N.B. trigonometric identities for cos/sin(omega (t - tau)) and cos^2(x) = (1 + cos(2x)) / 2
+            final double sum11 = cosVal[k] * cosTau + sinVal[k] * sinTau;
+            final double sum21 = sinVal[k] * cosTau - cosVal[k] * sinTau;
+            final double sum12 = 0.5 * (nSamples + cos2[2 * k] * cos2Tau + sin2[2 * k] * sin2Tau);
+            final double sum22 = nSamples - sum12;
+
+            if (sum12 <= MIN_NORM * nSamples || sum22 <= MIN_NORM * nSamples) {
+                ret[i] = 0.0;
+            } else {
+                ret[i] = TMathConstants.Sqrt(2 * (TMathConstants.Sqr(sum11) / sum12 + TMathConstants.Sqr(sum21) / sum22) / nSamples);
+            }
+        }
+
+        final long stop = System.nanoTime();
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.atDebug().addArgument((stop - start) * 1e-6).log("LombPeriodogram(double[], double[], double[], double) - took {} ms");
+        }
+
+        return ret;
+    }
 }
@@ -0,0 +1,127 @@
+package de.gsi.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.DataSetError;
+import de.gsi.dataset.spi.DoubleErrorDataSet;
+import de.gsi.math.DataSetMath.Filter;
+
+/**
+ * Checks the streaming {@link SlidingWindowFilter} against the brute-force neighbour search and TMath estimators.
+ *
+ * @author rstein
+ */
+class SlidingWindowFilterTests {
+    private static final int N_SAMPLES = 500;
+    private static final double WIDTH = 3.0;
+
+    @ParameterizedTest
+    @EnumSource(Filter.class)
+    void testAgainstBruteForce(final Filter filterType) {
+        final Random rnd = new Random(42);
+        final double[] x = new double[N_SAMPLES];
+        final double[] y = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            // irregular spacing incl. duplicate abscissa values and duplicate/zero ordinate values
+            x[i] = (i > 0 ? x[i - 1] : 0.0) + (rnd.nextInt(4) == 0 ? 0.0 : rnd.nextDouble());
+            y[i] = rnd.nextInt(10) == 0 ? 1.0 : 10.0 * rnd.nextGaussian();
+        }
+        y[N_SAMPLES / 3] = 0.0;
+        y[N_SAMPLES / 2] = Double.NaN;
+        y[2 * N_SAMPLES / 3] = Double.POSITIVE_INFINITY;
+
+        assertTrue(SlidingWindowFilter.isSortedAndFinite(x, N_SAMPLES));
+        final int[] windowMin = new int[N_SAMPLES];
+        final int[] windowMax = new int[N_SAMPLES];
+        SlidingWindowFilter.getWindowBounds(x, N_SAMPLES, WIDTH, windowMin, windowMax);
+        final double[] result = SlidingWindowFilter.filter(y, windowMin, windowMax, N_SAMPLES, filterType);
+
+        final double[] subArray = new double[N_SAMPLES];
+        for (int i = 0; i < N_SAMPLES; i++) {
+            int count = 0;
+            for (int j = 0; j < N_SAMPLES; j++) {
+                if (Math.abs(x[i] - x[j]) <= WIDTH) {
+                    subArray[count++] = y[j];
+                }
+            }
+            assertEquals(count, windowMax[i] - windowMin[i], "window size at index " + i);
+            assertEquals(reference(subArray, count, filterType), result[i], 1e-9, filterType + " at index " + i);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Filter.class)
+    void testFilterFunction(final Filter filterType) {
+        final int n = 50;
+        final DoubleErrorDataSet dataSet = new DoubleErrorDataSet("test", n);
+        for (int i = 0; i < n; i++) {
+            dataSet.add(0.5 * i, Math.sin(0.3 * i), 0.1 + 0.01 * i, 0.2 + 0.02 * i);
+        }
+        final DataSet filtered = DataSetMath.filterFunction(dataSet, 1.0, filterType);
+        assertEquals(n, filtered.getDataCount());
+
+        final double[] subArray = new double[n];
+        for (int i = 0; i < n; i++) {
+            int count = 0;
+            for (int j = Math.max(0, i - 2); j <= Math.min(n - 1, i + 2); j++) {
+                subArray[count++] = dataSet.get(DIM_Y, j);
+            }
+            final double norm = filterType == Filter.MEAN ? 1.0 / Math.sqrt(count) : 1.0;
+            assertEquals(dataSet.get(DIM_X, i), filtered.get(DIM_X, i));
+            assertEquals(reference(subArray, count, filterType), filtered.get(DIM_Y, i), 1e-12);
+            // negative and positive errors are filtered independently
+            for (int k = 0; k < count; k++) {
+                subArray[k] = 0.2 + 0.02 * (Math.max(0, i - 2) + k);
+            }
+            assertEquals(reference(subArray, count, filterType) * norm,
+                    ((DataSetError) filtered).getErrorPositive(DIM_Y, i), 1e-12);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Filter.class)
+    void testUnsortedFallback(final Filter filterType) {
+        final double[] x = { 0.0, 2.0, 1.0, 3.0 };
+        final double[] y = { 1.0, 2.0, 3.0, 4.0 };
+        assertFalse(SlidingWindowFilter.isSortedAndFinite(x, x.length));
+        assertFalse(SlidingWindowFilter.isSortedAndFinite(new double[] { 0.0, Double.NaN }, 2));
+
+        final DataSet filtered = DataSetMath.filterFunction(
+                new DoubleErrorDataSet("test", x, y, new double[4], new double[4], 4, true), 1.0, filterType);
+        assertArrayEquals(x, filtered.getValues(DIM_X));
+        final double[] subArray = { 1.0, 3.0 };
+        assertEquals(reference(subArray, 2, filterType), filtered.get(DIM_Y, 0), 1e-12);
+    }
+
+    private static double reference(final double[] data, final int count, final Filter filterType) {
+        switch (filterType) {
+        case MEDIAN:
+            return TMath.Median(data, count);
+        case MIN:
+            return TMath.Minimum(data, count);
+        case MAX:
+            return TMath.Maximum(data, count);
+        case P2P:
+            return TMath.PeakToPeak(data, count);
+        case RMS:
+            return TMath.RMS(data, count);
+        case GEOMMEAN:
+            return TMath.GeometricMean(data, count);
+        case MEAN:
+        default:
+            return TMath.Mean(data, count);
+        }
+    }
+}
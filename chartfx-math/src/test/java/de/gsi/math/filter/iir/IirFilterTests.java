@@ -13,11 +13,15 @@ import static de.gsi.dataset.DataSet.DIM_Y;
 import static de.gsi.math.SimpleDataSetEstimators.getMaximum;
 import static de.gsi.math.SimpleDataSetEstimators.getRange;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import org.apache.commons.math3.complex.Complex;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import de.gsi.dataset.DataSet;
 import de.gsi.dataset.spi.DefaultDataSet;
@@ -537,6 +541,141 @@ public class IirFilterTests {
         assertThrows(IllegalArgumentException.class, () -> normalBase.addPoleZeroConjugatePairs(new Complex(1, 0), null));
     }
 
+    @ParameterizedTest
+    @DisplayName("Block processing - sample-by-sample identity")
+    @CsvSource({ "0, 6", "0, 8", "1, 6", "1, 8" })
+    public void testBlockProcessing(final int directFormType, final int order) {
+        final int nSamples = 5000;
+        final double[] signal = generateNoise(nSamples);
+        final Butterworth reference = new Butterworth();
+        reference.lowPass(order, 1.0, F_CUT_LOW, directFormType);
+        final double[] expected = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            expected[i] = reference.filter(signal[i]);
+        }
+
+        // block processing in random chunks, mixed with single-sample calls
+        final Butterworth filter = new Butterworth();
+        filter.lowPass(order, 1.0, F_CUT_LOW, directFormType);
+        final double[] output = new double[nSamples];
+        final Random rnd = new Random(42);
+        for (int offset = 0; offset < nSamples;) {
+            final int length = Math.min(nSamples - offset, rnd.nextInt(700));
+            filter.filter(signal, output, offset, length);
+            offset += length;
+            if (offset < nSamples) {
+                output[offset] = filter.filter(signal[offset]);
+                offset++;
+            }
+        }
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(expected[i], output[i], 0.0, "sample " + i);
+        }
+
+        // float variant (in-place)
+        final float[] floatData = new float[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            floatData[i] = (float) signal[i];
+        }
+        filter.reset();
+        filter.filter(floatData, floatData, 0, nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(expected[i], floatData[i], 1e-5, "float sample " + i);
+        }
+
+        // re-created from the flattened second-order sections
+        final double[] sos = filter.getSecondOrderSections();
+        assertEquals(Cascade.SOS_STRIDE * filter.getNumBiquads(), sos.length);
+        final Cascade sosFilter = new Cascade();
+        sosFilter.setSecondOrderSections(sos, directFormType);
+        assertEquals(filter.getNumBiquads(), sosFilter.getNumBiquads());
+        final double[] sosOutput = new double[nSamples];
+        sosFilter.filter(signal, sosOutput, 0, nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(expected[i], sosOutput[i], 1e-12, "sos sample " + i);
+        }
+
+        // multi-channel: each channel keeps its own state across calls
+        final int nChannels = 5;
+        final double[][] channels = new double[nChannels][];
+        final float[][] floatChannels = new float[nChannels][nSamples];
+        for (int channel = 0; channel < nChannels; channel++) {
+            channels[channel] = signal.clone();
+            for (int i = 0; i < nSamples; i++) {
+                floatChannels[channel][i] = (float) signal[i];
+            }
+        }
+        filter.reset();
+        filter.filter(channels, channels, 0, nSamples / 2);
+        filter.filter(channels, channels, nSamples / 2, nSamples - nSamples / 2);
+        filter.reset();
+        filter.filter(floatChannels, floatChannels, 0, nSamples);
+        for (int channel = 0; channel < nChannels; channel++) {
+            for (int i = 0; i < nSamples; i++) {
+                assertEquals(expected[i], channels[channel][i], 0.0, "channel " + channel + " sample " + i);
+                assertEquals(expected[i], floatChannels[channel][i], 1e-5, "float channel " + channel + " sample " + i);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> filter.filter(signal, output, 10, nSamples));
+        assertThrows(IllegalArgumentException.class, () -> filter.filter(signal, new double[10], 0, nSamples));
+        assertThrows(IllegalArgumentException.class, () -> filter.filter(channels, new double[2][nSamples], 0, nSamples));
+        assertThrows(IllegalArgumentException.class, () -> sosFilter.setSecondOrderSections(new double[5], directFormType));
+        assertThrows(IllegalArgumentException.class, () -> sosFilter.setSecondOrderSections(new double[6], directFormType));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Zero-phase forward-backward filtering")
+    @ValueSource(ints = { DirectFormAbstract.DIRECT_FORM_I, DirectFormAbstract.DIRECT_FORM_II })
+    public void testZeroPhaseFiltering(final int directFormType) {
+        final int nSamples = 2000;
+        final double frequency = 0.01;
+        final double[] signal = new double[nSamples];
+        final double[] noisySignal = new double[nSamples];
+        final double[] noise = generateNoise(nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            signal[i] = 1.0 + Math.sin(2 * Math.PI * frequency * i);
+            noisySignal[i] = signal[i] + 0.01 * noise[i];
+        }
+        final Butterworth filter = new Butterworth();
+        filter.lowPass(4, 1.0, 5 * frequency, directFormType);
+
+        // no phase shift (vs. approx. 7 samples group delay for the forward filter) and no edge transients
+        final double[] output = new double[nSamples];
+        filter.filtfilt(noisySignal, output, 0, nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(signal[i], output[i], 0.02, "sample " + i);
+        }
+
+        // constant signals are preserved up to the edges
+        final double[] constant = new double[nSamples];
+        Arrays.fill(constant, 3.0);
+        filter.filtfilt(constant, constant, 0, nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(3.0, constant[i], 1e-9, "constant sample " + i);
+        }
+
+        // float variant
+        final float[] floatData = new float[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            floatData[i] = (float) noisySignal[i];
+        }
+        filter.filtfilt(floatData, floatData, 0, nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            assertEquals(output[i], floatData[i], 1e-5, "float sample " + i);
+        }
+
+        // stateless w.r.t. the streaming filter
+        final Butterworth reference = new Butterworth();
+        reference.lowPass(4, 1.0, 5 * frequency, directFormType);
+        assertEquals(reference.filter(1.0), filter.filter(1.0), 0.0);
+
+        // short data
+        final double[] shortData = { 1.0, 2.0, 3.0 };
+        assertDoesNotThrow(() -> filter.filtfilt(shortData, shortData, 0, 3));
+        assertDoesNotThrow(() -> filter.filtfilt(shortData, shortData, 0, 0));
+    }
+
     private static DataSet filterAndGetMagnitudeSpectrum(final Cascade filter, final DataSet input) {
         DefaultDataSet filteredDataSet = new DefaultDataSet("filtered data");
         for (int i = 0; i < input.getDataCount(); i++) {
@@ -545,6 +684,15 @@ public class IirFilterTests {
         return DataSetMath.normalisedMagnitudeSpectrumDecibel(filteredDataSet);
     }
 
+    private static double[] generateNoise(final int nSamples) {
+        final Random rnd = new Random(1234);
+        final double[] noise = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            noise[i] = rnd.nextGaussian();
+        }
+        return noise;
+    }
+
     private static DataSet generateDemoDataSet() {
         // generate some random samples
         final double[] xValues = new double[N_SAMPLES];
@@ -0,0 +1,145 @@
+package de.gsi.math.spectra;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import de.gsi.dataset.DataSet;
+import de.gsi.dataset.spi.DoubleDataSet;
+import de.gsi.math.DataSetMath;
+
+/**
+ * Tests the {@link FFTService}
+ *
+ * @author rstein
+ */
+public class FFTServiceTests {
+    private static final double SAMPLING_FREQUENCY = 1000.0;
+
+    @ParameterizedTest
+    @CsvSource({ "1024, false, false", "1024, true, false", "1000, false, true", "1000, true, true", "4, false, false" })
+    public void testSpectrumIdentity(final int nSamples, final boolean dbScale, final boolean normalisedFrequency) {
+        final DataSet signal = generateSignal(nSamples);
+        final DataSet reference = DataSetMath.magnitudeSpectrum(signal, Apodization.Hann, dbScale, normalisedFrequency);
+
+        final DoubleDataSet output = new DoubleDataSet("spectrum");
+        final AtomicInteger nEvents = new AtomicInteger();
+        output.addListener(evt -> nEvents.incrementAndGet());
+        final FFTService fftService = new FFTService();
+        assertSame(output, fftService.computeMagnitudeSpectrum(signal, Apodization.Hann, dbScale, normalisedFrequency, 0, output));
+        assertEquals(1, nEvents.get(), "single update notification");
+
+        assertEquals(reference.getDataCount(), output.getDataCount());
+        for (int i = 0; i < reference.getDataCount(); i++) {
+            assertEquals(reference.get(DIM_X, i), output.get(DIM_X, i), 1e-9, "frequency at " + i);
+            assertEquals(reference.get(DIM_Y, i), output.get(DIM_Y, i), 1e-9, "magnitude at " + i);
+        }
+
+        // float variant
+        final float[] floatData = new float[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            floatData[i] = (float) signal.get(DIM_Y, i);
+        }
+        FFTService.computeMagnitudeSpectrum(floatData, nSamples, Apodization.Hann, dbScale);
+        for (int i = 0; i < reference.getDataCount(); i++) {
+            final double ref = reference.get(DIM_Y, i);
+            if (dbScale && ref < -80) {
+                continue; // below float precision noise floor
+            }
+            assertEquals(ref, floatData[i], dbScale ? 1e-2 : 1e-5 + 1e-4 * Math.abs(ref), "float magnitude at " + i);
+        }
+    }
+
+    @Test
+    public void testDecimationAndBufferReuse() {
+        final int nSamples = 4096;
+        final DataSet signal = generateSignal(nSamples);
+        final DataSet reference = DataSetMath.magnitudeSpectrum(signal, Apodization.Hann, true, false);
+
+        final FFTService fftService = new FFTService();
+        final DoubleDataSet output = new DoubleDataSet("spectrum", 10);
+        fftService.computeMagnitudeSpectrum(signal, Apodization.Hann, true, false, 300, output);
+        // 2048 bins -> decimation factor 7 -> 293 points
+        assertEquals(293, output.getDataCount());
+        double refMax = Double.NEGATIVE_INFINITY;
+        double refMaxFrequency = Double.NaN;
+        for (int i = 0; i < reference.getDataCount(); i++) {
+            if (reference.get(DIM_Y, i) > refMax) {
+                refMax = reference.get(DIM_Y, i);
+                refMaxFrequency = reference.get(DIM_X, i);
+            }
+        }
+        double outMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < output.getDataCount(); i++) {
+            outMax = Math.max(outMax, output.get(DIM_Y, i));
+            if (i > 0) {
+                assertTrue(output.get(DIM_X, i) > output.get(DIM_X, i - 1), "monotonic frequency axis");
+            }
+        }
+        assertEquals(refMax, outMax, 1e-9, "peak preserved by decimation");
+        assertEquals(refMaxFrequency, output.get(DIM_X, indexOf(output, outMax)), 1e-9, "peak frequency preserved");
+
+        // backing arrays are re-used for same or smaller output sizes
+        final double[] xValues = output.getValues(DIM_X);
+        final double[] yValues = output.getValues(DIM_Y);
+        fftService.computeMagnitudeSpectrum(generateSignal(2048), Apodization.Hann, false, false, 300, output);
+        assertEquals(256, output.getDataCount());
+        assertSame(xValues, output.getValues(DIM_X));
+        assertSame(yValues, output.getValues(DIM_Y));
+
+        assertThrows(IllegalArgumentException.class, () -> fftService.computeMagnitudeSpectrum(generateSignal(3), Apodization.Hann, true, false, 0, output));
+        assertThrows(IllegalArgumentException.class, () -> fftService.computeMagnitudeSpectrum(signal, Apodization.Hann, true, false, -1, output));
+        assertThrows(IllegalArgumentException.class, () -> FFTService.computeMagnitudeSpectrum(new double[8], 16, Apodization.Hann, true));
+    }
+
+    @Test
+    public void testPlanCache() {
+        FFTService.clearPlanCache();
+        assertEquals(0, FFTService.getPlanCacheSize());
+        assertSame(FFTService.getPlan(1024), FFTService.getPlan(1024));
+        assertSame(FFTService.getFloatPlan(1024), FFTService.getFloatPlan(1024));
+        assertEquals(2, FFTService.getPlanCacheSize());
+
+        for (int n = 1; n <= 2 * FFTService.MAX_CACHED_PLANS; n++) {
+            FFTService.getPlan(n);
+        }
+        assertTrue(FFTService.getPlanCacheSize() <= FFTService.MAX_CACHED_PLANS + 1, "bounded plan cache");
+
+        final double[] data = { 1, 2, 3, 4, 5, 6, 7, 8 };
+        final double[] ref = data.clone();
+        FFTService.getPlan(data.length).realForward(data);
+        FFTService.getPlan(data.length).realInverse(data, true);
+        assertArrayEquals(ref, data, 1e-12);
+        FFTService.clearPlanCache();
+        assertEquals(0, FFTService.getPlanCacheSize());
+    }
+
+    private static DataSet generateSignal(final int nSamples) {
+        final DoubleDataSet signal = new DoubleDataSet("signal", nSamples);
+        for (int i = 0; i < nSamples; i++) {
+            final double t = i / SAMPLING_FREQUENCY;
+            signal.add(t, Math.sin(2 * Math.PI * 123.4 * t) + 0.1 * Math.cos(2 * Math.PI * 321.0 * t) + 1e-3 * (i % 7));
+        }
+        return signal;
+    }
+
+    private static int indexOf(final DataSet dataSet, final double value) {
+        for (int i = 0; i < dataSet.getDataCount(); i++) {
+            if (dataSet.get(DIM_Y, i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
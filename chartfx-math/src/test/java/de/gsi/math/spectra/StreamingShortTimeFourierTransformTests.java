@@ -0,0 +1,112 @@
+package de.gsi.math.spectra;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import static de.gsi.dataset.DataSet.DIM_X;
+import static de.gsi.dataset.DataSet.DIM_Y;
+import static de.gsi.dataset.DataSet.DIM_Z;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.gsi.dataset.spi.CircularDoubleDataSet3D;
+import de.gsi.math.spectra.ShortTimeFourierTransform.Padding;
+
+/**
+ * Tests the {@link StreamingShortTimeFourierTransform} against the batch {@link ShortTimeFourierTransform}
+ *
+ * @author rstein
+ */
+public class StreamingShortTimeFourierTransformTests {
+    private static final double DT = 1e-3;
+
+    @ParameterizedTest
+    @EnumSource(Padding.class)
+    public void testStreamingIdentity(final Padding padding) {
+        final int nFFT = 128;
+        final int step = 48;
+        final int nSamples = 3000;
+        final double[] signal = generateSignal(nSamples);
+        final double[] reference = ShortTimeFourierTransform.real(signal, null, nFFT, step, Apodization.Hann, padding, true, true);
+        final int nT = reference.length / (nFFT / 2);
+
+        final StreamingShortTimeFourierTransform stft = new StreamingShortTimeFourierTransform(nFFT, step, 1000, DT, Apodization.Hann, padding, true, true);
+        final Random rnd = new Random(42);
+        int nSpectra = 0;
+        for (int offset = 0; offset < nSamples;) {
+            final int length = Math.min(nSamples - offset, rnd.nextInt(300));
+            final int nNew = stft.add(signal, offset, length);
+            offset += length;
+            // only completed frames are emitted
+            assertEquals(offset < nFFT ? 0 : (offset - nFFT) / step + 1, nSpectra + nNew);
+            nSpectra += nNew;
+        }
+        nSpectra += stft.flush();
+        assertEquals(nT, nSpectra);
+        assertEquals(nSamples, stft.getSampleCount());
+
+        final CircularDoubleDataSet3D dataSet = stft.getDataSet();
+        assertEquals(nFFT / 2, dataSet.getDataCount(DIM_X));
+        assertEquals(nT, dataSet.getDataCount(DIM_Y));
+        assertEquals(0.5 / DT * (nFFT / 2 - 1) / (nFFT / 2), dataSet.get(DIM_X, nFFT / 2 - 1), 1e-9);
+        for (int t = 0; t < nT; t++) {
+            assertEquals(DT * t * step, dataSet.get(DIM_Y, t), 1e-12);
+            for (int f = 0; f < nFFT / 2; f++) {
+                assertEquals(reference[t * nFFT / 2 + f], dataSet.getZ(f, t), 1e-9, "t = " + t + " f = " + f);
+            }
+        }
+    }
+
+    @Test
+    public void testRingBufferedHistory() {
+        final int nFFT = 64;
+        final int step = 16;
+        final int nHistory = 10;
+        final int nSamples = 2048;
+        final double[] signal = generateSignal(nSamples);
+        final double[] reference = ShortTimeFourierTransform.real(signal, null, nFFT, step, Apodization.Hann, Padding.ZERO, false, false);
+        final int nT = reference.length / (nFFT / 2);
+
+        final StreamingShortTimeFourierTransform stft = new StreamingShortTimeFourierTransform(nFFT, step, nHistory, DT, Apodization.Hann, Padding.ZERO, false, false);
+        assertEquals(nFFT, stft.getNFFT());
+        assertEquals(step, stft.getStep());
+        // single large chunk -> many new frames computed in parallel, only the latest 'nHistory' kept
+        assertEquals(nHistory, stft.add(signal, 0, nSamples - 100));
+        stft.add(signal, nSamples - 100, 100);
+        stft.flush();
+
+        final CircularDoubleDataSet3D dataSet = stft.getDataSet();
+        assertEquals(nHistory, dataSet.getDataCount(DIM_Y));
+        for (int t = 0; t < nHistory; t++) {
+            final int refT = nT - nHistory + t;
+            assertEquals(DT * refT * step, dataSet.get(DIM_Y, t), 1e-12);
+            for (int f = 0; f < nFFT / 2; f++) {
+                assertEquals(reference[refT * nFFT / 2 + f], dataSet.get(DIM_Z, t * nFFT / 2 + f), 1e-12);
+            }
+        }
+
+        stft.reset();
+        assertEquals(0, stft.getSampleCount());
+        assertEquals(0, dataSet.getDataCount(DIM_Y));
+        assertEquals(0, stft.add(new double[nFFT - 1]));
+        assertEquals(1, stft.add(0.0));
+
+        assertThrows(IllegalArgumentException.class, () -> new StreamingShortTimeFourierTransform(0, step, nHistory, DT, null, null, false, false));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingShortTimeFourierTransform(nFFT, 0, nHistory, DT, null, null, false, false));
+        assertThrows(IllegalArgumentException.class, () -> stft.add(signal, 10, nSamples));
+    }
+
+    private static double[] generateSignal(final int nSamples) {
+        final Random rnd = new Random(1234);
+        final double[] signal = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            final double t = i * DT;
+            signal[i] = Math.sin(2 * Math.PI * (50 + 100 * t) * t) + 0.1 * rnd.nextGaussian();
+        }
+        return signal;
+    }
+}
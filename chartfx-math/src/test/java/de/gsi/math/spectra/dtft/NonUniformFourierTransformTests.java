@@ -0,0 +1,126 @@
+package de.gsi.math.spectra.dtft;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Validates the fast {@link NonUniformFourierTransform} against the exact O(N * nFrequencies) evaluation and the
+ * {@link DiscreteTimeFourierTransform}
+ *
+ * @author rstein
+ */
+public class NonUniformFourierTransformTests {
+    private static final int N_SAMPLES = 2000;
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 1e-3, 1e-6, 1e-9 })
+    public void testTrigonometricSums(final double accuracy) {
+        final double[] t = generateTime(N_SAMPLES);
+        final double[] w = generateSignal(t);
+        final int nFrequencies = 1500;
+        final double df = 0.37;
+
+        final double[] cosSums = new double[nFrequencies];
+        final double[] sinSums = new double[nFrequencies];
+        NonUniformFourierTransform.computeTrigonometricSums(t, w, df, nFrequencies, accuracy, cosSums, sinSums);
+
+        double norm = 0.0;
+        for (final double value : w) {
+            norm += Math.abs(value);
+        }
+        for (int k = 0; k < nFrequencies; k++) {
+            final double omega = 2 * Math.PI * k * df;
+            double cosSum = 0.0;
+            double sinSum = 0.0;
+            for (int j = 0; j < t.length; j++) {
+                cosSum += w[j] * Math.cos(omega * t[j]);
+                sinSum += w[j] * Math.sin(omega * t[j]);
+            }
+            assertEquals(cosSum, cosSums[k], accuracy * norm, "cos sum at k = " + k);
+            assertEquals(sinSum, sinSums[k], accuracy * norm, "sin sum at k = " + k);
+        }
+    }
+
+    @Test
+    public void testFastMagnitudeSpectrum() {
+        final double[] t = generateTime(N_SAMPLES);
+        final double[] val = generateSignal(t);
+        final DiscreteTimeFourierTransform dtft = new DiscreteTimeFourierTransform();
+        final double[] frequencies = dtft.computeFrequencyRange(t);
+
+        final double[] exact = dtft.computeMagnitudeSpectrum(t, val, frequencies);
+        final double[] fast = dtft.computeMagnitudeSpectrum(t, val, frequencies, NonUniformFourierTransform.DEFAULT_ACCURACY);
+        assertEquals(exact.length, fast.length);
+        double max = 0.0;
+        int maxIndex = 0;
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals(exact[i], fast[i], 1e-5, "magnitude at f = " + frequencies[i]);
+            if (exact[i] > max) {
+                max = exact[i];
+                maxIndex = i;
+            }
+        }
+        assertEquals(123.0, frequencies[maxIndex], 1.0, "dominant frequency");
+
+        // non-equidistant frequencies -> exact fall-back
+        final double[] customFrequencies = { 1.0, 2.0, 4.0 };
+        final double[] fallBack = dtft.computeMagnitudeSpectrum(t, val, customFrequencies, 1e-6);
+        final double[] reference = dtft.computeMagnitudeSpectrum(t, val, customFrequencies);
+        for (int i = 0; i < customFrequencies.length; i++) {
+            assertEquals(reference[i], fallBack[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testHelper() {
+        assertEquals(0.5, NonUniformFourierTransform.getFrequencySpacing(new double[] { 1.0, 1.5, 2.0 }), 1e-12);
+        assertEquals(0.5, NonUniformFourierTransform.getFrequencySpacing(new double[] { 0.0, 0.5, 1.0 }), 1e-12);
+        assertTrue(Double.isNaN(NonUniformFourierTransform.getFrequencySpacing(new double[] { 0.1, 0.5, 0.9 })), "non-integer offset");
+        assertTrue(Double.isNaN(NonUniformFourierTransform.getFrequencySpacing(new double[] { 0.0, 0.5, 1.5 })), "non-equidistant");
+        assertTrue(Double.isNaN(NonUniformFourierTransform.getFrequencySpacing(new double[] { 1.0 })), "too short");
+
+        assertEquals(2, NonUniformFourierTransform.getOrder(0.5));
+        assertTrue(NonUniformFourierTransform.getOrder(1e-9) > NonUniformFourierTransform.getOrder(1e-6));
+        assertThrows(IllegalArgumentException.class, () -> NonUniformFourierTransform.getOrder(0.0));
+        assertThrows(IllegalArgumentException.class, () -> NonUniformFourierTransform.getOrder(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> NonUniformFourierTransform.computeTrigonometricSums(new double[2], new double[2], 1.0, 2, 17, 8, new double[2], new double[2]));
+
+        // extirpolation preserves polynomials up to degree order - 1
+        final double[] grid = new double[16];
+        NonUniformFourierTransform.extirpolate(2.0, 15.3, grid, 4);
+        double sum = 0.0;
+        double moment = 0.0;
+        for (int p = 0; p < grid.length; p++) {
+            sum += grid[p];
+            moment += grid[p] * (p < 8 ? p + 16 : p); // unwrapped periodic positions
+        }
+        assertEquals(2.0, sum, 1e-12);
+        assertEquals(2.0 * 15.3, moment, 1e-12);
+    }
+
+    protected static double[] generateSignal(final double[] t) {
+        final Random rnd = new Random(4321);
+        final double[] val = new double[t.length];
+        for (int i = 0; i < t.length; i++) {
+            val[i] = Math.sin(2 * Math.PI * 123.0 * t[i]) + 0.5 * Math.cos(2 * Math.PI * 42.0 * t[i]) + 0.2 * rnd.nextGaussian();
+        }
+        return val;
+    }
+
+    protected static double[] generateTime(final int nSamples) {
+        // jittered, unevenly sampled time-stamps at approx. 1 kHz with an offset
+        final Random rnd = new Random(1234);
+        final double[] t = new double[nSamples];
+        for (int i = 0; i < nSamples; i++) {
+            t[i] = 10.0 + 1e-3 * (i + 0.3 * rnd.nextDouble());
+        }
+        return t;
+    }
+}
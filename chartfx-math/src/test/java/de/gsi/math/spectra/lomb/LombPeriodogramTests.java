@@ -0,0 +1,54 @@
+package de.gsi.math.spectra.lomb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Validates the fast against the exact {@link LombPeriodogram} implementation
+ *
+ * @author rstein
+ */
+public class LombPeriodogramTests {
+    @ParameterizedTest
+    @ValueSource(doubles = { 1e-4, 1e-6, 1e-9 })
+    public void testFastPeriodogram(final double accuracy) {
+        final int nSamples = 2000;
+        final Random rnd = new Random(42);
+        final double[] t = new double[nSamples];
+        final double[] val = new double[nSamples];
+        double time = 0.0;
+        for (int i = 0; i < nSamples; i++) {
+            // uneven sampling with gaps, e.g. bursts of beam position readings
+            time += 1e-3 * (0.5 + rnd.nextDouble()) + (i % 250 == 0 ? 0.05 : 0.0);
+            t[i] = time;
+            val[i] = Math.sin(2 * Math.PI * 77.0 * time) + 0.3 * rnd.nextGaussian();
+        }
+        final double[] frequencies = LombPeriodogram.computeFrequencyRange(t);
+
+        final double[] exact = LombPeriodogram.computePeridodogram(t, val, frequencies);
+        final double[] fast = LombPeriodogram.computePeridodogram(t, val, frequencies, accuracy);
+        assertEquals(exact.length, fast.length);
+        double max = 0.0;
+        int maxIndex = 0;
+        for (int i = 0; i < exact.length; i++) {
+            if (exact[i] > max) {
+                max = exact[i];
+                maxIndex = i;
+            }
+        }
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals(exact[i], fast[i], Math.max(1e-9, 10 * accuracy) * max, "periodogram at f = " + frequencies[i]);
+        }
+        assertEquals(77.0, frequencies[maxIndex], 1.0, "dominant frequency");
+
+        // exact fall-back
+        final double[] fallBack = LombPeriodogram.computePeridodogram(t, val, frequencies, 0.0);
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals(exact[i], fallBack[i], 1e-12);
+        }
+    }
+}